@@ -0,0 +1,155 @@
+/*
+ * Copyright 2000-2016 Worth Enterprises, Inc.  All Rights Reserved.
+ */
+package com.worthent.foundation.util.state;
+
+import com.worthent.foundation.util.annotation.NotNull;
+import com.worthent.foundation.util.annotation.Nullable;
+
+import java.util.function.Consumer;
+import java.util.function.IntConsumer;
+import java.util.function.LongConsumer;
+
+/**
+ * Base class for state table data changed in place by actors.  Subclasses call the tracking methods from their setters
+ * before assigning a field so the change can be undone if the transition fails, for example:
+ * <pre>
+ *     private final IntConsumer restoreCount = value -&gt; count = value;
+ *
+ *     public void setCount(final int count) {
+ *         trackInt(restoreCount, this.count);
+ *         this.count = count;
+ *     }
+ * </pre>
+ * Changes to the current and prior state are tracked by this class.  Changes made outside a transition are not
+ * recorded.
+ *
+ * @author Erik K. Worth
+ */
+public class AbstractTransactionalStateTableData extends AbstractStateTableData
+        implements TransactionalStateTableData {
+
+    /** The changes made in the current transition */
+    private final UndoLog undoLog;
+
+    /** Restores the current state */
+    private final Consumer<String> restoreCurrentState;
+
+    /** Restores the prior state */
+    private final Consumer<String> restorePriorState;
+
+    /** Set while a transition is in progress */
+    private boolean inTransition;
+
+    /** Default constructor */
+    public AbstractTransactionalStateTableData() {
+        this(null, null);
+    }
+
+    /**
+     * Construct from components.
+     *
+     * @param currentState the state of the state table prior to processing an event
+     * @param priorState the state of the state table before processing the previous event
+     */
+    public AbstractTransactionalStateTableData(
+            @Nullable final String currentState,
+            @Nullable final String priorState) {
+        super(currentState, priorState);
+        undoLog = new UndoLog();
+        restoreCurrentState = super::setCurrentState;
+        restorePriorState = super::setPriorState;
+    }
+
+    @Override
+    public void setCurrentState(@Nullable final String currentState) {
+        track(restoreCurrentState, getCurrentState());
+        super.setCurrentState(currentState);
+    }
+
+    @Override
+    public void setPriorState(@Nullable final String priorState) {
+        track(restorePriorState, getPriorState());
+        super.setPriorState(priorState);
+    }
+
+    /** @return <code>true</code> while a transition is in progress */
+    public boolean isInTransition() {
+        return inTransition;
+    }
+
+    //
+    // TransactionalStateTableData Interface
+    //
+
+    @Override
+    public void beginTransition() {
+        if (inTransition) {
+            throw new IllegalStateException("A transition is already in progress");
+        }
+        undoLog.clear();
+        inTransition = true;
+    }
+
+    @Override
+    public void commitTransition() {
+        inTransition = false;
+        undoLog.clear();
+    }
+
+    @Override
+    public void rollbackTransition() {
+        // Stop tracking first so the restore functions do not record the changes they undo
+        inTransition = false;
+        undoLog.undo();
+    }
+
+    /**
+     * Records the prior value of an object field when a transition is in progress.
+     *
+     * @param restorer sets the field back to the prior value
+     * @param priorValue the value of the field before the change
+     * @param <T> the type of the field
+     */
+    protected final <T> void track(@NotNull final Consumer<T> restorer, @Nullable final T priorValue) {
+        if (inTransition) {
+            undoLog.record(restorer, priorValue);
+        }
+    }
+
+    /**
+     * Records the prior value of an <code>int</code> field when a transition is in progress.
+     *
+     * @param restorer sets the field back to the prior value
+     * @param priorValue the value of the field before the change
+     */
+    protected final void trackInt(@NotNull final IntConsumer restorer, final int priorValue) {
+        if (inTransition) {
+            undoLog.recordInt(restorer, priorValue);
+        }
+    }
+
+    /**
+     * Records the prior value of a <code>long</code> field when a transition is in progress.
+     *
+     * @param restorer sets the field back to the prior value
+     * @param priorValue the value of the field before the change
+     */
+    protected final void trackLong(@NotNull final LongConsumer restorer, final long priorValue) {
+        if (inTransition) {
+            undoLog.recordLong(restorer, priorValue);
+        }
+    }
+
+    /**
+     * Records an action that compensates for a change that is not a simple field assignment when a transition is in
+     * progress.
+     *
+     * @param compensation undoes the change
+     */
+    protected final void trackAction(@NotNull final Runnable compensation) {
+        if (inTransition) {
+            undoLog.recordAction(compensation);
+        }
+    }
+}
@@ -0,0 +1,58 @@
+/*
+ * Copyright 2000-2016 Worth Enterprises, Inc.  All Rights Reserved.
+ */
+package com.worthent.foundation.util.state;
+
+import com.worthent.foundation.util.annotation.NotNull;
+import com.worthent.foundation.util.annotation.Nullable;
+
+/**
+ * A simple JavaBean holding the current and prior state of a state table instance along with the version used to
+ * commit updates in optimistic concurrency mode.
+ *
+ * @see VersionedStateTableData
+ *
+ * @author Erik K. Worth
+ */
+public class AbstractVersionedStateTableData extends AbstractStateTableData implements VersionedStateTableData {
+
+    /** The version of the committed data from which this data object originates */
+    private long version;
+
+    /** Default constructor */
+    public AbstractVersionedStateTableData() {
+        super();
+        version = 0L;
+    }
+
+    /**
+     * Construct from components.
+     *
+     * @param currentState the state of the state table prior to processing an event
+     * @param priorState the state of the state table before processing the previous event
+     */
+    public AbstractVersionedStateTableData(@Nullable final String currentState, @Nullable final String priorState) {
+        super(currentState, priorState);
+        version = 0L;
+    }
+
+    /**
+     * Copy constructor that also copies the version.
+     *
+     * @param other the other state table data to copy
+     */
+    public AbstractVersionedStateTableData(@NotNull final AbstractVersionedStateTableData other) {
+        super(other);
+        this.version = other.version;
+    }
+
+    @Override
+    public long getVersion() {
+        return version;
+    }
+
+    @Override
+    public void setVersion(final long version) {
+        this.version = version;
+    }
+}
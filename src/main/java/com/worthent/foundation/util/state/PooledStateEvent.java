@@ -0,0 +1,74 @@
+/*
+ * Copyright 2000-2016 Worth Enterprises, Inc.  All Rights Reserved.
+ */
+package com.worthent.foundation.util.state;
+
+import com.worthent.foundation.util.annotation.NotNull;
+import com.worthent.foundation.util.annotation.Nullable;
+
+/**
+ * A mutable {@link SlottedStateEvent} acquired from a {@link StateEventPool} and returned to it with
+ * {@link #recycle}.
+ *
+ * @author Erik K. Worth
+ */
+public interface PooledStateEvent extends SlottedStateEvent {
+
+    /**
+     * Sets the value in a slot.  Values for primitive fields must be the matching boxed type.
+     *
+     * @param slot the slot of the field
+     * @param value the value of the field
+     * @return a reference to this event
+     * @throws IllegalArgumentException when the value is not assignable to the declared type of the field
+     */
+    @NotNull
+    PooledStateEvent setValue(int slot, @Nullable Object value);
+
+    /**
+     * Sets the value of a field declared as an <code>int</code>.
+     *
+     * @param slot the slot of the field
+     * @param value the value of the field
+     * @return a reference to this event
+     */
+    @NotNull
+    PooledStateEvent setInt(int slot, int value);
+
+    /**
+     * Sets the value of a field declared as a <code>long</code>.
+     *
+     * @param slot the slot of the field
+     * @param value the value of the field
+     * @return a reference to this event
+     */
+    @NotNull
+    PooledStateEvent setLong(int slot, long value);
+
+    /**
+     * Sets the value of a field declared as a <code>double</code>.
+     *
+     * @param slot the slot of the field
+     * @param value the value of the field
+     * @return a reference to this event
+     */
+    @NotNull
+    PooledStateEvent setDouble(int slot, double value);
+
+    /**
+     * Sets the value of a field declared as a <code>boolean</code>.
+     *
+     * @param slot the slot of the field
+     * @param value the value of the field
+     * @return a reference to this event
+     */
+    @NotNull
+    PooledStateEvent setBoolean(int slot, boolean value);
+
+    /**
+     * Clears the fields and returns this event to its pool.
+     *
+     * @throws IllegalStateException when the event was already recycled
+     */
+    void recycle();
+}
@@ -0,0 +1,75 @@
+/*
+ * Copyright 2000-2016 Worth Enterprises, Inc.  All Rights Reserved.
+ */
+package com.worthent.foundation.util.state;
+
+import com.worthent.foundation.util.annotation.NotNull;
+import com.worthent.foundation.util.annotation.Nullable;
+
+/**
+ * An event whose data is held in the array slots declared by a {@link StateEventSchema}.  The typed accessors read a
+ * slot directly without hashing a key or unboxing a value.  The methods inherited from {@link StateEventWithDataMap}
+ * remain available for existing actors, but look fields up by name and box primitive values.
+ *
+ * @author Erik K. Worth
+ */
+public interface SlottedStateEvent extends StateEventWithDataMap {
+
+    /** @return the schema describing the fields of this event */
+    @NotNull
+    StateEventSchema getSchema();
+
+    /**
+     * Returns the value in a slot, boxing primitive values.
+     *
+     * @param slot the slot of the field
+     * @param <T> the type of the field
+     * @return the value in the slot or <code>null</code> when the field is not set
+     */
+    @Nullable
+    <T> T getValue(int slot);
+
+    /**
+     * Returns the value in a slot declared as an <code>int</code>.
+     *
+     * @param slot the slot of the field
+     * @return the value in the slot or zero when not set
+     * @throws IllegalArgumentException when the field is not declared as an <code>int</code>
+     */
+    int getInt(int slot);
+
+    /**
+     * Returns the value in a slot declared as an <code>int</code> or a <code>long</code>.
+     *
+     * @param slot the slot of the field
+     * @return the value in the slot or zero when not set
+     * @throws IllegalArgumentException when the field is not declared as an <code>int</code> or <code>long</code>
+     */
+    long getLong(int slot);
+
+    /**
+     * Returns the value in a slot declared as a <code>double</code>.
+     *
+     * @param slot the slot of the field
+     * @return the value in the slot or zero when not set
+     * @throws IllegalArgumentException when the field is not declared as a <code>double</code>
+     */
+    double getDouble(int slot);
+
+    /**
+     * Returns the value in a slot declared as a <code>boolean</code>.
+     *
+     * @param slot the slot of the field
+     * @return the value in the slot or <code>false</code> when not set
+     * @throws IllegalArgumentException when the field is not declared as a <code>boolean</code>
+     */
+    boolean getBoolean(int slot);
+
+    /**
+     * Returns whether a value has been set in a slot.
+     *
+     * @param slot the slot of the field
+     * @return <code>true</code> when a value has been set in the slot
+     */
+    boolean isSet(int slot);
+}
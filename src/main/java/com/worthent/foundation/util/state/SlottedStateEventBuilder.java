@@ -0,0 +1,80 @@
+/*
+ * Copyright 2000-2016 Worth Enterprises, Inc.  All Rights Reserved.
+ */
+package com.worthent.foundation.util.state;
+
+import com.worthent.foundation.util.annotation.NotNull;
+import com.worthent.foundation.util.annotation.Nullable;
+
+/**
+ * Specifies the methods used to build an immutable {@link SlottedStateEvent}.  The builder may be reused after
+ * {@link #build} to build more events with the same or changed values.
+ *
+ * @author Erik K. Worth
+ */
+public interface SlottedStateEventBuilder extends StateEventBuilder<SlottedStateEvent>, SlottedStateEvent {
+
+    /**
+     * Sets the value in a slot.  Values for primitive fields must be the matching boxed type.
+     *
+     * @param slot the slot of the field
+     * @param value the value of the field
+     * @return a reference to this builder
+     * @throws IllegalArgumentException when the value is not assignable to the declared type of the field
+     */
+    @NotNull
+    SlottedStateEventBuilder withValue(int slot, @Nullable Object value);
+
+    /**
+     * Sets the value of a field declared as an <code>int</code>.
+     *
+     * @param slot the slot of the field
+     * @param value the value of the field
+     * @return a reference to this builder
+     */
+    @NotNull
+    SlottedStateEventBuilder withInt(int slot, int value);
+
+    /**
+     * Sets the value of a field declared as a <code>long</code>.
+     *
+     * @param slot the slot of the field
+     * @param value the value of the field
+     * @return a reference to this builder
+     */
+    @NotNull
+    SlottedStateEventBuilder withLong(int slot, long value);
+
+    /**
+     * Sets the value of a field declared as a <code>double</code>.
+     *
+     * @param slot the slot of the field
+     * @param value the value of the field
+     * @return a reference to this builder
+     */
+    @NotNull
+    SlottedStateEventBuilder withDouble(int slot, double value);
+
+    /**
+     * Sets the value of a field declared as a <code>boolean</code>.
+     *
+     * @param slot the slot of the field
+     * @param value the value of the field
+     * @return a reference to this builder
+     */
+    @NotNull
+    SlottedStateEventBuilder withBoolean(int slot, boolean value);
+
+    /**
+     * Sets the value of a field by its name.
+     *
+     * @param name the name of the field
+     * @param value the value of the field
+     * @return a reference to this builder
+     * @throws IllegalArgumentException when the schema does not declare the field or the value is not assignable to
+     *                                  the declared type of the field
+     */
+    @Override
+    @NotNull
+    SlottedStateEventBuilder withEventData(@NotNull String name, @Nullable Object value);
+}
@@ -0,0 +1,28 @@
+/*
+ * Copyright 2000-2016 Worth Enterprises, Inc.  All Rights Reserved.
+ */
+package com.worthent.foundation.util.state;
+
+/**
+ * Thrown by an optimistic data manager when it is unable to commit an updated copy of the state table data because
+ * another transition committed a newer version of the data first. The state engine does not treat this as an error
+ * and does not invoke the error handler. The control that fed the event retries the transition instead.
+ *
+ * @see com.worthent.foundation.util.state.data.OptimisticStateTableDataManager
+ *
+ * @author Erik K. Worth
+ */
+public class StateConflictException extends StateExeException {
+
+    /** Serial ID */
+    private static final long serialVersionUID = 3182641870326519530L;
+
+    /**
+     * Constructs a new exception with the specified detail message.
+     *
+     * @param message the detail message
+     */
+    public StateConflictException(final String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,32 @@
+/*
+ * Copyright 2000-2016 Worth Enterprises, Inc.  All Rights Reserved.
+ */
+package com.worthent.foundation.util.state;
+
+import com.worthent.foundation.util.annotation.NotNull;
+
+/**
+ * A pool of mutable, recyclable events with the same {@link StateEventSchema} for producers signaling events at rates
+ * where allocating each event matters.  An event is acquired, filled in, signaled and then recycled once the state
+ * table has finished with it.  With a control that processes the event before {@link StateTableControl#signalEvent}
+ * returns, the producer recycles the event after the call.  With a control that queues events for another thread, the
+ * last actor to use the event must recycle it.  An event must not be used after it is recycled.
+ * <p>
+ * Pools are thread safe.  When the pool is empty a new event is allocated, and when the pool is full a recycled event
+ * is left for the garbage collector.
+ *
+ * @author Erik K. Worth
+ */
+public interface StateEventPool {
+
+    /** @return the schema of the events in this pool */
+    @NotNull
+    StateEventSchema getSchema();
+
+    /** @return an event with no fields set, reused from the pool when one is available */
+    @NotNull
+    PooledStateEvent acquire();
+
+    /** @return the number of idle events in the pool */
+    int getIdleCount();
+}
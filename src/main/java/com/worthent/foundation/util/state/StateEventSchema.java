@@ -0,0 +1,67 @@
+/*
+ * Copyright 2000-2016 Worth Enterprises, Inc.  All Rights Reserved.
+ */
+package com.worthent.foundation.util.state;
+
+import com.worthent.foundation.util.annotation.NotNull;
+
+/**
+ * Declares the name and the fields of an event once so that events with that shape can carry their data in array slots
+ * rather than in a map. Actors resolve the slot of each field once, typically into a constant, and then read the data
+ * through the typed, index-based accessors on {@link SlottedStateEvent}. Fields declared with a primitive type are
+ * stored without boxing.
+ * <p>
+ * Schemas are immutable and thread safe.  Create them with {@link StateEvents#schema}.
+ *
+ * @author Erik K. Worth
+ */
+public interface StateEventSchema {
+
+    /** @return the name of the events described by this schema */
+    @NotNull
+    String getEventName();
+
+    /** @return the number of fields declared by this schema */
+    int getFieldCount();
+
+    /**
+     * Returns the slot holding the named field.
+     *
+     * @param fieldName the name of the field
+     * @return the slot holding the field or -1 when the schema does not declare the field
+     */
+    int slotOf(@NotNull String fieldName);
+
+    /**
+     * Returns the name of the field in the specified slot.
+     *
+     * @param slot the slot of the field
+     * @return the name of the field in the specified slot
+     * @throws IndexOutOfBoundsException when the slot is not in this schema
+     */
+    @NotNull
+    String getFieldName(int slot);
+
+    /**
+     * Returns the declared type of the field in the specified slot, which may be a primitive type.
+     *
+     * @param slot the slot of the field
+     * @return the declared type of the field in the specified slot
+     * @throws IndexOutOfBoundsException when the slot is not in this schema
+     */
+    @NotNull
+    Class<?> getFieldType(int slot);
+
+    /** @return a new builder for an immutable event with this schema */
+    @NotNull
+    SlottedStateEventBuilder builder();
+
+    /**
+     * Returns a new pool of recyclable events with this schema for producers that signal events at a high rate.
+     *
+     * @param capacity the maximum number of idle events retained by the pool
+     * @return a new pool of recyclable events with this schema
+     */
+    @NotNull
+    StateEventPool newPool(int capacity);
+}
@@ -0,0 +1,34 @@
+/*
+ * Copyright 2000-2016 Worth Enterprises, Inc.  All Rights Reserved.
+ */
+package com.worthent.foundation.util.state;
+
+import com.worthent.foundation.util.annotation.NotNull;
+
+/**
+ * Specifies the methods used to declare the fields of a {@link StateEventSchema}.  The fields are assigned slots in
+ * the order they are declared.
+ *
+ * @author Erik K. Worth
+ */
+public interface StateEventSchemaBuilder {
+
+    /**
+     * Declares a field.  Declare fields holding numbers or flags with the primitive types <code>int.class</code>,
+     * <code>long.class</code>, <code>double.class</code> or <code>boolean.class</code> to store them without boxing.
+     *
+     * @param fieldName the name of the field, which must be unique in the schema
+     * @param fieldType the type of the field
+     * @return a reference to this builder
+     */
+    @NotNull
+    StateEventSchemaBuilder withField(@NotNull String fieldName, @NotNull Class<?> fieldType);
+
+    /**
+     * Returns the schema with the declared fields.
+     *
+     * @return the schema with the declared fields
+     */
+    @NotNull
+    StateEventSchema build();
+}
@@ -6,6 +6,7 @@ package com.worthent.foundation.util.state;
 import com.worthent.foundation.util.annotation.NotNull;
 import com.worthent.foundation.util.state.impl.StateEventBuilderImpl;
 import com.worthent.foundation.util.state.impl.StateEventEnumImpl;
+import com.worthent.foundation.util.state.impl.StateEventSchemaBuilderImpl;
 
 /**
  * Factory for state table event construction.
@@ -34,4 +35,17 @@ public class StateEvents {
     public static StateEventBuilder builder(@NotNull final String eventName) {
         return new StateEventBuilderImpl(eventName);
     }
+
+    /**
+     * Return the builder for the schema of events with the specified name.  Events built from a schema hold their
+     * data in array slots with typed accessors, which avoids the map allocated for each event returned from
+     * {@link #builder}.
+     *
+     * @param eventName the event identifier
+     * @return the builder for the schema of events with the specified name
+     */
+    @NotNull
+    public static StateEventSchemaBuilder schema(@NotNull final String eventName) {
+        return new StateEventSchemaBuilderImpl(eventName);
+    }
 }
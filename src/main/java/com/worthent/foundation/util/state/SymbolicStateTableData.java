@@ -0,0 +1,39 @@
+/*
+ * Copyright 2000-2016 Worth Enterprises, Inc.  All Rights Reserved.
+ */
+package com.worthent.foundation.util.state;
+
+import com.worthent.foundation.util.annotation.Nullable;
+import com.worthent.foundation.util.state.def.StateId;
+
+/**
+ * State table data that stores its current and prior states as the interned {@link StateId} symbols created by the
+ * state table definition rather than as strings.  The engine looks up the current state by the symbol's ordinal
+ * instead of hashing its name, and every instance in the same state shares one symbol.
+ *
+ * @author Erik K. Worth
+ */
+public interface SymbolicStateTableData extends StateTableData {
+
+    /** @return the symbol for the current state or <code>null</code> when not yet set */
+    @Nullable
+    StateId getCurrentStateId();
+
+    /**
+     * Sets the current state.
+     *
+     * @param currentStateId the symbol for the current state
+     */
+    void setCurrentStateId(@Nullable StateId currentStateId);
+
+    /** @return the symbol for the prior state or <code>null</code> when not yet set */
+    @Nullable
+    StateId getPriorStateId();
+
+    /**
+     * Sets the prior state.
+     *
+     * @param priorStateId the symbol for the prior state
+     */
+    void setPriorStateId(@Nullable StateId priorStateId);
+}
@@ -0,0 +1,30 @@
+/*
+ * Copyright 2000-2016 Worth Enterprises, Inc.  All Rights Reserved.
+ */
+package com.worthent.foundation.util.state;
+
+/**
+ * Specifies state table data that actors change in place and that can undo those changes when a transition fails.
+ * When the data manager provides data implementing this interface, the state engine begins a transition before running
+ * the actors, commits it once the data manager has accepted the data and rolls it back when anything fails.  This
+ * gives the same all-or-nothing behavior as having the data getter return a copy, without copying the data for every
+ * event.
+ * <p>
+ * In this mode the data getter returns the live data object and the data setter has nothing to do.  The control must
+ * not process events for the same data on more than one thread at a time.
+ *
+ * @see AbstractTransactionalStateTableData
+ *
+ * @author Erik K. Worth
+ */
+public interface TransactionalStateTableData extends StateTableData {
+
+    /** Starts recording the changes made to the data */
+    void beginTransition();
+
+    /** Keeps the changes made since {@link #beginTransition} and stops recording */
+    void commitTransition();
+
+    /** Undoes the changes made since {@link #beginTransition} and stops recording */
+    void rollbackTransition();
+}
@@ -20,6 +20,16 @@ public interface TransitionActor<D extends StateTableData, E extends StateEvent>
     @NotNull
     default String getName() {return UNNAMED;}
 
+    /**
+     * Returns <code>true</code> when the actor may safely be invoked more than once for the same event. Controls
+     * processing events in optimistic concurrency mode run the whole transition again when another thread commits
+     * first, so they only accept tables where every actor confines its effects to the state table data copy in the
+     * transition context.
+     *
+     * @return <code>true</code> when the actor may safely be invoked more than once for the same event
+     */
+    default boolean isRetrySafe() {return false;}
+
     /**
      * This method is called to take action on a state transition.
      * <p>
@@ -0,0 +1,160 @@
+/*
+ * Copyright 2000-2016 Worth Enterprises, Inc.  All Rights Reserved.
+ */
+package com.worthent.foundation.util.state;
+
+import com.worthent.foundation.util.annotation.NotNull;
+import com.worthent.foundation.util.annotation.Nullable;
+
+import java.util.Arrays;
+import java.util.function.Consumer;
+import java.util.function.IntConsumer;
+import java.util.function.LongConsumer;
+
+import static com.worthent.foundation.util.condition.Preconditions.checkNotNull;
+
+/**
+ * A reusable log of the prior values of the fields changed during a state transition, used by
+ * {@link AbstractTransactionalStateTableData} to undo the changes when the transition fails.  Each entry pairs the
+ * function that restores a field with the value to restore.  Keep the restore functions in fields of the data object
+ * so that recording a change does not allocate.  Primitive values are held without boxing.
+ * <p>
+ * The log grows to the largest number of changes made in one transition and is then reused.  It is not thread safe.
+ *
+ * @author Erik K. Worth
+ */
+public final class UndoLog {
+
+    /** The initial number of entries */
+    private static final int INITIAL_CAPACITY = 8;
+
+    /** The entry restores an object value */
+    private static final byte OBJECT = 0;
+
+    /** The entry restores an <code>int</code> value */
+    private static final byte INT = 1;
+
+    /** The entry restores a <code>long</code> value */
+    private static final byte LONG = 2;
+
+    /** The entry runs a compensating action */
+    private static final byte ACTION = 3;
+
+    /** The kind of each entry */
+    private byte[] kinds;
+
+    /** The restore function of each entry */
+    private Object[] restorers;
+
+    /** The object value of each entry */
+    private Object[] objectValues;
+
+    /** The primitive value of each entry */
+    private long[] primitiveValues;
+
+    /** The number of entries */
+    private int size;
+
+    /** Construct an empty log */
+    public UndoLog() {
+        kinds = new byte[INITIAL_CAPACITY];
+        restorers = new Object[INITIAL_CAPACITY];
+        objectValues = new Object[INITIAL_CAPACITY];
+        primitiveValues = new long[INITIAL_CAPACITY];
+        size = 0;
+    }
+
+    /**
+     * Records the prior value of an object field.
+     *
+     * @param restorer sets the field back to the prior value
+     * @param priorValue the value of the field before the change
+     * @param <T> the type of the field
+     */
+    public <T> void record(@NotNull final Consumer<T> restorer, @Nullable final T priorValue) {
+        final int index = append(OBJECT, checkNotNull(restorer, "restorer must not be null"));
+        objectValues[index] = priorValue;
+    }
+
+    /**
+     * Records the prior value of an <code>int</code> field.
+     *
+     * @param restorer sets the field back to the prior value
+     * @param priorValue the value of the field before the change
+     */
+    public void recordInt(@NotNull final IntConsumer restorer, final int priorValue) {
+        final int index = append(INT, checkNotNull(restorer, "restorer must not be null"));
+        primitiveValues[index] = priorValue;
+    }
+
+    /**
+     * Records the prior value of a <code>long</code> field.
+     *
+     * @param restorer sets the field back to the prior value
+     * @param priorValue the value of the field before the change
+     */
+    public void recordLong(@NotNull final LongConsumer restorer, final long priorValue) {
+        final int index = append(LONG, checkNotNull(restorer, "restorer must not be null"));
+        primitiveValues[index] = priorValue;
+    }
+
+    /**
+     * Records an action that compensates for a change that is not a simple field assignment, such as adding an
+     * element to a collection.
+     *
+     * @param compensation undoes the change
+     */
+    public void recordAction(@NotNull final Runnable compensation) {
+        append(ACTION, checkNotNull(compensation, "compensation must not be null"));
+    }
+
+    /** @return the number of changes recorded since the log was last cleared */
+    public int size() {
+        return size;
+    }
+
+    /** Discards the recorded changes, keeping them in effect */
+    public void clear() {
+        Arrays.fill(restorers, 0, size, null);
+        Arrays.fill(objectValues, 0, size, null);
+        size = 0;
+    }
+
+    /** Undoes the recorded changes, most recent first, and then clears the log */
+    @SuppressWarnings("unchecked")
+    public void undo() {
+        try {
+            for (int i = size - 1; i >= 0; i--) {
+                switch (kinds[i]) {
+                    case INT:
+                        ((IntConsumer) restorers[i]).accept((int) primitiveValues[i]);
+                        break;
+                    case LONG:
+                        ((LongConsumer) restorers[i]).accept(primitiveValues[i]);
+                        break;
+                    case ACTION:
+                        ((Runnable) restorers[i]).run();
+                        break;
+                    default:
+                        ((Consumer<Object>) restorers[i]).accept(objectValues[i]);
+                }
+            }
+        } finally {
+            clear();
+        }
+    }
+
+    /** Appends an entry and returns its index */
+    private int append(final byte kind, final Object restorer) {
+        if (size == kinds.length) {
+            final int capacity = size * 2;
+            kinds = Arrays.copyOf(kinds, capacity);
+            restorers = Arrays.copyOf(restorers, capacity);
+            objectValues = Arrays.copyOf(objectValues, capacity);
+            primitiveValues = Arrays.copyOf(primitiveValues, capacity);
+        }
+        kinds[size] = kind;
+        restorers[size] = restorer;
+        return size++;
+    }
+}
@@ -0,0 +1,33 @@
+/*
+ * Copyright 2000-2016 Worth Enterprises, Inc.  All Rights Reserved.
+ */
+package com.worthent.foundation.util.state;
+
+/**
+ * Specifies the state table data for state tables processed in optimistic concurrency mode. The data object carries
+ * a version that is advanced each time an updated copy of the data is committed. The data manager compares the
+ * version of the copy being committed with the version currently committed to detect that another thread committed
+ * a transition on the same state table instance in the meantime.
+ *
+ * @see com.worthent.foundation.util.state.data.OptimisticStateTableDataManager
+ * @see com.worthent.foundation.util.state.provider.OptimisticStateTableControl
+ *
+ * @author Erik K. Worth
+ */
+public interface VersionedStateTableData extends StateTableData {
+
+    /**
+     * Returns the version of the data object. Copies of the data carry the version of the committed data from which
+     * they were copied.
+     *
+     * @return the version of the data object
+     */
+    long getVersion();
+
+    /**
+     * Sets the version of the data object. This is called by the data manager when a copy is committed.
+     *
+     * @param version the new version of the data object
+     */
+    void setVersion(long version);
+}
@@ -17,4 +17,10 @@ import java.lang.annotation.Target;
 public @interface Actor {
     /** @return the name of the state transition actor */
     String name() default TransitionActor.UNNAMED;
+
+    /**
+     * @return <code>true</code> when the actor method only modifies the state table data and may be invoked again
+     * when a transition is retried in optimistic concurrency mode
+     */
+    boolean retrySafe() default false;
 }
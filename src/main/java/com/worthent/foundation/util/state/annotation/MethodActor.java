@@ -36,6 +36,9 @@ public class MethodActor<D extends StateTableData, E extends StateEvent> impleme
     /** The actor name */
     private final String name;
 
+    /** Set <code>true</code> when the actor method may be invoked again when a transition is retried */
+    private final boolean retrySafe;
+
     /**
      * Constructs a transition actor able to invoke a method annotated as a
      * transition actor.
@@ -44,16 +47,36 @@ public class MethodActor<D extends StateTableData, E extends StateEvent> impleme
      * @param actorClass the class with the non-static actor method
      * @param actorMethod the annotated actor method
      * @param name the name of the actor
+     * @param retrySafe set <code>true</code> when the actor method may be invoked again when a transition is retried
      */
     public MethodActor(
             @NotNull  final ArgumentType argumentType,
             @Nullable final Class<?> actorClass,
             @NotNull  final Method actorMethod,
-            @NotNull  final String name) {
+            @NotNull  final String name,
+            final boolean retrySafe) {
         this.argumentType = checkNotNull(argumentType, "argumentType must not be null");
         this.actorClass = actorClass;
         this.actorMethod = checkNotNull(actorMethod, "actorMethod must not be null");
         this.name = checkNotNull(name, "name must not be null");
+        this.retrySafe = retrySafe;
+    }
+
+    /**
+     * Constructs a transition actor able to invoke a method annotated as a
+     * transition actor.
+     *
+     * @param argumentType the type of argument the actor method expects
+     * @param actorClass the class with the non-static actor method
+     * @param actorMethod the annotated actor method
+     * @param name the name of the actor
+     */
+    public MethodActor(
+            @NotNull  final ArgumentType argumentType,
+            @Nullable final Class<?> actorClass,
+            @NotNull  final Method actorMethod,
+            @NotNull  final String name) {
+        this(argumentType, actorClass, actorMethod, name, false);
     }
 
     /**
@@ -68,7 +91,7 @@ public class MethodActor<D extends StateTableData, E extends StateEvent> impleme
             @NotNull final ArgumentType argumentType,
             @NotNull final Method actorMethod,
             @NotNull final String name) {
-        this(argumentType, null, actorMethod, name);
+        this(argumentType, null, actorMethod, name, false);
     }
 
     @Override
@@ -77,6 +100,29 @@ public class MethodActor<D extends StateTableData, E extends StateEvent> impleme
         return name;
     }
 
+    /** @return the type of argument the actor method expects */
+    @NotNull
+    public ArgumentType getArgumentType() {
+        return argumentType;
+    }
+
+    /** @return the class with the non-static actor method or <code>null</code> when the method is static */
+    @Nullable
+    public Class<?> getActorClass() {
+        return actorClass;
+    }
+
+    /** @return the annotated actor method */
+    @NotNull
+    public Method getActorMethod() {
+        return actorMethod;
+    }
+
+    @Override
+    public boolean isRetrySafe() {
+        return retrySafe;
+    }
+
     @Override
     public void onAction(@NotNull final TransitionContext<D, E> context) throws StateExeException {
         checkNotNull(context, "context must not be null");
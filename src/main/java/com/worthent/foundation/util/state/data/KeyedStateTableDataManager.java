@@ -0,0 +1,56 @@
+/*
+ * Copyright 2000-2016 Worth Enterprises, Inc.  All Rights Reserved.
+ */
+package com.worthent.foundation.util.state.data;
+
+import com.worthent.foundation.util.annotation.NotNull;
+import com.worthent.foundation.util.state.StateEvent;
+import com.worthent.foundation.util.state.StateExeException;
+import com.worthent.foundation.util.state.StateTableData;
+
+/**
+ * Specifies a data manager holding the data for many state table instances, each identified by a key taken from the
+ * events sent to it.  Each instance is initialized on its own, so a large population can be brought up in parallel
+ * while the state table already processes events for the instances that are ready.  Events for an instance that has
+ * not been initialized are rejected.
+ *
+ * @param <K> the type of key identifying a state table instance
+ * @param <D> the type of state table data
+ * @param <E> the type of event
+ *
+ * @author Erik K. Worth
+ */
+public interface KeyedStateTableDataManager<K, D extends StateTableData, E extends StateEvent>
+        extends StateTableDataManager<D, E> {
+
+    /**
+     * Returns the key of the state table instance for the event.
+     *
+     * @param event the event
+     * @return the key of the state table instance for the event
+     * @throws StateExeException thrown when the event does not identify a state table instance
+     */
+    @NotNull
+    K getKey(@NotNull E event) throws StateExeException;
+
+    /**
+     * Creates the data for the state table instance in the specified state, replacing any existing data for the key.
+     * Events for the instance are accepted once this returns.
+     *
+     * @param key the key of the state table instance
+     * @param initialState the name of the state in which to start the instance
+     * @throws StateExeException thrown when there is an error creating the data
+     */
+    void initializeStateTableData(@NotNull K key, @NotNull String initialState) throws StateExeException;
+
+    /**
+     * Returns <code>true</code> when the state table instance has been initialized.
+     *
+     * @param key the key of the state table instance
+     * @return <code>true</code> when the state table instance has been initialized
+     */
+    boolean isInitialized(@NotNull K key);
+
+    /** @return the number of initialized state table instances */
+    int getInstanceCount();
+}
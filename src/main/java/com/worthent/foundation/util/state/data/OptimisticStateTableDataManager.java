@@ -0,0 +1,50 @@
+/*
+ * Copyright 2000-2016 Worth Enterprises, Inc.  All Rights Reserved.
+ */
+package com.worthent.foundation.util.state.data;
+
+import com.worthent.foundation.util.annotation.NotNull;
+import com.worthent.foundation.util.state.StateConflictException;
+import com.worthent.foundation.util.state.StateEvent;
+import com.worthent.foundation.util.state.StateExeException;
+import com.worthent.foundation.util.state.VersionedStateTableData;
+
+/**
+ * Specifies a data manager that supports processing events in optimistic concurrency mode. The data manager hands
+ * each transition a private copy of the data that carries the version of the committed data from which it was copied.
+ * The copy is committed with compare-and-set semantics so that the commit only succeeds when no other transition
+ * committed a newer version of the data in the meantime.
+ *
+ * @see com.worthent.foundation.util.state.provider.OptimisticStateTableControl
+ *
+ * @author Erik K. Worth
+ */
+public interface OptimisticStateTableDataManager<D extends VersionedStateTableData, E extends StateEvent>
+        extends StateTableDataManager<D, E> {
+
+    /**
+     * Returns a private copy of the committed state table data for the state table instance associated with the
+     * event. The copy carries the version of the committed data.
+     *
+     * @param event the event being processed
+     * @return a private copy of the committed state table data
+     *
+     * @throws StateExeException thrown when there is an error retrieving the state table data
+     */
+    @NotNull
+    @Override
+    D getStateTableData(@NotNull E event) throws StateExeException;
+
+    /**
+     * Commits the updated copy of the state table data if and only if the committed data still has the version
+     * carried by the copy. The version of the copy is advanced when it is committed.
+     *
+     * @param event the event that triggered the state table to update its data
+     * @param dataObject the updated copy of the state table data
+     *
+     * @throws StateConflictException thrown when another transition committed a newer version of the data first
+     * @throws StateExeException thrown when there is an error setting the state table data
+     */
+    @Override
+    void setStateTableData(@NotNull E event, @NotNull D dataObject) throws StateExeException;
+}
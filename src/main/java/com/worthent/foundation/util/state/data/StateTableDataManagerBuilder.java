@@ -44,6 +44,20 @@ public interface StateTableDataManagerBuilder<D extends StateTableData, E extend
     @NotNull
     StateTableDataManagerBuilder<D, E> withDataSetter(@NotNull BiConsumer<E, D> dataSetterConsumer);
 
+    /**
+     * Directs the builder to decorate the data manager with striped locks so that events may be processed on the
+     * threads that signal them with a
+     * {@link com.worthent.foundation.util.state.provider.StripedLockStateTableControl}. Events for state table
+     * instances with keys on different stripes proceed in parallel while events for the same key serialize.
+     *
+     * @param keyFunction the function that returns the key identifying the state table instance from the event
+     * @param stripeCount the minimum number of stripes, which is rounded up to the next power of two and may not exceed
+     *                    {@link com.worthent.foundation.util.state.data.impl.StripedLockStateTableDataManager#MAX_STRIPES}
+     * @return a reference to this builder
+     */
+    @NotNull
+    StateTableDataManagerBuilder<D, E> withStripedLocking(@NotNull Function<E, ?> keyFunction, int stripeCount);
+
     /**
      * Return the state table builder that launched this builder after setting the state table manager
      *
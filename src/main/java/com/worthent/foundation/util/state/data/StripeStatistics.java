@@ -0,0 +1,78 @@
+/*
+ * Copyright 2000-2016 Worth Enterprises, Inc.  All Rights Reserved.
+ */
+package com.worthent.foundation.util.state.data;
+
+/**
+ * Immutable snapshot of the lock contention metrics for one stripe of a striped-lock data manager. Use these to size
+ * the stripe count: a high ratio of contended acquisitions on stripes that hold unrelated keys indicates that there
+ * are too few stripes.
+ *
+ * @author Erik K. Worth
+ */
+public final class StripeStatistics {
+
+    /** The index of the stripe */
+    private final int stripe;
+
+    /** The number of times the stripe lock was acquired */
+    private final long acquisitions;
+
+    /** The number of times the stripe lock was held by another thread when requested */
+    private final long contendedAcquisitions;
+
+    /** The total time in nanoseconds threads waited to acquire the stripe lock */
+    private final long waitNanos;
+
+    /**
+     * Construct from components.
+     *
+     * @param stripe the index of the stripe
+     * @param acquisitions the number of times the stripe lock was acquired
+     * @param contendedAcquisitions the number of times the stripe lock was held by another thread when requested
+     * @param waitNanos the total time in nanoseconds threads waited to acquire the stripe lock
+     */
+    public StripeStatistics(
+            final int stripe,
+            final long acquisitions,
+            final long contendedAcquisitions,
+            final long waitNanos) {
+        this.stripe = stripe;
+        this.acquisitions = acquisitions;
+        this.contendedAcquisitions = contendedAcquisitions;
+        this.waitNanos = waitNanos;
+    }
+
+    /** @return the index of the stripe */
+    public int getStripe() {
+        return stripe;
+    }
+
+    /** @return the number of times the stripe lock was acquired */
+    public long getAcquisitions() {
+        return acquisitions;
+    }
+
+    /** @return the number of times the stripe lock was held by another thread when requested */
+    public long getContendedAcquisitions() {
+        return contendedAcquisitions;
+    }
+
+    /** @return the total time in nanoseconds threads waited to acquire the stripe lock */
+    public long getWaitNanos() {
+        return waitNanos;
+    }
+
+    /** @return the fraction of acquisitions that had to wait for another thread or zero when there are none */
+    public double getContentionRatio() {
+        return (acquisitions == 0L) ? 0.0 : ((double) contendedAcquisitions) / acquisitions;
+    }
+
+    @Override
+    public String toString() {
+        return "StripeStatistics{stripe=" + stripe +
+                ", acquisitions=" + acquisitions +
+                ", contendedAcquisitions=" + contendedAcquisitions +
+                ", waitNanos=" + waitNanos + '}';
+    }
+}
@@ -0,0 +1,132 @@
+/*
+ * Copyright 2000-2016 Worth Enterprises, Inc.  All Rights Reserved.
+ */
+package com.worthent.foundation.util.state.data.impl;
+
+import com.worthent.foundation.util.annotation.NotNull;
+import com.worthent.foundation.util.state.StateEvent;
+import com.worthent.foundation.util.state.StateExeException;
+import com.worthent.foundation.util.state.StateTableData;
+import com.worthent.foundation.util.state.data.KeyedStateTableDataManager;
+import com.worthent.foundation.util.state.def.StateDefException;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+
+import static com.worthent.foundation.util.condition.Preconditions.checkNotNull;
+
+/**
+ * Keyed data manager that holds the data for each state table instance in a concurrent hash map.  The data object for
+ * an instance is created by a factory when the instance is initialized and is replaced by the copy the engine sets
+ * back after each event.
+ *
+ * @param <K> the type of key identifying a state table instance
+ * @param <D> the type of state table data
+ * @param <E> the type of event
+ *
+ * @author Erik K. Worth
+ */
+public class ConcurrentMapStateTableDataManager<K, D extends StateTableData, E extends StateEvent>
+        implements KeyedStateTableDataManager<K, D, E> {
+
+    /** Returns the key of the state table instance for an event */
+    private final Function<E, K> keyFunction;
+
+    /** Creates the data for a state table instance from its key and initial state */
+    private final BiFunction<K, String, D> dataFactory;
+
+    /** The data for each initialized state table instance */
+    private final ConcurrentHashMap<K, D> instances;
+
+    /**
+     * Construct the data manager.
+     *
+     * @param keyFunction returns the key of the state table instance for an event
+     * @param dataFactory creates the data for a state table instance from its key and the name of its initial state
+     * @param expectedInstanceCount the number of instances expected, used to size the map
+     */
+    public ConcurrentMapStateTableDataManager(
+            @NotNull final Function<E, K> keyFunction,
+            @NotNull final BiFunction<K, String, D> dataFactory,
+            final int expectedInstanceCount) {
+        this.keyFunction = checkNotNull(keyFunction, "keyFunction must not be null");
+        this.dataFactory = checkNotNull(dataFactory, "dataFactory must not be null");
+        this.instances = new ConcurrentHashMap<>(Math.max(16, expectedInstanceCount));
+    }
+
+    /**
+     * Construct the data manager.
+     *
+     * @param keyFunction returns the key of the state table instance for an event
+     * @param dataFactory creates the data for a state table instance from its key and the name of its initial state
+     */
+    public ConcurrentMapStateTableDataManager(
+            @NotNull final Function<E, K> keyFunction,
+            @NotNull final BiFunction<K, String, D> dataFactory) {
+        this(keyFunction, dataFactory, 16);
+    }
+
+    //
+    // KeyedStateTableDataManager Interface
+    //
+
+    @NotNull
+    @Override
+    public K getKey(@NotNull final E event) throws StateExeException {
+        final K key = keyFunction.apply(checkNotNull(event, "event must not be null"));
+        if (null == key) {
+            throw new StateExeException("No state table instance key for the event, '" + event.getName() + "'");
+        }
+        return key;
+    }
+
+    @Override
+    public void initializeStateTableData(@NotNull final K key, @NotNull final String initialState)
+            throws StateExeException {
+        checkNotNull(key, "key must not be null");
+        checkNotNull(initialState, "initialState must not be null");
+        final D data = dataFactory.apply(key, initialState);
+        if (null == data) {
+            throw new StateExeException("The data factory returned no data for the state table instance, " + key);
+        }
+        instances.put(key, data);
+    }
+
+    @Override
+    public boolean isInitialized(@NotNull final K key) {
+        return instances.containsKey(checkNotNull(key, "key must not be null"));
+    }
+
+    @Override
+    public int getInstanceCount() {
+        return instances.size();
+    }
+
+    //
+    // StateTableDataManager Interface
+    //
+
+    /** Instances are initialized individually, so there is nothing to do when the control starts */
+    @Override
+    public void initializeStateTableData() throws StateDefException {
+        // Nothing to do
+    }
+
+    @NotNull
+    @Override
+    public D getStateTableData(@NotNull final E event) throws StateExeException {
+        final K key = getKey(event);
+        final D data = instances.get(key);
+        if (null == data) {
+            throw new StateExeException("The state table instance, " + key + ", is not initialized");
+        }
+        return data;
+    }
+
+    @Override
+    public void setStateTableData(@NotNull final E event, @NotNull final D dataObject) throws StateExeException {
+        checkNotNull(dataObject, "dataObject must not be null");
+        instances.put(getKey(event), dataObject);
+    }
+}
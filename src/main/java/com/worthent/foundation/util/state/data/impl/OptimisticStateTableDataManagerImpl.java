@@ -0,0 +1,145 @@
+/*
+ * Copyright 2000-2016 Worth Enterprises, Inc.  All Rights Reserved.
+ */
+package com.worthent.foundation.util.state.data.impl;
+
+import com.worthent.foundation.util.annotation.NotNull;
+import com.worthent.foundation.util.annotation.Nullable;
+import com.worthent.foundation.util.state.StateConflictException;
+import com.worthent.foundation.util.state.StateEvent;
+import com.worthent.foundation.util.state.StateExeException;
+import com.worthent.foundation.util.state.VersionedStateTableData;
+import com.worthent.foundation.util.state.data.OptimisticStateTableDataManager;
+import com.worthent.foundation.util.state.def.StateDefException;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Function;
+import java.util.function.UnaryOperator;
+
+import static com.worthent.foundation.util.condition.Preconditions.checkNotNull;
+
+/**
+ * An in-memory implementation of the optimistic data manager that holds the committed data for each state table
+ * instance in an atomic reference keyed by a value taken from the event. Instances are created on first use from a
+ * factory function that is expected to return data in the initial state of the state table.
+ *
+ * @param <K> the type of key identifying a state table instance
+ * @param <D> the type of state table data
+ * @param <E> the type of event
+ *
+ * @author Erik K. Worth
+ */
+public class OptimisticStateTableDataManagerImpl<K, D extends VersionedStateTableData, E extends StateEvent>
+        implements OptimisticStateTableDataManager<D, E> {
+
+    /** Function that returns the key identifying the state table instance from the event */
+    private final Function<E, K> keyFunction;
+
+    /** Function that creates the data for a new state table instance */
+    private final Function<K, D> dataFactory;
+
+    /** Function that returns a copy of the data including its version */
+    private final UnaryOperator<D> copyFunction;
+
+    /** The committed data for each state table instance */
+    private final ConcurrentMap<K, AtomicReference<D>> committedData;
+
+    /**
+     * Construct from data management functions.
+     *
+     * @param keyFunction function that returns the key identifying the state table instance from the event
+     * @param dataFactory function that creates the data in the initial state for a new state table instance
+     * @param copyFunction function that returns a copy of the data including its version
+     */
+    public OptimisticStateTableDataManagerImpl(
+            @NotNull final Function<E, K> keyFunction,
+            @NotNull final Function<K, D> dataFactory,
+            @NotNull final UnaryOperator<D> copyFunction) {
+        this.keyFunction = checkNotNull(keyFunction, "keyFunction must not be null");
+        this.dataFactory = checkNotNull(dataFactory, "dataFactory must not be null");
+        this.copyFunction = checkNotNull(copyFunction, "copyFunction must not be null");
+        this.committedData = new ConcurrentHashMap<>();
+    }
+
+    /**
+     * Returns the committed data for the specified state table instance or <code>null</code> when the instance has
+     * not received an event yet. Callers must not modify the returned object.
+     *
+     * @param key the key identifying the state table instance
+     * @return the committed data for the specified state table instance or <code>null</code> when there is none
+     */
+    @Nullable
+    public D getCommittedStateTableData(@NotNull final K key) {
+        final AtomicReference<D> reference = committedData.get(checkNotNull(key, "key must not be null"));
+        return (null == reference) ? null : reference.get();
+    }
+
+    /**
+     * Discards the data for the specified state table instance.
+     *
+     * @param key the key identifying the state table instance
+     */
+    public void removeStateTableData(@NotNull final K key) {
+        committedData.remove(checkNotNull(key, "key must not be null"));
+    }
+
+    //
+    // StateTableDataManager Interface
+    //
+
+    /** Instances are created on first use, so there is nothing to initialize */
+    @Override
+    public void initializeStateTableData() throws StateDefException {
+        // Empty
+    }
+
+    @NotNull
+    @Override
+    public D getStateTableData(@NotNull final E event) throws StateExeException {
+        checkNotNull(event, "event must not be null");
+        final D committed = getReference(event).get();
+        final D copy = copyFunction.apply(committed);
+        if (null == copy || copy == committed) {
+            throw new StateExeException("The copy function must return a new copy of the state table data");
+        }
+        return copy;
+    }
+
+    @Override
+    public void setStateTableData(@NotNull final E event, @NotNull final D dataObject) throws StateExeException {
+        checkNotNull(event, "event must not be null");
+        checkNotNull(dataObject, "dataObject must not be null");
+        final AtomicReference<D> reference = getReference(event);
+        final D committed = reference.get();
+        final long expectedVersion = dataObject.getVersion();
+        if (committed.getVersion() != expectedVersion) {
+            throw newConflict(event, expectedVersion);
+        }
+        dataObject.setVersion(expectedVersion + 1);
+        if (!reference.compareAndSet(committed, dataObject)) {
+            dataObject.setVersion(expectedVersion);
+            throw newConflict(event, expectedVersion);
+        }
+    }
+
+    /** Returns the atomic reference holding the committed data for the state table instance addressed by the event */
+    private AtomicReference<D> getReference(final E event) {
+        final K key = keyFunction.apply(event);
+        if (null == key) {
+            throw new StateExeException("No state table instance key for the event, '" + event.getName() + "'");
+        }
+        AtomicReference<D> reference = committedData.get(key);
+        if (null == reference) {
+            reference = committedData.computeIfAbsent(key, k -> new AtomicReference<>(dataFactory.apply(k)));
+        }
+        return reference;
+    }
+
+    /** Returns the exception thrown when the data changed after the copy was made */
+    private static StateConflictException newConflict(final StateEvent event, final long expectedVersion) {
+        return new StateConflictException("The state table data changed from version " + expectedVersion +
+                " while processing the event, '" + event.getName() + "'");
+    }
+}
@@ -15,6 +15,8 @@ import com.worthent.foundation.util.state.def.impl.AbstractChildBuilder;
 import java.util.function.BiConsumer;
 import java.util.function.Function;
 
+import static com.worthent.foundation.util.condition.Preconditions.checkNotNull;
+
 /**
  * Implements the builder for the state table data manager.
  * @author Erik K. Worth
@@ -30,6 +32,12 @@ public class StateTableDataManagerBuilderImpl<D extends StateTableData, E extend
     /** Consumer provided when the updated state table data needs to be set back into a store or the working copy */
     private BiConsumer<E, D> dataSetterConsumer;
 
+    /** Function that returns the key used to select the lock stripe or <code>null</code> when there is no locking */
+    private Function<E, ?> stripeKeyFunction;
+
+    /** The minimum number of lock stripes */
+    private int stripeCount;
+
     public StateTableDataManagerBuilderImpl() {
         // empty
     }
@@ -56,6 +64,15 @@ public class StateTableDataManagerBuilderImpl<D extends StateTableData, E extend
         return this;
     }
 
+    @Override
+    public StateTableDataManagerBuilder<D, E> withStripedLocking(
+            @NotNull final Function<E, ?> keyFunction,
+            final int stripeCount) {
+        this.stripeKeyFunction = checkNotNull(keyFunction, "keyFunction must not be null");
+        this.stripeCount = stripeCount;
+        return this;
+    }
+
     @Override
     public StateTableBuilder<D, E> endDataManager() throws StateDefException {
         final StateTableBuilder<D, E> parentBuilder = getParentBuilder();
@@ -69,6 +86,10 @@ public class StateTableDataManagerBuilderImpl<D extends StateTableData, E extend
         if (null == dataGetterFunction) {
             throw new StateDefException("Missing the Data Getter Function");
         }
-        return new StateTableDataManagerImpl<D, E>(dataInitializer, dataGetterFunction, dataSetterConsumer);
+        final StateTableDataManager<D, E> dataManager =
+                new StateTableDataManagerImpl<D, E>(dataInitializer, dataGetterFunction, dataSetterConsumer);
+        return (null == stripeKeyFunction)
+                ? dataManager
+                : new StripedLockStateTableDataManager<>(dataManager, stripeKeyFunction, stripeCount);
     }
 }
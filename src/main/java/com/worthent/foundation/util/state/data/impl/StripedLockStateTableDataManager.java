@@ -0,0 +1,176 @@
+/*
+ * Copyright 2000-2016 Worth Enterprises, Inc.  All Rights Reserved.
+ */
+package com.worthent.foundation.util.state.data.impl;
+
+import com.worthent.foundation.util.annotation.NotNull;
+import com.worthent.foundation.util.state.StateEvent;
+import com.worthent.foundation.util.state.StateExeException;
+import com.worthent.foundation.util.state.StateTableData;
+import com.worthent.foundation.util.state.data.StateTableDataManager;
+import com.worthent.foundation.util.state.data.StripeStatistics;
+import com.worthent.foundation.util.state.def.StateDefException;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+
+import static com.worthent.foundation.util.condition.Preconditions.checkNotNull;
+
+/**
+ * Decorates a state table data manager with a fixed array of striped locks so that events may be processed directly
+ * on the threads that signal them. Each event is mapped to a stripe by the hash of a key taken from the event. Events
+ * with keys on different stripes proceed in parallel while events with the same key serialize on the stripe lock. The
+ * locks are acquired and released by the {@link com.worthent.foundation.util.state.provider.StripedLockStateTableControl}
+ * around the processing of each event.
+ * <p>
+ * The data manager keeps contention metrics for each stripe that may be used to size the stripe count.
+ *
+ * @author Erik K. Worth
+ */
+public class StripedLockStateTableDataManager<D extends StateTableData, E extends StateEvent>
+        implements StateTableDataManager<D, E> {
+
+    /** The most stripes, which bounds the padded contention metrics at a few megabytes */
+    public static final int MAX_STRIPES = 1 << 16;
+
+    /** The number of array slots between the metrics of adjacent stripes to keep them on separate cache lines */
+    private static final int STRIDE = 8;
+
+    /** The data manager that gets and sets the data */
+    private final StateTableDataManager<D, E> dataManager;
+
+    /** Function that returns the key identifying the state table instance from the event */
+    private final Function<E, ?> keyFunction;
+
+    /** The stripe locks */
+    private final ReentrantLock[] locks;
+
+    /** Mask applied to the spread hash of the key to select a stripe */
+    private final int stripeMask;
+
+    /** The number of times each stripe lock was acquired */
+    private final AtomicLongArray acquisitions;
+
+    /** The number of times each stripe lock was held by another thread when requested */
+    private final AtomicLongArray contendedAcquisitions;
+
+    /** The total time in nanoseconds threads waited to acquire each stripe lock */
+    private final AtomicLongArray waitNanos;
+
+    /**
+     * Construct with the data manager to decorate, the key function and the number of stripes.
+     *
+     * @param dataManager the data manager that gets and sets the data
+     * @param keyFunction function that returns the key identifying the state table instance from the event
+     * @param stripeCount the minimum number of stripes, which is rounded up to the next power of two and may not
+     *                    exceed {@link #MAX_STRIPES}
+     * @throws StateDefException thrown when the stripe count is out of range
+     */
+    public StripedLockStateTableDataManager(
+            @NotNull final StateTableDataManager<D, E> dataManager,
+            @NotNull final Function<E, ?> keyFunction,
+            final int stripeCount) throws StateDefException {
+        this.dataManager = checkNotNull(dataManager, "dataManager must not be null");
+        this.keyFunction = checkNotNull(keyFunction, "keyFunction must not be null");
+        if (stripeCount < 1 || stripeCount > MAX_STRIPES) {
+            throw new StateDefException("The stripe count must be between 1 and " + MAX_STRIPES);
+        }
+        final int stripes = (stripeCount == 1) ? 1 : Integer.highestOneBit(stripeCount - 1) << 1;
+        this.locks = new ReentrantLock[stripes];
+        for (int i = 0; i < stripes; i++) {
+            locks[i] = new ReentrantLock();
+        }
+        this.stripeMask = stripes - 1;
+        this.acquisitions = new AtomicLongArray(stripes * STRIDE);
+        this.contendedAcquisitions = new AtomicLongArray(stripes * STRIDE);
+        this.waitNanos = new AtomicLongArray(stripes * STRIDE);
+    }
+
+    /** @return the number of stripes */
+    public int getStripeCount() {
+        return locks.length;
+    }
+
+    /**
+     * Returns the stripe for the key of the state table instance addressed by the event.
+     *
+     * @param event the event being processed
+     * @return the stripe for the key of the state table instance addressed by the event
+     */
+    public int getStripe(@NotNull final E event) {
+        final Object key = keyFunction.apply(checkNotNull(event, "event must not be null"));
+        if (null == key) {
+            throw new StateExeException("No state table instance key for the event, '" + event.getName() + "'");
+        }
+        final int hash = key.hashCode();
+        return (hash ^ (hash >>> 16)) & stripeMask;
+    }
+
+    /**
+     * Acquires the stripe lock for the state table instance addressed by the event and returns the stripe, which must
+     * be passed to {@link #unlockStripe(int)} when the event has been processed.
+     *
+     * @param event the event about to be processed
+     * @return the stripe that was locked
+     */
+    public int lockStripe(@NotNull final E event) {
+        final int stripe = getStripe(event);
+        final ReentrantLock lock = locks[stripe];
+        final int slot = stripe * STRIDE;
+        if (!lock.tryLock()) {
+            final long waitStart = System.nanoTime();
+            lock.lock();
+            contendedAcquisitions.incrementAndGet(slot);
+            waitNanos.addAndGet(slot, System.nanoTime() - waitStart);
+        }
+        acquisitions.incrementAndGet(slot);
+        return stripe;
+    }
+
+    /**
+     * Releases the stripe lock acquired by {@link #lockStripe(StateEvent)}.
+     *
+     * @param stripe the stripe returned when the lock was acquired
+     */
+    public void unlockStripe(final int stripe) {
+        locks[stripe].unlock();
+    }
+
+    /** @return a snapshot of the contention metrics for each stripe */
+    @NotNull
+    public List<StripeStatistics> getStripeStatistics() {
+        final List<StripeStatistics> statistics = new ArrayList<>(locks.length);
+        for (int stripe = 0; stripe < locks.length; stripe++) {
+            final int slot = stripe * STRIDE;
+            statistics.add(new StripeStatistics(
+                    stripe,
+                    acquisitions.get(slot),
+                    contendedAcquisitions.get(slot),
+                    waitNanos.get(slot)));
+        }
+        return statistics;
+    }
+
+    //
+    // StateTableDataManager Interface
+    //
+
+    @Override
+    public void initializeStateTableData() throws StateDefException {
+        dataManager.initializeStateTableData();
+    }
+
+    @NotNull
+    @Override
+    public D getStateTableData(@NotNull final E event) throws StateExeException {
+        return dataManager.getStateTableData(event);
+    }
+
+    @Override
+    public void setStateTableData(@NotNull final E event, @NotNull final D dataObject) throws StateExeException {
+        dataManager.setStateTableData(event, dataObject);
+    }
+}
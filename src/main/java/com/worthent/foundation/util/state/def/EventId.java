@@ -0,0 +1,89 @@
+/*
+ * Copyright 2000-2016 Worth Enterprises, Inc.  All Rights Reserved.
+ */
+package com.worthent.foundation.util.state.def;
+
+import com.worthent.foundation.util.annotation.NotNull;
+
+import java.util.Collection;
+
+import static com.worthent.foundation.util.condition.Preconditions.checkNotNull;
+
+/**
+ * Interned symbol for the name of an event in a state table definition.  Each {@link StateTableDef} creates exactly
+ * one symbol per event name, so symbols are compared by reference and their hash codes are computed once.  Symbols from
+ * different table definitions are never equal, even when they have the same name.
+ *
+ * @see StateTableDef#getEventId(String)
+ *
+ * @author Erik K. Worth
+ */
+public final class EventId {
+
+    /** The name of the event */
+    private final String name;
+
+    /** The position of the event in the table definition, used to index arrays by event */
+    private final int ordinal;
+
+    /** The hash code of the name */
+    private final int hash;
+
+    /**
+     * Construct the symbol.  Only {@link #newEventIds} creates symbols.
+     *
+     * @param name the name of the event
+     * @param ordinal the position of the event in the table definition
+     */
+    EventId(@NotNull final String name, final int ordinal) {
+        this.name = checkNotNull(name, "name must not be null");
+        this.ordinal = ordinal;
+        this.hash = name.hashCode();
+    }
+
+    /**
+     * Creates the symbols for the event names of one table definition, numbering them in the iteration order of the
+     * names.  Table definitions call this once each, so their symbols are never shared.
+     *
+     * @param names the distinct event names of the table definition
+     * @return the new symbols indexed by their ordinals
+     */
+    @NotNull
+    public static EventId[] newEventIds(@NotNull final Collection<String> names) {
+        checkNotNull(names, "names must not be null");
+        final EventId[] ids = new EventId[names.size()];
+        int ordinal = 0;
+        for (final String name : names) {
+            ids[ordinal] = new EventId(name, ordinal);
+            ordinal++;
+        }
+        return ids;
+    }
+
+    /** @return the name of the event */
+    @NotNull
+    public String getName() {
+        return name;
+    }
+
+    /** @return the position of the event in the table definition */
+    public int getOrdinal() {
+        return ordinal;
+    }
+
+    /** Symbols are equal only when they are the same instance */
+    @Override
+    public boolean equals(final Object other) {
+        return this == other;
+    }
+
+    @Override
+    public int hashCode() {
+        return hash;
+    }
+
+    @Override
+    public String toString() {
+        return name;
+    }
+}
@@ -6,6 +6,8 @@ import com.worthent.foundation.util.state.StateEvent;
 import com.worthent.foundation.util.state.StateExeException;
 import com.worthent.foundation.util.state.StateTableData;
 
+import java.util.Collection;
+
 /**
  * Defines a state transition table from the collection of states that can
  * exist.
@@ -68,6 +70,14 @@ public interface StateTableDef<D extends StateTableData, E extends StateEvent> {
     @NotNull
     StateDef<D, E> getInitialState();
 
+    /**
+     * Returns the definitions of all the states in the table in the order they were added to the table.
+     *
+     * @return the definitions of all the states in the table
+     */
+    @NotNull
+    Collection<StateDef<D, E>> getStates();
+
     /**
      * Returns <code>true</code> if the specified state identifier is present in
      * the state table.
@@ -102,4 +112,72 @@ public interface StateTableDef<D extends StateTableData, E extends StateEvent> {
         @NotNull String stateName,
         @NotNull String eventName) throws StateExeException;
 
+    /**
+     * Returns the interned symbol for the state name or <code>null</code> if the state is not in the table.  Data
+     * objects may store the symbol instead of the name so that all instances share it and compare it by reference.
+     * Definitions that do not intern symbols, such as one still being built, return <code>null</code>.
+     *
+     * @param stateName the name of the state
+     * @return the interned symbol for the state name or <code>null</code> if the state is not in the table
+     */
+    @Nullable
+    default StateId getStateId(@NotNull String stateName) {
+        return null;
+    }
+
+    /**
+     * Returns the state table metadata for the state symbol or <code>null</code> if the symbol was not created by this
+     * table definition.  This is an array lookup with no hashing.
+     *
+     * @param stateId the symbol for the state
+     * @return the state table metadata for the state symbol or <code>null</code> if the symbol is not from this table
+     */
+    @Nullable
+    default StateDef<D, E> getState(@NotNull StateId stateId) {
+        return null;
+    }
+
+    /**
+     * Returns the interned symbol for the event name or <code>null</code> if no transition in the table responds to
+     * the event by name or the definition does not intern symbols.
+     *
+     * @param eventName the name of the event
+     * @return the interned symbol for the event name or <code>null</code> if no transition names the event
+     */
+    @Nullable
+    default EventId getEventId(@NotNull String eventName) {
+        return null;
+    }
+
+    /**
+     * Returns the transition configured to respond to the event when the table is in the state, using the symbols
+     * from this table definition to index a precomputed transition table with no hashing.
+     *
+     * @param stateId the symbol for the state
+     * @param eventId the symbol for the event
+     * @return the transition configured to respond to the event when the table is in the state
+     * @exception StateExeException thrown when a symbol was not created by this table definition
+     */
+    @NotNull
+    default StateTransitionDef<D, E> getTransition(
+            @NotNull StateId stateId,
+            @NotNull EventId eventId) throws StateExeException {
+        throw new StateExeException("The state table, '" + getName() + "', did not create the state symbol, '" +
+                stateId + "'.");
+    }
+
+    /**
+     * Returns the symbol for the state the table moves to when the event arrives in the state, or <code>null</code>
+     * when the transition stays in the state, returns to the previous state or leaves the change to its actors.
+     *
+     * @param stateId the symbol for the state
+     * @param eventId the symbol for the event or <code>null</code> for the default transition of the state
+     * @return the symbol for the target state or <code>null</code> when the target is not a state in the table
+     * @exception StateExeException thrown when a symbol was not created by this table definition
+     */
+    @Nullable
+    default StateId getTargetStateId(@NotNull StateId stateId, @Nullable EventId eventId) throws StateExeException {
+        return null;
+    }
+
 }
@@ -5,6 +5,7 @@ import com.worthent.foundation.util.state.StateEvent;
 import com.worthent.foundation.util.state.StateTableData;
 
 import java.util.function.BiPredicate;
+import java.util.function.Function;
 import java.util.function.Predicate;
 
 /**
@@ -33,4 +34,20 @@ public interface ToStateConditionBuilder<D extends StateTableData, E extends Sta
      * @return a reference to this builder
      */
     ToStateConditionListBuilder<D, E> when(@NotNull BiPredicate<D, E> conditionOnDataAndEvent);
+
+    /**
+     * Creates a ToStateCondition whose predicate depends only on the fields of the state table data returned by the
+     * provided function, and returns the builder for lists of To State Conditions.  The result of the predicate is
+     * memoized for each distinct value returned by the function, so the function should return a small immutable key
+     * with proper <code>equals</code> and <code>hashCode</code> methods and the predicate must not have side effects.
+     * Use this for expensive conditions evaluated against data fields that take on few distinct values.
+     *
+     * @param fieldsOfData the function returning the data fields on which the predicate depends
+     * @param conditionOnFields the predicate that operates on the data fields to determine the target state
+     * @param <K> the type of key holding the data fields
+     * @return a reference to this builder
+     */
+    <K> ToStateConditionListBuilder<D, E> when(
+            @NotNull Function<D, K> fieldsOfData,
+            @NotNull Predicate<K> conditionOnFields);
 }
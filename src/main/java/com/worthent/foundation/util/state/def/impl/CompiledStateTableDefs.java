@@ -0,0 +1,405 @@
+/*
+ * Copyright 2000-2016 Worth Enterprises, Inc.  All rights reserved.
+ */
+package com.worthent.foundation.util.state.def.impl;
+
+import com.worthent.foundation.util.annotation.NotNull;
+import com.worthent.foundation.util.annotation.Nullable;
+import com.worthent.foundation.util.state.StateEvent;
+import com.worthent.foundation.util.state.StateTableData;
+import com.worthent.foundation.util.state.TransitionActor;
+import com.worthent.foundation.util.state.annotation.MethodActor;
+import com.worthent.foundation.util.state.def.StateDef;
+import com.worthent.foundation.util.state.def.StateDefException;
+import com.worthent.foundation.util.state.def.StateTableDef;
+import com.worthent.foundation.util.state.def.StateTransitionDef;
+import com.worthent.foundation.util.state.provider.ToStateNavigationActor;
+import com.worthent.foundation.util.state.provider.UnexpectedEventActor;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static com.worthent.foundation.util.condition.Preconditions.checkNotNull;
+
+/**
+ * Compiles state table definitions into a compact binary artifact and loads them back without the builders. The
+ * artifact holds a string table with the state, event and actor names, the states and their transitions as indexes
+ * into the string table, and an actor table with each distinct actor resolved to a reference:
+ * <ul>
+ * <li>actors from methods annotated with {@link com.worthent.foundation.util.state.annotation.Actor} are written
+ * with their class and method so loading them looks up a single method instead of scanning the class,</li>
+ * <li>the {@link UnexpectedEventActor} is written as a built-in, and</li>
+ * <li>any other actor is written by name and resolved when the artifact is loaded from a
+ * {@link TransitionActorManager} provided by the caller.</li>
+ * </ul>
+ * Transitions with conditional target states hold their conditions as code in the form of predicates and cannot be
+ * compiled. Attempting to compile one throws {@link StateDefException}.
+ * <p>
+ * The artifact may be generated at build time by a build step that passes the state table definition to
+ * {@link #write(StateTableDef, OutputStream)}.
+ *
+ * @author Erik K. Worth
+ */
+public final class CompiledStateTableDefs {
+
+    /** Marks the start of a compiled state table definition */
+    private static final int MAGIC = 0x57535444;
+
+    /** The version of the artifact format */
+    private static final int FORMAT_VERSION = 1;
+
+    /** Actor reference to an annotated method */
+    private static final int METHOD_ACTOR = 0;
+
+    /** Actor reference to the built-in actor that rejects unexpected events */
+    private static final int UNEXPECTED_EVENT_ACTOR = 1;
+
+    /** Actor reference resolved by name when the artifact is loaded */
+    private static final int NAMED_ACTOR = 2;
+
+    /** Hide the constructor for this class of static methods */
+    private CompiledStateTableDefs() {
+        // Empty
+    }
+
+    /**
+     * Compiles the state table definition into a byte array.
+     *
+     * @param stateTableDef the state table definition to compile
+     * @return the compiled state table definition
+     * @throws StateDefException thrown when the state table definition cannot be compiled
+     */
+    @NotNull
+    public static byte[] compile(@NotNull final StateTableDef<?, ?> stateTableDef) throws StateDefException {
+        final ByteArrayOutputStream out = new ByteArrayOutputStream(1024);
+        try {
+            write(stateTableDef, out);
+        } catch (final IOException exc) {
+            throw new StateDefException("Unable to compile the state table, '" + stateTableDef.getName() + "'", exc);
+        }
+        return out.toByteArray();
+    }
+
+    /**
+     * Loads a state table definition from a compiled artifact.
+     *
+     * @param compiled the compiled state table definition
+     * @param namedActors the actors referenced by name in the compiled state table definition or <code>null</code>
+     *                    when it references none
+     * @param <D> the state table data type
+     * @param <E> the event type
+     * @return the loaded state table definition
+     * @throws StateDefException thrown when the compiled state table definition cannot be loaded
+     */
+    @NotNull
+    public static <D extends StateTableData, E extends StateEvent> StateTableDef<D, E> load(
+            @NotNull final byte[] compiled,
+            @Nullable final TransitionActorManager<D, E> namedActors) throws StateDefException {
+        checkNotNull(compiled, "compiled must not be null");
+        try {
+            return read(new ByteArrayInputStream(compiled), namedActors, CompiledStateTableDefs.class.getClassLoader());
+        } catch (final IOException exc) {
+            throw new StateDefException("Unable to load the compiled state table definition", exc);
+        }
+    }
+
+    /**
+     * Writes the compiled state table definition to the output stream.
+     *
+     * @param stateTableDef the state table definition to compile
+     * @param out the stream receiving the compiled state table definition
+     * @throws IOException thrown when there is an error writing to the stream
+     * @throws StateDefException thrown when the state table definition cannot be compiled
+     */
+    public static void write(
+            @NotNull final StateTableDef<?, ?> stateTableDef,
+            @NotNull final OutputStream out) throws IOException, StateDefException {
+        checkNotNull(stateTableDef, "stateTableDef must not be null");
+        checkNotNull(out, "out must not be null");
+        final StringTable strings = new StringTable();
+        final Map<TransitionActor<?, ?>, Integer> actorIndexes = new IdentityHashMap<>();
+        final List<TransitionActor<?, ?>> actors = new ArrayList<>();
+        for (final StateDef<?, ?> state : stateTableDef.getStates()) {
+            strings.indexOf(state.getName());
+            for (final StateTransitionDef<?, ?> transition : state.getTransitions()) {
+                collect(stateTableDef, transition, strings, actorIndexes, actors);
+            }
+            collect(stateTableDef, state.getDefaultTransition(), strings, actorIndexes, actors);
+        }
+        final String name = stateTableDef.getName();
+        final int nameIndex = (null == name) ? 0 : strings.indexOf(name) + 1;
+
+        // Write the actor and state tables first since resolving the actors adds to the string table
+        final ByteArrayOutputStream tables = new ByteArrayOutputStream(512);
+        final DataOutputStream tableData = new DataOutputStream(tables);
+        writeVarInt(tableData, actors.size());
+        for (final TransitionActor<?, ?> actor : actors) {
+            writeActor(tableData, actor, strings);
+        }
+        writeVarInt(tableData, stateTableDef.getStates().size());
+        for (final StateDef<?, ?> state : stateTableDef.getStates()) {
+            writeVarInt(tableData, strings.indexOf(state.getName()));
+            writeVarInt(tableData, state.getTransitions().size());
+            for (final StateTransitionDef<?, ?> transition : state.getTransitions()) {
+                writeTransition(tableData, transition, strings, actorIndexes);
+            }
+            writeTransition(tableData, state.getDefaultTransition(), strings, actorIndexes);
+        }
+        tableData.flush();
+
+        final DataOutputStream data = new DataOutputStream(out);
+        data.writeInt(MAGIC);
+        data.writeByte(FORMAT_VERSION);
+        writeVarInt(data, strings.size());
+        for (final String string : strings.values) {
+            data.writeUTF(string);
+        }
+        writeVarInt(data, nameIndex);
+        tables.writeTo(data);
+        data.flush();
+    }
+
+    /**
+     * Reads a compiled state table definition from the input stream.
+     *
+     * @param in the stream providing the compiled state table definition
+     * @param namedActors the actors referenced by name in the compiled state table definition or <code>null</code>
+     *                    when it references none
+     * @param classLoader the class loader used to resolve the classes with annotated actor methods
+     * @param <D> the state table data type
+     * @param <E> the event type
+     * @return the loaded state table definition
+     * @throws IOException thrown when there is an error reading from the stream
+     * @throws StateDefException thrown when the compiled state table definition cannot be loaded
+     */
+    @NotNull
+    public static <D extends StateTableData, E extends StateEvent> StateTableDef<D, E> read(
+            @NotNull final InputStream in,
+            @Nullable final TransitionActorManager<D, E> namedActors,
+            @NotNull final ClassLoader classLoader) throws IOException, StateDefException {
+        checkNotNull(in, "in must not be null");
+        checkNotNull(classLoader, "classLoader must not be null");
+        final DataInputStream data = new DataInputStream(in);
+        if (data.readInt() != MAGIC) {
+            throw new StateDefException("The input is not a compiled state table definition");
+        }
+        final int formatVersion = data.readUnsignedByte();
+        if (formatVersion != FORMAT_VERSION) {
+            throw new StateDefException("Unsupported compiled state table definition format: " + formatVersion);
+        }
+
+        // String table
+        final String[] strings = new String[readVarInt(data)];
+        for (int i = 0; i < strings.length; i++) {
+            strings[i] = data.readUTF().intern();
+        }
+        final int nameIndex = readVarInt(data);
+        final String name = (nameIndex == 0) ? null : strings[nameIndex - 1];
+
+        // Actor table
+        final List<TransitionActor<D, E>> actors = new ArrayList<>();
+        final int actorCount = readVarInt(data);
+        for (int i = 0; i < actorCount; i++) {
+            actors.add(readActor(data, strings, namedActors, classLoader));
+        }
+
+        // State table
+        final int stateCount = readVarInt(data);
+        final List<StateDef<D, E>> states = new ArrayList<>(stateCount);
+        for (int i = 0; i < stateCount; i++) {
+            final String stateName = strings[readVarInt(data)];
+            final int transitionCount = readVarInt(data);
+            final List<StateTransitionDef<D, E>> transitions = new ArrayList<>(transitionCount);
+            for (int j = 0; j < transitionCount; j++) {
+                transitions.add(readTransition(data, strings, actors));
+            }
+            final StateTransitionDef<D, E> defaultTransition = readTransition(data, strings, actors);
+            states.add(new StateDefImpl<>(stateName, transitions, defaultTransition));
+        }
+        return new StateTableDefImpl<>(name, states);
+    }
+
+    /** Adds the strings and actors referenced by the transition to the tables */
+    private static void collect(
+            final StateTableDef<?, ?> stateTableDef,
+            final StateTransitionDef<?, ?> transition,
+            final StringTable strings,
+            final Map<TransitionActor<?, ?>, Integer> actorIndexes,
+            final List<TransitionActor<?, ?>> actors) {
+        strings.indexOf(transition.getEventName());
+        strings.indexOf(transition.getTargetStateName());
+        for (final TransitionActor<?, ?> actor : transition.getActors()) {
+            if (actor instanceof ToStateNavigationActor) {
+                throw new StateDefException("The state table, '" + stateTableDef.getName() +
+                        "', has a conditional transition on the event, '" + transition.getEventName() +
+                        "', that cannot be compiled");
+            }
+            if (!actorIndexes.containsKey(actor)) {
+                actorIndexes.put(actor, actors.size());
+                actors.add(actor);
+            }
+        }
+    }
+
+    /** Writes a reference to the actor */
+    private static void writeActor(
+            final DataOutputStream data,
+            final TransitionActor<?, ?> actor,
+            final StringTable strings) throws IOException {
+        if (actor instanceof MethodActor) {
+            final MethodActor<?, ?> methodActor = (MethodActor<?, ?>) actor;
+            final Method method = methodActor.getActorMethod();
+            final Class<?> actorClass = methodActor.getActorClass();
+            final Class<?>[] parameterTypes = method.getParameterTypes();
+            data.writeByte(METHOD_ACTOR);
+            writeVarInt(data, strings.indexOf(actor.getName()));
+            writeVarInt(data, strings.indexOf(method.getDeclaringClass().getName()));
+            writeVarInt(data, strings.indexOf(method.getName()));
+            writeVarInt(data, (parameterTypes.length == 0) ? 0 : strings.indexOf(parameterTypes[0].getName()) + 1);
+            writeVarInt(data, (null == actorClass) ? 0 : strings.indexOf(actorClass.getName()) + 1);
+            data.writeByte(methodActor.getArgumentType().ordinal());
+            data.writeBoolean(methodActor.isRetrySafe());
+        } else if (actor instanceof UnexpectedEventActor) {
+            data.writeByte(UNEXPECTED_EVENT_ACTOR);
+        } else {
+            data.writeByte(NAMED_ACTOR);
+            writeVarInt(data, strings.indexOf(actor.getName()));
+        }
+    }
+
+    /** Reads and resolves a reference to an actor */
+    private static <D extends StateTableData, E extends StateEvent> TransitionActor<D, E> readActor(
+            final DataInputStream data,
+            final String[] strings,
+            final TransitionActorManager<D, E> namedActors,
+            final ClassLoader classLoader) throws IOException {
+        final int kind = data.readUnsignedByte();
+        switch (kind) {
+            case METHOD_ACTOR: {
+                final String actorName = strings[readVarInt(data)];
+                final String declaringClassName = strings[readVarInt(data)];
+                final String methodName = strings[readVarInt(data)];
+                final int parameterTypeIndex = readVarInt(data);
+                final int actorClassIndex = readVarInt(data);
+                final MethodActor.ArgumentType argumentType = MethodActor.ArgumentType.values()[data.readUnsignedByte()];
+                final boolean retrySafe = data.readBoolean();
+                try {
+                    final Class<?> declaringClass = Class.forName(declaringClassName, false, classLoader);
+                    final Method method = (parameterTypeIndex == 0)
+                            ? declaringClass.getMethod(methodName)
+                            : declaringClass.getMethod(methodName,
+                                    Class.forName(strings[parameterTypeIndex - 1], false, classLoader));
+                    final Class<?> actorClass = (actorClassIndex == 0)
+                            ? null
+                            : Class.forName(strings[actorClassIndex - 1], false, classLoader);
+                    return new MethodActor<>(argumentType, actorClass, method, actorName, retrySafe);
+                } catch (final ClassNotFoundException | NoSuchMethodException exc) {
+                    throw new StateDefException("Unable to resolve the actor, '" + actorName + "', from the method, " +
+                            declaringClassName + '.' + methodName, exc);
+                }
+            }
+            case UNEXPECTED_EVENT_ACTOR:
+                return new UnexpectedEventActor<>();
+            case NAMED_ACTOR: {
+                final String actorName = strings[readVarInt(data)];
+                if (null == namedActors) {
+                    throw new StateDefException("No actor provided for the name, '" + actorName + "'");
+                }
+                try {
+                    return namedActors.getTransitionActor(actorName);
+                } catch (final IllegalStateException exc) {
+                    throw new StateDefException("No actor provided for the name, '" + actorName + "'", exc);
+                }
+            }
+            default:
+                throw new StateDefException("Unknown actor reference in compiled state table definition: " + kind);
+        }
+    }
+
+    /** Writes the transition as indexes into the string and actor tables */
+    private static void writeTransition(
+            final DataOutputStream data,
+            final StateTransitionDef<?, ?> transition,
+            final StringTable strings,
+            final Map<TransitionActor<?, ?>, Integer> actorIndexes) throws IOException {
+        writeVarInt(data, strings.indexOf(transition.getEventName()));
+        writeVarInt(data, strings.indexOf(transition.getTargetStateName()));
+        final List<? extends TransitionActor<?, ?>> actors = transition.getActors();
+        writeVarInt(data, actors.size());
+        for (final TransitionActor<?, ?> actor : actors) {
+            writeVarInt(data, actorIndexes.get(actor));
+        }
+    }
+
+    /** Reads a transition from indexes into the string and actor tables */
+    private static <D extends StateTableData, E extends StateEvent> StateTransitionDef<D, E> readTransition(
+            final DataInputStream data,
+            final String[] strings,
+            final List<TransitionActor<D, E>> actorTable) throws IOException {
+        final String eventName = strings[readVarInt(data)];
+        final String targetStateName = strings[readVarInt(data)];
+        final int actorCount = readVarInt(data);
+        final List<TransitionActor<D, E>> actors = new ArrayList<>(actorCount);
+        for (int i = 0; i < actorCount; i++) {
+            actors.add(actorTable.get(readVarInt(data)));
+        }
+        return new StateTransitionDefImpl<>(eventName, targetStateName, actors);
+    }
+
+    /** Writes a non-negative integer using seven bits per byte */
+    private static void writeVarInt(final DataOutputStream data, final int value) throws IOException {
+        int remaining = value;
+        while ((remaining & ~0x7F) != 0) {
+            data.writeByte((remaining & 0x7F) | 0x80);
+            remaining >>>= 7;
+        }
+        data.writeByte(remaining);
+    }
+
+    /** Reads a non-negative integer written with seven bits per byte */
+    private static int readVarInt(final DataInputStream data) throws IOException {
+        int value = 0;
+        int shift = 0;
+        int next;
+        do {
+            if (shift > 28) {
+                throw new StateDefException("Malformed compiled state table definition");
+            }
+            next = data.readUnsignedByte();
+            value |= (next & 0x7F) << shift;
+            shift += 7;
+        } while ((next & 0x80) != 0);
+        return value;
+    }
+
+    /** Assigns an index to each distinct string in the order they are first seen */
+    private static final class StringTable {
+        private final Map<String, Integer> indexes = new HashMap<>();
+        private final List<String> values = new ArrayList<>();
+
+        int indexOf(final String value) {
+            final Integer index = indexes.get(value);
+            if (null != index) {
+                return index;
+            }
+            indexes.put(value, values.size());
+            values.add(value);
+            return values.size() - 1;
+        }
+
+        int size() {
+            return values.size();
+        }
+    }
+}
@@ -19,6 +19,9 @@ import org.slf4j.LoggerFactory;
 
 import java.lang.reflect.Method;
 import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Optional;
@@ -37,6 +40,15 @@ public class StateTableDefBuilderImpl<D extends StateTableData, E extends StateE
     /** Logger for this class */
     private static final Logger LOGGER = LoggerFactory.getLogger(StateTableDefBuilderImpl.class);
 
+    /** The actors found on each class scanned for Actor annotations */
+    private static final ClassValue<List<MethodActor<?, ?>>> ACTORS_BY_CLASS =
+            new ClassValue<List<MethodActor<?, ?>>>() {
+                @Override
+                protected List<MethodActor<?, ?>> computeValue(final Class<?> annotatedClass) {
+                    return scanForActors(annotatedClass);
+                }
+            };
+
     /** The transition actor manager holding transition actors discovered from class scans for annotations */
     private final TransitionActorManager<D, E> transitionActorManager;
 
@@ -91,40 +103,21 @@ public class StateTableDefBuilderImpl<D extends StateTableData, E extends StateE
     }
 
     /**
-     * Adds actors to the state table for each annotated method found in the specified class.
+     * Adds actors to the state table for each annotated method found in the specified class. The results of scanning
+     * a class for annotated methods are cached for the life of the class, so building several state tables from the
+     * same annotated class only scans it once.
      *
      * @param annotatedClass the class to introspect for Actor annotations
      * @return this builder
      */
     @NotNull
     public StateTableDefBuilder<D, E> usingActorsInClass(@NotNull final Class<?> annotatedClass) {
-        final String className = checkNotNull(annotatedClass, "annotatedClass must not be null").getName();
-        final Method[] methods = annotatedClass.getMethods();
-        for (final Method method : methods) {
-            final Actor actor = method.getAnnotation(Actor.class);
-            if (null != actor) {
-                String name = actor.name();
-                if (TransitionActor.UNNAMED.equals(name)) {
-                    name = method.getName();
-                }
-                final MethodActor.ArgumentType argumentType = getMethodArgumentType(className, name, method);
-                if (null != argumentType) {
-                    final int modifiers = method.getModifiers();
-                    if (Modifier.isStatic(modifiers)) {
-                        final MethodActor<D, E> methodActor = new MethodActor<>(argumentType, method, name);
-                        transitionActorManager.addTransitionActor(methodActor);
-                    } else {
-                        if (StateTableData.class.isAssignableFrom(annotatedClass)) {
-                            final MethodActor<D, E> methodActor =
-                                    new MethodActor<>(argumentType, annotatedClass, method, name);
-                            transitionActorManager.addTransitionActor(methodActor);
-                        } else {
-                            LOGGER.warn("Ignoring actor, '{}', in class '{}', because the annotated method is not not static and the class does not extend {}",
-                                    name, className, StateTableData.class.getName());
-                        }
-                    }
-                }
-            }
+        checkNotNull(annotatedClass, "annotatedClass must not be null");
+        for (final MethodActor<?, ?> methodActor : ACTORS_BY_CLASS.get(annotatedClass)) {
+            // Method actors hold no state tied to the data and event types, so they may be shared by all tables
+            @SuppressWarnings("unchecked")
+            final TransitionActor<D, E> actor = (TransitionActor<D, E>) methodActor;
+            transitionActorManager.addTransitionActor(actor);
         }
         return this;
     }
@@ -158,6 +151,12 @@ public class StateTableDefBuilderImpl<D extends StateTableData, E extends StateE
         return states.get(0);
     }
 
+    @NotNull
+    @Override
+    public Collection<StateDef<D, E>> getStates() {
+        return Collections.unmodifiableList(states);
+    }
+
     @Override
     public boolean containsState(@NotNull final String stateName) {
         checkNotNull(stateName, "stateName must not be null");
@@ -204,6 +203,44 @@ public class StateTableDefBuilderImpl<D extends StateTableData, E extends StateE
         return new StateTableDefImpl<>(name, states);
     }
 
+    /**
+     * Returns the actors for each annotated method found in the specified class.
+     *
+     * @param annotatedClass the class to introspect for Actor annotations
+     * @return the actors for each annotated method found in the specified class
+     */
+    @NotNull
+    private static List<MethodActor<?, ?>> scanForActors(@NotNull final Class<?> annotatedClass) {
+        final String className = annotatedClass.getName();
+        final List<MethodActor<?, ?>> methodActors = new ArrayList<>();
+        final Method[] methods = annotatedClass.getMethods();
+        for (final Method method : methods) {
+            final Actor actor = method.getAnnotation(Actor.class);
+            if (null != actor) {
+                String name = actor.name();
+                if (TransitionActor.UNNAMED.equals(name)) {
+                    name = method.getName();
+                }
+                final MethodActor.ArgumentType argumentType = getMethodArgumentType(className, name, method);
+                if (null != argumentType) {
+                    final int modifiers = method.getModifiers();
+                    if (Modifier.isStatic(modifiers)) {
+                        methodActors.add(new MethodActor<>(argumentType, null, method, name, actor.retrySafe()));
+                    } else {
+                        if (StateTableData.class.isAssignableFrom(annotatedClass)) {
+                            methodActors.add(
+                                    new MethodActor<>(argumentType, annotatedClass, method, name, actor.retrySafe()));
+                        } else {
+                            LOGGER.warn("Ignoring actor, '{}', in class '{}', because the annotated method is not not static and the class does not extend {}",
+                                    name, className, StateTableData.class.getName());
+                        }
+                    }
+                }
+            }
+        }
+        return Collections.unmodifiableList(methodActors);
+    }
+
     /**
      * Returns the type of argument the actor method expects or <code>null</code> when the method does not have a valid
      * signature.
@@ -8,20 +8,27 @@ import com.worthent.foundation.util.annotation.Nullable;
 import com.worthent.foundation.util.state.StateEvent;
 import com.worthent.foundation.util.state.StateExeException;
 import com.worthent.foundation.util.state.StateTableData;
+import com.worthent.foundation.util.state.def.EventId;
 import com.worthent.foundation.util.state.def.StateDef;
 import com.worthent.foundation.util.state.def.StateDefException;
+import com.worthent.foundation.util.state.def.StateId;
 import com.worthent.foundation.util.state.def.StateTableDef;
 import com.worthent.foundation.util.state.def.StateTransitionDef;
 
+import java.util.Collection;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.function.Function;
 import java.util.stream.Collectors;
 
 import static com.worthent.foundation.util.condition.Preconditions.checkNotBlank;
 import static com.worthent.foundation.util.condition.Preconditions.checkNotEmpty;
+import static com.worthent.foundation.util.condition.Preconditions.checkNotNull;
 
 /**
  * Defines a state transition table from the collection of states that can exist.
@@ -77,6 +84,30 @@ public class StateTableDefImpl<D extends StateTableData, E extends StateEvent> i
     /** The table of state definitions keyed by each state's state name */
     private final Map<String, StateDef<D, E>> stateTbl;
 
+    /** The interned symbol for each state name */
+    private final Map<String, StateId> stateIds;
+
+    /** The state definitions indexed by the ordinal of their symbols */
+    private final StateDef<D, E>[] statesByOrdinal;
+
+    /** The symbols for the states indexed by ordinal */
+    private final StateId[] stateIdsByOrdinal;
+
+    /** The interned symbol for each event name that has a transition */
+    private final Map<String, EventId> eventIds;
+
+    /** The symbols for the events indexed by ordinal */
+    private final EventId[] eventIdsByOrdinal;
+
+    /** The transition for each state and event, indexed by state ordinal and then event ordinal */
+    private final StateTransitionDef<D, E>[][] transitionTbl;
+
+    /** The symbol for the target state of each transition in the transition table or <code>null</code> */
+    private final StateId[][] targetIdTbl;
+
+    /** The symbol for the target state of the default transition of each state or <code>null</code> */
+    private final StateId[] defaultTargetIds;
+
     /**
      * Construct a state table with a given name and the list of state
      * definitions
@@ -98,6 +129,40 @@ public class StateTableDefImpl<D extends StateTableData, E extends StateEvent> i
                             throw new StateDefException(String.format("Duplicate state name, '%s'", u));
                         },
                         LinkedHashMap::new)));
+        this.statesByOrdinal = stateTbl.values().toArray(newStateArray(stateTbl.size()));
+        this.stateIdsByOrdinal = StateId.newStateIds(stateTbl.keySet());
+        final Map<String, StateId> stateIdMap = new HashMap<>();
+        for (final StateId stateId : stateIdsByOrdinal) {
+            stateIdMap.put(stateId.getName(), stateId);
+        }
+        this.stateIds = Collections.unmodifiableMap(stateIdMap);
+        final Set<String> eventNames = new LinkedHashSet<>();
+        for (final StateDef<D, E> state : statesByOrdinal) {
+            for (final StateTransitionDef<D, E> transition : state.getTransitions()) {
+                final String eventName = transition.getEventName();
+                if (!StateTransitionDefImpl.DEFAULT_HANDLER_EVENT_ID.equals(eventName)) {
+                    eventNames.add(eventName);
+                }
+            }
+        }
+        this.eventIdsByOrdinal = EventId.newEventIds(eventNames);
+        final Map<String, EventId> eventIdMap = new HashMap<>();
+        for (final EventId eventId : eventIdsByOrdinal) {
+            eventIdMap.put(eventId.getName(), eventId);
+        }
+        this.eventIds = Collections.unmodifiableMap(eventIdMap);
+        this.transitionTbl = newTransitionTable(statesByOrdinal.length, eventIdsByOrdinal.length);
+        this.targetIdTbl = new StateId[statesByOrdinal.length][eventIdsByOrdinal.length];
+        this.defaultTargetIds = new StateId[statesByOrdinal.length];
+        for (int i = 0; i < statesByOrdinal.length; i++) {
+            final StateDef<D, E> state = statesByOrdinal[i];
+            for (final EventId eventId : eventIdsByOrdinal) {
+                final StateTransitionDef<D, E> transition = state.getTransitionForEvent(eventId.getName());
+                transitionTbl[i][eventId.getOrdinal()] = (null == transition) ? state.getDefaultTransition() : transition;
+                targetIdTbl[i][eventId.getOrdinal()] = toTargetStateId(transitionTbl[i][eventId.getOrdinal()]);
+            }
+            defaultTargetIds[i] = toTargetStateId(state.getDefaultTransition());
+        }
     }
 
     /**
@@ -118,6 +183,14 @@ public class StateTableDefImpl<D extends StateTableData, E extends StateEvent> i
         return stateTbl.values().iterator().next();
     }
 
+    /**
+     * Returns the state definitions in the order they were added to the table.
+     */
+    @NotNull
+    public Collection<StateDef<D, E>> getStates() {
+        return stateTbl.values();
+    }
+
     /**
      * Returns <code>true</code> if the specified state identifier is present in
      * the state table.
@@ -164,4 +237,82 @@ public class StateTableDefImpl<D extends StateTableData, E extends StateEvent> i
         return transition;
     }
 
+    @Nullable
+    @Override
+    public final StateId getStateId(@NotNull final String stateName) {
+        return stateIds.get(checkNotNull(stateName, "stateName must not be null"));
+    }
+
+    @Nullable
+    @Override
+    public final StateDef<D, E> getState(@NotNull final StateId stateId) {
+        final int ordinal = checkNotNull(stateId, "stateId must not be null").getOrdinal();
+        return (ordinal < stateIdsByOrdinal.length && stateIdsByOrdinal[ordinal] == stateId)
+                ? statesByOrdinal[ordinal]
+                : null;
+    }
+
+    @Nullable
+    @Override
+    public final EventId getEventId(@NotNull final String eventName) {
+        return eventIds.get(checkNotNull(eventName, "eventName must not be null"));
+    }
+
+    @NotNull
+    @Override
+    public StateTransitionDef<D, E> getTransition(
+            @NotNull final StateId stateId,
+            @NotNull final EventId eventId) throws StateExeException {
+        final int stateOrdinal = checkNotNull(stateId, "stateId must not be null").getOrdinal();
+        final int eventOrdinal = checkNotNull(eventId, "eventId must not be null").getOrdinal();
+        if (stateOrdinal >= stateIdsByOrdinal.length || stateIdsByOrdinal[stateOrdinal] != stateId) {
+            throw new StateExeException("The state table, '" + name + "', did not create the state symbol, '" +
+                    stateId + "'.");
+        }
+        if (eventOrdinal >= eventIdsByOrdinal.length || eventIdsByOrdinal[eventOrdinal] != eventId) {
+            throw new StateExeException("The state table, '" + name + "', did not create the event symbol, '" +
+                    eventId + "'.");
+        }
+        return transitionTbl[stateOrdinal][eventOrdinal];
+    }
+
+    @Nullable
+    @Override
+    public StateId getTargetStateId(
+            @NotNull final StateId stateId,
+            @Nullable final EventId eventId) throws StateExeException {
+        final int stateOrdinal = checkNotNull(stateId, "stateId must not be null").getOrdinal();
+        if (stateOrdinal >= stateIdsByOrdinal.length || stateIdsByOrdinal[stateOrdinal] != stateId) {
+            throw new StateExeException("The state table, '" + name + "', did not create the state symbol, '" +
+                    stateId + "'.");
+        }
+        if (null == eventId) {
+            return defaultTargetIds[stateOrdinal];
+        }
+        final int eventOrdinal = eventId.getOrdinal();
+        if (eventOrdinal >= eventIdsByOrdinal.length || eventIdsByOrdinal[eventOrdinal] != eventId) {
+            throw new StateExeException("The state table, '" + name + "', did not create the event symbol, '" +
+                    eventId + "'.");
+        }
+        return targetIdTbl[stateOrdinal][eventOrdinal];
+    }
+
+    /** Returns the symbol for the target state of the transition or <code>null</code> when it is not a state */
+    private StateId toTargetStateId(@Nullable final StateTransitionDef<D, E> transition) {
+        return (null == transition) ? null : stateIds.get(transition.getTargetStateName());
+    }
+
+    /** Returns a new array of state definitions */
+    @SuppressWarnings("unchecked")
+    private static <D extends StateTableData, E extends StateEvent> StateDef<D, E>[] newStateArray(final int size) {
+        return (StateDef<D, E>[]) new StateDef<?, ?>[size];
+    }
+
+    /** Returns a new table of transitions */
+    @SuppressWarnings("unchecked")
+    private static <D extends StateTableData, E extends StateEvent> StateTransitionDef<D, E>[][] newTransitionTable(
+            final int stateCount,
+            final int eventCount) {
+        return (StateTransitionDef<D, E>[][]) new StateTransitionDef<?, ?>[stateCount][eventCount];
+    }
 }
@@ -10,7 +10,6 @@ import com.worthent.foundation.util.state.provider.ToStateNavigationActor;
 
 import java.util.Collections;
 import java.util.List;
-import java.util.Optional;
 import java.util.Set;
 
 import static com.worthent.foundation.util.condition.Preconditions.checkNotNull;
@@ -37,6 +36,9 @@ public class StateTransitionDefImpl<D extends StateTableData, E extends StateEve
      */
     private final List<TransitionActor<D, E>> actors;
 
+    /** The states to which this transition may go, which are computed once since the definition is immutable */
+    private final Set<String> potentialTargetStateNames;
+
     /**
      * Construct a state transition object. Instances of this object define the
      * event that triggers a state transition to a given state and the actions
@@ -53,6 +55,7 @@ public class StateTransitionDefImpl<D extends StateTableData, E extends StateEve
         this.onEvent = checkNotNull(onEvent, "onEvent must not be null");
         this.goToState = checkNotNull(goToState, "goToState must not be null");
         this.actors = Collections.unmodifiableList(checkNotNull(actors, "actors must not be null"));
+        this.potentialTargetStateNames = getPotentialTargetStateNames(goToState, this.actors);
     }
 
     /**
@@ -118,7 +121,7 @@ public class StateTransitionDefImpl<D extends StateTableData, E extends StateEve
     @NotNull
     @Override
     public Set<String> getPotentialTargetStateNames() {
-        return getPotentialTargetStateNames(goToState, actors);
+        return potentialTargetStateNames;
     }
 
     @NotNull
@@ -148,14 +151,13 @@ public class StateTransitionDefImpl<D extends StateTableData, E extends StateEve
             // only state to which the transition can go.
             return Collections.singleton(goToState);
         }
-        final Optional<ToStateNavigationActor<D, E>> toStateNavigationActor = actors.stream()
-                .filter(a -> a instanceof ToStateNavigationActor)
-                .map(a -> (ToStateNavigationActor<D, E>)a)
-                .findFirst();
+        for (final TransitionActor<D, E> actor : actors) {
+            if (actor instanceof ToStateNavigationActor) {
+                return ((ToStateNavigationActor<D, E>) actor).getPossibleTargetStates();
+            }
+        }
         // If the special actor is not found, it is still possible for the integrator to have provided their own
         // actor that governs the state change.  In that case, we do not know where it will go.
-        return toStateNavigationActor.isPresent()
-                ? toStateNavigationActor.get().getPossibleTargetStates()
-                : Collections.singleton(goToState);
+        return Collections.singleton(goToState);
     }
 }
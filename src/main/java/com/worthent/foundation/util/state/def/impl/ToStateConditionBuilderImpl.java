@@ -7,6 +7,7 @@ import com.worthent.foundation.util.state.def.ToStateConditionBuilder;
 import com.worthent.foundation.util.state.def.ToStateConditionListBuilder;
 
 import java.util.function.BiPredicate;
+import java.util.function.Function;
 import java.util.function.Predicate;
 
 import static com.worthent.foundation.util.condition.Preconditions.checkNotNull;
@@ -44,4 +45,14 @@ public class ToStateConditionBuilderImpl<D extends StateTableData, E extends Sta
         parentBuilder.append(new ToStateConditionWithDataAndEventPredicate<>(toStateName, conditionOnDataAndEvent));
         return parentBuilder;
     }
+
+    @Override
+    public <K> ToStateConditionListBuilder<D, E> when(
+            @NotNull final Function<D, K> fieldsOfData,
+            @NotNull final Predicate<K> conditionOnFields) {
+        checkNotNull(fieldsOfData, "fieldsOfData must not be null");
+        checkNotNull(conditionOnFields, "conditionOnFields must not be null");
+        parentBuilder.append(new ToStateConditionWithMemoizedPredicate<>(toStateName, fieldsOfData, conditionOnFields));
+        return parentBuilder;
+    }
 }
@@ -0,0 +1,74 @@
+package com.worthent.foundation.util.state.def.impl;
+
+import com.worthent.foundation.util.annotation.NotNull;
+import com.worthent.foundation.util.state.StateEvent;
+import com.worthent.foundation.util.state.StateTableData;
+import com.worthent.foundation.util.state.TransitionContext;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+import static com.worthent.foundation.util.condition.Preconditions.checkNotNull;
+
+/**
+ * Implements the association of a target state with a condition implemented using a predicate on a declared subset of
+ * the fields of the data object.  The result of the predicate is memoized for each distinct set of field values, so
+ * the predicate only runs the first time a given combination of values is seen.  The memo is bounded, and once full,
+ * results for new combinations of values are computed on each event without being remembered.
+ */
+public class ToStateConditionWithMemoizedPredicate<D extends StateTableData, E extends StateEvent, K>
+        implements ToStateCondition<D, E> {
+
+    /** The maximum number of results remembered by each condition */
+    static final int MAX_MEMOIZED_RESULTS = 1024;
+
+    /** Stands in for a <code>null</code> key in the memo, which does not accept <code>null</code> keys */
+    private static final Object NULL_KEY = new Object();
+
+    private final String toState;
+
+    private final Function<D, K> fieldsOfData;
+
+    private final Predicate<K> conditionOnFields;
+
+    /** The results of the predicate keyed by the field values */
+    private final ConcurrentMap<Object, Boolean> results;
+
+    ToStateConditionWithMemoizedPredicate(
+            @NotNull final String toState,
+            @NotNull final Function<D, K> fieldsOfData,
+            @NotNull final Predicate<K> conditionOnFields) {
+        this.toState = checkNotNull(toState, "toState must not be null");
+        this.fieldsOfData = checkNotNull(fieldsOfData, "fieldsOfData must not be null");
+        this.conditionOnFields = checkNotNull(conditionOnFields, "conditionOnFields must not be null");
+        this.results = new ConcurrentHashMap<>();
+    }
+
+    @Override
+    @NotNull
+    public String getToState() {
+        return toState;
+    }
+
+    @Override
+    public boolean test(@NotNull final TransitionContext<D, E> transitionContext) {
+        final K fields = fieldsOfData.apply(transitionContext.getStateTableData());
+        final Object key = (null == fields) ? NULL_KEY : fields;
+        final Boolean memoized = results.get(key);
+        if (null != memoized) {
+            return memoized;
+        }
+        final boolean result = conditionOnFields.test(fields);
+        if (results.size() < MAX_MEMOIZED_RESULTS) {
+            results.putIfAbsent(key, result);
+        }
+        return result;
+    }
+
+    /** @return the number of results remembered by this condition */
+    int getMemoizedResultCount() {
+        return results.size();
+    }
+}
@@ -0,0 +1,67 @@
+/*
+ * Copyright 2000-2016 Worth Enterprises, Inc.  All Rights Reserved.
+ */
+package com.worthent.foundation.util.state.etc.capture;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.EOFException;
+import java.io.IOException;
+
+/**
+ * Constants and helpers describing the layout of a capture file. A capture starts with a header holding the magic
+ * number, the format version and the wall clock time when the capture started. Each event follows as a record holding
+ * the nanoseconds since the previous event as a variable length integer, the encoded event and the name of the state
+ * the table was in after processing it, which is empty when the capture does not probe the state.
+ *
+ * @author Erik K. Worth
+ */
+final class CaptureFormat {
+
+    /** Identifies a capture file ("WSEC") */
+    static final int MAGIC = 0x57534543;
+
+    /** The version of the capture file format */
+    static final int VERSION = 1;
+
+    /** Hide the constructor for this static helper */
+    private CaptureFormat() {}
+
+    /** Writes an unsigned variable length integer */
+    static void writeVarLong(final DataOutput out, final long value) throws IOException {
+        long remaining = value;
+        while ((remaining & ~0x7FL) != 0L) {
+            out.writeByte((int) ((remaining & 0x7FL) | 0x80L));
+            remaining >>>= 7;
+        }
+        out.writeByte((int) remaining);
+    }
+
+    /**
+     * Reads an unsigned variable length integer or returns a negative number when the input is at the end of the
+     * capture.
+     */
+    static long readVarLong(final DataInput in) throws IOException {
+        long value = 0L;
+        int shift = 0;
+        while (true) {
+            final int next;
+            try {
+                next = in.readUnsignedByte();
+            } catch (final EOFException exc) {
+                if (shift == 0) {
+                    return -1L;
+                }
+                throw exc;
+            }
+            value |= ((long) (next & 0x7F)) << shift;
+            if ((next & 0x80) == 0) {
+                return value;
+            }
+            shift += 7;
+            if (shift > 63) {
+                throw new IOException("Malformed capture record");
+            }
+        }
+    }
+}
@@ -0,0 +1,70 @@
+/*
+ * Copyright 2000-2016 Worth Enterprises, Inc.  All Rights Reserved.
+ */
+package com.worthent.foundation.util.state.etc.capture;
+
+import com.worthent.foundation.util.annotation.NotNull;
+import com.worthent.foundation.util.state.StateEvent;
+import com.worthent.foundation.util.state.StateExeException;
+
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+
+import static com.worthent.foundation.util.condition.Preconditions.checkNotNull;
+
+/**
+ * Reads the events recorded by a {@link CapturingStateTableControl}.
+ *
+ * @author Erik K. Worth
+ */
+public final class CaptureReader {
+
+    /** Hide the constructor for this static helper */
+    private CaptureReader() {}
+
+    /**
+     * Reads all the events from a capture. The events are decoded up front so decoding does not distort the pacing
+     * or the throughput of a replay.
+     *
+     * @param in the stream providing the capture
+     * @param codec decodes the events with the same encoding used to record them
+     * @param <E> the type of event
+     * @return the captured events in the order they were recorded
+     * @throws StateExeException thrown when the stream is not a capture or there is an error reading it
+     */
+    @NotNull
+    public static <E extends StateEvent> List<CapturedEvent<E>> readAll(
+            @NotNull final InputStream in,
+            @NotNull final EventCodec<E> codec) throws StateExeException {
+        checkNotNull(in, "in must not be null");
+        checkNotNull(codec, "codec must not be null");
+        final DataInputStream data = new DataInputStream(new BufferedInputStream(in));
+        final List<CapturedEvent<E>> events = new ArrayList<>();
+        try {
+            if (data.readInt() != CaptureFormat.MAGIC) {
+                throw new StateExeException("The stream is not an event capture");
+            }
+            final int version = data.readUnsignedShort();
+            if (version != CaptureFormat.VERSION) {
+                throw new StateExeException("Unsupported event capture version, " + version);
+            }
+            data.readLong();
+            final boolean hasStates = data.readBoolean();
+            long offsetNanos = 0L;
+            long delta;
+            while ((delta = CaptureFormat.readVarLong(data)) >= 0L) {
+                offsetNanos += delta;
+                final E event = codec.decode(data);
+                final String stateAfter = hasStates ? data.readUTF() : null;
+                events.add(new CapturedEvent<>(offsetNanos, event, stateAfter));
+            }
+        } catch (final IOException exc) {
+            throw new StateExeException("Error reading event " + events.size() + " from the capture", exc);
+        }
+        return events;
+    }
+}
@@ -0,0 +1,55 @@
+/*
+ * Copyright 2000-2016 Worth Enterprises, Inc.  All Rights Reserved.
+ */
+package com.worthent.foundation.util.state.etc.capture;
+
+import com.worthent.foundation.util.annotation.NotNull;
+import com.worthent.foundation.util.annotation.Nullable;
+import com.worthent.foundation.util.state.StateEvent;
+
+/**
+ * An event read from a capture along with when it arrived and the state the table was in after processing it.
+ *
+ * @param <E> the type of event
+ *
+ * @author Erik K. Worth
+ */
+public final class CapturedEvent<E extends StateEvent> {
+
+    /** The nanoseconds from the start of the capture to when the event arrived */
+    private final long offsetNanos;
+
+    /** The captured event */
+    private final E event;
+
+    /** The state after processing the event or <code>null</code> when the capture did not probe the state */
+    private final String stateAfter;
+
+    CapturedEvent(final long offsetNanos, final E event, final String stateAfter) {
+        this.offsetNanos = offsetNanos;
+        this.event = event;
+        this.stateAfter = stateAfter;
+    }
+
+    /** @return the nanoseconds from the start of the capture to when the event arrived */
+    public long getOffsetNanos() {
+        return offsetNanos;
+    }
+
+    /** @return the captured event */
+    @NotNull
+    public E getEvent() {
+        return event;
+    }
+
+    /** @return the state after processing the event or <code>null</code> when the capture did not probe the state */
+    @Nullable
+    public String getStateAfter() {
+        return stateAfter;
+    }
+
+    @Override
+    public String toString() {
+        return "+" + offsetNanos + "ns " + event.getName() + ((null == stateAfter) ? "" : " -> " + stateAfter);
+    }
+}
@@ -0,0 +1,380 @@
+/*
+ * Copyright 2000-2016 Worth Enterprises, Inc.  All Rights Reserved.
+ */
+package com.worthent.foundation.util.state.etc.capture;
+
+import com.worthent.foundation.util.annotation.NotNull;
+import com.worthent.foundation.util.annotation.Nullable;
+import com.worthent.foundation.util.state.StateEvent;
+import com.worthent.foundation.util.state.StateExeException;
+import com.worthent.foundation.util.state.StateTableControl;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Supplier;
+
+import static com.worthent.foundation.util.condition.Preconditions.checkNotNull;
+
+/**
+ * Decorates a {@link StateTableControl} to record each signaled event with its arrival time to a compact binary
+ * capture that the {@link EventReplayer} can later feed through a state table. Each event is passed to the delegate
+ * first and then encoded with a pluggable {@link EventCodec} into a buffer owned by the signaling thread and queued for
+ * a background thread that writes it to the capture stream, so producers never wait on each other or on the stream.
+ * <p>
+ * When constructed with a state probe, the capture also records the state the table was in after each event so
+ * replays can report where they diverge from production. The probe is only meaningful for controls that process the
+ * event before {@link #signalEvent} returns.
+ * <p>
+ * Capturing never fails the live event stream. When the queue is full, because events arrive faster than the capture
+ * stream takes them, events are passed to the delegate but not recorded and are counted as dropped. When the capture
+ * stream fails, the error is logged and recording stops. Events signaled concurrently are recorded in the order they
+ * are queued. The capture is complete once the control is stopped or closed.
+ *
+ * @param <E> the type of event
+ *
+ * @author Erik K. Worth
+ */
+public class CapturingStateTableControl<E extends StateEvent> implements StateTableControl<E>, Closeable {
+
+    /** Logger for this class */
+    private static final Logger LOGGER = LoggerFactory.getLogger(CapturingStateTableControl.class);
+
+    /** The size of the buffer between the writer and the capture stream */
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    /** The default number of events queued for the writer before new events are dropped */
+    public static final int DEFAULT_CAPACITY = 64 * 1024;
+
+    /** The time the writer waits between writes when the queue is empty */
+    private static final long WRITE_INTERVAL_NANOS = TimeUnit.MILLISECONDS.toNanos(10L);
+
+    /** The control that processes the events */
+    private final StateTableControl<E> delegate;
+
+    /** Encodes the events */
+    private final EventCodec<? super E> codec;
+
+    /** Returns the current state of the table or <code>null</code> when not probing the state */
+    private final Supplier<String> stateProbe;
+
+    /** The stream receiving the capture, written only while holding the stream lock */
+    private final DataOutputStream out;
+
+    /** Guards the capture stream between the writer thread, {@link #flush} and {@link #close} */
+    private final Object streamLock;
+
+    /** The encoded events waiting to be written */
+    private final ConcurrentLinkedQueue<Record> pending;
+
+    /** The number of events waiting to be written */
+    private final AtomicInteger pendingCount;
+
+    /** The most events waiting to be written before new events are dropped */
+    private final int capacity;
+
+    /** The buffer each signaling thread encodes its events into */
+    private final ThreadLocal<RecordBuffer> recordBuffers;
+
+    /** The number of events not recorded because the queue was full or the event could not be encoded */
+    private final AtomicLong droppedCount;
+
+    /** Set once the capture is closed */
+    private final AtomicBoolean closed;
+
+    /** The thread that writes the events to the capture stream */
+    private final Thread writerThread;
+
+    /** Set while events are being recorded, cleared when the capture is closed or fails */
+    private volatile boolean recording;
+
+    /** Set while the writer thread should keep running */
+    private volatile boolean running;
+
+    /** The arrival time of the previous event written, used only while holding the stream lock */
+    private long lastNanos;
+
+    /**
+     * Construct the capture without recording the state after each event.
+     *
+     * @param delegate the control that processes the events
+     * @param codec encodes the events
+     * @param out the stream receiving the capture
+     * @throws StateExeException thrown when there is an error writing the capture header
+     */
+    public CapturingStateTableControl(
+            @NotNull final StateTableControl<E> delegate,
+            @NotNull final EventCodec<? super E> codec,
+            @NotNull final OutputStream out) throws StateExeException {
+        this(delegate, codec, out, null);
+    }
+
+    /**
+     * Construct the capture.
+     *
+     * @param delegate the control that processes the events
+     * @param codec encodes the events
+     * @param out the stream receiving the capture
+     * @param stateProbe returns the current state of the table after each event or <code>null</code> to not record
+     *                   the state
+     * @throws StateExeException thrown when there is an error writing the capture header
+     */
+    public CapturingStateTableControl(
+            @NotNull final StateTableControl<E> delegate,
+            @NotNull final EventCodec<? super E> codec,
+            @NotNull final OutputStream out,
+            @Nullable final Supplier<String> stateProbe) throws StateExeException {
+        this(delegate, codec, out, stateProbe, DEFAULT_CAPACITY);
+    }
+
+    /**
+     * Construct the capture with the number of events that may wait for the writer.
+     *
+     * @param delegate the control that processes the events
+     * @param codec encodes the events
+     * @param out the stream receiving the capture
+     * @param stateProbe returns the current state of the table after each event or <code>null</code> to not record
+     *                   the state
+     * @param capacity the most events waiting to be written before new events are dropped
+     * @throws StateExeException thrown when there is an error writing the capture header
+     */
+    public CapturingStateTableControl(
+            @NotNull final StateTableControl<E> delegate,
+            @NotNull final EventCodec<? super E> codec,
+            @NotNull final OutputStream out,
+            @Nullable final Supplier<String> stateProbe,
+            final int capacity) throws StateExeException {
+        this.delegate = checkNotNull(delegate, "delegate must not be null");
+        this.codec = checkNotNull(codec, "codec must not be null");
+        checkNotNull(out, "out must not be null");
+        if (capacity < 1) {
+            throw new IllegalArgumentException("capacity must be positive");
+        }
+        this.stateProbe = stateProbe;
+        this.capacity = capacity;
+        this.out = new DataOutputStream(new BufferedOutputStream(out, BUFFER_SIZE));
+        try {
+            this.out.writeInt(CaptureFormat.MAGIC);
+            this.out.writeShort(CaptureFormat.VERSION);
+            this.out.writeLong(System.currentTimeMillis());
+            this.out.writeBoolean(null != stateProbe);
+        } catch (final IOException exc) {
+            throw new StateExeException("Error writing the event capture header", exc);
+        }
+        this.streamLock = new Object();
+        this.pending = new ConcurrentLinkedQueue<>();
+        this.pendingCount = new AtomicInteger();
+        this.recordBuffers = ThreadLocal.withInitial(RecordBuffer::new);
+        this.droppedCount = new AtomicLong();
+        this.closed = new AtomicBoolean();
+        this.lastNanos = System.nanoTime();
+        this.recording = true;
+        this.running = true;
+        this.writerThread = new Thread(this::writeRecords, "Event Capture Writer");
+        this.writerThread.setDaemon(true);
+        this.writerThread.start();
+    }
+
+    /** @return <code>true</code> while events are being recorded */
+    public boolean isRecording() {
+        return recording;
+    }
+
+    /** @return the number of events not recorded because the queue was full or the event could not be encoded */
+    public long getDroppedCount() {
+        return droppedCount.get();
+    }
+
+    /**
+     * Writes the queued events to the capture stream and flushes it.  An error writing the capture is logged and
+     * stops the recording.
+     */
+    public void flush() {
+        synchronized (streamLock) {
+            writePending();
+            if (recording) {
+                try {
+                    out.flush();
+                } catch (final IOException exc) {
+                    stopRecording(exc);
+                }
+            }
+        }
+    }
+
+    /**
+     * Writes the queued events, stops recording and closes the capture stream. Events signaled afterward are passed
+     * to the delegate without being recorded.
+     *
+     * @throws IOException thrown when there is an error closing the capture stream
+     */
+    @Override
+    public void close() throws IOException {
+        if (!closed.compareAndSet(false, true)) {
+            return;
+        }
+        running = false;
+        LockSupport.unpark(writerThread);
+        try {
+            writerThread.join();
+        } catch (final InterruptedException exc) {
+            Thread.currentThread().interrupt();
+        }
+        synchronized (streamLock) {
+            writePending();
+            recording = false;
+            out.close();
+        }
+    }
+
+    //
+    // StateTableControl Interface
+    //
+
+    @Override
+    public void start() throws StateExeException {
+        delegate.start();
+    }
+
+    /** Stops the delegate and closes the capture */
+    @Override
+    public void stop() throws StateExeException {
+        try {
+            delegate.stop();
+        } finally {
+            try {
+                close();
+            } catch (final IOException exc) {
+                throw new StateExeException("Error closing the event capture", exc);
+            }
+        }
+    }
+
+    /**
+     * Passes the event to the delegate and then queues it to be recorded. Events the delegate rejects are still
+     * recorded so replays see the same stream.
+     */
+    @Override
+    public void signalEvent(@NotNull final E event) throws StateExeException {
+        checkNotNull(event, "event must not be null");
+        final long arrivalNanos = System.nanoTime();
+        try {
+            delegate.signalEvent(event);
+        } finally {
+            record(event, arrivalNanos);
+        }
+    }
+
+    /** Encodes the event on the signaling thread and queues it for the writer unless the queue is full */
+    private void record(final E event, final long arrivalNanos) {
+        if (!recording) {
+            return;
+        }
+        if (pendingCount.incrementAndGet() > capacity) {
+            pendingCount.decrementAndGet();
+            droppedCount.incrementAndGet();
+            return;
+        }
+        final byte[] encoded;
+        final String state;
+        try {
+            encoded = recordBuffers.get().encode(codec, event);
+            state = (null == stateProbe) ? null : stateProbe.get();
+        } catch (final IOException | RuntimeException exc) {
+            pendingCount.decrementAndGet();
+            droppedCount.incrementAndGet();
+            LOGGER.warn("Unable to record the event, {}, to the capture", event.getName(), exc);
+            return;
+        }
+        pending.offer(new Record(arrivalNanos, encoded, state));
+    }
+
+    /** Writes the queued events until closed */
+    private void writeRecords() {
+        while (true) {
+            final boolean stopping = !running;
+            synchronized (streamLock) {
+                writePending();
+            }
+            if (stopping) {
+                return;
+            }
+            LockSupport.parkNanos(WRITE_INTERVAL_NANOS);
+        }
+    }
+
+    /** Writes the queued events to the capture stream, which must be called holding the stream lock */
+    private void writePending() {
+        Record record;
+        while (null != (record = pending.poll())) {
+            pendingCount.decrementAndGet();
+            if (!recording) {
+                continue;
+            }
+            try {
+                // Concurrent signals may be queued out of arrival order, so never write a negative delta
+                CaptureFormat.writeVarLong(out, Math.max(0L, record.arrivalNanos - lastNanos));
+                lastNanos = Math.max(lastNanos, record.arrivalNanos);
+                out.write(record.encoded);
+                if (null != stateProbe) {
+                    out.writeUTF((null == record.state) ? "" : record.state);
+                }
+            } catch (final IOException exc) {
+                stopRecording(exc);
+            }
+        }
+    }
+
+    /** Logs the error writing the capture and stops recording while the delegate keeps receiving events */
+    private void stopRecording(final IOException exc) {
+        recording = false;
+        LOGGER.error("Stopped recording the event capture after an error writing it", exc);
+    }
+
+    /** An encoded event waiting to be written */
+    private static final class Record {
+
+        /** The arrival time of the event */
+        private final long arrivalNanos;
+
+        /** The event encoded by the codec */
+        private final byte[] encoded;
+
+        /** The state of the table after the event or <code>null</code> when not probing the state */
+        private final String state;
+
+        private Record(final long arrivalNanos, final byte[] encoded, final String state) {
+            this.arrivalNanos = arrivalNanos;
+            this.encoded = encoded;
+            this.state = state;
+        }
+    }
+
+    /** The buffer a signaling thread reuses to encode its events */
+    private static final class RecordBuffer extends ByteArrayOutputStream {
+
+        /** Writes into this buffer */
+        private final DataOutputStream data = new DataOutputStream(this);
+
+        /** Returns a copy of the encoded event */
+        private <T extends StateEvent> byte[] encode(final EventCodec<? super T> codec, final T event)
+                throws IOException {
+            reset();
+            codec.encode(event, data);
+            data.flush();
+            return toByteArray();
+        }
+    }
+}
@@ -0,0 +1,41 @@
+/*
+ * Copyright 2000-2016 Worth Enterprises, Inc.  All Rights Reserved.
+ */
+package com.worthent.foundation.util.state.etc.capture;
+
+import com.worthent.foundation.util.annotation.NotNull;
+import com.worthent.foundation.util.state.StateEvent;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+
+/**
+ * Specifies the methods used to write events to a capture file and read them back for replay. Implementations should
+ * write as few bytes as practical since the capture runs on the path of every production event.
+ *
+ * @param <E> the type of event
+ *
+ * @author Erik K. Worth
+ */
+public interface EventCodec<E extends StateEvent> {
+
+    /**
+     * Writes the event to the output.
+     *
+     * @param event the event to write
+     * @param out the output receiving the encoded event
+     * @throws IOException thrown when there is an error writing the event
+     */
+    void encode(@NotNull E event, @NotNull DataOutput out) throws IOException;
+
+    /**
+     * Reads an event written by {@link #encode} from the input.
+     *
+     * @param in the input providing the encoded event
+     * @return the decoded event
+     * @throws IOException thrown when there is an error reading the event
+     */
+    @NotNull
+    E decode(@NotNull DataInput in) throws IOException;
+}
@@ -0,0 +1,196 @@
+/*
+ * Copyright 2000-2016 Worth Enterprises, Inc.  All Rights Reserved.
+ */
+package com.worthent.foundation.util.state.etc.capture;
+
+import com.worthent.foundation.util.annotation.NotNull;
+import com.worthent.foundation.util.state.StateEvent;
+import com.worthent.foundation.util.state.StateEventBuilder;
+import com.worthent.foundation.util.state.StateEventWithDataMap;
+import com.worthent.foundation.util.state.StateEvents;
+import com.worthent.foundation.util.state.impl.StateEventBuilderImpl;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.Map;
+
+import static com.worthent.foundation.util.condition.Preconditions.checkNotNull;
+
+/**
+ * Factory for the standard event codecs.
+ *
+ * @author Erik K. Worth
+ */
+public final class EventCodecs {
+
+    /** Type tag for a <code>null</code> data value */
+    private static final int NULL_VALUE = 0;
+
+    /** Type tag for a string data value */
+    private static final int STRING_VALUE = 1;
+
+    /** Type tag for an integer data value */
+    private static final int INTEGER_VALUE = 2;
+
+    /** Type tag for a long data value */
+    private static final int LONG_VALUE = 3;
+
+    /** Type tag for a double data value */
+    private static final int DOUBLE_VALUE = 4;
+
+    /** Type tag for a boolean data value */
+    private static final int BOOLEAN_VALUE = 5;
+
+    /** Codec that records only the event name */
+    private static final EventCodec<StateEvent> EVENT_NAME_CODEC = new EventCodec<StateEvent>() {
+        @Override
+        public void encode(@NotNull final StateEvent event, @NotNull final DataOutput out) throws IOException {
+            out.writeUTF(event.getName());
+        }
+
+        @NotNull
+        @Override
+        public StateEvent decode(@NotNull final DataInput in) throws IOException {
+            return StateEvents.builder(in.readUTF()).build();
+        }
+    };
+
+    /** Codec that records the event name and its data map */
+    private static final EventCodec<StateEventWithDataMap> DATA_MAP_CODEC =
+            new EventCodec<StateEventWithDataMap>() {
+        @Override
+        public void encode(
+                @NotNull final StateEventWithDataMap event,
+                @NotNull final DataOutput out) throws IOException {
+            out.writeUTF(event.getName());
+            final Map<String, Object> eventData = event.getEventData();
+            out.writeInt(eventData.size());
+            for (final Map.Entry<String, Object> entry : eventData.entrySet()) {
+                out.writeUTF(entry.getKey());
+                writeValue(entry.getKey(), entry.getValue(), out);
+            }
+        }
+
+        @NotNull
+        @Override
+        public StateEventWithDataMap decode(@NotNull final DataInput in) throws IOException {
+            final StateEventBuilder<StateEventWithDataMap> builder = new StateEventBuilderImpl<>(in.readUTF());
+            final int size = in.readInt();
+            for (int i = 0; i < size; i++) {
+                final String key = in.readUTF();
+                builder.withEventData(key, readValue(in));
+            }
+            return builder.build();
+        }
+    };
+
+    /** Hide the constructor for this static factory */
+    private EventCodecs() {}
+
+    /**
+     * Returns the codec that records only the name of each event and replays them as events built with
+     * {@link StateEvents#builder}. Use it when the event data does not influence the transitions being measured.
+     *
+     * @return the codec that records only the event name
+     */
+    @NotNull
+    public static EventCodec<StateEvent> eventNameCodec() {
+        return EVENT_NAME_CODEC;
+    }
+
+    /**
+     * Returns the codec that records the name and data map of each event. The data values must be strings, integers,
+     * longs, doubles, booleans or <code>null</code>.
+     *
+     * @return the codec that records the event name and its data map
+     */
+    @NotNull
+    public static EventCodec<StateEventWithDataMap> dataMapCodec() {
+        return DATA_MAP_CODEC;
+    }
+
+    /**
+     * Returns a codec for events identified by a value from an enumeration. It records the ordinal of the value so the
+     * enumeration must not be reordered between the capture and the replay.
+     *
+     * @param eventType the enumeration identifying the events
+     * @param <T> the enumerated type
+     * @return the codec for events created with {@link StateEvents#enumeratedStateEvent}
+     */
+    @NotNull
+    public static <T extends Enum<T>> EventCodec<StateEvent> enumeratedEventCodec(@NotNull final Class<T> eventType) {
+        checkNotNull(eventType, "eventType must not be null");
+        final T[] values = eventType.getEnumConstants();
+        return new EventCodec<StateEvent>() {
+            @Override
+            public void encode(@NotNull final StateEvent event, @NotNull final DataOutput out) throws IOException {
+                try {
+                    out.writeShort(Enum.valueOf(eventType, event.getName()).ordinal());
+                } catch (final IllegalArgumentException exc) {
+                    throw new IOException("The event, " + event.getName() + ", is not a value in " +
+                            eventType.getName(), exc);
+                }
+            }
+
+            @NotNull
+            @Override
+            public StateEvent decode(@NotNull final DataInput in) throws IOException {
+                final int ordinal = in.readUnsignedShort();
+                if (ordinal >= values.length) {
+                    throw new IOException("The ordinal, " + ordinal + ", is not a value in " + eventType.getName());
+                }
+                return StateEvents.enumeratedStateEvent(values[ordinal]);
+            }
+        };
+    }
+
+    /** Writes a tagged data value */
+    private static void writeValue(
+            final String key,
+            final Object value,
+            final DataOutput out) throws IOException {
+        if (null == value) {
+            out.writeByte(NULL_VALUE);
+        } else if (value instanceof String) {
+            out.writeByte(STRING_VALUE);
+            out.writeUTF((String) value);
+        } else if (value instanceof Integer) {
+            out.writeByte(INTEGER_VALUE);
+            out.writeInt((Integer) value);
+        } else if (value instanceof Long) {
+            out.writeByte(LONG_VALUE);
+            out.writeLong((Long) value);
+        } else if (value instanceof Double) {
+            out.writeByte(DOUBLE_VALUE);
+            out.writeDouble((Double) value);
+        } else if (value instanceof Boolean) {
+            out.writeByte(BOOLEAN_VALUE);
+            out.writeBoolean((Boolean) value);
+        } else {
+            throw new IOException("Unable to encode the event data, " + key + ", of type " +
+                    value.getClass().getName());
+        }
+    }
+
+    /** Reads a tagged data value */
+    private static Object readValue(final DataInput in) throws IOException {
+        final int tag = in.readUnsignedByte();
+        switch (tag) {
+            case NULL_VALUE:
+                return null;
+            case STRING_VALUE:
+                return in.readUTF();
+            case INTEGER_VALUE:
+                return in.readInt();
+            case LONG_VALUE:
+                return in.readLong();
+            case DOUBLE_VALUE:
+                return in.readDouble();
+            case BOOLEAN_VALUE:
+                return in.readBoolean();
+            default:
+                throw new IOException("Unrecognized event data type, " + tag);
+        }
+    }
+}
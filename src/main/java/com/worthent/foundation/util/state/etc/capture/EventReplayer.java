@@ -0,0 +1,120 @@
+/*
+ * Copyright 2000-2016 Worth Enterprises, Inc.  All Rights Reserved.
+ */
+package com.worthent.foundation.util.state.etc.capture;
+
+import com.worthent.foundation.util.annotation.NotNull;
+import com.worthent.foundation.util.annotation.Nullable;
+import com.worthent.foundation.util.state.StateEvent;
+import com.worthent.foundation.util.state.StateExeException;
+import com.worthent.foundation.util.state.StateTableControl;
+import com.worthent.foundation.util.state.etc.perf.ThroughputHarness;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Supplier;
+
+import static com.worthent.foundation.util.condition.Preconditions.checkNotNull;
+
+/**
+ * Feeds the events from a capture through a state table control and reports the throughput and how the resulting
+ * sequence of states diverges from the capture. Replaying the same capture through two builds of a state table gives
+ * an A/B comparison against an identical workload.
+ *
+ * @author Erik K. Worth
+ */
+public class EventReplayer {
+
+    /** Logger for this class */
+    private static final Logger LOGGER = LoggerFactory.getLogger(EventReplayer.class);
+
+    /** Specifies how fast the events are replayed */
+    public enum Pacing {
+        /** Replay the events with the same spacing they had when captured */
+        ORIGINAL,
+
+        /** Replay the events with their captured spacing divided by the speed factor */
+        SCALED,
+
+        /** Replay the events as fast as the control accepts them */
+        MAXIMUM
+    }
+
+    /** Specifies how fast the events are replayed */
+    private final Pacing pacing;
+
+    /** The factor by which to speed up the replay when the pacing is {@link Pacing#SCALED} */
+    private final double speedFactor;
+
+    /**
+     * Construct the replayer.
+     *
+     * @param pacing specifies how fast the events are replayed
+     * @param speedFactor the factor by which to speed up the replay when the pacing is {@link Pacing#SCALED}, for
+     *                    example 2.0 replays twice as fast as captured
+     */
+    public EventReplayer(@NotNull final Pacing pacing, final double speedFactor) {
+        this.pacing = checkNotNull(pacing, "pacing must not be null");
+        if (pacing == Pacing.SCALED && !(speedFactor > 0.0)) {
+            throw new IllegalArgumentException("speedFactor must be positive");
+        }
+        this.speedFactor = (pacing == Pacing.SCALED) ? speedFactor : 1.0;
+    }
+
+    /**
+     * Replays the captured events through the control, which must already be started.
+     *
+     * @param events the captured events
+     * @param control the control receiving the events
+     * @param stateProbe returns the current state of the table after each event or <code>null</code> to skip the
+     *                   state comparison
+     * @param <E> the type of event
+     * @return the throughput and divergence of the replay
+     */
+    @NotNull
+    public <E extends StateEvent> ReplayReport replay(
+            @NotNull final List<CapturedEvent<E>> events,
+            @NotNull final StateTableControl<E> control,
+            @Nullable final Supplier<String> stateProbe) {
+        checkNotNull(events, "events must not be null");
+        checkNotNull(control, "control must not be null");
+        final List<String> states = new ArrayList<>((null == stateProbe) ? 0 : events.size());
+        final List<String> capturedStates = getCapturedStates(events);
+        int errorCount = 0;
+        final long startNanos = System.nanoTime();
+        for (final CapturedEvent<E> captured : events) {
+            if (pacing != Pacing.MAXIMUM) {
+                ThroughputHarness.waitUntil(startNanos + (long) (captured.getOffsetNanos() / speedFactor));
+            }
+            try {
+                control.signalEvent(captured.getEvent());
+            } catch (final StateExeException exc) {
+                errorCount++;
+                LOGGER.trace("Replayed event rejected", exc);
+            }
+            if (null != stateProbe) {
+                final String state = stateProbe.get();
+                states.add((null == state) ? "" : state);
+            }
+        }
+        final long elapsedNanos = System.nanoTime() - startNanos;
+        final ReplayReport report =
+                new ReplayReport(events.size(), errorCount, elapsedNanos, states, capturedStates);
+        LOGGER.info("Replay: {}", report);
+        return report;
+    }
+
+    /** Returns the states recorded in the capture or <code>null</code> when it did not record them */
+    private static List<String> getCapturedStates(final List<? extends CapturedEvent<?>> events) {
+        if (events.isEmpty() || null == events.get(0).getStateAfter()) {
+            return null;
+        }
+        final List<String> capturedStates = new ArrayList<>(events.size());
+        for (final CapturedEvent<?> captured : events) {
+            capturedStates.add(captured.getStateAfter());
+        }
+        return capturedStates;
+    }
+}
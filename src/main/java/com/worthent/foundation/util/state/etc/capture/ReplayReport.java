@@ -0,0 +1,130 @@
+/*
+ * Copyright 2000-2016 Worth Enterprises, Inc.  All Rights Reserved.
+ */
+package com.worthent.foundation.util.state.etc.capture;
+
+import com.worthent.foundation.util.annotation.NotNull;
+import com.worthent.foundation.util.annotation.Nullable;
+
+import java.util.Collections;
+import java.util.List;
+
+import static com.worthent.foundation.util.condition.Preconditions.checkNotNull;
+
+/**
+ * Immutable results of replaying a capture with the {@link EventReplayer}: the throughput and the sequence of states
+ * the table passed through, compared with the states recorded in the capture when it has them.
+ *
+ * @author Erik K. Worth
+ */
+public final class ReplayReport {
+
+    /** The number of events replayed */
+    private final int eventCount;
+
+    /** The number of events the control rejected with an exception */
+    private final int errorCount;
+
+    /** The elapsed time in nanoseconds to replay the events */
+    private final long elapsedNanos;
+
+    /** The state after each replayed event or an empty list when the replay did not probe the state */
+    private final List<String> states;
+
+    /** The index of the first event whose state differs from the capture or -1 when none differ */
+    private final int firstDivergentEvent;
+
+    /** The number of events whose state differs from the capture */
+    private final int divergentEventCount;
+
+    ReplayReport(
+            final int eventCount,
+            final int errorCount,
+            final long elapsedNanos,
+            @NotNull final List<String> states,
+            @Nullable final List<String> capturedStates) {
+        this.eventCount = eventCount;
+        this.errorCount = errorCount;
+        this.elapsedNanos = elapsedNanos;
+        this.states = Collections.unmodifiableList(states);
+        int first = -1;
+        int count = 0;
+        if (null != capturedStates && !states.isEmpty()) {
+            for (int i = 0; i < states.size(); i++) {
+                if (!states.get(i).equals(capturedStates.get(i))) {
+                    count++;
+                    if (first < 0) {
+                        first = i;
+                    }
+                }
+            }
+        }
+        this.firstDivergentEvent = first;
+        this.divergentEventCount = count;
+    }
+
+    /** @return the number of events replayed */
+    public int getEventCount() {
+        return eventCount;
+    }
+
+    /** @return the number of events the control rejected with an exception */
+    public int getErrorCount() {
+        return errorCount;
+    }
+
+    /** @return the elapsed time in nanoseconds to replay the events */
+    public long getElapsedNanos() {
+        return elapsedNanos;
+    }
+
+    /** @return the number of events replayed per second */
+    public double getEventsPerSecond() {
+        return (elapsedNanos == 0L) ? 0.0 : eventCount * 1.0e9 / elapsedNanos;
+    }
+
+    /** @return the state after each replayed event or an empty list when the replay did not probe the state */
+    @NotNull
+    public List<String> getStates() {
+        return states;
+    }
+
+    /**
+     * @return the index of the first event whose state differs from the state recorded in the capture or -1 when
+     * none differ or there is nothing to compare
+     */
+    public int getFirstDivergentEvent() {
+        return firstDivergentEvent;
+    }
+
+    /** @return the number of events whose state differs from the state recorded in the capture */
+    public int getDivergentEventCount() {
+        return divergentEventCount;
+    }
+
+    /**
+     * Returns the index of the first event where the states from this replay differ from the states of another replay
+     * of the same capture. Use it to compare two engine versions when the capture has no recorded states.
+     *
+     * @param other the report from the other replay
+     * @return the index of the first event where the states differ or -1 when they are the same
+     */
+    public int getFirstDivergenceFrom(@NotNull final ReplayReport other) {
+        checkNotNull(other, "other must not be null");
+        final int common = Math.min(states.size(), other.states.size());
+        for (int i = 0; i < common; i++) {
+            if (!states.get(i).equals(other.states.get(i))) {
+                return i;
+            }
+        }
+        return (states.size() == other.states.size()) ? -1 : common;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("events=%d, errors=%d, elapsed=%.3f ms, throughput=%.0f events/s, " +
+                        "divergent=%d, firstDivergent=%d",
+                eventCount, errorCount, elapsedNanos / 1.0e6, getEventsPerSecond(),
+                divergentEventCount, firstDivergentEvent);
+    }
+}
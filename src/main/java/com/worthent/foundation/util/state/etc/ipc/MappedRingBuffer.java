@@ -0,0 +1,268 @@
+/*
+ * Copyright 2000-2016 Worth Enterprises, Inc.  All Rights Reserved.
+ */
+package com.worthent.foundation.util.state.etc.ipc;
+
+import com.worthent.foundation.util.annotation.NotNull;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+import static com.worthent.foundation.util.condition.Preconditions.checkNotNull;
+
+/**
+ * A single-producer, single-consumer queue of byte records in a memory-mapped file, used to pass events between
+ * processes on the same host.  One process creates the file and the other opens it, and each maps it into memory.
+ * Offering and polling records only reads and writes the mapped memory, so there are no system calls on the fast
+ * path.
+ * <p>
+ * The file starts with a header holding the magic number, the capacity, the producer's write position and the
+ * consumer's read position, each position on its own cache line.  The positions increase forever and are masked by
+ * the power-of-two capacity to find the offset in the data area.  Each record is an <code>int</code> length followed
+ * by the payload, padded to 8 bytes.  A record that does not fit before the end of the data area is preceded by a
+ * padding marker and written at the start.
+ * <p>
+ * The producer writes the record before publishing the new write position and the consumer reads the write position
+ * before reading the record.  Each position is written with a release store and read with an acquire load through
+ * {@link OrderedAccess}, so a record is visible before the position that publishes it and its space is only reused
+ * after the consumer has read it.  The records themselves are plain reads and writes of the mapped buffer.
+ * <p>
+ * At most one thread in one process may offer records and at most one thread in one process may poll them.
+ *
+ * @author Erik K. Worth
+ */
+public class MappedRingBuffer implements Closeable {
+
+    /** Identifies a ring buffer file ("WSRB") */
+    private static final int MAGIC = 0x57535242;
+
+    /** Offset of the magic number */
+    private static final int MAGIC_OFFSET = 0;
+
+    /** Offset of the capacity of the data area */
+    private static final int CAPACITY_OFFSET = 4;
+
+    /** Offset of the producer's write position, on its own cache line */
+    private static final int TAIL_OFFSET = 64;
+
+    /** Offset of the consumer's read position, on its own cache line */
+    private static final int HEAD_OFFSET = 128;
+
+    /** Offset of the data area */
+    private static final int DATA_OFFSET = 192;
+
+    /** The length written in place of a record to mark the rest of the data area as unused */
+    private static final int PADDING = -1;
+
+    /** Each record starts on a multiple of this number of bytes */
+    private static final int ALIGNMENT = 8;
+
+    /** The size of the length that precedes each record */
+    private static final int LENGTH_SIZE = 4;
+
+    /** The smallest capacity of the data area */
+    public static final int MIN_CAPACITY = 1024;
+
+    /** The mapped file */
+    private final MappedByteBuffer mapped;
+
+    /** The view of the data area used to write records */
+    private final ByteBuffer writeView;
+
+    /** The view of the data area used to read records */
+    private final ByteBuffer readView;
+
+    /** The capacity of the data area in bytes */
+    private final int capacity;
+
+    /** Masks a position to an offset in the data area */
+    private final int mask;
+
+    /** The producer's write position */
+    private long tail;
+
+    /** The consumer's read position as last read by the producer */
+    private long cachedHead;
+
+    /** The consumer's read position */
+    private long head;
+
+    /** The producer's write position as last read by the consumer */
+    private long cachedTail;
+
+    /**
+     * Creates a new ring buffer file, replacing any existing file.
+     *
+     * @param path the path of the file
+     * @param capacity the capacity of the data area in bytes, which must be a power of two no smaller than
+     *                 {@link #MIN_CAPACITY}
+     * @return the ring buffer mapped from the new file
+     * @throws IOException thrown when there is an error creating or mapping the file
+     */
+    @NotNull
+    public static MappedRingBuffer create(@NotNull final Path path, final int capacity) throws IOException {
+        checkNotNull(path, "path must not be null");
+        if (capacity < MIN_CAPACITY || Integer.bitCount(capacity) != 1) {
+            throw new IllegalArgumentException("capacity must be a power of two of at least " + MIN_CAPACITY);
+        }
+        try (final FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            final MappedByteBuffer mapped = channel.map(FileChannel.MapMode.READ_WRITE, 0L, DATA_OFFSET + capacity);
+            mapped.putLong(TAIL_OFFSET, 0L);
+            mapped.putLong(HEAD_OFFSET, 0L);
+            mapped.putInt(CAPACITY_OFFSET, capacity);
+            mapped.putInt(MAGIC_OFFSET, MAGIC);
+            return new MappedRingBuffer(mapped, capacity);
+        }
+    }
+
+    /**
+     * Opens an existing ring buffer file created by {@link #create}.
+     *
+     * @param path the path of the file
+     * @return the ring buffer mapped from the file
+     * @throws IOException thrown when the file is not a ring buffer or there is an error mapping it
+     */
+    @NotNull
+    public static MappedRingBuffer open(@NotNull final Path path) throws IOException {
+        checkNotNull(path, "path must not be null");
+        try (final FileChannel channel = FileChannel.open(path, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            final long size = channel.size();
+            if (size < DATA_OFFSET + MIN_CAPACITY) {
+                throw new IOException("The file, " + path + ", is not a ring buffer");
+            }
+            final MappedByteBuffer mapped = channel.map(FileChannel.MapMode.READ_WRITE, 0L, size);
+            final int capacity = mapped.getInt(CAPACITY_OFFSET);
+            if (mapped.getInt(MAGIC_OFFSET) != MAGIC || DATA_OFFSET + (long) capacity != size) {
+                throw new IOException("The file, " + path + ", is not a ring buffer");
+            }
+            return new MappedRingBuffer(mapped, capacity);
+        }
+    }
+
+    /** Construct from the mapped file */
+    private MappedRingBuffer(final MappedByteBuffer mapped, final int capacity) {
+        this.mapped = mapped;
+        this.capacity = capacity;
+        this.mask = capacity - 1;
+        final ByteBuffer data = ((ByteBuffer) mapped.duplicate().position(DATA_OFFSET)).slice();
+        this.writeView = data.duplicate();
+        this.readView = data.duplicate();
+        this.tail = readTail();
+        this.head = readHead();
+        this.cachedHead = head;
+        this.cachedTail = tail;
+    }
+
+    /** @return the capacity of the data area in bytes */
+    public int getCapacity() {
+        return capacity;
+    }
+
+    /** @return the largest record that may be offered */
+    public int getMaxRecordLength() {
+        return capacity / 2 - LENGTH_SIZE;
+    }
+
+    /**
+     * Appends a record to the queue when there is room.  Only one thread may call this method.
+     *
+     * @param source the array holding the record
+     * @param offset the offset of the record in the array
+     * @param length the length of the record
+     * @return <code>true</code> when the record was appended and <code>false</code> when the queue is full
+     * @throws IllegalArgumentException when the record is longer than {@link #getMaxRecordLength()}
+     */
+    public boolean offer(@NotNull final byte[] source, final int offset, final int length) {
+        if (length < 0 || length > getMaxRecordLength()) {
+            throw new IllegalArgumentException("length must be between 0 and " + getMaxRecordLength());
+        }
+        final int recordLength = align(LENGTH_SIZE + length);
+        int index = (int) (tail & mask);
+        final int toEnd = capacity - index;
+        final int needed = (recordLength > toEnd) ? toEnd + recordLength : recordLength;
+        if (tail + needed - cachedHead > capacity) {
+            cachedHead = readHead();
+            if (tail + needed - cachedHead > capacity) {
+                return false;
+            }
+        }
+        long newTail = tail;
+        if (recordLength > toEnd) {
+            writeView.putInt(index, PADDING);
+            newTail += toEnd;
+            index = 0;
+        }
+        writeView.position(index + LENGTH_SIZE);
+        writeView.put(source, offset, length);
+        writeView.putInt(index, length);
+        newTail += recordLength;
+        // Make the record visible before the new write position
+        OrderedAccess.setRelease(mapped, TAIL_OFFSET, newTail);
+        tail = newTail;
+        return true;
+    }
+
+    /**
+     * Removes the next record from the queue and copies it into the target array.  Only one thread may call this
+     * method.
+     *
+     * @param target the array receiving the record, which must hold at least {@link #getMaxRecordLength()} bytes
+     * @return the length of the record or -1 when the queue is empty
+     */
+    public int poll(@NotNull final byte[] target) {
+        if (head == cachedTail) {
+            cachedTail = readTail();
+            if (head == cachedTail) {
+                return -1;
+            }
+        }
+        int index = (int) (head & mask);
+        int length = readView.getInt(index);
+        if (length == PADDING) {
+            head += capacity - index;
+            index = 0;
+            length = readView.getInt(index);
+        }
+        if (length > target.length) {
+            throw new IllegalArgumentException("target must hold at least " + length + " bytes");
+        }
+        readView.position(index + LENGTH_SIZE);
+        readView.get(target, 0, length);
+        head += align(LENGTH_SIZE + length);
+        // Finish reading the record before releasing its space to the producer
+        OrderedAccess.setRelease(mapped, HEAD_OFFSET, head);
+        return length;
+    }
+
+    /** @return <code>true</code> when there are no records waiting in the queue */
+    public boolean isEmpty() {
+        return readHead() == readTail();
+    }
+
+    /** Nothing is released until the mapping is garbage collected */
+    @Override
+    public void close() {
+        mapped.force();
+    }
+
+    /** Reads the producer's write position before any record it publishes */
+    private long readTail() {
+        return OrderedAccess.getAcquire(mapped, TAIL_OFFSET);
+    }
+
+    /** Reads the consumer's read position before reusing the space it released */
+    private long readHead() {
+        return OrderedAccess.getAcquire(mapped, HEAD_OFFSET);
+    }
+
+    /** Rounds the length up to the record alignment */
+    private static int align(final int length) {
+        return (length + ALIGNMENT - 1) & -ALIGNMENT;
+    }
+}
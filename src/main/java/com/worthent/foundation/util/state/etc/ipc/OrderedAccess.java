@@ -0,0 +1,115 @@
+/*
+ * Copyright 2000-2016 Worth Enterprises, Inc.  All Rights Reserved.
+ */
+package com.worthent.foundation.util.state.etc.ipc;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.reflect.Method;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+/**
+ * Reads and writes <code>long</code> values in a byte buffer with acquire and release ordering, so the positions a
+ * {@link MappedRingBuffer} shares with another process publish the records written before them.
+ * <p>
+ * On Java 9 and later the accesses go through the access modes of the <code>VarHandle</code> returned by
+ * <code>MethodHandles.byteBufferViewVarHandle</code>, which are looked up by reflection since this library is built
+ * for Java 8.  Java 8 offers no ordered access to buffers without internal APIs, so there each plain access is
+ * paired with an access to a volatile field: a volatile write before the store of a position and a volatile read
+ * after its load.  This relies on the HotSpot JIT compiler treating volatile accesses as barriers for all memory,
+ * mapped memory included, which the Java memory model does not promise.
+ * <p>
+ * The buffer must use big-endian byte order and the offsets must be multiples of 8 from a page aligned mapping.
+ *
+ * @author Erik K. Worth
+ */
+final class OrderedAccess {
+
+    /** Logger for this class */
+    private static final Logger LOGGER = LoggerFactory.getLogger(OrderedAccess.class);
+
+    /** Loads a <code>long</code> with acquire ordering or <code>null</code> when there is no VarHandle support */
+    private static final MethodHandle GET_ACQUIRE;
+
+    /** Stores a <code>long</code> with release ordering or <code>null</code> when there is no VarHandle support */
+    private static final MethodHandle SET_RELEASE;
+
+    /** Orders the plain buffer accesses when there is no VarHandle support and always holds zero */
+    private static volatile int fence;
+
+    static {
+        MethodHandle getAcquire = null;
+        MethodHandle setRelease = null;
+        try {
+            final Method viewFactory =
+                    MethodHandles.class.getMethod("byteBufferViewVarHandle", Class.class, ByteOrder.class);
+            final Object varHandle = viewFactory.invoke(null, long[].class, ByteOrder.BIG_ENDIAN);
+            final Class<?> accessModeClass = Class.forName("java.lang.invoke.VarHandle$AccessMode");
+            final Method toMethodHandle =
+                    Class.forName("java.lang.invoke.VarHandle").getMethod("toMethodHandle", accessModeClass);
+            getAcquire = (MethodHandle) toMethodHandle.invoke(
+                    varHandle, accessModeClass.getField("GET_ACQUIRE").get(null));
+            setRelease = (MethodHandle) toMethodHandle.invoke(
+                    varHandle, accessModeClass.getField("SET_RELEASE").get(null));
+        } catch (final ReflectiveOperationException | RuntimeException exc) {
+            LOGGER.debug("VarHandle access to byte buffers is not available, using volatile fences", exc);
+            getAcquire = null;
+            setRelease = null;
+        }
+        GET_ACQUIRE = getAcquire;
+        SET_RELEASE = setRelease;
+    }
+
+    /** Static methods only */
+    private OrderedAccess() {}
+
+    /**
+     * Loads the value so that no later read or write moves before it.
+     *
+     * @param buffer the buffer holding the value
+     * @param index the offset of the value in the buffer
+     * @return the value
+     */
+    static long getAcquire(final ByteBuffer buffer, final int index) {
+        if (null == GET_ACQUIRE) {
+            final long value = buffer.getLong(index);
+            // Keeps the later accesses from moving before the load
+            final int ordered = fence;
+            return value + ordered;
+        }
+        try {
+            return (long) GET_ACQUIRE.invokeExact(buffer, index);
+        } catch (final RuntimeException | Error exc) {
+            throw exc;
+        } catch (final Throwable exc) {
+            throw new IllegalStateException("Unexpected error reading the buffer", exc);
+        }
+    }
+
+    /**
+     * Stores the value so that no earlier read or write moves after it.
+     *
+     * @param buffer the buffer receiving the value
+     * @param index the offset of the value in the buffer
+     * @param value the value
+     */
+    static void setRelease(final ByteBuffer buffer, final int index, final long value) {
+        if (null == SET_RELEASE) {
+            // Keeps the earlier accesses from moving after the store
+            fence = 0;
+            buffer.putLong(index, value);
+            return;
+        }
+        try {
+            SET_RELEASE.invokeExact(buffer, index, value);
+        } catch (final RuntimeException | Error exc) {
+            throw exc;
+        } catch (final Throwable exc) {
+            throw new IllegalStateException("Unexpected error writing the buffer", exc);
+        }
+    }
+}
@@ -0,0 +1,52 @@
+/*
+ * Copyright 2000-2016 Worth Enterprises, Inc.  All Rights Reserved.
+ */
+package com.worthent.foundation.util.state.etc.ipc;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+
+/**
+ * Byte array streams that expose and reuse their arrays so events can be encoded and decoded through the
+ * <code>DataOutput</code> and <code>DataInput</code> interfaces without allocating for each record.
+ *
+ * @author Erik K. Worth
+ */
+final class RecordBuffers {
+
+    /** Hide the constructor for this holder of nested classes */
+    private RecordBuffers() {}
+
+    /** Output stream whose array is read directly after each record is written */
+    static final class Output extends ByteArrayOutputStream {
+
+        Output(final int initialSize) {
+            super(initialSize);
+        }
+
+        /** @return the array holding the record written since the last reset */
+        byte[] array() {
+            return buf;
+        }
+    }
+
+    /** Input stream that reads records from a reused array */
+    static final class Input extends ByteArrayInputStream {
+
+        Input(final byte[] array) {
+            super(array, 0, 0);
+        }
+
+        /** @return the array into which records are copied */
+        byte[] array() {
+            return buf;
+        }
+
+        /** Rewinds the stream to read a record of the specified length from the start of the array */
+        void reset(final int length) {
+            pos = 0;
+            mark = 0;
+            count = length;
+        }
+    }
+}
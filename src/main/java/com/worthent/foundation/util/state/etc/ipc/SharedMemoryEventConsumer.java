@@ -0,0 +1,176 @@
+/*
+ * Copyright 2000-2016 Worth Enterprises, Inc.  All Rights Reserved.
+ */
+package com.worthent.foundation.util.state.etc.ipc;
+
+import com.worthent.foundation.util.annotation.NotNull;
+import com.worthent.foundation.util.state.StateEvent;
+import com.worthent.foundation.util.state.StateExeException;
+import com.worthent.foundation.util.state.StateTableControl;
+import com.worthent.foundation.util.state.etc.capture.EventCodec;
+import com.worthent.foundation.util.state.provider.BackoffIdleStrategy;
+import com.worthent.foundation.util.state.provider.IdleStrategy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.util.concurrent.locks.LockSupport;
+
+import static com.worthent.foundation.util.condition.Preconditions.checkNotNull;
+
+/**
+ * Drains the events published by a {@link SharedMemoryStateTableControl} in another process from a
+ * {@link MappedRingBuffer} and signals them to a local state table control.  Events may be drained by calling
+ * {@link #drain} from an existing loop or by a dedicated thread started with {@link #start}, which waits on an empty
+ * buffer as directed by an {@link IdleStrategy}.  The default spins briefly before backing off so that latency stays
+ * low while the producer is busy.
+ * <p>
+ * Errors signaling an event to the local control are logged and do not stop the consumer, in keeping with a queuing
+ * control where the producer has already moved on.
+ *
+ * @author Erik K. Worth
+ */
+public class SharedMemoryEventConsumer<E extends StateEvent> {
+
+    /** Logger for this class */
+    private static final Logger LOGGER = LoggerFactory.getLogger(SharedMemoryEventConsumer.class);
+
+    /** The ring buffer providing the events */
+    private final MappedRingBuffer ringBuffer;
+
+    /** Decodes the events */
+    private final EventCodec<E> codec;
+
+    /** The local control receiving the events */
+    private final StateTableControl<E> control;
+
+    /** Holds each record read from the ring buffer */
+    private final RecordBuffers.Input record;
+
+    /** Decodes from the record */
+    private final DataInputStream in;
+
+    /** Determines how the consumer thread waits on an empty buffer */
+    private final IdleStrategy idleStrategy;
+
+    /** The thread draining the ring buffer or <code>null</code> when not started */
+    private Thread consumerThread;
+
+    /** Set while the consumer thread should keep running */
+    private volatile boolean running;
+
+    /**
+     * Construct the consumer with the default idle strategy, which spins 1000 polls, yields 100 polls and then parks
+     * for up to 100 microseconds between polls.
+     *
+     * @param ringBuffer the ring buffer providing the events
+     * @param codec decodes the events
+     * @param control the local control receiving the events, which must already be started
+     */
+    public SharedMemoryEventConsumer(
+            @NotNull final MappedRingBuffer ringBuffer,
+            @NotNull final EventCodec<E> codec,
+            @NotNull final StateTableControl<E> control) {
+        this(ringBuffer, codec, control, new BackoffIdleStrategy());
+    }
+
+    /**
+     * Construct the consumer.
+     *
+     * @param ringBuffer the ring buffer providing the events
+     * @param codec decodes the events
+     * @param control the local control receiving the events, which must already be started
+     * @param idleStrategy determines how the consumer thread waits on an empty buffer
+     */
+    public SharedMemoryEventConsumer(
+            @NotNull final MappedRingBuffer ringBuffer,
+            @NotNull final EventCodec<E> codec,
+            @NotNull final StateTableControl<E> control,
+            @NotNull final IdleStrategy idleStrategy) {
+        this.idleStrategy = checkNotNull(idleStrategy, "idleStrategy must not be null");
+        this.ringBuffer = checkNotNull(ringBuffer, "ringBuffer must not be null");
+        this.codec = checkNotNull(codec, "codec must not be null");
+        this.control = checkNotNull(control, "control must not be null");
+        this.record = new RecordBuffers.Input(new byte[ringBuffer.getMaxRecordLength()]);
+        this.in = new DataInputStream(record);
+    }
+
+    /**
+     * Signals the waiting events to the local control.  Only one thread may drain the ring buffer.
+     *
+     * @param maxEvents the most events to signal
+     * @return the number of events signaled
+     */
+    public int drain(final int maxEvents) {
+        int drained = 0;
+        while (drained < maxEvents) {
+            final int length = ringBuffer.poll(record.array());
+            if (length < 0) {
+                break;
+            }
+            drained++;
+            record.reset(length);
+            final E event;
+            try {
+                event = codec.decode(in);
+            } catch (final IOException exc) {
+                LOGGER.error("Unable to decode an event of {} bytes from the ring buffer", length, exc);
+                continue;
+            }
+            try {
+                control.signalEvent(event);
+            } catch (final StateExeException exc) {
+                LOGGER.error("Error signaling the event, {}, from the ring buffer", event.getName(), exc);
+            }
+        }
+        return drained;
+    }
+
+    /**
+     * Starts a daemon thread that drains the ring buffer until stopped.
+     *
+     * @param threadName the name of the consumer thread
+     */
+    public synchronized void start(@NotNull final String threadName) {
+        checkNotNull(threadName, "threadName must not be null");
+        if (null != consumerThread) {
+            throw new IllegalStateException("The consumer is already started");
+        }
+        running = true;
+        consumerThread = new Thread(this::run, threadName);
+        consumerThread.setDaemon(true);
+        consumerThread.start();
+    }
+
+    /**
+     * Stops the consumer thread after it drains the events already waiting.
+     *
+     * @throws InterruptedException thrown when interrupted while waiting for the thread to stop
+     */
+    public synchronized void stop() throws InterruptedException {
+        if (null == consumerThread) {
+            return;
+        }
+        running = false;
+        LockSupport.unpark(consumerThread);
+        consumerThread.join();
+        consumerThread = null;
+    }
+
+    /** Drains the ring buffer, waiting as directed by the idle strategy while it is empty */
+    private void run() {
+        int idlePolls = 0;
+        while (running) {
+            if (drain(Integer.MAX_VALUE) > 0) {
+                idlePolls = 0;
+            } else {
+                idleStrategy.idle(idlePolls);
+                if (idlePolls < Integer.MAX_VALUE) {
+                    idlePolls++;
+                }
+            }
+        }
+        drain(Integer.MAX_VALUE);
+    }
+}
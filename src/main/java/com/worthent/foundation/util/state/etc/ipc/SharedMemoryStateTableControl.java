@@ -0,0 +1,140 @@
+/*
+ * Copyright 2000-2016 Worth Enterprises, Inc.  All Rights Reserved.
+ */
+package com.worthent.foundation.util.state.etc.ipc;
+
+import com.worthent.foundation.util.annotation.NotNull;
+import com.worthent.foundation.util.state.StateEvent;
+import com.worthent.foundation.util.state.StateExeException;
+import com.worthent.foundation.util.state.StateTableControl;
+import com.worthent.foundation.util.state.etc.capture.EventCodec;
+
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+import static com.worthent.foundation.util.condition.Preconditions.checkNotNull;
+
+/**
+ * Implements the {@link StateTableControl} interface to publish events into a {@link MappedRingBuffer} shared with
+ * another process, where a {@link SharedMemoryEventConsumer} drains them into that process's local control.  It
+ * replaces a loopback socket between state tables in different JVMs on the same host.  The call to
+ * {@link #signalEvent} returns once the event is in the ring buffer and waits, up to a timeout, when the buffer is full.
+ * <p>
+ * Events are encoded with a pluggable {@link EventCodec} into a reused buffer.  The ring buffer admits a single
+ * producer, so signals from several threads in this process are serialized by this control.
+ *
+ * @author Erik K. Worth
+ */
+public class SharedMemoryStateTableControl<E extends StateEvent> implements StateTableControl<E> {
+
+    /** The default time to wait for room in a full ring buffer */
+    public static final long DEFAULT_OFFER_TIMEOUT_NANOS = TimeUnit.SECONDS.toNanos(5L);
+
+    /** The number of times to retry a full ring buffer before yielding */
+    private static final int SPIN_TRIES = 100;
+
+    /** The ring buffer receiving the events */
+    private final MappedRingBuffer ringBuffer;
+
+    /** Encodes the events */
+    private final EventCodec<? super E> codec;
+
+    /** The time to wait for room in a full ring buffer */
+    private final long offerTimeoutNanos;
+
+    /** Holds each encoded event */
+    private final RecordBuffers.Output record;
+
+    /** Encodes into the record */
+    private final DataOutputStream out;
+
+    /** Set while the control accepts events */
+    private volatile boolean started;
+
+    /**
+     * Construct with the default time to wait for room in a full ring buffer.
+     *
+     * @param ringBuffer the ring buffer receiving the events
+     * @param codec encodes the events
+     */
+    public SharedMemoryStateTableControl(
+            @NotNull final MappedRingBuffer ringBuffer,
+            @NotNull final EventCodec<? super E> codec) {
+        this(ringBuffer, codec, DEFAULT_OFFER_TIMEOUT_NANOS);
+    }
+
+    /**
+     * Construct the control.
+     *
+     * @param ringBuffer the ring buffer receiving the events
+     * @param codec encodes the events
+     * @param offerTimeoutNanos the time to wait for room in a full ring buffer before failing the signal
+     */
+    public SharedMemoryStateTableControl(
+            @NotNull final MappedRingBuffer ringBuffer,
+            @NotNull final EventCodec<? super E> codec,
+            final long offerTimeoutNanos) {
+        this.ringBuffer = checkNotNull(ringBuffer, "ringBuffer must not be null");
+        this.codec = checkNotNull(codec, "codec must not be null");
+        if (offerTimeoutNanos < 0L) {
+            throw new IllegalArgumentException("offerTimeoutNanos must not be negative");
+        }
+        this.offerTimeoutNanos = offerTimeoutNanos;
+        this.record = new RecordBuffers.Output(256);
+        this.out = new DataOutputStream(record);
+    }
+
+    //
+    // StateTableControl Interface
+    //
+
+    /** Starts accepting events.  The consumer process starts its own control. */
+    @Override
+    public void start() throws StateExeException {
+        started = true;
+    }
+
+    /** Stops accepting events.  Events already in the ring buffer remain for the consumer. */
+    @Override
+    public void stop() throws StateExeException {
+        started = false;
+    }
+
+    @Override
+    public synchronized void signalEvent(@NotNull final E event) throws StateExeException {
+        checkNotNull(event, "event must not be null");
+        if (!started) {
+            throw new StateExeException("The shared memory control is not started");
+        }
+        record.reset();
+        try {
+            codec.encode(event, out);
+            out.flush();
+        } catch (final IOException exc) {
+            throw new StateExeException("Error encoding the event, " + event.getName(), exc);
+        }
+        if (record.size() > ringBuffer.getMaxRecordLength()) {
+            throw new StateExeException("The encoded event, " + event.getName() + ", is " + record.size() +
+                    " bytes, which is longer than the ring buffer allows");
+        }
+        if (ringBuffer.offer(record.array(), 0, record.size())) {
+            return;
+        }
+        // The consumer has fallen behind so back off until there is room
+        final long deadline = System.nanoTime() + offerTimeoutNanos;
+        int tries = 0;
+        while (!ringBuffer.offer(record.array(), 0, record.size())) {
+            if (System.nanoTime() - deadline > 0L) {
+                throw new StateExeException("Timed out waiting for room in the ring buffer for the event, " +
+                        event.getName());
+            }
+            if (++tries < SPIN_TRIES) {
+                Thread.yield();
+            } else {
+                LockSupport.parkNanos(TimeUnit.MICROSECONDS.toNanos(50L));
+            }
+        }
+    }
+}
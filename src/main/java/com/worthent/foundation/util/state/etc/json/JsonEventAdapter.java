@@ -0,0 +1,203 @@
+/*
+ * Copyright 2000-2016 Worth Enterprises, Inc.  All rights reserved.
+ */
+package com.worthent.foundation.util.state.etc.json;
+
+import com.worthent.foundation.util.annotation.NotNull;
+import com.worthent.foundation.util.state.StateExeException;
+import com.worthent.foundation.util.state.StateTableControl;
+import com.worthent.foundation.util.state.etc.obj.BindingPlan;
+import com.worthent.foundation.util.state.etc.obj.ObjectConstructionController;
+import com.worthent.foundation.util.state.etc.obj.ObjectConstructionEvent;
+
+import java.io.Reader;
+import java.nio.ByteBuffer;
+
+import static com.worthent.foundation.util.condition.Preconditions.checkNotNull;
+
+/**
+ * Front end to the Object Construction state table that reads JSON documents with a {@link JsonTokenizer} and signals
+ * the same {@link ObjectConstructionEvent}s the XML front end does, so an {@link ObjectConstructionController} builds
+ * the same objects from either format.
+ * <p>
+ * Each record, which is a top-level object or an object in a top-level array, is signaled as a Root Start event, an
+ * Entity Start and Simple Value event for each string, number or boolean member, and an Object Done and Done event
+ * at its end.  A member holding an array is signaled as an Entity Start event for the list, an Entity Start and
+ * Object Done event around the members of each element and an Object Done event at the end of the array.  A member
+ * holding an object is signaled as two Entity Start events, one for the member and one for the object, followed by
+ * its members and an Object Done event.  Only one record is held in memory at a time, so documents of any size can be
+ * read.
+ * <p>
+ * The adapter uses the {@link BindingPlan} for the record class to skip members that match no constructor parameter,
+ * and their content, without signaling any events.  Members set to <code>null</code> are skipped as well.  Arrays
+ * of strings, numbers or booleans are reported as errors because the state table only builds lists of objects.
+ * <p>
+ * Like the SAX Event Adapter, the adapter reuses its Entity Start and Simple Value events when signaling an
+ * {@link ObjectConstructionController}, which processes each event before the next one is signaled, so it must be used
+ * by one thread at a time.
+ *
+ * @author Erik K. Worth
+ */
+public class JsonEventAdapter {
+
+    /** Receives the events */
+    private final StateTableControl<ObjectConstructionEvent> stateTableControl;
+
+    /** The plan for the class of each record, used to find the members to signal */
+    private final BindingPlan recordPlan;
+
+    /** Set when the control processes each event before returning so the events can be reused */
+    private final boolean reuseEvents;
+
+    /** Reused for each Entity Start event when the events can be reused */
+    private final ObjectConstructionEvent entityStartEvent;
+
+    /** Reused for each Simple Value event when the events can be reused */
+    private final ObjectConstructionEvent simpleValueEvent;
+
+    /**
+     * Construct the adapter for the control building each record.
+     *
+     * @param stateTableControl the control that receives the events, typically an Object Construction Controller
+     * @param recordClass the class of each record, which must have an annotated constructor
+     */
+    public JsonEventAdapter(
+            @NotNull final StateTableControl<ObjectConstructionEvent> stateTableControl,
+            @NotNull final Class<?> recordClass) {
+        this.stateTableControl = checkNotNull(stateTableControl, "stateTableControl must not be null");
+        this.recordPlan = BindingPlan.forClass(recordClass);
+        this.reuseEvents = stateTableControl instanceof ObjectConstructionController;
+        this.entityStartEvent = ObjectConstructionEvent.newReusableEntityStartEvent();
+        this.simpleValueEvent = ObjectConstructionEvent.newReusableSimpleValueEvent();
+    }
+
+    /**
+     * Signals the events for each record in the JSON document read from the reader.
+     *
+     * @param reader the JSON document, which is not closed
+     * @return the number of records signaled
+     * @throws StateExeException thrown when the document is not well formed or a record cannot be built
+     */
+    public long process(@NotNull final Reader reader) throws StateExeException {
+        return process(new JsonTokenizer(reader));
+    }
+
+    /**
+     * Signals the events for each record in the UTF-8 encoded JSON document from the position to the limit of the
+     * buffer.
+     *
+     * @param bytes the JSON document, which may be a mapped file
+     * @return the number of records signaled
+     * @throws StateExeException thrown when the document is not well formed or a record cannot be built
+     */
+    public long process(@NotNull final ByteBuffer bytes) throws StateExeException {
+        return process(new JsonTokenizer(bytes));
+    }
+
+    /**
+     * Signals the events for each remaining record read by the tokenizer.
+     *
+     * @param tokenizer reads the JSON document
+     * @return the number of records signaled
+     * @throws StateExeException thrown when the document is not well formed or a record cannot be built
+     */
+    public long process(@NotNull final JsonTokenizer tokenizer) throws StateExeException {
+        checkNotNull(tokenizer, "tokenizer must not be null");
+        long recordCount = 0;
+        while (tokenizer.nextRecord()) {
+            signal(tokenizer, ObjectConstructionEvent.getRootStartEvent());
+            signalMembers(tokenizer, recordPlan);
+            signal(tokenizer, ObjectConstructionEvent.newObjectDoneEvent());
+            signal(tokenizer, ObjectConstructionEvent.getDoneEvent());
+            recordCount++;
+        }
+        return recordCount;
+    }
+
+    /** Signals the events for the members of the object just started through its end */
+    private void signalMembers(final JsonTokenizer tokenizer, final BindingPlan plan) {
+        for (JsonToken token = tokenizer.next(); JsonToken.END_OBJECT != token; token = tokenizer.next()) {
+            final String name = tokenizer.getText();
+            final JsonToken value = tokenizer.next();
+            final BindingPlan.FieldBinding binding = plan.getBinding(name);
+            if (null == binding || JsonToken.NULL == value) {
+                tokenizer.skipValue(value);
+                continue;
+            }
+            switch (binding.getKind()) {
+                case SIMPLE:
+                    checkValue(tokenizer, binding, value.isScalarValue(), value);
+                    signal(tokenizer, newEntityStartEvent(name));
+                    signal(tokenizer, newSimpleValueEvent(tokenizer.getText()));
+                    break;
+                case OBJECT:
+                    checkValue(tokenizer, binding, JsonToken.START_OBJECT == value, value);
+                    signal(tokenizer, newEntityStartEvent(name));
+                    signal(tokenizer, newEntityStartEvent(name));
+                    signalMembers(tokenizer, binding.getNestedPlan());
+                    signal(tokenizer, ObjectConstructionEvent.newObjectDoneEvent());
+                    break;
+                default:
+                    checkValue(tokenizer, binding, JsonToken.START_ARRAY == value, value);
+                    signal(tokenizer, newEntityStartEvent(name));
+                    signalElements(tokenizer, binding, name);
+                    signal(tokenizer, ObjectConstructionEvent.newObjectDoneEvent());
+            }
+        }
+    }
+
+    /** Signals the events for the elements of the array just started through its end */
+    private void signalElements(final JsonTokenizer tokenizer, final BindingPlan.FieldBinding binding, final String name) {
+        final BindingPlan elementPlan = binding.getNestedPlan();
+        for (JsonToken element = tokenizer.next(); JsonToken.END_ARRAY != element; element = tokenizer.next()) {
+            if (JsonToken.NULL == element) {
+                continue;
+            }
+            if (null == elementPlan) {
+                throw new StateExeException("The elements of '" + binding.getName() +
+                        "' are simple values, which are only bound by the JsonObjectBinder, at line " +
+                        tokenizer.getLineNumber());
+            }
+            checkValue(tokenizer, binding, JsonToken.START_OBJECT == element, element);
+            signal(tokenizer, newEntityStartEvent(name));
+            signalMembers(tokenizer, elementPlan);
+            signal(tokenizer, ObjectConstructionEvent.newObjectDoneEvent());
+        }
+    }
+
+    /** Returns an Entity Start event for the name, reusing one event when possible */
+    private ObjectConstructionEvent newEntityStartEvent(final String name) {
+        return reuseEvents
+                ? entityStartEvent.reuse(name)
+                : ObjectConstructionEvent.newEntityStartEvent(name);
+    }
+
+    /** Returns a Simple Value event for the value, reusing one event when possible */
+    private ObjectConstructionEvent newSimpleValueEvent(final String value) {
+        return reuseEvents
+                ? simpleValueEvent.reuse(value)
+                : ObjectConstructionEvent.newSimpleValueEvent(value);
+    }
+
+    /** Signals the event, reporting errors from the state table with the line being read */
+    private void signal(final JsonTokenizer tokenizer, final ObjectConstructionEvent event) {
+        try {
+            stateTableControl.signalEvent(event);
+        } catch (final StateExeException exc) {
+            throw new StateExeException("Error processing the " + event.getName() + " event at line " +
+                    tokenizer.getLineNumber(), exc);
+        }
+    }
+
+    /** Throws an exception when the value does not have the shape needed by the binding */
+    static void checkValue(
+            final JsonTokenizer tokenizer,
+            final BindingPlan.FieldBinding binding,
+            final boolean matches,
+            final JsonToken value) throws StateExeException {
+        if (!matches) {
+            throw new StateExeException("Unexpected " + value + " for '" + binding.getName() + "', which is bound as " +
+                    binding.getKind() + ", at line " + tokenizer.getLineNumber());
+        }
+    }
+}
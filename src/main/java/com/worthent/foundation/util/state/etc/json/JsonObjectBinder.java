@@ -0,0 +1,150 @@
+/*
+ * Copyright 2000-2016 Worth Enterprises, Inc.  All rights reserved.
+ */
+package com.worthent.foundation.util.state.etc.json;
+
+import com.worthent.foundation.util.annotation.NotNull;
+import com.worthent.foundation.util.state.StateExeException;
+import com.worthent.foundation.util.state.etc.obj.BindingPlan;
+import com.worthent.foundation.util.state.etc.obj.ObjectConstructionController;
+
+import java.io.Reader;
+import java.nio.ByteBuffer;
+import java.util.Collection;
+import java.util.function.Consumer;
+
+import static com.worthent.foundation.util.condition.Preconditions.checkNotNull;
+
+/**
+ * Binds the records in a JSON document directly to objects using the precomputed {@link BindingPlan} for the record
+ * class.  It produces the same objects as a {@link JsonEventAdapter} feeding an {@link ObjectConstructionController},
+ * but fills the constructor arguments of each object as its members are read instead of dispatching an event through
+ * the state table for each one.  The state table path remains the reference behavior.
+ * <p>
+ * Each record, which is a top-level object or an object in a top-level array, is handed to the consumer as soon as it
+ * is built and then let go, so memory stays proportional to one record however many records the document holds.
+ * Members that match no constructor parameter and members set to <code>null</code> are skipped.  Where the state
+ * table path reports an error, the binder also binds arrays of strings, numbers or booleans, adding the text of each
+ * element to the collection as the list builder does for simple values.
+ * <p>
+ * The binder holds no per document state, so it can be shared by threads reading different documents.
+ *
+ * @param <T> the type of record being bound
+ * @author Erik K. Worth
+ */
+public class JsonObjectBinder<T> {
+
+    /** The class of each record */
+    private final Class<T> recordClass;
+
+    /** The plan for each record */
+    private final BindingPlan recordPlan;
+
+    /** Receives each record as it is built */
+    private final Consumer<T> resultConsumer;
+
+    /**
+     * Construct the binder for the record class.
+     *
+     * @param recordClass the class of each record, which must have an annotated constructor
+     * @param resultConsumer receives each record as soon as it is built
+     */
+    public JsonObjectBinder(@NotNull final Class<T> recordClass, @NotNull final Consumer<T> resultConsumer) {
+        this.recordClass = checkNotNull(recordClass, "recordClass must not be null");
+        this.resultConsumer = checkNotNull(resultConsumer, "resultConsumer must not be null");
+        this.recordPlan = BindingPlan.forClass(recordClass);
+    }
+
+    /**
+     * Binds each record in the JSON document read from the reader.
+     *
+     * @param reader the JSON document, which is not closed
+     * @return the number of records bound
+     * @throws StateExeException thrown when the document is not well formed or a record cannot be built
+     */
+    public long bind(@NotNull final Reader reader) throws StateExeException {
+        return bind(new JsonTokenizer(reader));
+    }
+
+    /**
+     * Binds each record in the UTF-8 encoded JSON document from the position to the limit of the buffer.
+     *
+     * @param bytes the JSON document, which may be a mapped file
+     * @return the number of records bound
+     * @throws StateExeException thrown when the document is not well formed or a record cannot be built
+     */
+    public long bind(@NotNull final ByteBuffer bytes) throws StateExeException {
+        return bind(new JsonTokenizer(bytes));
+    }
+
+    /**
+     * Binds each remaining record read by the tokenizer.
+     *
+     * @param tokenizer reads the JSON document
+     * @return the number of records bound
+     * @throws StateExeException thrown when the document is not well formed or a record cannot be built
+     */
+    public long bind(@NotNull final JsonTokenizer tokenizer) throws StateExeException {
+        checkNotNull(tokenizer, "tokenizer must not be null");
+        long recordCount = 0;
+        while (tokenizer.nextRecord()) {
+            resultConsumer.accept(recordClass.cast(bindObject(tokenizer, recordPlan)));
+            recordCount++;
+        }
+        return recordCount;
+    }
+
+    /** Binds the members of the object just started through its end and returns the object */
+    private static Object bindObject(final JsonTokenizer tokenizer, final BindingPlan plan) {
+        final Object[] arguments = new Object[plan.getArgumentCount()];
+        for (JsonToken token = tokenizer.next(); JsonToken.END_OBJECT != token; token = tokenizer.next()) {
+            final String name = tokenizer.getText();
+            final JsonToken value = tokenizer.next();
+            final BindingPlan.FieldBinding binding = plan.getBinding(name);
+            if (null == binding || JsonToken.NULL == value) {
+                tokenizer.skipValue(value);
+                continue;
+            }
+            switch (binding.getKind()) {
+                case SIMPLE:
+                    JsonEventAdapter.checkValue(tokenizer, binding, value.isScalarValue(), value);
+                    arguments[binding.getSlot()] = tokenizer.getText();
+                    break;
+                case OBJECT:
+                    JsonEventAdapter.checkValue(tokenizer, binding, JsonToken.START_OBJECT == value, value);
+                    arguments[binding.getSlot()] = bindObject(tokenizer, binding.getNestedPlan());
+                    break;
+                default:
+                    JsonEventAdapter.checkValue(tokenizer, binding, JsonToken.START_ARRAY == value, value);
+                    arguments[binding.getSlot()] = bindElements(tokenizer, binding);
+            }
+        }
+        try {
+            return plan.build(arguments);
+        } catch (final RuntimeException exc) {
+            throw new StateExeException("Error building " + plan.getObjectClass().getSimpleName() + " at line " +
+                    tokenizer.getLineNumber(), exc);
+        }
+    }
+
+    /** Binds the elements of the array just started through its end and returns the collection */
+    private static Collection<Object> bindElements(
+            final JsonTokenizer tokenizer,
+            final BindingPlan.FieldBinding binding) {
+        final Collection<Object> collection = binding.newCollection();
+        final BindingPlan elementPlan = binding.getNestedPlan();
+        for (JsonToken element = tokenizer.next(); JsonToken.END_ARRAY != element; element = tokenizer.next()) {
+            if (JsonToken.NULL == element) {
+                continue;
+            }
+            if (null == elementPlan) {
+                JsonEventAdapter.checkValue(tokenizer, binding, element.isScalarValue(), element);
+                collection.add(tokenizer.getText());
+            } else {
+                JsonEventAdapter.checkValue(tokenizer, binding, JsonToken.START_OBJECT == element, element);
+                collection.add(bindObject(tokenizer, elementPlan));
+            }
+        }
+        return collection;
+    }
+}
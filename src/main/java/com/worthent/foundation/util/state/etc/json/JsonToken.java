@@ -0,0 +1,50 @@
+/*
+ * Copyright 2000-2016 Worth Enterprises, Inc.  All rights reserved.
+ */
+package com.worthent.foundation.util.state.etc.json;
+
+/**
+ * Enumerates the tokens returned by the {@link JsonTokenizer}.
+ *
+ * @author Erik K. Worth
+ */
+public enum JsonToken {
+
+    /** The start of an object, <code>{</code> */
+    START_OBJECT,
+
+    /** The end of an object, <code>}</code> */
+    END_OBJECT,
+
+    /** The start of an array, <code>[</code> */
+    START_ARRAY,
+
+    /** The end of an array, <code>]</code> */
+    END_ARRAY,
+
+    /** The name of an object member, which is followed by its value */
+    FIELD_NAME,
+
+    /** A string value */
+    STRING,
+
+    /** A number value, returned as it appears in the document */
+    NUMBER,
+
+    /** The literal <code>true</code> */
+    TRUE,
+
+    /** The literal <code>false</code> */
+    FALSE,
+
+    /** The literal <code>null</code> */
+    NULL,
+
+    /** The end of the document */
+    END;
+
+    /** @return <code>true</code> when the token is a string, number or boolean value */
+    public boolean isScalarValue() {
+        return this == STRING || this == NUMBER || this == TRUE || this == FALSE;
+    }
+}
@@ -0,0 +1,566 @@
+/*
+ * Copyright 2000-2016 Worth Enterprises, Inc.  All rights reserved.
+ */
+package com.worthent.foundation.util.state.etc.json;
+
+import com.worthent.foundation.util.annotation.NotNull;
+import com.worthent.foundation.util.annotation.Nullable;
+import com.worthent.foundation.util.state.StateExeException;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.charset.CharsetDecoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+import static com.worthent.foundation.util.condition.Preconditions.checkNotNull;
+
+/**
+ * Pull based tokenizer for JSON documents read from a {@link Reader} or from UTF-8 encoded bytes in a
+ * {@link ByteBuffer}.  Each call to {@link #next} reads only as far as the next token, through a fixed size character
+ * buffer, so memory stays constant however large the document is apart from one entry per level of nesting and the
+ * text of the current token.  Field names are remembered in a small table so the names repeated throughout a document
+ * are returned as the same strings instead of new ones.
+ * <p>
+ * The tokenizer checks the structure of the document as it reads and reports malformed JSON as a
+ * {@link StateExeException} with the line number.  A document may hold several top-level values one after the other,
+ * as in a file with one JSON object per line.  {@link #nextRecord} walks the top-level objects and the objects in
+ * top-level arrays, which are the records for the JSON front ends to the object construction pipeline.
+ * <p>
+ * The tokenizer must be used by one thread at a time.
+ *
+ * @author Erik K. Worth
+ */
+public class JsonTokenizer implements Closeable {
+
+    /** The number of characters read from the source at a time */
+    private static final int BUFFER_SIZE = 8192;
+
+    /** The number of field names remembered, which must be a power of two */
+    private static final int NAME_CACHE_SIZE = 256;
+
+    /** Parser state after a value, expecting a comma or the end of the container, or another top-level value */
+    private static final int AFTER_VALUE = 0;
+
+    /** Parser state expecting a value after a colon or after a comma in an array */
+    private static final int VALUE = 1;
+
+    /** Parser state after the start of an array, expecting a value or the end of the array */
+    private static final int FIRST_VALUE = 2;
+
+    /** Parser state after the start of an object, expecting a field name or the end of the object */
+    private static final int FIRST_NAME = 3;
+
+    /** Container type for an object */
+    private static final byte IN_OBJECT = 1;
+
+    /** Container type for an array */
+    private static final byte IN_ARRAY = 2;
+
+    /** The source of characters or <code>null</code> when reading bytes */
+    private final Reader reader;
+
+    /** The source of bytes or <code>null</code> when reading characters */
+    private final ByteBuffer bytes;
+
+    /** Decodes the bytes or <code>null</code> when reading characters */
+    private final CharsetDecoder decoder;
+
+    /** The characters read from the source and not yet consumed */
+    private final char[] buffer;
+
+    /** Wraps the buffer for the decoder or <code>null</code> when reading characters */
+    private final CharBuffer decoded;
+
+    /** Collects the text of the current string or number */
+    private final StringBuilder text;
+
+    /** The field names previously returned, indexed by a hash of their characters */
+    private final String[] names;
+
+    /** The type of each open container indexed by depth */
+    private byte[] containers;
+
+    /** The number of open containers */
+    private int depth;
+
+    /** The position of the next character in the buffer */
+    private int position;
+
+    /** The number of characters in the buffer */
+    private int limit;
+
+    /** Set once the source has no more characters */
+    private boolean endOfInput;
+
+    /** Set once the decoder has been flushed after decoding all the bytes */
+    private boolean flushed;
+
+    /** What the parser expects next */
+    private int state;
+
+    /** The line of the document being read */
+    private int lineNumber;
+
+    /** The last token returned */
+    private JsonToken token;
+
+    /** The last field name returned */
+    private String fieldName;
+
+    /**
+     * Construct the tokenizer reading characters from the reader.
+     *
+     * @param reader the JSON document
+     */
+    public JsonTokenizer(@NotNull final Reader reader) {
+        this(checkNotNull(reader, "reader must not be null"), null);
+    }
+
+    /**
+     * Construct the tokenizer reading the UTF-8 encoded bytes from the position to the limit of the buffer.  The
+     * position of the buffer is left unchanged.
+     *
+     * @param bytes the UTF-8 encoded JSON document, which may be a mapped file
+     */
+    public JsonTokenizer(@NotNull final ByteBuffer bytes) {
+        this(null, checkNotNull(bytes, "bytes must not be null").duplicate());
+    }
+
+    private JsonTokenizer(@Nullable final Reader reader, @Nullable final ByteBuffer bytes) {
+        this.reader = reader;
+        this.bytes = bytes;
+        this.buffer = new char[BUFFER_SIZE];
+        if (null == bytes) {
+            this.decoder = null;
+            this.decoded = null;
+        } else {
+            this.decoder = StandardCharsets.UTF_8.newDecoder()
+                    .onMalformedInput(CodingErrorAction.REPORT)
+                    .onUnmappableCharacter(CodingErrorAction.REPORT);
+            this.decoded = CharBuffer.wrap(buffer);
+        }
+        this.text = new StringBuilder();
+        this.names = new String[NAME_CACHE_SIZE];
+        this.containers = new byte[32];
+        this.state = AFTER_VALUE;
+        this.lineNumber = 1;
+    }
+
+    /**
+     * Reads the next token.
+     *
+     * @return the next token, which is {@link JsonToken#END} once the document has been read
+     * @throws StateExeException thrown when the document cannot be read or is not well formed
+     */
+    @NotNull
+    public JsonToken next() throws StateExeException {
+        if (JsonToken.END == token) {
+            return token;
+        }
+        int ch = nextNonWhitespace();
+        switch (state) {
+            case FIRST_NAME:
+                return ('}' == ch) ? endContainer(IN_OBJECT, JsonToken.END_OBJECT) : readFieldName(ch);
+            case FIRST_VALUE:
+                return (']' == ch) ? endContainer(IN_ARRAY, JsonToken.END_ARRAY) : readValue(ch);
+            case VALUE:
+                return readValue(ch);
+            default:
+                if (depth == 0) {
+                    return (ch < 0) ? (token = JsonToken.END) : readValue(ch);
+                }
+                if (',' == ch) {
+                    ch = nextNonWhitespace();
+                    return (IN_OBJECT == containers[depth - 1]) ? readFieldName(ch) : readValue(ch);
+                }
+                if ('}' == ch) {
+                    return endContainer(IN_OBJECT, JsonToken.END_OBJECT);
+                }
+                if (']' == ch) {
+                    return endContainer(IN_ARRAY, JsonToken.END_ARRAY);
+                }
+                throw unexpected(ch, (IN_OBJECT == containers[depth - 1]) ? "',' or '}'" : "',' or ']'");
+        }
+    }
+
+    /**
+     * Advances to the start of the next record, which is either a top-level object or an object in a top-level array.
+     * The previous record must have been read through its {@link JsonToken#END_OBJECT} token.
+     *
+     * @return <code>true</code> when positioned on the {@link JsonToken#START_OBJECT} token of the next record or
+     * <code>false</code> at the end of the document
+     * @throws StateExeException thrown when the document is not well formed or holds a top-level value other than an
+     * object or an array of objects
+     */
+    public boolean nextRecord() throws StateExeException {
+        while (true) {
+            final JsonToken next = next();
+            if (JsonToken.END == next) {
+                return false;
+            }
+            final boolean inTopArray = depth > 0 && IN_ARRAY == containers[0];
+            if (JsonToken.START_OBJECT == next && (depth == 1 || (depth == 2 && inTopArray))) {
+                return true;
+            }
+            if ((JsonToken.START_ARRAY == next && depth == 1) || (JsonToken.END_ARRAY == next && depth == 0) ||
+                    (JsonToken.NULL == next && depth == 1 && inTopArray)) {
+                continue;
+            }
+            throw newException("Expected a record object but found " + next);
+        }
+    }
+
+    /**
+     * Skips the rest of the value that starts with the token just returned, which reads through the matching end
+     * token for the start of an object or array and reads nothing for other values.
+     *
+     * @param valueToken the token just returned
+     * @throws StateExeException thrown when the document cannot be read or is not well formed
+     */
+    public void skipValue(@NotNull final JsonToken valueToken) throws StateExeException {
+        if (JsonToken.START_OBJECT == valueToken || JsonToken.START_ARRAY == valueToken) {
+            final int valueDepth = depth;
+            while (depth >= valueDepth) {
+                next();
+            }
+        }
+    }
+
+    /**
+     * Returns the text of the last token, which is the field name for {@link JsonToken#FIELD_NAME}, the unescaped
+     * value for {@link JsonToken#STRING}, the number as it appears in the document for {@link JsonToken#NUMBER} and
+     * <code>true</code> or <code>false</code> for booleans.
+     *
+     * @return the text of the last token or <code>null</code> for tokens that have none
+     */
+    @Nullable
+    public String getText() {
+        if (null == token) {
+            return null;
+        }
+        switch (token) {
+            case FIELD_NAME:
+                return fieldName;
+            case STRING:
+            case NUMBER:
+                return text.toString();
+            case TRUE:
+                return "true";
+            case FALSE:
+                return "false";
+            default:
+                return null;
+        }
+    }
+
+    /** @return the number of open objects and arrays */
+    public int getDepth() {
+        return depth;
+    }
+
+    /** @return the line of the document being read, starting from one */
+    public int getLineNumber() {
+        return lineNumber;
+    }
+
+    /**
+     * Closes the reader when reading characters.
+     *
+     * @throws IOException thrown when the reader fails to close
+     */
+    @Override
+    public void close() throws IOException {
+        token = JsonToken.END;
+        if (null != reader) {
+            reader.close();
+        }
+    }
+
+    /** Reads the field name starting with the character and the colon after it */
+    private JsonToken readFieldName(final int ch) {
+        if ('"' != ch) {
+            throw unexpected(ch, "a field name");
+        }
+        readString();
+        fieldName = rememberedName();
+        final int colon = nextNonWhitespace();
+        if (':' != colon) {
+            throw unexpected(colon, "':'");
+        }
+        state = VALUE;
+        return token = JsonToken.FIELD_NAME;
+    }
+
+    /** Reads the value starting with the character */
+    private JsonToken readValue(final int ch) {
+        switch (ch) {
+            case '{':
+                startContainer(IN_OBJECT);
+                state = FIRST_NAME;
+                return token = JsonToken.START_OBJECT;
+            case '[':
+                startContainer(IN_ARRAY);
+                state = FIRST_VALUE;
+                return token = JsonToken.START_ARRAY;
+            case '"':
+                readString();
+                state = AFTER_VALUE;
+                return token = JsonToken.STRING;
+            case 't':
+                readLiteral("true");
+                return token = JsonToken.TRUE;
+            case 'f':
+                readLiteral("false");
+                return token = JsonToken.FALSE;
+            case 'n':
+                readLiteral("null");
+                return token = JsonToken.NULL;
+            default:
+                if ('-' == ch || isDigit(ch)) {
+                    readNumber(ch);
+                    state = AFTER_VALUE;
+                    return token = JsonToken.NUMBER;
+                }
+                throw unexpected(ch, "a value");
+        }
+    }
+
+    /** Opens an object or array */
+    private void startContainer(final byte type) {
+        if (depth == containers.length) {
+            containers = Arrays.copyOf(containers, depth * 2);
+        }
+        containers[depth++] = type;
+    }
+
+    /** Closes the innermost container after checking it has the type */
+    private JsonToken endContainer(final byte type, final JsonToken endToken) {
+        if (depth == 0 || type != containers[depth - 1]) {
+            throw newException("Unexpected " + endToken);
+        }
+        depth--;
+        state = AFTER_VALUE;
+        return token = endToken;
+    }
+
+    /** Reads the rest of a string after its opening quote into the text */
+    private void readString() {
+        text.setLength(0);
+        while (true) {
+            if (position == limit && !fill()) {
+                throw newException("Unterminated string");
+            }
+            final int start = position;
+            while (position < limit) {
+                final char ch = buffer[position];
+                if ('"' == ch || '\\' == ch || ch < 0x20) {
+                    break;
+                }
+                position++;
+            }
+            text.append(buffer, start, position - start);
+            if (position < limit) {
+                final char ch = buffer[position++];
+                if ('"' == ch) {
+                    return;
+                }
+                if ('\\' == ch) {
+                    readEscape();
+                } else {
+                    throw newException("Unescaped control character in a string");
+                }
+            }
+        }
+    }
+
+    /** Reads the escape sequence after a backslash into the text */
+    private void readEscape() {
+        final int ch = read();
+        switch (ch) {
+            case '"':
+            case '\\':
+            case '/':
+                text.append((char) ch);
+                break;
+            case 'b':
+                text.append('\b');
+                break;
+            case 'f':
+                text.append('\f');
+                break;
+            case 'n':
+                text.append('\n');
+                break;
+            case 'r':
+                text.append('\r');
+                break;
+            case 't':
+                text.append('\t');
+                break;
+            case 'u':
+                int code = 0;
+                for (int i = 0; i < 4; i++) {
+                    final int hex = read();
+                    final int digit = (hex < 0) ? -1 : Character.digit((char) hex, 16);
+                    if (digit < 0) {
+                        throw unexpected(hex, "a hexadecimal digit");
+                    }
+                    code = (code << 4) | digit;
+                }
+                text.append((char) code);
+                break;
+            default:
+                throw unexpected(ch, "an escape character");
+        }
+    }
+
+    /** Reads the rest of a number starting with the character into the text */
+    private void readNumber(final int first) {
+        text.setLength(0);
+        int ch = first;
+        if ('-' == ch) {
+            text.append('-');
+            ch = readDigit();
+        } else {
+            text.append((char) ch);
+        }
+        if ('0' != ch) {
+            appendDigits();
+        }
+        if ('.' == peek()) {
+            text.append((char) read());
+            readDigit();
+            appendDigits();
+        }
+        final int exponent = peek();
+        if ('e' == exponent || 'E' == exponent) {
+            text.append((char) read());
+            final int sign = peek();
+            if ('+' == sign || '-' == sign) {
+                text.append((char) read());
+            }
+            readDigit();
+            appendDigits();
+        }
+    }
+
+    /** Reads one digit that must be present into the text and returns it */
+    private int readDigit() {
+        final int ch = read();
+        if (!isDigit(ch)) {
+            throw unexpected(ch, "a digit");
+        }
+        text.append((char) ch);
+        return ch;
+    }
+
+    /** Reads any digits that follow into the text */
+    private void appendDigits() {
+        while (isDigit(peek())) {
+            text.append((char) read());
+        }
+    }
+
+    /** Reads the rest of the literal after its first character */
+    private void readLiteral(final String literal) {
+        for (int i = 1; i < literal.length(); i++) {
+            final int ch = read();
+            if (ch != literal.charAt(i)) {
+                throw unexpected(ch, "'" + literal + "'");
+            }
+        }
+        state = AFTER_VALUE;
+    }
+
+    /** Returns the field name in the text, reusing the string returned when the name last appeared */
+    private String rememberedName() {
+        int hash = 0;
+        for (int i = 0; i < text.length(); i++) {
+            hash = 31 * hash + text.charAt(i);
+        }
+        final int index = (hash ^ (hash >>> 16)) & (NAME_CACHE_SIZE - 1);
+        String name = names[index];
+        if (null == name || !name.contentEquals(text)) {
+            name = text.toString();
+            names[index] = name;
+        }
+        return name;
+    }
+
+    /** Returns the next character that is not whitespace or -1 at the end of the document */
+    private int nextNonWhitespace() {
+        while (true) {
+            if (position == limit && !fill()) {
+                return -1;
+            }
+            final char ch = buffer[position++];
+            if ('\n' == ch) {
+                lineNumber++;
+            } else if (' ' != ch && '\t' != ch && '\r' != ch) {
+                return ch;
+            }
+        }
+    }
+
+    /** Returns the next character or -1 at the end of the document */
+    private int read() {
+        return (position == limit && !fill()) ? -1 : buffer[position++];
+    }
+
+    /** Returns the next character without consuming it or -1 at the end of the document */
+    private int peek() {
+        return (position == limit && !fill()) ? -1 : buffer[position];
+    }
+
+    /** Refills the buffer from the source and returns <code>false</code> when the source has no more characters */
+    private boolean fill() {
+        if (endOfInput) {
+            return false;
+        }
+        position = 0;
+        if (null != reader) {
+            try {
+                limit = Math.max(reader.read(buffer, 0, buffer.length), 0);
+            } catch (final IOException exc) {
+                throw new StateExeException("Error reading the JSON document at line " + lineNumber, exc);
+            }
+        } else {
+            decoded.clear();
+            if (!flushed) {
+                // The decoder must see the end of input before it may be flushed, even when there are no bytes
+                final CoderResult result = decoder.decode(bytes, decoded, true);
+                if (result.isError()) {
+                    throw newException("Malformed UTF-8 input");
+                }
+                if (!bytes.hasRemaining()) {
+                    flushed = decoder.flush(decoded).isUnderflow();
+                }
+            }
+            limit = decoded.position();
+        }
+        endOfInput = (limit == 0);
+        return !endOfInput;
+    }
+
+    /** Returns <code>true</code> when the character is a decimal digit */
+    private static boolean isDigit(final int ch) {
+        return ch >= '0' && ch <= '9';
+    }
+
+    /** Returns an exception reporting the character read in place of what was expected */
+    private StateExeException unexpected(final int ch, final String expected) {
+        final String found = (ch < 0) ? "end of document" : "character '" + (char) ch + "'";
+        return newException("Unexpected " + found + ", expected " + expected);
+    }
+
+    /** Returns an exception with the message and the line number */
+    private StateExeException newException(final String message) {
+        return new StateExeException(message + " at line " + lineNumber);
+    }
+}
@@ -0,0 +1,215 @@
+package com.worthent.foundation.util.state.etc.obj;
+
+import com.worthent.foundation.util.annotation.NotNull;
+import com.worthent.foundation.util.annotation.Nullable;
+import com.worthent.foundation.util.state.StateExeException;
+import com.worthent.foundation.util.state.def.StateDefException;
+
+import java.util.Collection;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static com.worthent.foundation.util.condition.Preconditions.checkNotNull;
+
+/**
+ * Precomputed plan for binding named entities directly to the constructor arguments of an object, without going
+ * through the Object Construction state table.  Each plan is a node of an automaton keyed by entity name: looking up
+ * the name of a nested entity returns the binding for the constructor argument it fills, and that binding leads to
+ * the plan for the nested object or list element.  A binder walks the plans as it descends into a document, filling
+ * an argument array for each object and building the object when its entity ends.
+ * <p>
+ * Plans are shared per class like the {@link ConstructionWorker} they wrap and are safe to use from many threads.
+ * Names are matched ignoring case, as the object builders do.  The binding found for each distinct name is remembered
+ * so the names repeated throughout a document are resolved with a single hash lookup.
+ *
+ * @author Erik K. Worth
+ */
+public final class BindingPlan {
+
+    /** The plan for each class with an annotated constructor */
+    private static final ClassValue<BindingPlan> PLANS = new ClassValue<BindingPlan>() {
+        @Override
+        protected BindingPlan computeValue(final Class<?> type) {
+            return new BindingPlan(ConstructionWorker.forClass(type));
+        }
+    };
+
+    /** The most distinct names remembered per plan so unexpected names cannot grow the cache without limit */
+    private static final int MAX_REMEMBERED_NAMES = 256;
+
+    /** Remembered in place of a binding for names that match no constructor parameter */
+    private static final FieldBinding NO_FIELD = new FieldBinding();
+
+    /** Constructs the objects bound by this plan */
+    private final ConstructionWorker constructionWorker;
+
+    /** The binding for each constructor argument in slot order */
+    private final FieldBinding[] bindingsBySlot;
+
+    /** The binding previously found for each name as it appeared in a document */
+    private final ConcurrentHashMap<String, FieldBinding> bindingsByName;
+
+    private BindingPlan(@NotNull final ConstructionWorker constructionWorker) {
+        this.constructionWorker = constructionWorker;
+        this.bindingsBySlot = new FieldBinding[constructionWorker.getParameterCount()];
+        for (int slot = 0; slot < bindingsBySlot.length; slot++) {
+            bindingsBySlot[slot] = new FieldBinding(slot, constructionWorker.getConstructorParameter(slot));
+        }
+        this.bindingsByName = new ConcurrentHashMap<>();
+    }
+
+    /**
+     * Returns the shared plan for the class.
+     *
+     * @param objectClass the class of object to bind
+     * @return the shared plan for the class
+     * @throws StateDefException thrown when the class has no constructor annotated with an ObjectConstructor tag
+     */
+    @NotNull
+    public static BindingPlan forClass(@NotNull final Class<?> objectClass) throws StateDefException {
+        return PLANS.get(checkNotNull(objectClass, "objectClass must not be null"));
+    }
+
+    /** @return the class of object bound by this plan */
+    @NotNull
+    public Class<?> getObjectClass() {
+        return constructionWorker.getObjectClass();
+    }
+
+    /** @return the number of constructor arguments, which is the length of the argument array */
+    public int getArgumentCount() {
+        return bindingsBySlot.length;
+    }
+
+    /**
+     * Returns the binding for the nested entity with the name or <code>null</code> when no constructor parameter has
+     * the name.
+     *
+     * @param name the name of the nested entity
+     * @return the binding for the nested entity or <code>null</code> when no constructor parameter has the name
+     */
+    @Nullable
+    public FieldBinding getBinding(@NotNull final String name) {
+        FieldBinding binding = bindingsByName.get(name);
+        if (null == binding) {
+            final int slot = constructionWorker.getSlot(name);
+            binding = (slot < 0) ? NO_FIELD : bindingsBySlot[slot];
+            if (bindingsByName.size() < MAX_REMEMBERED_NAMES) {
+                bindingsByName.putIfAbsent(name, binding);
+            }
+        }
+        return (NO_FIELD == binding) ? null : binding;
+    }
+
+    /**
+     * Constructs the object from the field values in constructor argument order.
+     *
+     * @param arguments the field values indexed by slot, which are replaced by the converted values
+     * @return the constructed object
+     * @throws StateExeException thrown when a value is missing or cannot be converted or the constructor fails
+     */
+    @NotNull
+    public Object build(@NotNull final Object[] arguments) throws StateExeException {
+        return constructionWorker.newObject(arguments);
+    }
+
+    /**
+     * Binds a named entity to one constructor argument.
+     */
+    public static final class FieldBinding {
+
+        /** Enumerates how an entity is bound to its constructor argument */
+        public enum Kind {
+            /** The entity is a simple value converted from a string */
+            SIMPLE,
+            /** The entity is an object built with a nested plan */
+            OBJECT,
+            /** The entity is a collection with an element built with a nested plan for each nested entity */
+            LIST
+        }
+
+        /** The position of the argument in the constructor arguments */
+        private final int slot;
+
+        /** The constructor parameter for the argument */
+        private final ConstructorParameter parameter;
+
+        /** How the entity is bound */
+        private final Kind kind;
+
+        /** The class bound by the nested plan or <code>null</code> for simple values and simple collections */
+        private final Class<?> nestedClass;
+
+        /** The nested plan, resolved on first use so classes that refer to themselves do not recurse */
+        private volatile BindingPlan nestedPlan;
+
+        private FieldBinding() {
+            this.slot = -1;
+            this.parameter = null;
+            this.kind = Kind.SIMPLE;
+            this.nestedClass = null;
+        }
+
+        private FieldBinding(final int slot, @NotNull final ConstructorParameter parameter) {
+            this.slot = slot;
+            this.parameter = parameter;
+            final ConstructionWorker nestedWorker;
+            if (parameter.isCollectionType()) {
+                this.kind = Kind.LIST;
+                nestedWorker = parameter.getComplexListElementConstructionWorker();
+            } else {
+                nestedWorker = parameter.getComplexObjectConstructionWorker();
+                this.kind = (null == nestedWorker) ? Kind.SIMPLE : Kind.OBJECT;
+            }
+            this.nestedClass = (null == nestedWorker) ? null : nestedWorker.getObjectClass();
+        }
+
+        /** @return the position of the argument in the constructor arguments */
+        public int getSlot() {
+            return slot;
+        }
+
+        /** @return the name of the constructor parameter */
+        @NotNull
+        public String getName() {
+            return parameter.getName();
+        }
+
+        /** @return how the entity is bound */
+        @NotNull
+        public Kind getKind() {
+            return kind;
+        }
+
+        /**
+         * Returns the plan for the nested object or for each element of the collection, or <code>null</code> for a
+         * simple value or a collection of simple values.
+         *
+         * @return the plan for the nested object or collection element or <code>null</code> when there is none
+         */
+        @Nullable
+        public BindingPlan getNestedPlan() {
+            BindingPlan plan = nestedPlan;
+            if (null == plan && null != nestedClass) {
+                plan = forClass(nestedClass);
+                nestedPlan = plan;
+            }
+            return plan;
+        }
+
+        /**
+         * Returns a new, empty collection for a {@link Kind#LIST} binding.
+         *
+         * @return a new, empty collection of the parameter type
+         * @throws StateExeException thrown when the collection cannot be created
+         */
+        @NotNull
+        public Collection<Object> newCollection() throws StateExeException {
+            return parameter.newCollection();
+        }
+
+        @Override
+        public String toString() {
+            return (null == parameter) ? "none" : parameter.getName() + "[" + slot + "," + kind + "]";
+        }
+    }
+}
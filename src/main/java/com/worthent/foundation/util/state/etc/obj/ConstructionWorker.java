@@ -6,6 +6,7 @@ import com.worthent.foundation.util.state.def.StateDefException;
 
 import java.lang.reflect.Constructor;
 import java.lang.reflect.Parameter;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.LinkedHashMap;
 import java.util.Map;
@@ -17,6 +18,12 @@ import static com.worthent.foundation.util.condition.Preconditions.checkNotNull;
 
 /**
  * Helper class used to construct objects from annotations on the constructor and each constructor parameter.
+ * <p>
+ * Introspecting a class resolves its annotated constructor, its parameters and the workers for the nested types of
+ * those parameters.  Obtain workers with {@link #forClass} to share one fully resolved worker per class across all
+ * controllers and documents.  The cache is a {@link ClassValue}, so it is thread safe and does not keep a class from
+ * being unloaded.  The string converters for the parameters are not part of the cached worker.  Each parameter
+ * resolves its converter when first needed and again after converters are registered or removed.
  *
  * @author Erik K. Worth
  */
@@ -30,11 +37,27 @@ public class ConstructionWorker {
             .collect(Collectors.toMap(ConstructionWorker::getPrimitiveClass, Function.identity()));
 
 
+    /** The worker for each class with an annotated constructor, or <code>null</code> for other classes */
+    private static final ClassValue<ConstructionWorker> WORKERS = new ClassValue<ConstructionWorker>() {
+        @Override
+        protected ConstructionWorker computeValue(final Class<?> type) {
+            final Constructor<?> constructor = findAnnotatedConstructor(type);
+            return (null == constructor) ? null : new ConstructionWorker(type, constructor);
+        }
+    };
+
     private final Class<?> objectClass;
 
     private final Constructor<?> constructor;
 
-    private final Map<String, ConstructorParameter> constructorParameters;
+    /** The parameters in constructor argument order */
+    private final ConstructorParameter[] parametersBySlot;
+
+    /** The lowercase parameter names sorted case insensitively for lookup without allocating */
+    private final String[] sortedNames;
+
+    /** The slot of the parameter with each of the sorted names */
+    private final int[] sortedSlots;
 
     ConstructionWorker(@NotNull final Class<?> objectClass) {
         this(objectClass, findAnnotatedConstructor(objectClass));
@@ -47,25 +70,119 @@ public class ConstructionWorker {
                     objectClass.getName());
         }
         this.constructor = constructor;
-        this.constructorParameters = introspectConstructorSignature(objectClass, constructor);
+        final Map<String, ConstructorParameter> constructorParameters =
+                introspectConstructorSignature(objectClass, constructor);
+        this.parametersBySlot = constructorParameters.values().toArray(new ConstructorParameter[constructorParameters.size()]);
+        final Integer[] order = new Integer[parametersBySlot.length];
+        for (int i = 0; i < order.length; i++) {
+            order[i] = i;
+        }
+        Arrays.sort(order, (a, b) ->
+                String.CASE_INSENSITIVE_ORDER.compare(parametersBySlot[a].getName(), parametersBySlot[b].getName()));
+        this.sortedNames = new String[order.length];
+        this.sortedSlots = new int[order.length];
+        for (int i = 0; i < order.length; i++) {
+            sortedNames[i] = parametersBySlot[order[i]].getName();
+            sortedSlots[i] = order[i];
+        }
+    }
+
+    /**
+     * Returns the shared worker for the class.
+     *
+     * @param objectClass the class of object to construct
+     * @return the shared worker for the class
+     * @throws StateDefException thrown when the class has no constructor annotated with an ObjectConstructor tag
+     */
+    @NotNull
+    static ConstructionWorker forClass(@NotNull final Class<?> objectClass) throws StateDefException {
+        final ConstructionWorker worker = findForClass(checkNotNull(objectClass, "objectClass must not be null"));
+        if (null == worker) {
+            throw new StateDefException("Root Object class has no constructor annotated with an ObjectConstructor tag: " +
+                    objectClass.getName());
+        }
+        return worker;
+    }
+
+    /**
+     * Returns the shared worker for the class or <code>null</code> when the class has no annotated constructor.
+     *
+     * @param objectClass the class of object to construct
+     * @return the shared worker for the class or <code>null</code> when the class has no annotated constructor
+     */
+    static ConstructionWorker findForClass(@NotNull final Class<?> objectClass) {
+        return WORKERS.get(objectClass);
+    }
+
+    /** @return the class of object this worker constructs */
+    @NotNull
+    Class<?> getObjectClass() {
+        return objectClass;
     }
 
     ConstructorParameter getConstructorParameter(@NotNull final String name) {
-        return constructorParameters.get(name);
+        final int slot = getSlot(name);
+        return (slot < 0) ? null : parametersBySlot[slot];
+    }
+
+    /** @return the number of constructor parameters, which is the length of the argument array */
+    int getParameterCount() {
+        return parametersBySlot.length;
+    }
+
+    /**
+     * Returns the position in the constructor arguments of the parameter with the name, ignoring case, or -1 when
+     * there is no such parameter.
+     *
+     * @param name the name of the field
+     * @return the position in the constructor arguments of the parameter or -1 when there is no such parameter
+     */
+    int getSlot(@NotNull final String name) {
+        final int index = Arrays.binarySearch(sortedNames, name, String.CASE_INSENSITIVE_ORDER);
+        return (index < 0) ? -1 : sortedSlots[index];
+    }
+
+    /**
+     * Returns the parameter in the slot.
+     *
+     * @param slot the position of the parameter in the constructor arguments
+     * @return the parameter in the slot
+     */
+    @NotNull
+    ConstructorParameter getConstructorParameter(final int slot) {
+        return parametersBySlot[slot];
     }
 
     @NotNull
     public Object newObject(final Map<String, Object> fields) throws StateExeException {
-        final Object[] parameters = new Object[constructorParameters.size()];
-        int i = 0;
-        for (final ConstructorParameter constructorParameter : constructorParameters.values()) {
-            parameters[i] = constructorParameter.valueOf(fields.get(constructorParameter.getName()));
-            i++;
+        final Object[] arguments = new Object[parametersBySlot.length];
+        for (final Map.Entry<String, Object> field : fields.entrySet()) {
+            final int slot = getSlot(field.getKey());
+            if (slot >= 0) {
+                arguments[slot] = field.getValue();
+            }
+        }
+        return newObject(arguments);
+    }
+
+    /**
+     * Constructs the object from the field values in constructor argument order.  Each value is converted to its
+     * parameter type in place, and the array is passed to the constructor.
+     *
+     * @param arguments the field values indexed by slot, which are replaced by the converted values
+     * @return the constructed object
+     * @throws StateExeException thrown when a value is missing or cannot be converted or the constructor fails
+     */
+    @NotNull
+    public Object newObject(@NotNull final Object[] arguments) throws StateExeException {
+        for (int slot = 0; slot < parametersBySlot.length; slot++) {
+            arguments[slot] = parametersBySlot[slot].valueOf(arguments[slot]);
         }
         try {
-            return constructor.newInstance(parameters);
+            return constructor.newInstance(arguments);
         } catch (final Exception exc) {
-            throw new StateExeException("Error creating instance of " + objectClass.getName() + " from fields " + fields);
+            throw new StateExeException("Error creating instance of " + objectClass.getName() + " from fields " +
+                    Arrays.toString(arguments));
         }
     }
 
@@ -6,8 +6,6 @@ import com.worthent.foundation.util.state.StateExeException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import java.lang.reflect.Constructor;
-import java.lang.reflect.Method;
 import java.util.*;
 
 import static com.worthent.foundation.util.condition.Preconditions.checkNotNull;
@@ -31,6 +29,12 @@ public class ConstructorParameter {
     private final Class<?> elementClass;
     private final ConstructionWorker constructionWorker;
 
+    /**
+     * The converter from a string field to the parameter type, resolved when first needed and again after converters
+     * are registered or removed
+     */
+    private volatile ResolvedConverter resolvedConverter;
+
     ConstructorParameter(
             @NotNull final String name,
             @NotNull final Class<?> parameterClass,
@@ -38,7 +42,7 @@ public class ConstructorParameter {
         this.name = checkNotNull(name, "name must not be null");
         this.parameterClass = checkNotNull(parameterClass, "parameterClass must not be null");
         this.elementClass = elementClass;
-        this.constructionWorker = (null != elementClass) ? scanClass(elementClass) : scanClass(parameterClass);
+        this.constructionWorker = ConstructionWorker.findForClass((null != elementClass) ? elementClass : parameterClass);
     }
 
     public ConstructionWorker getComplexObjectConstructionWorker() {
@@ -76,23 +80,16 @@ public class ConstructorParameter {
         if (parameterClass.isAssignableFrom(clazz)) {
             return value;
         } else if (value instanceof String) {
+            final StringConverter<?> stringConverter = getStringConverter();
+            if (null == stringConverter) {
+                throw new StateExeException("Expected constructor parameter '" + name + "' of type, " +
+                        parameterClass.getName() + ", to have a string converter, a valueOf method or a String constructor");
+            }
             try {
-                final Method valueOfMethod = parameterClass.getMethod("valueOf", String.class);
-                return valueOfMethod.invoke(null, value);
-            } catch (final NoSuchMethodException exc) {
-                try {
-                    final Constructor<?> stringConstructor = parameterClass.getConstructor(String.class);
-                    return stringConstructor.newInstance(value);
-                } catch (final NoSuchMethodException e) {
-                    throw new StateExeException("Expected constructor parameter '" + name + "' of type, " +
-                            parameterClass.getName() + ", to have a valueOf method or a String constructor");
-                } catch (final Exception e) {
-                    throw new StateExeException("Error converting parameter '" + name + "' of type, " +
-                            parameterClass.getName() + ", from the string: " + value);
-                }
+                return stringConverter.convert((String) value);
             } catch (final Exception exc) {
                 throw new StateExeException("Error converting parameter '" + name + "' of type, " +
-                        parameterClass.getName() + ", from the string: " + value);
+                        parameterClass.getName() + ", from the string: " + value, exc);
             }
         }
         throw new StateExeException("Error obtaining the value of parameter '" + name + "' of type, " +
@@ -113,12 +110,30 @@ public class ConstructorParameter {
         return elementClass;
     }
 
-    private static ConstructionWorker scanClass(final Class<?> clazz) {
-            final Constructor<?> constructor = ConstructionWorker.findAnnotatedConstructor(clazz);
-            if (null != constructor) {
-                return new ConstructionWorker(clazz, constructor);
-            }
-        return null;
+    /** Returns the converter for the parameter type under the current registrations or <code>null</code> when none */
+    private StringConverter<?> getStringConverter() {
+        final int registrationCount = StringConverters.getRegistrationCount();
+        ResolvedConverter resolved = resolvedConverter;
+        if (null == resolved || resolved.registrationCount != registrationCount) {
+            resolved = new ResolvedConverter(registrationCount, StringConverters.getConverter(parameterClass));
+            resolvedConverter = resolved;
+        }
+        return resolved.converter;
+    }
+
+    /** A converter and the registration count it was resolved under */
+    private static final class ResolvedConverter {
+
+        /** The registration count when the converter was resolved */
+        private final int registrationCount;
+
+        /** The converter or <code>null</code> when the parameter type has none */
+        private final StringConverter<?> converter;
+
+        private ResolvedConverter(final int registrationCount, final StringConverter<?> converter) {
+            this.registrationCount = registrationCount;
+            this.converter = converter;
+        }
     }
 
 }
@@ -3,9 +3,6 @@ package com.worthent.foundation.util.state.etc.obj;
 import com.worthent.foundation.util.annotation.NotNull;
 import com.worthent.foundation.util.annotation.Nullable;
 
-import java.util.HashMap;
-import java.util.Map;
-
 import static com.worthent.foundation.util.condition.Preconditions.checkNotNull;
 
 /**
@@ -16,24 +13,25 @@ public class ObjectBuilder extends BaseBuilder {
     /** The object field metadata captured from annotations on each argument to the object constructor */
     private final ConstructionWorker constructionWorker;
 
-    /** The map of field values being built keyed by field name */
-    private final Map<String, Object> fields;
+    /** The field values being built in constructor argument order */
+    private final Object[] arguments;
 
     /** Construct from the name of the object being built and the field metadata captured from annotations */
     ObjectBuilder(@Nullable final String name, @NotNull final ConstructionWorker constructionWorker) {
         super(BuilderType.OBJECT_BUILDER, name);
         this.constructionWorker = checkNotNull(constructionWorker, "constructorWorker must not be null");
-        this.fields = new HashMap<>();
+        this.arguments = new Object[constructionWorker.getParameterCount()];
     }
 
     @Nullable
     @Override
     public BaseBuilder getFieldBuilder(@NotNull final String name) {
-        final String itemName = checkNotNull(name, "name must not be null").toLowerCase();
-        final ConstructorParameter parameter = constructionWorker.getConstructorParameter(itemName);
-        if (null == parameter) {
+        final int slot = constructionWorker.getSlot(checkNotNull(name, "name must not be null"));
+        if (slot < 0) {
             return null;
         }
+        final ConstructorParameter parameter = constructionWorker.getConstructorParameter(slot);
+        final String itemName = parameter.getName();
         if (parameter.isCollectionType()) {
             return new ListBuilder(itemName, parameter);
         } else {
@@ -48,7 +46,7 @@ public class ObjectBuilder extends BaseBuilder {
     @Override
     @NotNull
     public Object build() {
-        return constructionWorker.newObject(fields);
+        return constructionWorker.newObject(arguments);
     }
 
     @Override
@@ -56,7 +54,10 @@ public class ObjectBuilder extends BaseBuilder {
     public void set(@NotNull final String name, @Nullable final Object value) {
         checkNotNull(name, "name must not be null");
         if (null != value) {
-            fields.put(name.toLowerCase(), value);
+            final int slot = constructionWorker.getSlot(name);
+            if (slot >= 0) {
+                arguments[slot] = value;
+            }
         }
     }
 
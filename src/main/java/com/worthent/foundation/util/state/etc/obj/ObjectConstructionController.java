@@ -5,7 +5,9 @@ import com.worthent.foundation.util.state.StateExeException;
 import com.worthent.foundation.util.state.StateTable;
 import com.worthent.foundation.util.state.StateTableControl;
 import com.worthent.foundation.util.state.def.StateDef;
+import com.worthent.foundation.util.state.def.StateTableDef;
 import com.worthent.foundation.util.state.def.StateTransitionDefs;
+import com.worthent.foundation.util.state.def.impl.StateTableDefBuilderImpl;
 import com.worthent.foundation.util.state.impl.StateTableBuilderImpl;
 import com.worthent.foundation.util.state.provider.SerialStateTableControl;
 
@@ -14,19 +16,18 @@ import java.util.function.Consumer;
 /**
  * State table controller used to construct objects from Object Construction Events and forward the constructed objects
  * to a consumer.
+ * <p>
+ * The state table definition is built once and shared by every controller regardless of the type of object being
+ * constructed, so constructing a controller only allocates the data for one object hierarchy.  Call {@link #reset} to
+ * reuse a controller after an error or when keeping controllers in a pool.
  *
  * @param <T> The top-level object type being constructed
  */
 public class ObjectConstructionController<T> implements StateTableControl<ObjectConstructionEvent> {
 
-    private final StateTableControl<ObjectConstructionEvent> stateTableControl;
-
-    private final ObjectData<T> objectData;
-
-    public ObjectConstructionController(@NotNull final Class<T> objectClass, @NotNull final Consumer<T> resultConsumer) {
-        this.objectData = new ObjectData<>(objectClass, resultConsumer);
-        final StateTable<ObjectData<T>, ObjectConstructionEvent> stateTable = new StateTableBuilderImpl<ObjectData<T>, ObjectConstructionEvent>()
-                .withStateTableDefinition()
+    /** The state table definition shared by all controllers */
+    private static final StateTableDef<ObjectData<?>, ObjectConstructionEvent> STATE_TABLE_DEF =
+            new StateTableDefBuilderImpl<ObjectData<?>, ObjectConstructionEvent>()
                 .setName("ObjectBuilder")
                 .usingActorsInClass(ObjectData.class)
                 .withState(ObjectStates.AWAITING_ROOT_START.name())
@@ -85,12 +86,30 @@ public class ObjectConstructionController<T> implements StateTableControl<Object
                         .endTransition()
                     .withDefaultEventHandler(StateTransitionDefs.getUnexpectedEventDefaultTransition())
                     .endState()
-                .endDefinition()
+                .build();
+
+    private final SerialStateTableControl<ObjectData<T>, ObjectConstructionEvent> stateTableControl;
+
+    private final ObjectData<T> objectData;
+
+    public ObjectConstructionController(@NotNull final Class<T> objectClass, @NotNull final Consumer<T> resultConsumer) {
+        this.objectData = new ObjectData<>(objectClass, resultConsumer);
+        final StateTable<ObjectData<T>, ObjectConstructionEvent> stateTable = new StateTableBuilderImpl<ObjectData<T>, ObjectConstructionEvent>()
+                .withStateTableDefinition(getStateTableDef())
                 .withStateTableDataManager().withDataGetter(e -> objectData).endDataManager()
                 .build();
         this.stateTableControl = new SerialStateTableControl<>(stateTable);
     }
 
+    /**
+     * Returns this controller to the state it had when constructed so it can build another object hierarchy.  Any
+     * partially built object is discarded.
+     */
+    public void reset() {
+        stateTableControl.clear();
+        objectData.reset();
+    }
+
     @Override
     public void start() throws StateExeException {
         stateTableControl.start();
@@ -105,4 +124,10 @@ public class ObjectConstructionController<T> implements StateTableControl<Object
     public void signalEvent(@NotNull final ObjectConstructionEvent event) throws StateExeException {
         stateTableControl.signalEvent(event);
     }
+
+    /** Returns the shared state table definition typed for the objects built by this controller */
+    @SuppressWarnings("unchecked")
+    private static <T> StateTableDef<ObjectData<T>, ObjectConstructionEvent> getStateTableDef() {
+        return (StateTableDef<ObjectData<T>, ObjectConstructionEvent>) (StateTableDef<?, ?>) STATE_TABLE_DEF;
+    }
 }
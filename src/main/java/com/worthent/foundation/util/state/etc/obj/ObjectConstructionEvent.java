@@ -74,6 +74,28 @@ public class ObjectConstructionEvent implements StateEvent {
         return new ObjectConstructionEvent(EVENT_SIMPLE_VALUE, PayloadType.VALUE, simpleValue);
     }
 
+    /**
+     * Returns a new Entity Start event meant to be reused for each entity name with {@link #reuse}.  Only signal a
+     * reusable event to a control that is done with it when its <code>signalEvent</code> method returns, like the
+     * {@link ObjectConstructionController}.
+     *
+     * @return a new reusable Entity Start object construction event
+     */
+    public static ObjectConstructionEvent newReusableEntityStartEvent() {
+        return new ObjectConstructionEvent(EVENT_ENTITY_START, PayloadType.ENTITY_NAME, "", true);
+    }
+
+    /**
+     * Returns a new Simple Value event meant to be reused for each value with {@link #reuse}.  Only signal a
+     * reusable event to a control that is done with it when its <code>signalEvent</code> method returns, like the
+     * {@link ObjectConstructionController}.
+     *
+     * @return a new reusable Simple Value object construction event
+     */
+    public static ObjectConstructionEvent newReusableSimpleValueEvent() {
+        return new ObjectConstructionEvent(EVENT_SIMPLE_VALUE, PayloadType.VALUE, "", true);
+    }
+
     /**
      * @return the Object Done object construction event
      */
@@ -88,7 +110,10 @@ public class ObjectConstructionEvent implements StateEvent {
     private final PayloadType payloadType;
 
     /** The event payload */
-    private final Object payload;
+    private Object payload;
+
+    /** Set when the payload may be replaced to reuse the event */
+    private final boolean reusable;
 
     /**
      * Construct with the event name, the type of payload and the payload value
@@ -101,6 +126,23 @@ public class ObjectConstructionEvent implements StateEvent {
             @NotNull final String eventName,
             @NotNull final PayloadType payloadType,
             @Nullable final Object payload) {
+        this(eventName, payloadType, payload, false);
+    }
+
+    /**
+     * Construct with the event name, the type of payload, the payload value and whether the event may be reused
+     *
+     * @param eventName the event name
+     * @param payloadType the type of payload for this event
+     * @param payload the payload value to be interpreted based on the payload type
+     * @param reusable <code>true</code> when the payload may be replaced to reuse the event
+     */
+    private ObjectConstructionEvent(
+            @NotNull final String eventName,
+            @NotNull final PayloadType payloadType,
+            @Nullable final Object payload,
+            final boolean reusable) {
+        this.reusable = reusable;
         this.eventName = checkNotNull(eventName, "eventName must not be null");
         this.payloadType = checkNotNull(payloadType, "payloadType must not be null");
         if (!PayloadType.NONE.equals(payloadType)) {
@@ -109,6 +151,22 @@ public class ObjectConstructionEvent implements StateEvent {
         this.payload = payload;
     }
 
+    /**
+     * Replaces the payload of a reusable event so it can be signaled again.
+     *
+     * @param payload the entity name or simple value carried by the event
+     * @return this event
+     * @throws IllegalStateException thrown when the event was not created to be reused
+     */
+    @NotNull
+    public ObjectConstructionEvent reuse(@NotNull final Object payload) {
+        if (!reusable) {
+            throw new IllegalStateException("The event, " + eventName + ", was not created to be reused");
+        }
+        this.payload = checkNotNull(payload, "payload must not be null");
+        return this;
+    }
+
     @Override
     public String getName() {
         return eventName;
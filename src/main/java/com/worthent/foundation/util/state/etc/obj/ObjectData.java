@@ -57,11 +57,22 @@ public class ObjectData<T> extends AbstractStateTableData {
         itemName = null;
     }
 
+    /**
+     * Returns this data to the state it had when constructed so it can build another object.  This discards any
+     * partially built object, including one abandoned after an error.
+     */
+    void reset() {
+        setCurrentState(ObjectStates.AWAITING_ROOT_START.name());
+        setPriorState(ObjectStates.AWAITING_ROOT_START.name());
+        objectBuilderStack.clear();
+        itemName = null;
+    }
+
     @Actor(name = PROCESS_ROOT_START)
     public void processRootStart() {
         objectBuilderStack.clear();
         // Start building the root object
-        objectBuilderStack.push(new ObjectBuilder(null, new ConstructionWorker(objectClass)));
+        objectBuilderStack.push(new ObjectBuilder(null, ConstructionWorker.forClass(objectClass)));
     }
 
     @Actor(name = PROCESS_ENTITY_START)
@@ -0,0 +1,24 @@
+package com.worthent.foundation.util.state.etc.obj;
+
+import com.worthent.foundation.util.annotation.NotNull;
+
+/**
+ * Converts the string value of a field to the type of the constructor parameter receiving it.  Register custom
+ * converters with {@link StringConverters#register} or from a {@link StringConverterProvider}.
+ *
+ * @param <T> the type produced from the string
+ *
+ * @author Erik K. Worth
+ */
+@FunctionalInterface
+public interface StringConverter<T> {
+
+    /**
+     * Returns the value represented by the string.
+     *
+     * @param value the string value of a field
+     * @return the value represented by the string
+     * @throws Exception thrown when the string does not represent a value of the type
+     */
+    T convert(@NotNull String value) throws Exception;
+}
@@ -0,0 +1,33 @@
+package com.worthent.foundation.util.state.etc.obj;
+
+import com.worthent.foundation.util.annotation.NotNull;
+
+/**
+ * Service provider interface for supplying custom string converters.  Implementations listed in
+ * <code>META-INF/services/com.worthent.foundation.util.state.etc.obj.StringConverterProvider</code> are loaded with
+ * the {@link java.util.ServiceLoader} the first time a converter is looked up.
+ *
+ * @author Erik K. Worth
+ */
+public interface StringConverterProvider {
+
+    /**
+     * Registers the provider's converters.
+     *
+     * @param registrar receives each converter with the type it produces
+     */
+    void registerConverters(@NotNull Registrar registrar);
+
+    /** Receives the converters from a provider */
+    interface Registrar {
+
+        /**
+         * Registers a converter for the type.
+         *
+         * @param type the type produced by the converter
+         * @param converter the converter
+         * @param <T> the type produced by the converter
+         */
+        <T> void register(@NotNull Class<T> type, @NotNull StringConverter<? extends T> converter);
+    }
+}
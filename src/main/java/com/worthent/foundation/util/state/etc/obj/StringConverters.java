@@ -0,0 +1,192 @@
+package com.worthent.foundation.util.state.etc.obj;
+
+import com.worthent.foundation.util.annotation.NotNull;
+import com.worthent.foundation.util.annotation.Nullable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.ServiceLoader;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static com.worthent.foundation.util.condition.Preconditions.checkNotNull;
+
+/**
+ * Registry of the converters that turn field strings into constructor parameter values.  A converter is resolved once
+ * per type in this order:
+ * <ol>
+ * <li>a converter registered with {@link #register} or by a {@link StringConverterProvider}</li>
+ * <li>a built-in parser for strings, the primitive wrappers, <code>BigDecimal</code>, <code>BigInteger</code> and
+ * enums</li>
+ * <li>a method handle for a public static <code>valueOf(String)</code> method returning the type</li>
+ * <li>a method handle for a public constructor taking a single <code>String</code></li>
+ * </ol>
+ * Register custom converters before building objects with the type since the construction workers resolve their
+ * converters when they introspect a constructor.
+ *
+ * @author Erik K. Worth
+ */
+public final class StringConverters {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(StringConverters.class);
+
+    /** The converters registered by the application or by providers */
+    private static final Map<Class<?>, StringConverter<?>> REGISTERED = new ConcurrentHashMap<>();
+
+    /** Counts the changes to the registered converters so cached converters know when to resolve again */
+    private static final AtomicInteger REGISTRATION_COUNT = new AtomicInteger();
+
+    /** The built-in converters */
+    private static final Map<Class<?>, StringConverter<?>> BUILT_IN = new HashMap<>();
+
+    static {
+        BUILT_IN.put(String.class, value -> value);
+        BUILT_IN.put(Integer.class, Integer::valueOf);
+        BUILT_IN.put(Long.class, Long::valueOf);
+        BUILT_IN.put(Double.class, Double::valueOf);
+        BUILT_IN.put(Float.class, Float::valueOf);
+        BUILT_IN.put(Short.class, Short::valueOf);
+        BUILT_IN.put(Byte.class, Byte::valueOf);
+        BUILT_IN.put(Boolean.class, Boolean::valueOf);
+        BUILT_IN.put(BigDecimal.class, BigDecimal::new);
+        BUILT_IN.put(BigInteger.class, BigInteger::new);
+        BUILT_IN.put(Character.class, value -> {
+            if (value.length() != 1) {
+                throw new IllegalArgumentException("Expected a single character: " + value);
+            }
+            return value.charAt(0);
+        });
+        loadProviders();
+    }
+
+    /** Hide the constructor for this class of static methods */
+    private StringConverters() {}
+
+    /**
+     * Registers a converter for the type, replacing any converter registered before.
+     *
+     * @param type the type produced by the converter
+     * @param converter the converter
+     * @param <T> the type produced by the converter
+     */
+    public static <T> void register(@NotNull final Class<T> type, @NotNull final StringConverter<? extends T> converter) {
+        REGISTERED.put(checkNotNull(type, "type must not be null"), checkNotNull(converter, "converter must not be null"));
+        REGISTRATION_COUNT.incrementAndGet();
+    }
+
+    /**
+     * Removes the converter registered for the type.
+     *
+     * @param type the type produced by the converter
+     */
+    public static void unregister(@NotNull final Class<?> type) {
+        REGISTERED.remove(checkNotNull(type, "type must not be null"));
+        REGISTRATION_COUNT.incrementAndGet();
+    }
+
+    /** @return a count that changes each time a converter is registered or removed */
+    static int getRegistrationCount() {
+        return REGISTRATION_COUNT.get();
+    }
+
+    /**
+     * Returns the converter for the type or <code>null</code> when the type cannot be produced from a string.
+     *
+     * @param type the type to produce from a string
+     * @param <T> the type to produce from a string
+     * @return the converter for the type or <code>null</code> when there is none
+     */
+    @Nullable
+    @SuppressWarnings("unchecked")
+    public static <T> StringConverter<? extends T> getConverter(@NotNull final Class<T> type) {
+        checkNotNull(type, "type must not be null");
+        StringConverter<?> converter = REGISTERED.get(type);
+        if (null == converter) {
+            converter = BUILT_IN.get(type);
+        }
+        if (null == converter && type.isEnum()) {
+            converter = enumConverter(type.asSubclass(Enum.class));
+        }
+        if (null == converter) {
+            converter = valueOfConverter(type);
+        }
+        if (null == converter) {
+            converter = constructorConverter(type);
+        }
+        return (StringConverter<? extends T>) converter;
+    }
+
+    /** Returns the converter for an enum type */
+    private static <T extends Enum<T>> StringConverter<T> enumConverter(final Class<?> type) {
+        @SuppressWarnings("unchecked") final Class<T> enumType = (Class<T>) type;
+        return value -> Enum.valueOf(enumType, value);
+    }
+
+    /** Returns a converter invoking the public static valueOf(String) method or <code>null</code> when there is none */
+    private static StringConverter<?> valueOfConverter(final Class<?> type) {
+        for (final Method method : type.getMethods()) {
+            if ("valueOf".equals(method.getName()) &&
+                    Modifier.isStatic(method.getModifiers()) &&
+                    method.getParameterCount() == 1 &&
+                    String.class == method.getParameterTypes()[0] &&
+                    type.isAssignableFrom(method.getReturnType())) {
+                try {
+                    return handleConverter(MethodHandles.publicLookup().unreflect(method));
+                } catch (final IllegalAccessException exc) {
+                    LOGGER.debug("Unable to access {}", method, exc);
+                }
+            }
+        }
+        return null;
+    }
+
+    /** Returns a converter invoking the public String constructor or <code>null</code> when there is none */
+    private static StringConverter<?> constructorConverter(final Class<?> type) {
+        if (Modifier.isAbstract(type.getModifiers())) {
+            return null;
+        }
+        for (final Constructor<?> constructor : type.getConstructors()) {
+            if (constructor.getParameterCount() == 1 && String.class == constructor.getParameterTypes()[0]) {
+                try {
+                    return handleConverter(MethodHandles.publicLookup().unreflectConstructor(constructor));
+                } catch (final IllegalAccessException exc) {
+                    LOGGER.debug("Unable to access {}", constructor, exc);
+                }
+            }
+        }
+        return null;
+    }
+
+    /** Returns a converter invoking a method handle that takes a string */
+    private static StringConverter<?> handleConverter(final MethodHandle handle) {
+        final MethodHandle generic = handle.asType(MethodType.methodType(Object.class, String.class));
+        return value -> {
+            try {
+                return (Object) generic.invokeExact(value);
+            } catch (final Exception | Error exc) {
+                throw exc;
+            } catch (final Throwable exc) {
+                throw new IllegalStateException(exc);
+            }
+        };
+    }
+
+    /** Registers the converters from the providers found by the service loader */
+    private static void loadProviders() {
+        final StringConverterProvider.Registrar registrar = StringConverters::register;
+        for (final StringConverterProvider provider : ServiceLoader.load(StringConverterProvider.class)) {
+            LOGGER.debug("Registering string converters from {}", provider.getClass().getName());
+            provider.registerConverters(registrar);
+        }
+    }
+}
@@ -0,0 +1,219 @@
+/*
+ * Copyright 2000-2016 Worth Enterprises, Inc.  All Rights Reserved.
+ */
+package com.worthent.foundation.util.state.etc.perf;
+
+import com.worthent.foundation.util.annotation.NotNull;
+import com.worthent.foundation.util.state.StateEvent;
+import com.worthent.foundation.util.state.TransitionActor;
+import com.worthent.foundation.util.state.def.StateDef;
+import com.worthent.foundation.util.state.def.StateDefException;
+import com.worthent.foundation.util.state.def.StateTableDef;
+import com.worthent.foundation.util.state.def.StateTransitionDef;
+import com.worthent.foundation.util.state.provider.UnexpectedEventActor;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Random;
+import java.util.Set;
+import java.util.function.Function;
+
+import static com.worthent.foundation.util.condition.Preconditions.checkNotNull;
+
+/**
+ * Generates a stream of events for a state table by walking its transition graph. The walk starts in the
+ * initial state and at each step picks one of the transitions explicitly defined for the current state at random,
+ * weighted by the configured frequency of its event, and moves to the target state of the transition. Conditional
+ * transitions are followed by picking one of their potential target states (see
+ * {@link StateTransitionDef#getPotentialTargetStateNames()}) at random. Transitions that reject the event with the
+ * {@link UnexpectedEventActor} are never picked, so the generated stream stays valid for unconditional transitions.
+ * For conditional transitions the stream only stays valid when the state table chooses the same target state as the
+ * walk, so the harness driving the stream counts the events the state table rejects.
+ * <p>
+ * The stream is endless unless the walk reaches a dead end, which is a state with no transitions that can be walked,
+ * such as a final state or a state whose events all have a weight of zero. The stream ends there rather than
+ * silently restarting, since the state table would not follow the walk back to its initial state, and
+ * {@link #hasNext()} returns <code>false</code> until {@link #reset()} restarts the walk.
+ * <p>
+ * The walk is seeded so the same seed always produces the same stream. Instances are not thread safe.
+ *
+ * @author Erik K. Worth
+ */
+public class StateTableLoadGenerator<E extends StateEvent> implements Iterator<E> {
+
+    /** The default weight of events with no configured frequency */
+    public static final double DEFAULT_EVENT_WEIGHT = 1.0;
+
+    /** The walk steps available from each state keyed by state name */
+    private final Map<String, WalkStep[]> stepsByState;
+
+    /** The cumulative weights of the walk steps available from each state keyed by state name */
+    private final Map<String, double[]> cumulativeWeightsByState;
+
+    /** The name of the initial state */
+    private final String initialState;
+
+    /** The function that creates an event from the event name */
+    private final Function<String, E> eventFactory;
+
+    /** The seeded random number generator driving the walk */
+    private final Random random;
+
+    /** The state the walk is in */
+    private String currentState;
+
+    /** The state the walk was in before the current state */
+    private String priorState;
+
+    /**
+     * Construct the generator for a state table definition.
+     *
+     * @param stateTableDef the state table definition whose transition graph is walked
+     * @param eventWeights the relative frequency of each event by event name, where events not in the map have the
+     *                     {@link #DEFAULT_EVENT_WEIGHT} and events with a weight of zero are never generated
+     * @param eventFactory the function that creates an event from the event name
+     * @param seed the seed for the random walk
+     * @throws StateDefException thrown when the initial state has no transitions that can be walked
+     */
+    public StateTableLoadGenerator(
+            @NotNull final StateTableDef<?, ?> stateTableDef,
+            @NotNull final Map<String, Double> eventWeights,
+            @NotNull final Function<String, E> eventFactory,
+            final long seed) throws StateDefException {
+        checkNotNull(stateTableDef, "stateTableDef must not be null");
+        checkNotNull(eventWeights, "eventWeights must not be null");
+        this.eventFactory = checkNotNull(eventFactory, "eventFactory must not be null");
+        this.stepsByState = new HashMap<>();
+        this.cumulativeWeightsByState = new HashMap<>();
+        for (final StateDef<?, ?> state : stateTableDef.getStates()) {
+            final List<WalkStep> steps = new ArrayList<>();
+            final List<Double> weights = new ArrayList<>();
+            for (final StateTransitionDef<?, ?> transition : state.getTransitions()) {
+                final Double configuredWeight = eventWeights.get(transition.getEventName());
+                final double weight = (null == configuredWeight) ? DEFAULT_EVENT_WEIGHT : configuredWeight;
+                if (weight > 0.0 && !rejectsEvent(transition)) {
+                    steps.add(new WalkStep(transition));
+                    weights.add(weight);
+                }
+            }
+            final double[] cumulativeWeights = new double[weights.size()];
+            double total = 0.0;
+            for (int i = 0; i < cumulativeWeights.length; i++) {
+                total += weights.get(i);
+                cumulativeWeights[i] = total;
+            }
+            stepsByState.put(state.getName(), steps.toArray(new WalkStep[steps.size()]));
+            cumulativeWeightsByState.put(state.getName(), cumulativeWeights);
+        }
+        this.initialState = stateTableDef.getInitialState().getName();
+        if (stepsByState.get(initialState).length == 0) {
+            throw new StateDefException("The initial state, '" + initialState + "', of the state table, '" +
+                    stateTableDef.getName() + "', has no transitions that can be walked");
+        }
+        this.random = new Random(seed);
+        reset();
+    }
+
+    /** Restarts the walk in the initial state of the state table */
+    public final void reset() {
+        currentState = initialState;
+        priorState = initialState;
+    }
+
+    /** @return the state the walk expects the state table to be in after the last generated event */
+    @NotNull
+    public String getCurrentState() {
+        return currentState;
+    }
+
+    //
+    // Iterator Interface
+    //
+
+    /** @return <code>true</code> unless the walk has reached a state with no transitions that can be walked */
+    @Override
+    public boolean hasNext() {
+        final WalkStep[] steps = stepsByState.get(currentState);
+        return null != steps && steps.length > 0;
+    }
+
+    /**
+     * Returns the next event in the walk and moves the walk to the target state of its transition.
+     *
+     * @return the next event in the walk
+     * @throws NoSuchElementException thrown when the walk has reached a state with no transitions that can be walked
+     */
+    @Override
+    public E next() throws NoSuchElementException {
+        final WalkStep[] steps = stepsByState.get(currentState);
+        if (null == steps || steps.length == 0) {
+            throw new NoSuchElementException("The walk reached the state, '" + currentState +
+                    "', which has no transitions that can be walked");
+        }
+        final double[] cumulativeWeights = cumulativeWeightsByState.get(currentState);
+        final double pick = random.nextDouble() * cumulativeWeights[cumulativeWeights.length - 1];
+        int index = 0;
+        while (index < cumulativeWeights.length - 1 && pick >= cumulativeWeights[index]) {
+            index++;
+        }
+        final WalkStep step = steps[index];
+        final String targetState = step.pickTargetState(random, currentState, priorState);
+        priorState = currentState;
+        currentState = targetState;
+        return eventFactory.apply(step.eventName);
+    }
+
+    /** Returns <code>true</code> when the transition rejects its event as unexpected */
+    private static boolean rejectsEvent(final StateTransitionDef<?, ?> transition) {
+        for (final TransitionActor<?, ?> actor : transition.getActors()) {
+            if (actor instanceof UnexpectedEventActor) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /** A transition the walk can take along with the states it may lead to */
+    private static final class WalkStep {
+
+        /** The name of the event triggering the transition */
+        private final String eventName;
+
+        /** The states to which the transition may lead */
+        private final String[] targetStates;
+
+        private WalkStep(final StateTransitionDef<?, ?> transition) {
+            this.eventName = transition.getEventName();
+            final String target = transition.getTargetStateName();
+            final Set<String> targets = StateDef.STATE_CHANGE_BY_ACTOR.equals(target)
+                    ? new LinkedHashSet<>(transition.getPotentialTargetStateNames())
+                    : Collections.singleton(target);
+            final Set<String> walkable = new LinkedHashSet<>(targets);
+            // An actor other than the conditional navigation actor changes the state in ways unknown to the walk
+            walkable.remove(StateDef.STATE_CHANGE_BY_ACTOR);
+            if (walkable.isEmpty()) {
+                walkable.add(StateDef.STAY_IN_STATE);
+            }
+            this.targetStates = walkable.toArray(new String[walkable.size()]);
+        }
+
+        private String pickTargetState(final Random random, final String currentState, final String priorState) {
+            final String target = (targetStates.length == 1)
+                    ? targetStates[0]
+                    : targetStates[random.nextInt(targetStates.length)];
+            if (StateDef.STAY_IN_STATE.equals(target)) {
+                return currentState;
+            }
+            if (StateDef.GOTO_PREVIOUS_STATE.equals(target)) {
+                return priorState;
+            }
+            return target;
+        }
+    }
+}
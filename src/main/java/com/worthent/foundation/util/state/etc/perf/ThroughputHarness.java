@@ -0,0 +1,164 @@
+/*
+ * Copyright 2000-2016 Worth Enterprises, Inc.  All Rights Reserved.
+ */
+package com.worthent.foundation.util.state.etc.perf;
+
+import com.worthent.foundation.util.annotation.NotNull;
+import com.worthent.foundation.util.state.StateEvent;
+import com.worthent.foundation.util.state.StateExeException;
+import com.worthent.foundation.util.state.StateTableControl;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+import static com.worthent.foundation.util.condition.Preconditions.checkNotNull;
+
+/**
+ * Drives a stream of events through a state table control, either as fast as possible or paced at a target rate, and
+ * measures the throughput, the latency of each event and the allocation rate. It is typically used with the events
+ * from a {@link StateTableLoadGenerator} to find the throughput ceiling of a state table before deploying it.
+ * <p>
+ * The latency of an event is the time from when it was due to be signaled until the call to
+ * {@link StateTableControl#signalEvent} returns. When running as fast as possible an event is due when the previous
+ * one completes. When paced, an event is due at its scheduled time so that stalls are charged to all the events
+ * delayed by them. For controls that process events on the signaling thread, this is the processing latency. For
+ * controls that queue events for another thread, it is only the latency of queuing the event.
+ * <p>
+ * The allocation rate counts the bytes allocated by all live threads during the run, which is only available on JVMs
+ * that measure the allocations of each thread.
+ *
+ * @author Erik K. Worth
+ */
+public class ThroughputHarness<E extends StateEvent> {
+
+    /** Logger for this class */
+    private static final Logger LOGGER = LoggerFactory.getLogger(ThroughputHarness.class);
+
+    /** Parking for less than this number of nanoseconds is replaced by spinning to keep the pacing accurate */
+    private static final long SPIN_THRESHOLD_NANOS = TimeUnit.MICROSECONDS.toNanos(50L);
+
+    /** The control receiving the events */
+    private final StateTableControl<E> control;
+
+    /**
+     * Construct with the control that receives the events. The control must already be started.
+     *
+     * @param control the control receiving the events
+     */
+    public ThroughputHarness(@NotNull final StateTableControl<E> control) {
+        this.control = checkNotNull(control, "control must not be null");
+    }
+
+    /**
+     * Signals events to the control without measuring them to let the JIT compile the code paths being measured.
+     *
+     * @param events the source of events
+     * @param eventCount the number of events to signal
+     */
+    public void warmUp(@NotNull final Iterator<E> events, final int eventCount) {
+        checkNotNull(events, "events must not be null");
+        for (int i = 0; i < eventCount && events.hasNext(); i++) {
+            try {
+                control.signalEvent(events.next());
+            } catch (final StateExeException exc) {
+                LOGGER.trace("Event rejected during warm up", exc);
+            }
+        }
+    }
+
+    /**
+     * Signals the events to the control and measures the results.
+     *
+     * @param events the source of events
+     * @param eventCount the number of events to signal
+     * @param targetRate the number of events to signal per second or zero to signal them as fast as possible
+     * @return the measurements for the run
+     */
+    @NotNull
+    public ThroughputReport run(@NotNull final Iterator<E> events, final int eventCount, final double targetRate) {
+        checkNotNull(events, "events must not be null");
+        if (eventCount < 0) {
+            throw new IllegalArgumentException("eventCount must not be negative");
+        }
+        if (targetRate < 0.0) {
+            throw new IllegalArgumentException("targetRate must not be negative");
+        }
+        final long intervalNanos = (targetRate == 0.0) ? 0L : (long) (1.0e9 / targetRate);
+        final long[] latencies = new long[eventCount];
+        long errorCount = 0L;
+        int signaled = 0;
+        final long allocatedBefore = getAllocatedBytes();
+        final long startNanos = System.nanoTime();
+        long dueNanos = startNanos;
+        while (signaled < eventCount && events.hasNext()) {
+            final E event = events.next();
+            if (intervalNanos > 0L) {
+                dueNanos = startNanos + signaled * intervalNanos;
+                waitUntil(dueNanos);
+            } else {
+                dueNanos = System.nanoTime();
+            }
+            try {
+                control.signalEvent(event);
+            } catch (final StateExeException exc) {
+                errorCount++;
+                LOGGER.trace("Event rejected", exc);
+            }
+            latencies[signaled++] = System.nanoTime() - dueNanos;
+        }
+        final long elapsedNanos = System.nanoTime() - startNanos;
+        final long allocatedAfter = getAllocatedBytes();
+        final long allocatedBytes = (allocatedBefore < 0L || allocatedAfter < 0L)
+                ? -1L
+                : Math.max(0L, allocatedAfter - allocatedBefore);
+        final long[] measured = (signaled == eventCount) ? latencies : Arrays.copyOf(latencies, signaled);
+        final ThroughputReport report =
+                new ThroughputReport(signaled, errorCount, elapsedNanos, measured, allocatedBytes);
+        LOGGER.info("Throughput: {}", report);
+        return report;
+    }
+
+    /**
+     * Waits until the specified time by parking for long waits and spinning for short ones. This paces the events
+     * signaled by the harness and by other drivers, such as the event replayer, that need the same accuracy.
+     *
+     * @param dueNanos the {@link System#nanoTime()} to wait for
+     */
+    public static void waitUntil(final long dueNanos) {
+        long remaining = dueNanos - System.nanoTime();
+        while (remaining > 0L) {
+            if (remaining > SPIN_THRESHOLD_NANOS) {
+                LockSupport.parkNanos(remaining - SPIN_THRESHOLD_NANOS);
+            }
+            remaining = dueNanos - System.nanoTime();
+        }
+    }
+
+    /**
+     * Returns the total number of bytes allocated by all live threads or a negative number when the JVM does not
+     * measure the allocations of each thread.
+     */
+    private static long getAllocatedBytes() {
+        final ThreadMXBean threadBean = ManagementFactory.getThreadMXBean();
+        if (!(threadBean instanceof com.sun.management.ThreadMXBean)) {
+            return -1L;
+        }
+        final com.sun.management.ThreadMXBean allocationBean = (com.sun.management.ThreadMXBean) threadBean;
+        if (!allocationBean.isThreadAllocatedMemorySupported() || !allocationBean.isThreadAllocatedMemoryEnabled()) {
+            return -1L;
+        }
+        long total = 0L;
+        for (final long allocated : allocationBean.getThreadAllocatedBytes(allocationBean.getAllThreadIds())) {
+            if (allocated > 0L) {
+                total += allocated;
+            }
+        }
+        return total;
+    }
+}
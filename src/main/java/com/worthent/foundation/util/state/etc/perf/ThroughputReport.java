@@ -0,0 +1,127 @@
+/*
+ * Copyright 2000-2016 Worth Enterprises, Inc.  All Rights Reserved.
+ */
+package com.worthent.foundation.util.state.etc.perf;
+
+import java.util.Arrays;
+
+/**
+ * Immutable results of driving a stream of events through a state table control with the {@link ThroughputHarness}.
+ *
+ * @author Erik K. Worth
+ */
+public final class ThroughputReport {
+
+    /** The number of events signaled to the control */
+    private final long eventCount;
+
+    /** The number of events the control rejected with an exception */
+    private final long errorCount;
+
+    /** The elapsed time in nanoseconds to signal all the events */
+    private final long elapsedNanos;
+
+    /** The latency of each event in nanoseconds sorted in ascending order */
+    private final long[] sortedLatencies;
+
+    /** The number of bytes allocated by all threads during the run or a negative number when unavailable */
+    private final long allocatedBytes;
+
+    /**
+     * Construct from the raw measurements.
+     *
+     * @param eventCount the number of events signaled to the control
+     * @param errorCount the number of events the control rejected with an exception
+     * @param elapsedNanos the elapsed time in nanoseconds to signal all the events
+     * @param latencies the latency of each event in nanoseconds, which is sorted in place
+     * @param allocatedBytes the number of bytes allocated by all threads during the run or a negative number when the
+     *                       JVM does not measure allocations
+     */
+    ThroughputReport(
+            final long eventCount,
+            final long errorCount,
+            final long elapsedNanos,
+            final long[] latencies,
+            final long allocatedBytes) {
+        this.eventCount = eventCount;
+        this.errorCount = errorCount;
+        this.elapsedNanos = elapsedNanos;
+        Arrays.sort(latencies);
+        this.sortedLatencies = latencies;
+        this.allocatedBytes = allocatedBytes;
+    }
+
+    /** @return the number of events signaled to the control */
+    public long getEventCount() {
+        return eventCount;
+    }
+
+    /** @return the number of events the control rejected with an exception */
+    public long getErrorCount() {
+        return errorCount;
+    }
+
+    /** @return the elapsed time in nanoseconds to signal all the events */
+    public long getElapsedNanos() {
+        return elapsedNanos;
+    }
+
+    /** @return the number of events signaled per second */
+    public double getEventsPerSecond() {
+        return (elapsedNanos == 0L) ? 0.0 : eventCount * 1.0e9 / elapsedNanos;
+    }
+
+    /**
+     * Returns the latency in nanoseconds at the specified percentile.
+     *
+     * @param percentile the percentile between 0 and 100
+     * @return the latency in nanoseconds at the specified percentile or zero when no events were signaled
+     */
+    public long getLatencyPercentile(final double percentile) {
+        if (percentile < 0.0 || percentile > 100.0) {
+            throw new IllegalArgumentException("percentile must be between 0 and 100");
+        }
+        if (sortedLatencies.length == 0) {
+            return 0L;
+        }
+        final int index = (int) Math.ceil(percentile / 100.0 * sortedLatencies.length) - 1;
+        return sortedLatencies[Math.max(0, Math.min(index, sortedLatencies.length - 1))];
+    }
+
+    /** @return the largest latency in nanoseconds or zero when no events were signaled */
+    public long getMaxLatency() {
+        return (sortedLatencies.length == 0) ? 0L : sortedLatencies[sortedLatencies.length - 1];
+    }
+
+    /** @return the number of bytes allocated by all threads during the run or a negative number when unavailable */
+    public long getAllocatedBytes() {
+        return allocatedBytes;
+    }
+
+    /** @return the number of bytes allocated per second or a negative number when unavailable */
+    public double getAllocationRate() {
+        if (allocatedBytes < 0L) {
+            return -1.0;
+        }
+        return (elapsedNanos == 0L) ? 0.0 : allocatedBytes * 1.0e9 / elapsedNanos;
+    }
+
+    /** @return the number of bytes allocated per event or a negative number when unavailable */
+    public double getAllocatedBytesPerEvent() {
+        if (allocatedBytes < 0L) {
+            return -1.0;
+        }
+        return (eventCount == 0L) ? 0.0 : ((double) allocatedBytes) / eventCount;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("events=%d, errors=%d, elapsed=%.3f ms, throughput=%.0f events/s, " +
+                        "latency p50=%d ns p90=%d ns p99=%d ns p99.9=%d ns max=%d ns, " +
+                        "allocation=%.0f bytes/s (%.1f bytes/event)",
+                eventCount, errorCount, elapsedNanos / 1.0e6, getEventsPerSecond(),
+                getLatencyPercentile(50.0), getLatencyPercentile(90.0), getLatencyPercentile(99.0),
+                getLatencyPercentile(99.9), getMaxLatency(),
+                getAllocationRate(), getAllocatedBytesPerEvent());
+    }
+}
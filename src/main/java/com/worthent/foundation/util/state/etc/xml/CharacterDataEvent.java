@@ -13,7 +13,19 @@ public class CharacterDataEvent extends XmlEvent {
     /** Event name for the Character Data notification */
     public static final String EVENT_NAME = SaxEventAdapter.CHARACTER_DATA;
 
-    /** The character content */
+    /** The characters reported by the parser, which are only valid while the event is being processed */
+    private char[] chars;
+
+    /** The position of the first character in the array */
+    private int start;
+
+    /** The number of characters */
+    private int length;
+
+    /** The number of newline characters, counted by the adapter while classifying the characters */
+    private int newlineCount;
+
+    /** The character content, created from the array only when requested */
     private String charData;
 
     @Override
@@ -23,6 +35,9 @@ public class CharacterDataEvent extends XmlEvent {
 
     /** @return the character data */
     public final String getCharacterData() {
+        if (null == charData && null != chars) {
+            charData = new String(chars, start, length);
+        }
         return charData;
     }
 
@@ -31,7 +46,7 @@ public class CharacterDataEvent extends XmlEvent {
         final StringBuilder buf = new StringBuilder();
         buf.append(EVENT_NAME);
         buf.append(" \"");
-        buf.append(charData);
+        buf.append(getCharacterData());
         buf.append('"');
         return buf.toString();
     }
@@ -42,11 +57,33 @@ public class CharacterDataEvent extends XmlEvent {
     }
 
     /**
-     * Set the character data received in the SAX event
-     * @param charData the character data received in the SAX event
+     * Sets the character data received in the SAX event without copying them.
+     *
+     * @param chars the characters from the SAX event
+     * @param start the position of the first character in the array
+     * @param length the number of characters
+     * @param newlineCount the number of newline characters
+     */
+    void setCharacterData(final char[] chars, final int start, final int length, final int newlineCount) {
+        this.chars = chars;
+        this.start = start;
+        this.length = length;
+        this.newlineCount = newlineCount;
+        this.charData = null;
+    }
+
+    /** @return the number of newline characters */
+    int getNewlineCount() {
+        return newlineCount;
+    }
+
+    /**
+     * Appends the characters to the buffer without creating a string.
+     *
+     * @param buffer the buffer receiving the characters
      */
-    void setCharacterData(final String charData) {
-        this.charData = charData;
+    void appendTo(final StringBuilder buffer) {
+        buffer.append(chars, start, length);
     }
 
 }
@@ -0,0 +1,387 @@
+/*
+ * Copyright 2000-2016 Worth Enterprises, Inc.  All rights reserved.
+ */
+package com.worthent.foundation.util.state.etc.xml;
+
+import com.worthent.foundation.util.annotation.NotNull;
+import com.worthent.foundation.util.state.StateExeException;
+import com.worthent.foundation.util.state.etc.obj.BindingPlan;
+import org.xml.sax.InputSource;
+
+import javax.xml.parsers.SAXParser;
+import javax.xml.parsers.SAXParserFactory;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.SequenceInputStream;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+import static com.worthent.foundation.util.condition.Preconditions.checkNotNull;
+
+/**
+ * Reads the records from a large, record oriented XML file on several threads.  The file is memory mapped and scanned
+ * for the start tags of the record elements, and split at those tags into chunks of about the configured size.  Each
+ * chunk is wrapped in a synthetic root element and parsed on a pool thread with its own SAX parser and its own
+ * {@link XmlObjectBinder}, which builds the same objects as the state table chain fed by the {@link SaxEventAdapter}.
+ * Records are delivered to the consumer either in document order or as soon as each one is built.
+ * <p>
+ * Splitting works on the bytes of the file, so it expects a document in UTF-8 or another encoding that is compatible
+ * with ASCII, whose records are sibling elements of one parent.  The name of the record element, as written in its
+ * tags, must not appear in a tag nested within a record or inside a comment or CDATA section, and the records must
+ * not use entities declared in a DTD.  A chunk that was split incorrectly fails to parse, so these mistakes are
+ * reported as errors rather than producing wrong records.
+ *
+ * @param <R> the type of record
+ * @author Erik K. Worth
+ */
+public class ParallelXmlRecordReader<R> {
+
+    /** The default target size of each chunk in bytes */
+    public static final int DEFAULT_CHUNK_SIZE = 4 * 1024 * 1024;
+
+    /** The name of the element wrapping the records in each chunk */
+    private static final String CHUNK_ELEMENT = "ParallelXmlRecordChunk";
+
+    /** The number of bytes mapped at a time when scanning for record boundaries */
+    private static final int SCAN_WINDOW = 1024 * 1024;
+
+    /** Creates the SAX parsers used by the pool threads, which is not thread safe so it is used under its lock */
+    private static final SAXParserFactory PARSER_FACTORY = SAXParserFactory.newInstance();
+
+    /** Used to name the pool threads */
+    private static final AtomicInteger POOL_COUNT = new AtomicInteger();
+
+    /** The class of each record */
+    private final Class<R> recordClass;
+
+    /** The name of the record element as written in its tags */
+    private final String recordElement;
+
+    /** The number of chunks parsed at once */
+    private final int parallelism;
+
+    /** The target size of each chunk in bytes */
+    private final int chunkSize;
+
+    /** The encoding of the files */
+    private final Charset charset;
+
+    /** The start of the record start tag, which is followed by whitespace, a slash or the end of the tag */
+    private final byte[] startTagPrefix;
+
+    /** The start of the record end tag */
+    private final byte[] endTagPrefix;
+
+    /**
+     * Construct the reader with one thread per processor, the default chunk size and UTF-8 encoding.
+     *
+     * @param recordClass the class of each record, which must have an annotated constructor
+     * @param recordElement the name of the record element as written in its tags
+     */
+    public ParallelXmlRecordReader(@NotNull final Class<R> recordClass, @NotNull final String recordElement) {
+        this(recordClass, recordElement, Runtime.getRuntime().availableProcessors(), DEFAULT_CHUNK_SIZE,
+                Charset.forName("UTF-8"));
+    }
+
+    /**
+     * Construct the reader.
+     *
+     * @param recordClass the class of each record, which must have an annotated constructor
+     * @param recordElement the name of the record element as written in its tags
+     * @param parallelism the number of chunks parsed at once
+     * @param chunkSize the target size of each chunk in bytes; chunks end at the first record boundary after it
+     * @param charset the encoding of the files, which must be compatible with ASCII
+     */
+    public ParallelXmlRecordReader(
+            @NotNull final Class<R> recordClass,
+            @NotNull final String recordElement,
+            final int parallelism,
+            final int chunkSize,
+            @NotNull final Charset charset) {
+        this.recordClass = checkNotNull(recordClass, "recordClass must not be null");
+        this.recordElement = checkNotNull(recordElement, "recordElement must not be null");
+        this.charset = checkNotNull(charset, "charset must not be null");
+        if (recordElement.isEmpty() || recordElement.contains("/")) {
+            throw new IllegalArgumentException("recordElement must be a single element name: '" + recordElement + "'");
+        }
+        if (parallelism < 1) {
+            throw new IllegalArgumentException("parallelism must be at least 1");
+        }
+        if (chunkSize < 1) {
+            throw new IllegalArgumentException("chunkSize must be at least 1");
+        }
+        this.parallelism = parallelism;
+        this.chunkSize = chunkSize;
+        this.startTagPrefix = ("<" + recordElement).getBytes(charset);
+        this.endTagPrefix = ("</" + recordElement).getBytes(charset);
+        // Resolve the plan now so a class without an annotated constructor is reported before any file is read
+        BindingPlan.forClass(recordClass);
+    }
+
+    /**
+     * Reads the records from the file and hands each to the consumer.  When <code>ordered</code> is
+     * <code>true</code>, the records of each chunk are collected and handed to the consumer on the calling thread in
+     * document order.  Otherwise each record is handed to the consumer on the pool thread that built it as soon as it
+     * is built, so the consumer must be thread safe.  In both cases only a few chunks are in flight at once.
+     *
+     * @param file the XML file
+     * @param consumer receives each record
+     * @param ordered <code>true</code> to deliver the records in document order
+     * @return the number of records read
+     * @throws IOException thrown when the file cannot be read
+     * @throws StateExeException thrown when a chunk cannot be parsed or a record cannot be built, after which no more
+     *                           chunks are started
+     */
+    public long read(
+            @NotNull final Path file,
+            @NotNull final Consumer<? super R> consumer,
+            final boolean ordered) throws IOException, StateExeException {
+        checkNotNull(file, "file must not be null");
+        checkNotNull(consumer, "consumer must not be null");
+        final AtomicLong recordCount = new AtomicLong();
+        try (final FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            final List<long[]> chunks = split(channel);
+            if (chunks.isEmpty()) {
+                return 0;
+            }
+            final String poolName = "ParallelXmlRecordReader-" + POOL_COUNT.incrementAndGet() + "-";
+            final AtomicInteger threadCount = new AtomicInteger();
+            final ExecutorService pool = Executors.newFixedThreadPool(Math.min(parallelism, chunks.size()), r -> {
+                final Thread thread = new Thread(r, poolName + threadCount.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            });
+            final Consumer<R> unorderedSink = record -> {
+                recordCount.incrementAndGet();
+                consumer.accept(record);
+            };
+            final ArrayDeque<Future<List<R>>> inFlight = new ArrayDeque<>();
+            final ArrayDeque<long[]> inFlightChunks = new ArrayDeque<>();
+            try {
+                for (final long[] chunk : chunks) {
+                    if (inFlight.size() >= 2 * parallelism) {
+                        deliver(inFlight.removeFirst(), inFlightChunks.removeFirst(), consumer, recordCount);
+                    }
+                    final MappedByteBuffer buffer =
+                            channel.map(FileChannel.MapMode.READ_ONLY, chunk[0], chunk[1] - chunk[0]);
+                    inFlight.addLast(pool.submit(() -> parseChunk(buffer, ordered ? null : unorderedSink)));
+                    inFlightChunks.addLast(chunk);
+                }
+                while (!inFlight.isEmpty()) {
+                    deliver(inFlight.removeFirst(), inFlightChunks.removeFirst(), consumer, recordCount);
+                }
+            } finally {
+                for (final Future<List<R>> future : inFlight) {
+                    future.cancel(true);
+                }
+                pool.shutdownNow();
+            }
+        }
+        return recordCount.get();
+    }
+
+    /** Waits for a chunk and hands the records it collected, if any, to the consumer */
+    private void deliver(
+            final Future<List<R>> future,
+            final long[] chunk,
+            final Consumer<? super R> consumer,
+            final AtomicLong recordCount) throws StateExeException {
+        final List<R> records;
+        try {
+            records = future.get();
+        } catch (final InterruptedException exc) {
+            Thread.currentThread().interrupt();
+            throw new StateExeException("Interrupted while reading the chunk at offset " + chunk[0], exc);
+        } catch (final ExecutionException exc) {
+            throw new StateExeException("Error reading the chunk from offset " + chunk[0] + " to " + chunk[1],
+                    (exc.getCause() instanceof Exception) ? (Exception) exc.getCause() : exc);
+        }
+        for (final R record : records) {
+            consumer.accept(record);
+        }
+        recordCount.addAndGet(records.size());
+    }
+
+    /**
+     * Parses one chunk, returning its records when there is no sink or handing them to the sink as they are built
+     * and returning an empty list.
+     */
+    private List<R> parseChunk(final ByteBuffer buffer, final Consumer<R> sink) throws Exception {
+        final List<R> records = (null == sink) ? new ArrayList<>() : Collections.emptyList();
+        final XmlObjectBinder<R> binder = new XmlObjectBinder<>(
+                recordClass, CHUNK_ELEMENT + "/" + recordElement, (null == sink) ? records::add : sink);
+        final InputStream inputStream = new SequenceInputStream(
+                new SequenceInputStream(
+                        new ByteArrayInputStream(("<" + CHUNK_ELEMENT + ">").getBytes(charset)),
+                        new ByteBufferInputStream(buffer)),
+                new ByteArrayInputStream(("</" + CHUNK_ELEMENT + ">").getBytes(charset)));
+        final InputSource inputSource = new InputSource(inputStream);
+        inputSource.setEncoding(charset.name());
+        final SAXParser parser;
+        synchronized (PARSER_FACTORY) {
+            parser = PARSER_FACTORY.newSAXParser();
+        }
+        parser.parse(inputSource, binder);
+        return records;
+    }
+
+    /**
+     * Splits the file at record start tags into chunks of about the chunk size.  The first chunk starts at the first
+     * record and the last ends after the end tag of the last record, leaving out the content wrapping the records.
+     * Each chunk is returned as its start and end offsets.
+     */
+    private List<long[]> split(final FileChannel channel) throws IOException {
+        final List<long[]> chunks = new ArrayList<>();
+        final long size = channel.size();
+        long start = findStartTag(channel, 0, size);
+        if (start < 0) {
+            return chunks;
+        }
+        final long end = findEndOfLastEndTag(channel, start, size);
+        if (end < 0) {
+            throw new StateExeException("The file has a start tag for '" + recordElement + "' at offset " + start +
+                    " but no end tag");
+        }
+        while (start < end) {
+            long next = (end - start > chunkSize) ? findStartTag(channel, start + chunkSize, end) : -1;
+            if (next < 0) {
+                next = end;
+            }
+            if (next - start > Integer.MAX_VALUE) {
+                throw new StateExeException("The chunk starting at offset " + start + " is too large to map; the " +
+                        "records must be smaller than 2GB");
+            }
+            chunks.add(new long[] {start, next});
+            start = next;
+        }
+        return chunks;
+    }
+
+    /** Returns the offset of the first record start tag at or after the offset and before the limit, or -1 */
+    private long findStartTag(final FileChannel channel, final long from, final long limit) throws IOException {
+        long windowStart = from;
+        while (windowStart < limit) {
+            final int length = (int) Math.min(SCAN_WINDOW + startTagPrefix.length + 1, limit - windowStart);
+            final MappedByteBuffer window = channel.map(FileChannel.MapMode.READ_ONLY, windowStart, length);
+            final int scanEnd = Math.min(length, SCAN_WINDOW);
+            for (int i = 0; i < scanEnd; i++) {
+                if (matches(window, i, length, startTagPrefix) &&
+                        (i + startTagPrefix.length == length || endsName(window.get(i + startTagPrefix.length)))) {
+                    return windowStart + i;
+                }
+            }
+            windowStart += scanEnd;
+        }
+        return -1;
+    }
+
+    /**
+     * Returns the offset just past the last record end tag at or after the offset, or -1 when there is none.  Also
+     * handles a last record written as an empty element tag.
+     */
+    private long findEndOfLastEndTag(final FileChannel channel, final long from, final long limit) throws IOException {
+        long windowEnd = limit;
+        while (windowEnd > from) {
+            final long windowStart = Math.max(from, windowEnd - SCAN_WINDOW);
+            final int length = (int) Math.min(windowEnd - windowStart + SCAN_WINDOW, limit - windowStart);
+            final MappedByteBuffer window = channel.map(FileChannel.MapMode.READ_ONLY, windowStart, length);
+            for (int i = (int) (windowEnd - windowStart) - 1; i >= 0; i--) {
+                if (window.get(i) != '<') {
+                    continue;
+                }
+                int close = -1;
+                if (matches(window, i, length, endTagPrefix) && i + endTagPrefix.length < length &&
+                        endsName(window.get(i + endTagPrefix.length))) {
+                    close = indexOf(window, i + endTagPrefix.length, length, (byte) '>');
+                } else if (matches(window, i, length, startTagPrefix) && i + startTagPrefix.length < length &&
+                        endsName(window.get(i + startTagPrefix.length))) {
+                    final int tagEnd = indexOf(window, i + startTagPrefix.length, length, (byte) '>');
+                    close = (tagEnd > 0 && window.get(tagEnd - 1) == '/') ? tagEnd : -1;
+                }
+                if (close >= 0) {
+                    return windowStart + close + 1;
+                }
+            }
+            windowEnd = windowStart;
+        }
+        return -1;
+    }
+
+    /** Returns <code>true</code> when the bytes at the position match the pattern */
+    private static boolean matches(final ByteBuffer buffer, final int position, final int limit, final byte[] pattern) {
+        if (position + pattern.length > limit) {
+            return false;
+        }
+        for (int i = 0; i < pattern.length; i++) {
+            if (buffer.get(position + i) != pattern[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /** Returns the position of the first byte with the value at or after the position, or -1 */
+    private static int indexOf(final ByteBuffer buffer, final int from, final int limit, final byte value) {
+        for (int i = from; i < limit; i++) {
+            if (buffer.get(i) == value) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /** Returns <code>true</code> when the byte ends an element name in a tag */
+    private static boolean endsName(final byte value) {
+        return value == '>' || value == '/' || value == ' ' || value == '\t' || value == '\r' || value == '\n';
+    }
+
+    /** Input stream over the remaining bytes of a buffer */
+    private static final class ByteBufferInputStream extends InputStream {
+
+        /** The bytes to read */
+        private final ByteBuffer buffer;
+
+        private ByteBufferInputStream(final ByteBuffer buffer) {
+            this.buffer = buffer;
+        }
+
+        @Override
+        public int read() {
+            return buffer.hasRemaining() ? (buffer.get() & 0xFF) : -1;
+        }
+
+        @Override
+        public int read(final byte[] bytes, final int offset, final int length) {
+            if (length == 0) {
+                return 0;
+            }
+            if (!buffer.hasRemaining()) {
+                return -1;
+            }
+            final int count = Math.min(length, buffer.remaining());
+            buffer.get(bytes, offset, count);
+            return count;
+        }
+
+        @Override
+        public int available() {
+            return buffer.remaining();
+        }
+    }
+}
@@ -4,20 +4,30 @@
 package com.worthent.foundation.util.state.etc.xml;
 
 import com.worthent.foundation.util.annotation.NotNull;
+import com.worthent.foundation.util.annotation.Nullable;
 import com.worthent.foundation.util.state.StateExeException;
 import com.worthent.foundation.util.state.StateTable;
 import com.worthent.foundation.util.state.StateTableControl;
+import com.worthent.foundation.util.state.etc.obj.BindingPlan;
 import org.xml.sax.Attributes;
 import org.xml.sax.SAXException;
 import org.xml.sax.SAXParseException;
 import org.xml.sax.helpers.DefaultHandler;
 
+import java.util.Arrays;
+
 import static com.worthent.foundation.util.condition.Preconditions.checkNotNull;
 
 /**
  * Provides an implementation of a SAX Content Handler that may be used to feed SAX Events to a State Table.  This
  * adapter is designed to minimize object creations and thus can only be used by a state stable that uses the same
  * thread to consume and act on events.
+ * <p>
+ * When constructed with a projection class, the adapter uses the {@link BindingPlan} of the class to decide which
+ * elements can contribute to the object, and skips every other element and everything inside it by counting depth,
+ * without signaling any events.  The newlines in a skipped subtree are reported in one whitespace event when it ends
+ * so line numbers in error messages stay correct.  Parse time then grows with the part of the document that is kept
+ * rather than with the whole document.
  *
  * @see StateTable
  * @author Erik K. Worth
@@ -60,22 +70,61 @@ public class SaxEventAdapter extends DefaultHandler {
     /** Whitespace Event */
     private final WhitespaceEvent whitespaceEvent = new WhitespaceEvent();
 
+    /** Used to report the newlines in a skipped subtree without any characters */
+    private static final char[] NO_CHARS = new char[0];
+
+    /** Projection frame for an element bound to an object whose nested elements are looked up in its plan */
+    private static final byte OBJECT_FRAME = 0;
+
+    /** Projection frame for an element bound to a list whose nested elements are all list elements */
+    private static final byte LIST_FRAME = 1;
+
+    /** Projection frame for an element bound to a simple value, so nothing nested in it is kept */
+    private static final byte LEAF_FRAME = 2;
+
     /** State table able to consume the state XML Events */
     private final StateTableControl<XmlEvent> stateTableControl;
 
+    /** The plan for the class the document is projected onto or <code>null</code> to signal every element */
+    private final BindingPlan projection;
+
+    /** The projection frame type of each open element that is kept, indexed by depth */
+    private byte[] frameTypes;
+
+    /** The plan for the nested elements of each open element that is kept, indexed by depth */
+    private BindingPlan[] framePlans;
+
+    /** The number of open elements */
+    private int depth;
+
+    /** The depth of the element being skipped or zero when not skipping */
+    private int skipDepth;
+
+    /** The number of newlines in the subtree being skipped */
+    private int skippedNewlines;
+
+    /** The number of elements skipped, including those nested in skipped elements */
+    private long skippedElementCount;
+
     /**
-     * Helper method that asserts the specified event is a character data event
-     * or whitespace and returns the trimmed character data. In the case of
-     * whitespace,it returns an empty string.
+     * Helper method that asserts the specified event is a character data event or whitespace, appends its characters
+     * to the buffer when one is provided and returns the number of newlines in them.  The characters are appended
+     * straight from the array reported by the parser without creating a string.
      */
-    static String assertCharacterData(final XmlEvent event)
+    static int appendCharacterData(final XmlEvent event, @Nullable final StringBuilder buffer)
             throws StateExeException {
         if (event instanceof CharacterDataEvent) {
             final CharacterDataEvent charDataEvent = (CharacterDataEvent) event;
-            return charDataEvent.getCharacterData();
+            if (null != buffer) {
+                charDataEvent.appendTo(buffer);
+            }
+            return charDataEvent.getNewlineCount();
         } else if (event instanceof WhitespaceEvent) {
             final WhitespaceEvent whitespaceEvent = (WhitespaceEvent) event;
-            return whitespaceEvent.getCharacterData();
+            if (null != buffer) {
+                whitespaceEvent.appendTo(buffer);
+            }
+            return whitespaceEvent.getNewlineCount();
         } else {
             throw new StateExeException("Expected event, " +
                     CharacterDataEvent.class.getName() +
@@ -91,6 +140,28 @@ public class SaxEventAdapter extends DefaultHandler {
      */
     public SaxEventAdapter(@NotNull final StateTableControl<XmlEvent> stateTableControl) {
         this.stateTableControl = checkNotNull(stateTableControl, "stateTableControl must not be null");
+        this.projection = null;
+    }
+
+    /**
+     * Construct with the state table control and the class the document is projected onto, so that only elements
+     * that can contribute to an object of the class are signaled.
+     *
+     * @param stateTableControl the state table control for the state table able to consume XML Events
+     * @param projectionClass the class of the root object, which must have an annotated constructor
+     */
+    public SaxEventAdapter(
+            @NotNull final StateTableControl<XmlEvent> stateTableControl,
+            @NotNull final Class<?> projectionClass) {
+        this.stateTableControl = checkNotNull(stateTableControl, "stateTableControl must not be null");
+        this.projection = BindingPlan.forClass(checkNotNull(projectionClass, "projectionClass must not be null"));
+        this.frameTypes = new byte[16];
+        this.framePlans = new BindingPlan[16];
+    }
+
+    /** @return the number of elements skipped by the projection, including those nested in skipped elements */
+    public long getSkippedElementCount() {
+        return skippedElementCount;
     }
 
     /**
@@ -98,6 +169,9 @@ public class SaxEventAdapter extends DefaultHandler {
      * invoke this method only once, before any other methods.
      */
     public void startDocument() throws SAXException {
+        depth = 0;
+        skipDepth = 0;
+        skippedNewlines = 0;
         try {
             stateTableControl.signalEvent(START_DOCUMENT_EVENT);
         } catch (final Exception exc) {
@@ -152,6 +226,9 @@ public class SaxEventAdapter extends DefaultHandler {
             final String localName,
             final String qName,
             final Attributes attributes) throws SAXException {
+        if (null != projection && !keep(localName, qName)) {
+            return;
+        }
 
         // Set the event state
         startElementEvent.setNamespaceURI(namespaceURI);
@@ -181,6 +258,18 @@ public class SaxEventAdapter extends DefaultHandler {
             final String namespaceURI,
             final String localName,
             final String qName) throws SAXException {
+        if (null != projection) {
+            if (skipDepth > 0) {
+                if (depth-- == skipDepth) {
+                    // Ending the skipped element, so report the newlines that were skipped with it
+                    skipDepth = 0;
+                    signalSkippedNewlines();
+                }
+                return;
+            }
+            framePlans[--depth] = null;
+        }
+
         // Set the event state
         endElementEvent.setNamespaceURI(namespaceURI);
         endElementEvent.setLocalName(localName);
@@ -203,17 +292,36 @@ public class SaxEventAdapter extends DefaultHandler {
      * information.
      */
     public void characters(final char[] ch, final int start, final int length) throws SAXException {
-        final String chars = new String(ch, start, length);
+        if (skipDepth > 0) {
+            for (int i = start; i < start + length; i++) {
+                if ('\n' == ch[i]) {
+                    skippedNewlines++;
+                }
+            }
+            return;
+        }
+
+        // Classify the characters and count the newlines in one pass over the parser's array
+        boolean allWhitespace = true;
+        int newlineCount = 0;
+        for (int i = start; i < start + length; i++) {
+            final char c = ch[i];
+            if ('\n' == c) {
+                newlineCount++;
+            } else if (allWhitespace && !Character.isWhitespace(c)) {
+                allWhitespace = false;
+            }
+        }
         try {
-            if (allWhitespace(chars)) {
+            if (allWhitespace) {
 
                 // Signal this event if all the characters are whitespace
-                whitespaceEvent.setCharacterData(chars);
+                whitespaceEvent.setCharacterData(ch, start, length, newlineCount);
                 stateTableControl.signalEvent(whitespaceEvent);
             } else {
 
                 // Signal this event if at least some characters are not whitespace
-                characterDataEvent.setCharacterData(chars);
+                characterDataEvent.setCharacterData(ch, start, length, newlineCount);
                 stateTableControl.signalEvent(characterDataEvent);
             }
         } catch (final Exception exc) {
@@ -246,13 +354,66 @@ public class SaxEventAdapter extends DefaultHandler {
         throw exception;
     }
 
-    /** Returns <code>true</code> when all of the characters are whitespace characters */
-    private static boolean allWhitespace(final String chars) {
-        for (int i = 0; i < chars.length(); i++) {
-            if (!Character.isWhitespace(chars.charAt(i))) {
-                return false;
-            }
+    /**
+     * Tracks the projection frame for a starting element and returns <code>true</code> when the element is kept or
+     * <code>false</code> when it is skipped along with everything inside it.
+     */
+    private boolean keep(final String localName, final String qName) {
+        if (skipDepth > 0) {
+            depth++;
+            skippedElementCount++;
+            return false;
+        }
+        if (depth == frameTypes.length) {
+            frameTypes = Arrays.copyOf(frameTypes, depth * 2);
+            framePlans = Arrays.copyOf(framePlans, depth * 2);
         }
+        if (depth == 0) {
+            frameTypes[depth] = OBJECT_FRAME;
+            framePlans[depth++] = projection;
+            return true;
+        }
+        final byte parentType = frameTypes[depth - 1];
+        final BindingPlan parentPlan = framePlans[depth - 1];
+        if (LIST_FRAME == parentType) {
+            // Every element in a list is a list element
+            frameTypes[depth] = (null == parentPlan) ? LEAF_FRAME : OBJECT_FRAME;
+            framePlans[depth++] = parentPlan;
+            return true;
+        }
+        final String name = (null != localName && localName.length() > 0) ? localName : qName;
+        final BindingPlan.FieldBinding binding =
+                (OBJECT_FRAME == parentType && null != name) ? parentPlan.getBinding(name) : null;
+        if (null == binding) {
+            skipDepth = ++depth;
+            skippedElementCount++;
+            return false;
+        }
+        switch (binding.getKind()) {
+            case OBJECT:
+                frameTypes[depth] = OBJECT_FRAME;
+                break;
+            case LIST:
+                frameTypes[depth] = LIST_FRAME;
+                break;
+            default:
+                frameTypes[depth] = LEAF_FRAME;
+        }
+        framePlans[depth++] = binding.getNestedPlan();
         return true;
     }
+
+    /** Signals a whitespace event carrying the newlines in a skipped subtree so the line number stays correct */
+    private void signalSkippedNewlines() throws SAXException {
+        if (skippedNewlines == 0) {
+            return;
+        }
+        whitespaceEvent.setCharacterData(NO_CHARS, 0, 0, skippedNewlines);
+        skippedNewlines = 0;
+        try {
+            stateTableControl.signalEvent(whitespaceEvent);
+        } catch (final Exception exc) {
+            throw new SAXException("State table exception", exc);
+        }
+    }
 }
@@ -3,6 +3,7 @@ package com.worthent.foundation.util.state.etc.xml;
 import com.worthent.foundation.util.annotation.NotNull;
 import com.worthent.foundation.util.state.*;
 import com.worthent.foundation.util.state.annotation.Actor;
+import com.worthent.foundation.util.state.etc.obj.ObjectConstructionController;
 import com.worthent.foundation.util.state.etc.obj.ObjectConstructionEvent;
 import org.xml.sax.Attributes;
 
@@ -53,11 +54,20 @@ public class XmlData extends AbstractStateTableData {
     /** Controller for the Object Construction State Table able to create objects from construction events */
     private final StateTableControl<ObjectConstructionEvent> stateTableControl;
 
+    /** Set when the events sent to the controller may be reused because it is done with each one when signaled */
+    private final boolean reuseEvents;
+
+    /** Reused to signal each Entity Start event when events may be reused */
+    private final ObjectConstructionEvent entityStartEvent;
+
+    /** Reused to signal each Simple Value event when events may be reused */
+    private final ObjectConstructionEvent simpleValueEvent;
+
     /** The stack of XML elements such that the one on top is the element being processed now */
-    private LinkedList<String> elementStack;
+    private final LinkedList<String> elementStack;
 
     /** The String Builder used to build a string value from character data */
-    private StringBuilder fieldValue;
+    private final StringBuilder fieldValue;
 
     /** Tracks the line number from the SAX events to report errors */
     private int lineNumber;
@@ -71,12 +81,28 @@ public class XmlData extends AbstractStateTableData {
     XmlData(@NotNull final StateTableControl<ObjectConstructionEvent> stateTableControl) {
         super(XmlObjectStates.AWAITING_DOCUMENT.name(), XmlObjectStates.AWAITING_DOCUMENT.name());
         this.stateTableControl = checkNotNull(stateTableControl, "stateTableControl must not be null");
+        this.reuseEvents = stateTableControl instanceof ObjectConstructionController;
+        this.entityStartEvent = ObjectConstructionEvent.newReusableEntityStartEvent();
+        this.simpleValueEvent = ObjectConstructionEvent.newReusableSimpleValueEvent();
         elementStack = new LinkedList<>();
         fieldValue = new StringBuilder();
         lineNumber = 1;
         documentStarted = false;
     }
 
+    /**
+     * Returns this data to the state it had when constructed so it can process another document.  This discards any
+     * partially processed document, including one abandoned after an error.
+     */
+    void reset() {
+        setCurrentState(XmlObjectStates.AWAITING_DOCUMENT.name());
+        setPriorState(XmlObjectStates.AWAITING_DOCUMENT.name());
+        elementStack.clear();
+        fieldValue.setLength(0);
+        lineNumber = 1;
+        documentStarted = false;
+    }
+
     /** Returns the line number for the current location in the XML document being parsed */
     int getLineNumber() {
         return lineNumber;
@@ -138,7 +164,7 @@ public class XmlData extends AbstractStateTableData {
         if (elementStack.isEmpty()) {
             throw new StateExeException("Received Signal Entity Start at line " + lineNumber + " before receiving any elements.");
         }
-        stateTableControl.signalEvent(ObjectConstructionEvent.newEntityStartEvent(elementStack.peek()));
+        stateTableControl.signalEvent(newEntityStartEvent(elementStack.peek()));
         // If the element has attributes, send an event for each
         final Attributes attributes = startElementEvent.getAttributes();
         for (int i = 0; i < attributes.getLength(); i++) {
@@ -146,8 +172,8 @@ public class XmlData extends AbstractStateTableData {
             if (null == name) {
                 name = attributes.getQName(i);
             }
-            stateTableControl.signalEvent(ObjectConstructionEvent.newEntityStartEvent(name));
-            stateTableControl.signalEvent(ObjectConstructionEvent.newSimpleValueEvent(attributes.getValue(i)));
+            stateTableControl.signalEvent(newEntityStartEvent(name));
+            stateTableControl.signalEvent(newSimpleValueEvent(attributes.getValue(i)));
         }
     }
 
@@ -173,8 +199,8 @@ public class XmlData extends AbstractStateTableData {
 
     @Actor(name = SIGNAL_SIMPLE_VALUE)
     public void signalSimpleValue() throws StateExeException {
-        stateTableControl.signalEvent(ObjectConstructionEvent.newSimpleValueEvent(fieldValue.toString()));
-        fieldValue = new StringBuilder();
+        stateTableControl.signalEvent(newSimpleValueEvent(fieldValue.toString()));
+        fieldValue.setLength(0);
     }
 
     @Actor(name = SIGNAL_OBJECT_DONE)
@@ -184,23 +210,25 @@ public class XmlData extends AbstractStateTableData {
 
     @Actor(name = PROCESS_CHARACTER_DATA)
     public void processCharacterData(final XmlEvent event) throws StateExeException {
-        final String characters = SaxEventAdapter.assertCharacterData(event);
-        trackNewLines(characters);
-        fieldValue.append(characters);
+        lineNumber += SaxEventAdapter.appendCharacterData(event, fieldValue);
     }
 
     @Actor(name = PROCESS_WHITESPACE)
     public void processWhitespace(final XmlEvent event) throws StateExeException {
-        final String characters = SaxEventAdapter.assertCharacterData(event);
-        trackNewLines(characters);
+        lineNumber += SaxEventAdapter.appendCharacterData(event, null);
     }
 
-    private void trackNewLines(final String characters) {
-        final int len = (null == characters) ? 0 : characters.length();
-        for (int i = 0; i < len; i++) {
-            if ('\n' == characters.charAt(i)) {
-                lineNumber++;
-            }
-        }
+    /** Returns an Entity Start event for the name, reusing one event when the controller allows it */
+    private ObjectConstructionEvent newEntityStartEvent(final String entityName) {
+        return reuseEvents
+                ? entityStartEvent.reuse(entityName)
+                : ObjectConstructionEvent.newEntityStartEvent(entityName);
+    }
+
+    /** Returns a Simple Value event for the value, reusing one event when the controller allows it */
+    private ObjectConstructionEvent newSimpleValueEvent(final String value) {
+        return reuseEvents
+                ? simpleValueEvent.reuse(value)
+                : ObjectConstructionEvent.newSimpleValueEvent(value);
     }
 }
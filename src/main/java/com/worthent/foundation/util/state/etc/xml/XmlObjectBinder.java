@@ -0,0 +1,386 @@
+/*
+ * Copyright 2000-2016 Worth Enterprises, Inc.  All rights reserved.
+ */
+package com.worthent.foundation.util.state.etc.xml;
+
+import com.worthent.foundation.util.annotation.NotNull;
+import com.worthent.foundation.util.annotation.Nullable;
+import com.worthent.foundation.util.state.etc.obj.BindingPlan;
+import com.worthent.foundation.util.state.etc.obj.ObjectConstructionController;
+import org.xml.sax.Attributes;
+import org.xml.sax.Locator;
+import org.xml.sax.SAXException;
+import org.xml.sax.SAXParseException;
+import org.xml.sax.helpers.DefaultHandler;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.function.Consumer;
+
+import static com.worthent.foundation.util.condition.Preconditions.checkNotNull;
+
+/**
+ * SAX Content Handler that binds an XML document directly to objects using the precomputed {@link BindingPlan} for
+ * the root object class.  It produces the same objects as a {@link SaxEventAdapter} feeding an
+ * {@link XmlObjectBuilderAdapter} and an {@link ObjectConstructionController}, but handles each SAX callback with an
+ * array lookup and a plan lookup instead of two state table dispatches and several event objects.  The state table
+ * path remains the reference behavior.
+ * <p>
+ * As with the state table path, the root element is bound to the root object and its attributes are ignored, the
+ * attributes of nested objects and list elements are bound as simple fields, text made up only of whitespace is
+ * dropped, and simple elements that match no constructor parameter are ignored.  Where the state table path reports
+ * an error, the binder also skips unknown elements that have elements of their own and binds nested objects that are
+ * not list elements.
+ * <p>
+ * By default the root element is bound and handed to the consumer once the document ends.  When constructed with a
+ * record path, such as <code>Orders/PurchaseOrder</code>, the binder instead binds each element at that path as a
+ * record, hands it to the consumer as soon as its end element arrives and then lets it go, so memory stays
+ * proportional to one record however many records the document holds.  Elements outside the records are skipped.
+ * <p>
+ * The binder keeps per document state and reuses its frames from one document to the next, so like the
+ * {@link SaxEventAdapter} it must be used by one thread at a time.
+ *
+ * @param <T> the top-level object type being bound
+ * @author Erik K. Worth
+ */
+public class XmlObjectBinder<T> extends DefaultHandler {
+
+    /** Frame type for an element skipped along with its content */
+    private static final int SKIP = 0;
+
+    /** Frame type for an element bound to an object */
+    private static final int OBJECT = 1;
+
+    /** Frame type for an element bound to a collection */
+    private static final int LIST = 2;
+
+    /** Frame type for an element bound to a simple value */
+    private static final int SIMPLE = 3;
+
+    /** The class of the root object */
+    private final Class<T> objectClass;
+
+    /** The plan for the root object or for each record */
+    private final BindingPlan rootPlan;
+
+    /** The element names on the path to each record or <code>null</code> to bind the root element */
+    private final String[] recordPath;
+
+    /** The depth of the frame for each record, which is zero for the root element */
+    private final int recordDepth;
+
+    /** Receives each root object or record as it is built */
+    private final Consumer<T> resultConsumer;
+
+    /** Collects the text of the simple value being bound, which cannot nest */
+    private final StringBuilder text;
+
+    /** The frame for each open element indexed by depth, reused across elements and documents */
+    private Frame[] frames;
+
+    /** The number of open elements */
+    private int depth;
+
+    /** The number of open elements that match the start of the record path */
+    private int matchedDepth;
+
+    /** Reports the location of errors when the parser provides it */
+    private Locator locator;
+
+    /**
+     * Construct the binder for the root object class.
+     *
+     * @param objectClass the class of the root object, which must have an annotated constructor
+     * @param resultConsumer receives each root object as it is built
+     */
+    public XmlObjectBinder(@NotNull final Class<T> objectClass, @NotNull final Consumer<T> resultConsumer) {
+        this(objectClass, null, resultConsumer);
+    }
+
+    /**
+     * Construct the binder for the records at the path.
+     *
+     * @param objectClass the class of each record, which must have an annotated constructor
+     * @param recordPath the element names from the root element to each record element separated by slashes, or
+     *                   <code>null</code> to bind the root element
+     * @param resultConsumer receives each record as soon as it is built
+     */
+    public XmlObjectBinder(
+            @NotNull final Class<T> objectClass,
+            @Nullable final String recordPath,
+            @NotNull final Consumer<T> resultConsumer) {
+        this.objectClass = checkNotNull(objectClass, "objectClass must not be null");
+        this.resultConsumer = checkNotNull(resultConsumer, "resultConsumer must not be null");
+        this.recordPath = (null == recordPath) ? null : parseRecordPath(recordPath);
+        this.recordDepth = (null == this.recordPath) ? 0 : this.recordPath.length - 1;
+        this.rootPlan = BindingPlan.forClass(objectClass);
+        this.text = new StringBuilder();
+        this.frames = new Frame[16];
+        for (int i = 0; i < frames.length; i++) {
+            frames[i] = new Frame();
+        }
+    }
+
+    /**
+     * Discards any partially bound document so the binder can be reused after an error or from a pool.
+     */
+    public void reset() {
+        while (depth > 0) {
+            frames[--depth].clear();
+        }
+        matchedDepth = 0;
+        text.setLength(0);
+    }
+
+    @Override
+    public void setDocumentLocator(final Locator locator) {
+        this.locator = locator;
+    }
+
+    @Override
+    public void startDocument() throws SAXException {
+        reset();
+    }
+
+    @Override
+    public void endDocument() throws SAXException {
+        if (depth > 0) {
+            throw newException("Unexpected End of Document.  Missing End Elements for " + depth + " element(s)", null);
+        }
+    }
+
+    @Override
+    public void startElement(
+            final String uri,
+            final String localName,
+            final String qName,
+            final Attributes attributes) throws SAXException {
+        final String name = (null != localName && localName.length() > 0) ? localName : qName;
+        if (null == name || name.length() == 0) {
+            throw newException("Received Start Element with a blank element name", null);
+        }
+        if (depth == frames.length) {
+            final int oldLength = frames.length;
+            frames = Arrays.copyOf(frames, oldLength * 2);
+            for (int i = oldLength; i < frames.length; i++) {
+                frames[i] = new Frame();
+            }
+        }
+        final Frame frame = frames[depth];
+        if (depth <= recordDepth) {
+            // Outside any record, so follow the record path
+            if (depth == matchedDepth && (null == recordPath || recordPath[depth].equals(name))) {
+                matchedDepth++;
+            }
+            if (depth == recordDepth && matchedDepth > depth) {
+                frame.bindObject(rootPlan, null);
+            } else {
+                frame.skip();
+            }
+            depth++;
+            return;
+        }
+        final Frame parent = frames[depth - 1];
+        switch (parent.type) {
+            case OBJECT:
+                final BindingPlan.FieldBinding binding = parent.plan.getBinding(name);
+                if (null == binding) {
+                    frame.skip();
+                } else if (BindingPlan.FieldBinding.Kind.SIMPLE == binding.getKind()) {
+                    frame.bindSimple(binding);
+                    text.setLength(0);
+                } else if (BindingPlan.FieldBinding.Kind.OBJECT == binding.getKind()) {
+                    frame.bindObject(binding.getNestedPlan(), binding);
+                    bindAttributes(frame, attributes);
+                } else {
+                    frame.bindList(binding, newCollection(binding));
+                }
+                break;
+            case LIST:
+                final BindingPlan elementPlan = parent.binding.getNestedPlan();
+                if (null == elementPlan) {
+                    frame.skip();
+                } else {
+                    frame.bindObject(elementPlan, null);
+                    bindAttributes(frame, attributes);
+                }
+                break;
+            case SIMPLE:
+                throw newException("Received Start Element, '" + name + "', inside the simple value, '" +
+                        parent.binding.getName() + "'", null);
+            default:
+                frame.skip();
+        }
+        depth++;
+    }
+
+    @Override
+    public void endElement(final String uri, final String localName, final String qName) throws SAXException {
+        if (depth == 0) {
+            throw newException("Received End Element before receiving any elements", null);
+        }
+        final Frame frame = frames[--depth];
+        if (matchedDepth > depth) {
+            matchedDepth = depth;
+        }
+        final Object value;
+        try {
+            switch (frame.type) {
+                case OBJECT:
+                    value = frame.plan.build(frame.arguments);
+                    break;
+                case LIST:
+                    value = frame.collection;
+                    break;
+                case SIMPLE:
+                    value = (text.length() == 0) ? null : text.toString();
+                    break;
+                default:
+                    value = null;
+            }
+        } catch (final RuntimeException exc) {
+            throw newException("Error building '" + ((null == frame.binding) ? qName : frame.binding.getName()) + "'",
+                    exc);
+        } finally {
+            frame.clear();
+        }
+        if (null == value) {
+            return;
+        }
+        if (depth == recordDepth) {
+            resultConsumer.accept(objectClass.cast(value));
+            return;
+        }
+        final Frame parent = frames[depth - 1];
+        if (LIST == parent.type) {
+            parent.collection.add(value);
+        } else if (OBJECT == parent.type) {
+            parent.arguments[frame.slot] = value;
+        }
+    }
+
+    @Override
+    public void characters(final char[] ch, final int start, final int length) throws SAXException {
+        if (depth > 0 && SIMPLE == frames[depth - 1].type && !allWhitespace(ch, start, length)) {
+            text.append(ch, start, length);
+        }
+    }
+
+    @Override
+    public void error(final SAXParseException exception) throws SAXException {
+        throw exception;
+    }
+
+    @Override
+    public void fatalError(final SAXParseException exception) throws SAXException {
+        throw exception;
+    }
+
+    /** Returns the element names in the record path, ignoring empty names such as one before a leading slash */
+    private static String[] parseRecordPath(final String recordPath) {
+        final String[] names = Arrays.stream(recordPath.split("/"))
+                .map(String::trim)
+                .filter(name -> name.length() > 0)
+                .toArray(String[]::new);
+        if (names.length == 0) {
+            throw new IllegalArgumentException("recordPath must name at least one element: '" + recordPath + "'");
+        }
+        return names;
+    }
+
+    /** Binds the attributes of an object element as simple fields of the object */
+    private static void bindAttributes(final Frame frame, final Attributes attributes) {
+        for (int i = 0; i < attributes.getLength(); i++) {
+            String name = attributes.getLocalName(i);
+            if (null == name || name.length() == 0) {
+                name = attributes.getQName(i);
+            }
+            final BindingPlan.FieldBinding binding = frame.plan.getBinding(name);
+            if (null != binding) {
+                frame.arguments[binding.getSlot()] = attributes.getValue(i);
+            }
+        }
+    }
+
+    /** Returns a new collection for the binding, reporting failures as SAX exceptions */
+    private Collection<Object> newCollection(final BindingPlan.FieldBinding binding) throws SAXException {
+        try {
+            return binding.newCollection();
+        } catch (final RuntimeException exc) {
+            throw newException("Error creating the collection for '" + binding.getName() + "'", exc);
+        }
+    }
+
+    /** Returns a SAX exception with the message, the line number when available and the cause */
+    private SAXException newException(final String message, final Exception cause) {
+        final String located = (null == locator) ? message : message + " at line " + locator.getLineNumber();
+        return (null == cause) ? new SAXException(located) : new SAXException(located, cause);
+    }
+
+    /** Returns <code>true</code> when all of the characters are whitespace characters */
+    private static boolean allWhitespace(final char[] ch, final int start, final int length) {
+        for (int i = start; i < start + length; i++) {
+            if (!Character.isWhitespace(ch[i])) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /** The binding state for one open element */
+    private static final class Frame {
+
+        /** How the element is bound */
+        private int type;
+
+        /** The plan for an object element */
+        private BindingPlan plan;
+
+        /** The binding of the element to its parent object or <code>null</code> for root and list elements */
+        private BindingPlan.FieldBinding binding;
+
+        /** The slot the element fills in its parent object */
+        private int slot;
+
+        /** The constructor arguments for an object element */
+        private Object[] arguments;
+
+        /** The collection for a list element */
+        private Collection<Object> collection;
+
+        private void bindObject(final BindingPlan plan, final BindingPlan.FieldBinding binding) {
+            this.type = OBJECT;
+            this.binding = binding;
+            this.slot = (null == binding) ? -1 : binding.getSlot();
+            this.arguments = new Object[plan.getArgumentCount()];
+            this.plan = plan;
+        }
+
+        private void bindList(final BindingPlan.FieldBinding binding, final Collection<Object> collection) {
+            this.type = LIST;
+            this.binding = binding;
+            this.slot = binding.getSlot();
+            this.collection = collection;
+        }
+
+        private void bindSimple(final BindingPlan.FieldBinding binding) {
+            this.type = SIMPLE;
+            this.binding = binding;
+            this.slot = binding.getSlot();
+        }
+
+        private void skip() {
+            this.type = SKIP;
+            this.binding = null;
+        }
+
+        /** Releases the references held by the frame so it can be reused */
+        private void clear() {
+            type = SKIP;
+            plan = null;
+            binding = null;
+            arguments = null;
+            collection = null;
+        }
+    }
+}
@@ -9,7 +9,10 @@ import com.worthent.foundation.util.state.StateExeException;
 import com.worthent.foundation.util.state.StateTable;
 import com.worthent.foundation.util.state.StateTableControl;
 import com.worthent.foundation.util.state.def.StateDef;
+import com.worthent.foundation.util.state.def.StateTableDef;
 import com.worthent.foundation.util.state.def.StateTransitionDefs;
+import com.worthent.foundation.util.state.def.impl.StateTableDefBuilderImpl;
+import com.worthent.foundation.util.state.etc.obj.ObjectConstructionController;
 import com.worthent.foundation.util.state.etc.obj.ObjectConstructionEvent;
 import com.worthent.foundation.util.state.impl.StateTableBuilderImpl;
 import com.worthent.foundation.util.state.provider.SerialStateTableControl;
@@ -18,16 +21,88 @@ import static com.worthent.foundation.util.condition.Preconditions.checkNotNull;
 
 /**
  * Adapter that consumes XML Events and produces Object Construction Events.
+ * <p>
+ * The state table definition is built once and shared by every adapter, so constructing an adapter only allocates the
+ * data for one document.  Call {@link #reset} to reuse an adapter, along with its downstream controller, for another
+ * document after an error or when keeping adapters in a pool.
  *
  * @author Erik K. Worth
  */
 public class XmlObjectBuilderAdapter implements StateTableControl<XmlEvent> {
 
+    /** The state table definition shared by all adapters */
+    private static final StateTableDef<XmlData, XmlEvent> STATE_TABLE_DEF = new StateTableDefBuilderImpl<XmlData, XmlEvent>()
+        .setName("XMLObjectBuilderAdapter")
+        .usingActorsInClass(XmlData.class)
+        .withState(XmlObjectStates.AWAITING_DOCUMENT.name())
+            .transitionOnEvent(SaxEventAdapter.START_DOCUMENT)
+                .toState(XmlObjectStates.AWAITING_OBJECT_ELEMENT_START.name())
+                .withActorsByName(XmlData.PROCESS_DOCUMENT_START)
+                .endTransition()
+            .withDefaultEventHandler(StateTransitionDefs.getUnexpectedEventDefaultTransition())
+            .endState()
+        .withState(XmlObjectStates.AWAITING_OBJECT_ELEMENT_START.name())
+            .transitionOnEvent(SaxEventAdapter.START_ELEMENT)
+                .toState(XmlObjectStates.BUILDING_OBJECT.name())
+                .withActorsByName(XmlData.PROCESS_ELEMENT_START, XmlData.SIGNAL_ROOT_START)
+                .endTransition()
+            .transitionOnEvent((SaxEventAdapter.WHITESPACE))
+                .toState(StateDef.STAY_IN_STATE)
+                .withActorsByName(XmlData.PROCESS_WHITESPACE)
+                .endTransition()
+            .withDefaultEventHandler(StateTransitionDefs.getUnexpectedEventDefaultTransition())
+            .endState()
+        .withState(XmlObjectStates.BUILDING_OBJECT.name())
+            .transitionOnEvent(SaxEventAdapter.START_ELEMENT)
+                .toState(XmlObjectStates.BUILDING_OBJECT.name())
+                .withActorsByName(XmlData.PROCESS_ELEMENT_START, XmlData.SIGNAL_ENTITY_START)
+                .endTransition()
+            .transitionOnEvent(SaxEventAdapter.CHARACTER_DATA)
+                .toState(XmlObjectStates.BUILDING_FIELD.name())
+                .withActorsByName(XmlData.PROCESS_CHARACTER_DATA)
+                .endTransition()
+            .transitionOnEvent(SaxEventAdapter.WHITESPACE)
+                .toState(StateDef.STAY_IN_STATE)
+                .withActorsByName(XmlData.PROCESS_WHITESPACE)
+                .endTransition()
+            .transitionOnEvent(SaxEventAdapter.END_ELEMENT)
+                .toState(XmlObjectStates.BUILDING_OBJECT.name())
+                .withActorsByName(XmlData.PROCESS_ELEMENT_END, XmlData.SIGNAL_OBJECT_DONE)
+                .endTransition()
+            .transitionOnEvent(SaxEventAdapter.END_DOCUMENT)
+                .toState(XmlObjectStates.AWAITING_DOCUMENT.name())
+                .withActorsByName(XmlData.PROCESS_DOCUMENT_END)
+                .endTransition()
+            .withDefaultEventHandler(StateTransitionDefs.getUnexpectedEventDefaultTransition())
+            .endState()
+        .withState(XmlObjectStates.BUILDING_FIELD.name())
+            .transitionOnEvent(SaxEventAdapter.CHARACTER_DATA)
+                .toState(StateDef.STAY_IN_STATE)
+                .withActorsByName(XmlData.PROCESS_CHARACTER_DATA)
+                .endTransition()
+            .transitionOnEvent(SaxEventAdapter.WHITESPACE)
+                .toState(StateDef.STAY_IN_STATE)
+                .withActorsByName(XmlData.PROCESS_WHITESPACE)
+                .endTransition()
+            .transitionOnEvent(SaxEventAdapter.END_ELEMENT)
+                .toState(XmlObjectStates.BUILDING_OBJECT.name())
+                .withActorsByName(XmlData.PROCESS_ELEMENT_END, XmlData.SIGNAL_SIMPLE_VALUE)
+                .endTransition()
+            .withDefaultEventHandler(StateTransitionDefs.getUnexpectedEventDefaultTransition())
+            .endState()
+        .build();
+
+    /** The error handler shared by all adapters */
+    private static final StateErrorHandler<XmlData, XmlEvent> STATE_ERROR_HANDLER = new XmlStateErrorHandler();
+
     /**
      * The State Table Control object that feeds XML events to the State table that generates object creation events
      * from XML Events.
      */
-    private final StateTableControl<XmlEvent> stateTableControl;
+    private final SerialStateTableControl<XmlData, XmlEvent> stateTableControl;
+
+    /** The downstream State Table Control that builds an object hierarchy from Object Construction Events */
+    private final StateTableControl<ObjectConstructionEvent> objectConstructionControl;
 
     /** Maintains the temporary state for the XML Object generation state table */
     private final XmlData xmlData;
@@ -39,75 +114,28 @@ public class XmlObjectBuilderAdapter implements StateTableControl<XmlEvent> {
      * @param stateTableControl the downstream State Table Control that can build an object hierarchy
      */
     public XmlObjectBuilderAdapter(@NotNull final StateTableControl<ObjectConstructionEvent> stateTableControl) {
-        this.xmlData = new XmlData(checkNotNull(stateTableControl, "stateTableControl must not be null"));
-        final StateErrorHandler<XmlData, XmlEvent> stateErrorHandler = new XmlStateErrorHandler();
+        this.objectConstructionControl = checkNotNull(stateTableControl, "stateTableControl must not be null");
+        this.xmlData = new XmlData(objectConstructionControl);
         final StateTable<XmlData, XmlEvent> objectConstructionStateTable = new StateTableBuilderImpl<XmlData, XmlEvent>()
-                .withStateTableDefinition()
-                .setName("XMLObjectBuilderAdapter")
-                .usingActorsInClass(XmlData.class)
-                .withState(XmlObjectStates.AWAITING_DOCUMENT.name())
-                    .transitionOnEvent(SaxEventAdapter.START_DOCUMENT)
-                        .toState(XmlObjectStates.AWAITING_OBJECT_ELEMENT_START.name())
-                        .withActorsByName(XmlData.PROCESS_DOCUMENT_START)
-                        .endTransition()
-                    .withDefaultEventHandler(StateTransitionDefs.getUnexpectedEventDefaultTransition())
-                    .endState()
-                .withState(XmlObjectStates.AWAITING_OBJECT_ELEMENT_START.name())
-                    .transitionOnEvent(SaxEventAdapter.START_ELEMENT)
-                        .toState(XmlObjectStates.BUILDING_OBJECT.name())
-                        .withActorsByName(XmlData.PROCESS_ELEMENT_START, XmlData.SIGNAL_ROOT_START)
-                        .endTransition()
-                    .transitionOnEvent((SaxEventAdapter.WHITESPACE))
-                        .toState(StateDef.STAY_IN_STATE)
-                        .withActorsByName(XmlData.PROCESS_WHITESPACE)
-                        .endTransition()
-                    .withDefaultEventHandler(StateTransitionDefs.getUnexpectedEventDefaultTransition())
-                    .endState()
-                .withState(XmlObjectStates.BUILDING_OBJECT.name())
-                    .transitionOnEvent(SaxEventAdapter.START_ELEMENT)
-                        .toState(XmlObjectStates.BUILDING_OBJECT.name())
-                        .withActorsByName(XmlData.PROCESS_ELEMENT_START, XmlData.SIGNAL_ENTITY_START)
-                        .endTransition()
-                    .transitionOnEvent(SaxEventAdapter.CHARACTER_DATA)
-                        .toState(XmlObjectStates.BUILDING_FIELD.name())
-                        .withActorsByName(XmlData.PROCESS_CHARACTER_DATA)
-                        .endTransition()
-                    .transitionOnEvent(SaxEventAdapter.WHITESPACE)
-                        .toState(StateDef.STAY_IN_STATE)
-                        .withActorsByName(XmlData.PROCESS_WHITESPACE)
-                        .endTransition()
-                    .transitionOnEvent(SaxEventAdapter.END_ELEMENT)
-                        .toState(XmlObjectStates.BUILDING_OBJECT.name())
-                        .withActorsByName(XmlData.PROCESS_ELEMENT_END, XmlData.SIGNAL_OBJECT_DONE)
-                        .endTransition()
-                    .transitionOnEvent(SaxEventAdapter.END_DOCUMENT)
-                        .toState(XmlObjectStates.AWAITING_DOCUMENT.name())
-                        .withActorsByName(XmlData.PROCESS_DOCUMENT_END)
-                        .endTransition()
-                    .withDefaultEventHandler(StateTransitionDefs.getUnexpectedEventDefaultTransition())
-                    .endState()
-                .withState(XmlObjectStates.BUILDING_FIELD.name())
-                    .transitionOnEvent(SaxEventAdapter.CHARACTER_DATA)
-                        .toState(StateDef.STAY_IN_STATE)
-                        .withActorsByName(XmlData.PROCESS_CHARACTER_DATA)
-                        .endTransition()
-                    .transitionOnEvent(SaxEventAdapter.WHITESPACE)
-                        .toState(StateDef.STAY_IN_STATE)
-                        .withActorsByName(XmlData.PROCESS_WHITESPACE)
-                        .endTransition()
-                    .transitionOnEvent(SaxEventAdapter.END_ELEMENT)
-                        .toState(XmlObjectStates.BUILDING_OBJECT.name())
-                        .withActorsByName(XmlData.PROCESS_ELEMENT_END, XmlData.SIGNAL_SIMPLE_VALUE)
-                        .endTransition()
-                    .withDefaultEventHandler(StateTransitionDefs.getUnexpectedEventDefaultTransition())
-                    .endState()
-                .endDefinition()
+                .withStateTableDefinition(STATE_TABLE_DEF)
                 .withStateTableDataManager().withDataGetter((e) -> xmlData).endDataManager()
-                .withErrorHandler(stateErrorHandler)
+                .withErrorHandler(STATE_ERROR_HANDLER)
                 .build();
         this.stateTableControl = new SerialStateTableControl<>(objectConstructionStateTable);
     }
 
+    /**
+     * Returns this adapter to the state it had when constructed so it can process another document.  When the
+     * downstream control is an {@link ObjectConstructionController}, it is reset as well.
+     */
+    public void reset() {
+        stateTableControl.clear();
+        xmlData.reset();
+        if (objectConstructionControl instanceof ObjectConstructionController) {
+            ((ObjectConstructionController<?>) objectConstructionControl).reset();
+        }
+    }
+
     @Override
     public void start() throws StateExeException {
         stateTableControl.start();
@@ -0,0 +1,172 @@
+/*
+ * Copyright 2000-2016 Worth Enterprises, Inc.  All rights reserved.
+ */
+package com.worthent.foundation.util.state.etc.xml;
+
+import com.worthent.foundation.util.annotation.NotNull;
+import com.worthent.foundation.util.state.StateExeException;
+import org.xml.sax.SAXException;
+import org.xml.sax.helpers.AttributesImpl;
+
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+import java.io.Closeable;
+import java.io.InputStream;
+import java.util.ArrayDeque;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+import static com.worthent.foundation.util.condition.Preconditions.checkNotNull;
+
+/**
+ * Pull based iterator over the records in an XML document.  The document is read with a StAX stream reader only as
+ * far as needed to complete the next record, which is bound by an {@link XmlObjectBinder} constructed with the record
+ * path, so memory stays proportional to one record however large the document is.
+ * <p>
+ * Errors reading or binding the document are thrown from {@link #hasNext} as a {@link StateExeException}.  The
+ * iterator does not close the input stream; {@link #close} only releases the stream reader.
+ *
+ * @param <R> the type of record
+ * @author Erik K. Worth
+ */
+public class XmlRecordIterator<R> implements Iterator<R>, Closeable {
+
+    /** Creates the stream readers, with DTDs and external entities disabled */
+    private static final XMLInputFactory INPUT_FACTORY = newInputFactory();
+
+    /** Reads the document */
+    private final XMLStreamReader reader;
+
+    /** Binds the records and hands them to the pending queue */
+    private final XmlObjectBinder<R> binder;
+
+    /** The records completed but not yet returned, which holds at most the records ending on one read */
+    private final ArrayDeque<R> pending;
+
+    /** Reused to pass the attributes of each element to the binder */
+    private final AttributesImpl attributes;
+
+    /** Set once the end of the document is reached or the iterator is closed */
+    private boolean done;
+
+    /**
+     * Construct the iterator over the records at the path in the document.
+     *
+     * @param inputStream the XML document
+     * @param recordClass the class of each record, which must have an annotated constructor
+     * @param recordPath the element names from the root element to each record element separated by slashes
+     * @throws StateExeException thrown when the document cannot be opened
+     */
+    public XmlRecordIterator(
+            @NotNull final InputStream inputStream,
+            @NotNull final Class<R> recordClass,
+            @NotNull final String recordPath) throws StateExeException {
+        checkNotNull(inputStream, "inputStream must not be null");
+        checkNotNull(recordPath, "recordPath must not be null");
+        this.pending = new ArrayDeque<>();
+        this.binder = new XmlObjectBinder<>(recordClass, recordPath, pending::add);
+        this.attributes = new AttributesImpl();
+        try {
+            this.reader = INPUT_FACTORY.createXMLStreamReader(inputStream);
+        } catch (final XMLStreamException exc) {
+            throw new StateExeException("Error opening the XML document", exc);
+        }
+    }
+
+    /**
+     * Returns a sequential stream over the records that closes this iterator when the stream is closed.
+     *
+     * @return a sequential stream over the records
+     */
+    @NotNull
+    public Stream<R> stream() {
+        return StreamSupport.stream(
+                Spliterators.spliteratorUnknownSize(this, Spliterator.ORDERED | Spliterator.NONNULL), false)
+                .onClose(this::close);
+    }
+
+    @Override
+    public boolean hasNext() throws StateExeException {
+        try {
+            while (pending.isEmpty() && !done) {
+                readNext();
+            }
+        } catch (final XMLStreamException | SAXException exc) {
+            done = true;
+            throw new StateExeException("Error reading the next record at line " + getLineNumber(), exc);
+        }
+        return !pending.isEmpty();
+    }
+
+    @Override
+    public R next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        return pending.removeFirst();
+    }
+
+    /**
+     * Releases the stream reader.  The input stream is left open for the caller to close.
+     */
+    @Override
+    public void close() {
+        done = true;
+        pending.clear();
+        try {
+            reader.close();
+        } catch (final XMLStreamException exc) {
+            throw new StateExeException("Error closing the XML stream reader", exc);
+        }
+    }
+
+    /** Feeds the next event from the reader to the binder */
+    private void readNext() throws XMLStreamException, SAXException {
+        switch (reader.next()) {
+            case XMLStreamConstants.START_ELEMENT:
+                attributes.clear();
+                for (int i = 0; i < reader.getAttributeCount(); i++) {
+                    final String name = reader.getAttributeLocalName(i);
+                    attributes.addAttribute(reader.getAttributeNamespace(i), name, name,
+                            reader.getAttributeType(i), reader.getAttributeValue(i));
+                }
+                final String localName = reader.getLocalName();
+                binder.startElement(reader.getNamespaceURI(), localName, localName, attributes);
+                break;
+            case XMLStreamConstants.END_ELEMENT:
+                final String endName = reader.getLocalName();
+                binder.endElement(reader.getNamespaceURI(), endName, endName);
+                break;
+            case XMLStreamConstants.CHARACTERS:
+            case XMLStreamConstants.CDATA:
+            case XMLStreamConstants.SPACE:
+                binder.characters(reader.getTextCharacters(), reader.getTextStart(), reader.getTextLength());
+                break;
+            case XMLStreamConstants.END_DOCUMENT:
+                binder.endDocument();
+                done = true;
+                break;
+            default:
+                // Comments, processing instructions and the like carry nothing to bind
+        }
+    }
+
+    /** Returns the line number of the reader or -1 when it is not known */
+    private int getLineNumber() {
+        return (null == reader.getLocation()) ? -1 : reader.getLocation().getLineNumber();
+    }
+
+    /** Returns a factory that does not read DTDs or resolve external entities */
+    private static XMLInputFactory newInputFactory() {
+        final XMLInputFactory factory = XMLInputFactory.newInstance();
+        factory.setProperty(XMLInputFactory.SUPPORT_DTD, Boolean.FALSE);
+        factory.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, Boolean.FALSE);
+        return factory;
+    }
+}
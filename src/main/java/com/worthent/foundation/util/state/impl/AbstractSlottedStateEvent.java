@@ -0,0 +1,246 @@
+/*
+ * Copyright 2000-2016 Worth Enterprises, Inc.  All Rights Reserved.
+ */
+package com.worthent.foundation.util.state.impl;
+
+import com.worthent.foundation.util.annotation.NotNull;
+import com.worthent.foundation.util.annotation.Nullable;
+import com.worthent.foundation.util.state.SlottedStateEvent;
+import com.worthent.foundation.util.state.StateEventSchema;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import static com.worthent.foundation.util.condition.Preconditions.checkNotNull;
+
+/**
+ * Holds the slots of an event described by a {@link StateEventSchemaImpl}.  Primitive fields are stored in a
+ * <code>long</code> array and reference fields in an object array, both indexed by slot.
+ *
+ * @author Erik K. Worth
+ */
+abstract class AbstractSlottedStateEvent implements SlottedStateEvent {
+
+    /** The schema describing the slots */
+    private final StateEventSchemaImpl schema;
+
+    /** The reference field values by slot */
+    private final Object[] references;
+
+    /** The primitive field values by slot */
+    private final long[] primitives;
+
+    /** Indicates which slots have been set */
+    private final boolean[] set;
+
+    /**
+     * Construct with no fields set.
+     *
+     * @param schema the schema describing the slots
+     */
+    AbstractSlottedStateEvent(@NotNull final StateEventSchemaImpl schema) {
+        this.schema = checkNotNull(schema, "schema must not be null");
+        final int fieldCount = schema.getFieldCount();
+        this.references = new Object[fieldCount];
+        this.primitives = new long[fieldCount];
+        this.set = new boolean[fieldCount];
+    }
+
+    /**
+     * Construct with a copy of the fields in another event.
+     *
+     * @param other the event from which to copy the fields
+     */
+    AbstractSlottedStateEvent(@NotNull final AbstractSlottedStateEvent other) {
+        this.schema = other.schema;
+        this.references = other.references.clone();
+        this.primitives = other.primitives.clone();
+        this.set = other.set.clone();
+    }
+
+    @Override
+    @NotNull
+    public String getName() {
+        return schema.getEventName();
+    }
+
+    @Override
+    @NotNull
+    public StateEventSchema getSchema() {
+        return schema;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    @Nullable
+    public <T> T getValue(final int slot) {
+        if (!set[slot]) {
+            return null;
+        }
+        final long bits = primitives[slot];
+        switch (schema.getKind(slot)) {
+            case StateEventSchemaImpl.INT:
+                return (T) Integer.valueOf((int) bits);
+            case StateEventSchemaImpl.LONG:
+                return (T) Long.valueOf(bits);
+            case StateEventSchemaImpl.DOUBLE:
+                return (T) Double.valueOf(Double.longBitsToDouble(bits));
+            case StateEventSchemaImpl.BOOLEAN:
+                return (T) Boolean.valueOf(bits != 0L);
+            default:
+                return (T) references[slot];
+        }
+    }
+
+    @Override
+    public int getInt(final int slot) {
+        checkKind(slot, StateEventSchemaImpl.INT, "an int");
+        return (int) primitives[slot];
+    }
+
+    @Override
+    public long getLong(final int slot) {
+        if (schema.getKind(slot) != StateEventSchemaImpl.INT) {
+            checkKind(slot, StateEventSchemaImpl.LONG, "a long");
+        }
+        return primitives[slot];
+    }
+
+    @Override
+    public double getDouble(final int slot) {
+        checkKind(slot, StateEventSchemaImpl.DOUBLE, "a double");
+        return Double.longBitsToDouble(primitives[slot]);
+    }
+
+    @Override
+    public boolean getBoolean(final int slot) {
+        checkKind(slot, StateEventSchemaImpl.BOOLEAN, "a boolean");
+        return primitives[slot] != 0L;
+    }
+
+    @Override
+    public boolean isSet(final int slot) {
+        return set[slot];
+    }
+
+    @Override
+    @Nullable
+    public <T> T getEventData(@Nullable final String key) {
+        final int slot = (null == key) ? -1 : schema.slotOf(key);
+        return (slot < 0) ? null : this.<T>getValue(slot);
+    }
+
+    @Override
+    @NotNull
+    public <T> T getRequiredEventData(@Nullable final String key) {
+        return checkNotNull(this.<T>getEventData(key), key + " missing from event data");
+    }
+
+    /** Returns a new map holding the fields that are set, which boxes the primitive values */
+    @Override
+    @NotNull
+    public Map<String, Object> getEventData() {
+        final Map<String, Object> eventData = new LinkedHashMap<>();
+        for (int slot = 0; slot < set.length; slot++) {
+            if (set[slot]) {
+                eventData.put(schema.getFieldName(slot), getValue(slot));
+            }
+        }
+        return Collections.unmodifiableMap(eventData);
+    }
+
+    @Override
+    public String toString() {
+        return getName() + getEventData();
+    }
+
+    /** Stores a value of any type in a slot, where <code>null</code> leaves the slot unset */
+    void store(final int slot, final Object value) {
+        if (null == value) {
+            references[slot] = null;
+            primitives[slot] = 0L;
+            set[slot] = false;
+            return;
+        }
+        switch (schema.getKind(slot)) {
+            case StateEventSchemaImpl.INT:
+                storeInt(slot, cast(slot, value, Integer.class));
+                break;
+            case StateEventSchemaImpl.LONG:
+                storeLong(slot, cast(slot, value, Long.class));
+                break;
+            case StateEventSchemaImpl.DOUBLE:
+                storeDouble(slot, cast(slot, value, Double.class));
+                break;
+            case StateEventSchemaImpl.BOOLEAN:
+                storeBoolean(slot, cast(slot, value, Boolean.class));
+                break;
+            default:
+                references[slot] = cast(slot, value, schema.getFieldType(slot));
+                set[slot] = true;
+        }
+    }
+
+    /** Stores an <code>int</code> value in a slot */
+    void storeInt(final int slot, final int value) {
+        checkKind(slot, StateEventSchemaImpl.INT, "an int");
+        primitives[slot] = value;
+        set[slot] = true;
+    }
+
+    /** Stores a <code>long</code> value in a slot */
+    void storeLong(final int slot, final long value) {
+        checkKind(slot, StateEventSchemaImpl.LONG, "a long");
+        primitives[slot] = value;
+        set[slot] = true;
+    }
+
+    /** Stores a <code>double</code> value in a slot */
+    void storeDouble(final int slot, final double value) {
+        checkKind(slot, StateEventSchemaImpl.DOUBLE, "a double");
+        primitives[slot] = Double.doubleToRawLongBits(value);
+        set[slot] = true;
+    }
+
+    /** Stores a <code>boolean</code> value in a slot */
+    void storeBoolean(final int slot, final boolean value) {
+        checkKind(slot, StateEventSchemaImpl.BOOLEAN, "a boolean");
+        primitives[slot] = value ? 1L : 0L;
+        set[slot] = true;
+    }
+
+    /** Returns the slot for a field name or throws an exception when the schema does not declare it */
+    int requireSlot(final String name) {
+        checkNotNull(name, "name must not be null");
+        final int slot = schema.slotOf(name);
+        if (slot < 0) {
+            throw new IllegalArgumentException("The field, " + name + ", is not declared in the schema, " + schema);
+        }
+        return slot;
+    }
+
+    /** Clears all the slots */
+    void clear() {
+        Arrays.fill(references, null);
+        Arrays.fill(primitives, 0L);
+        Arrays.fill(set, false);
+    }
+
+    /** Throws an exception when the slot does not hold the expected kind of value */
+    private void checkKind(final int slot, final byte kind, final String description) {
+        if (schema.getKind(slot) != kind) {
+            throw new IllegalArgumentException("The field, " + schema.getFieldName(slot) + ", is not " + description);
+        }
+    }
+
+    /** Casts the value to the type expected in the slot */
+    private <T> T cast(final int slot, final Object value, final Class<T> type) {
+        if (!type.isInstance(value)) {
+            throw new IllegalArgumentException("The value for the field, " + schema.getFieldName(slot) + ", must be " +
+                    "of type " + type.getName() + " but was " + value.getClass().getName());
+        }
+        return type.cast(value);
+    }
+}
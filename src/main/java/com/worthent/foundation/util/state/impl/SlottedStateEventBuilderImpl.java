@@ -0,0 +1,74 @@
+/*
+ * Copyright 2000-2016 Worth Enterprises, Inc.  All Rights Reserved.
+ */
+package com.worthent.foundation.util.state.impl;
+
+import com.worthent.foundation.util.annotation.NotNull;
+import com.worthent.foundation.util.annotation.Nullable;
+import com.worthent.foundation.util.state.SlottedStateEvent;
+import com.worthent.foundation.util.state.SlottedStateEventBuilder;
+
+/**
+ * Implements the builder interface for events with their data held in the slots declared by an event schema.
+ *
+ * @author Erik K. Worth
+ */
+public class SlottedStateEventBuilderImpl extends AbstractSlottedStateEvent implements SlottedStateEventBuilder {
+
+    /**
+     * Construct with the schema describing the event.
+     *
+     * @param schema the schema describing the event
+     */
+    SlottedStateEventBuilderImpl(@NotNull final StateEventSchemaImpl schema) {
+        super(schema);
+    }
+
+    @Override
+    @NotNull
+    public SlottedStateEventBuilder withValue(final int slot, @Nullable final Object value) {
+        store(slot, value);
+        return this;
+    }
+
+    @Override
+    @NotNull
+    public SlottedStateEventBuilder withInt(final int slot, final int value) {
+        storeInt(slot, value);
+        return this;
+    }
+
+    @Override
+    @NotNull
+    public SlottedStateEventBuilder withLong(final int slot, final long value) {
+        storeLong(slot, value);
+        return this;
+    }
+
+    @Override
+    @NotNull
+    public SlottedStateEventBuilder withDouble(final int slot, final double value) {
+        storeDouble(slot, value);
+        return this;
+    }
+
+    @Override
+    @NotNull
+    public SlottedStateEventBuilder withBoolean(final int slot, final boolean value) {
+        storeBoolean(slot, value);
+        return this;
+    }
+
+    @Override
+    @NotNull
+    public SlottedStateEventBuilder withEventData(@NotNull final String name, @Nullable final Object value) {
+        store(requireSlot(name), value);
+        return this;
+    }
+
+    @Override
+    @NotNull
+    public SlottedStateEvent build() {
+        return new SlottedStateEventImpl(this);
+    }
+}
@@ -0,0 +1,23 @@
+/*
+ * Copyright 2000-2016 Worth Enterprises, Inc.  All Rights Reserved.
+ */
+package com.worthent.foundation.util.state.impl;
+
+import com.worthent.foundation.util.annotation.NotNull;
+
+/**
+ * Provides an immutable state event object with its data held in the slots declared by an event schema.
+ *
+ * @author Erik K. Worth
+ */
+public class SlottedStateEventImpl extends AbstractSlottedStateEvent {
+
+    /**
+     * Construct with a copy of the fields set in a builder.
+     *
+     * @param builder the builder holding the fields
+     */
+    SlottedStateEventImpl(@NotNull final SlottedStateEventBuilderImpl builder) {
+        super(builder);
+    }
+}
@@ -6,11 +6,14 @@ package com.worthent.foundation.util.state.impl;
 import java.util.List;
 
 import com.worthent.foundation.util.annotation.NotNull;
+import com.worthent.foundation.util.annotation.Nullable;
 import com.worthent.foundation.util.state.*;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import com.worthent.foundation.util.state.def.EventId;
 import com.worthent.foundation.util.state.def.StateDef;
+import com.worthent.foundation.util.state.def.StateId;
 import com.worthent.foundation.util.state.def.StateTableDef;
 import com.worthent.foundation.util.state.def.StateTransitionDef;
 
@@ -38,6 +41,15 @@ import static com.worthent.foundation.util.condition.Preconditions.checkNotNull;
  * <li>Finally, it updates the new current and prior states to the
  * {@link com.worthent.foundation.util.state.StateTable}.
  * </ol>
+ * When the data manager reports that another transition committed the data
+ * first by throwing a {@link StateConflictException}, the exception is
+ * propagated as is and the error handler is not invoked.
+ * <p>
+ * When the data implements {@link TransactionalStateTableData}, the engine
+ * begins a transition on it before running the actors, commits the transition
+ * after the data manager accepts the data and rolls it back on any error, so
+ * actors may change the live data in place.
+ * <p>
  * If there is an error at any point, it invokes the registered
  * {@link com.worthent.foundation.util.state.StateErrorHandler} (if
  * any), and throws
@@ -104,16 +116,34 @@ public final class StateEngine<D extends StateTableData, E extends StateEvent> {
                 err);
         }
 
+        // Record the changes to data changed in place so they can be undone if the transition fails
+        final TransactionalStateTableData transaction = (history instanceof TransactionalStateTableData)
+                ? (TransactionalStateTableData) history
+                : null;
+        if (null != transaction) {
+            transaction.beginTransition();
+        }
+
         // Shortcuts for current and prior states
         final String currentState = history.getCurrentState();
         final String priorState = history.getPriorState();
 
+        // Data holding state symbols lets the engine find the state without hashing its name
+        final SymbolicStateTableData symbolic = (history instanceof SymbolicStateTableData)
+                ? (SymbolicStateTableData) history
+                : null;
+        final StateId currentStateId = (null != symbolic)
+                ? symbolic.getCurrentStateId()
+                : (null == currentState) ? null : metadata.getStateId(currentState);
+
         LOGGER.trace("State table, {}, processing event, {}, while in state, {}" +
                 metadata.getName(), event, currentState);
 
         try {
             // Retrieve the current state
-            final StateDef<D, E> state = metadata.getState(currentState);
+            final StateDef<D, E> state = (null == currentStateId)
+                    ? metadata.getState(currentState)
+                    : metadata.getState(currentStateId);
             if (null == state) {
                 throw new StateExeException("The state table, '" +
                         metadata.getName() +
@@ -123,23 +153,33 @@ public final class StateEngine<D extends StateTableData, E extends StateEvent> {
             }
 
             // Get the transition referenced by the event name or if not found,
-            // get the default
-            StateTransitionDef<D, E> transition = state.getTransitionForEvent(event.getName());
-            if (null == transition) {
-                transition = state.getDefaultTransition();
+            // get the default.  Definitions with symbols index a precomputed transition table.
+            final EventId eventId = (null == currentStateId) ? null : metadata.getEventId(event.getName());
+            StateTransitionDef<D, E> transition;
+            if (null != eventId) {
+                transition = metadata.getTransition(currentStateId, eventId);
+            } else {
+                transition = (null == currentStateId) ? state.getTransitionForEvent(event.getName()) : null;
+                if (null == transition) {
+                    transition = state.getDefaultTransition();
+                }
             }
 
             // Figure out the target state
             String targetState = transition.getTargetStateName();
+            StateId targetStateId = (null == currentStateId) ? null : metadata.getTargetStateId(currentStateId, eventId);
             if (StateDef.STAY_IN_STATE.equals(targetState)) {
                 targetState = currentState;
+                targetStateId = currentStateId;
             } else if (StateDef.GOTO_PREVIOUS_STATE.equals(currentState)) {
                 targetState = priorState;
+                targetStateId = (null == symbolic) ? null : symbolic.getPriorStateId();
             }
 
             // Create a transition context made available to the transition actors
             final TransitionContextImpl<D, E> transitionContext =
-                    new TransitionContextImpl<>(currentState, targetState, table, history, stateTableControl, event);
+                    new TransitionContextImpl<>(
+                            currentState, targetState, table, history, stateTableControl, event, transition);
 
             // Get the set of actions to take on this transition
             final List<TransitionActor<D, E>> actors = transition.getActors();
@@ -188,14 +228,26 @@ public final class StateEngine<D extends StateTableData, E extends StateEvent> {
             if (!StateDef.STATE_CHANGE_BY_ACTOR.equals(targetState)) {
                 // Update the state table history to reflect the new state
                 // unless the transition action is taking care of the change
-                history.setCurrentState(targetState);
-                history.setPriorState(currentState);
+                if (null == symbolic) {
+                    history.setCurrentState(targetState);
+                    history.setPriorState(currentState);
+                } else {
+                    if (null == targetStateId) {
+                        history.setCurrentState(targetState);
+                    } else {
+                        symbolic.setCurrentStateId(targetStateId);
+                    }
+                    symbolic.setPriorStateId(currentStateId);
+                }
             }
 
             // Everything worked. Update the state table instance with the
             // new and prior state.
             try {
                 table.getStateTableDataManager().setStateTableData(event, history);
+            } catch (final StateConflictException exc) {
+                // Not an error, the control retries the transition against a fresh copy of the data
+                throw exc;
             } catch (Exception exc) {
 
                 // Let registered error handler do something
@@ -211,10 +263,15 @@ public final class StateEngine<D extends StateTableData, E extends StateEvent> {
                                 "'",
                         exc);
             }
+            if (null != transaction) {
+                transaction.commitTransition();
+            }
         } catch (final StateExeException exc) {
             // The error handler was already run
+            rollback(transaction);
             throw exc;
         } catch (RuntimeException exc) {
+            rollback(transaction);
             // Let registered error handler do something
             this.invokeErrorHandler(
                     new TransitionContextImpl<>(currentState, UNKNOWN, table, history, stateTableControl, event),
@@ -232,6 +289,17 @@ public final class StateEngine<D extends StateTableData, E extends StateEvent> {
         }
     } // processEvent
 
+    /** Undoes the changes made to data changed in place when there is a transaction */
+    private static void rollback(@Nullable final TransactionalStateTableData transaction) {
+        if (null != transaction) {
+            try {
+                transaction.rollbackTransition();
+            } catch (final RuntimeException exc) {
+                LOGGER.error("Error rolling back the changes to the state table data", exc);
+            }
+        }
+    }
+
     /**
      * Invokes the error handler if it is not <code>null</code>.
      * 
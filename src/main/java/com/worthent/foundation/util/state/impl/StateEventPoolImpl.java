@@ -0,0 +1,125 @@
+/*
+ * Copyright 2000-2016 Worth Enterprises, Inc.  All Rights Reserved.
+ */
+package com.worthent.foundation.util.state.impl;
+
+import com.worthent.foundation.util.annotation.NotNull;
+import com.worthent.foundation.util.annotation.Nullable;
+import com.worthent.foundation.util.state.PooledStateEvent;
+import com.worthent.foundation.util.state.StateEventPool;
+import com.worthent.foundation.util.state.StateEventSchema;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static com.worthent.foundation.util.condition.Preconditions.checkNotNull;
+
+/**
+ * Implements a bounded pool of recyclable events backed by an array queue.
+ *
+ * @author Erik K. Worth
+ */
+public class StateEventPoolImpl implements StateEventPool {
+
+    /** The schema of the events in this pool */
+    private final StateEventSchemaImpl schema;
+
+    /** The idle events */
+    private final ArrayBlockingQueue<PooledStateEventImpl> idle;
+
+    /**
+     * Construct the pool.
+     *
+     * @param schema the schema of the events in this pool
+     * @param capacity the maximum number of idle events retained by the pool
+     */
+    StateEventPoolImpl(@NotNull final StateEventSchemaImpl schema, final int capacity) {
+        this.schema = checkNotNull(schema, "schema must not be null");
+        if (capacity < 1) {
+            throw new IllegalArgumentException("capacity must be positive");
+        }
+        this.idle = new ArrayBlockingQueue<>(capacity);
+    }
+
+    @Override
+    @NotNull
+    public StateEventSchema getSchema() {
+        return schema;
+    }
+
+    @Override
+    @NotNull
+    public PooledStateEvent acquire() {
+        final PooledStateEventImpl event = idle.poll();
+        if (null == event) {
+            return new PooledStateEventImpl(this);
+        }
+        event.recycled.set(false);
+        return event;
+    }
+
+    @Override
+    public int getIdleCount() {
+        return idle.size();
+    }
+
+    /** Event that returns itself to this pool when recycled */
+    private static final class PooledStateEventImpl extends AbstractSlottedStateEvent implements PooledStateEvent {
+
+        /** The pool owning this event */
+        private final StateEventPoolImpl pool;
+
+        /** Set while the event is idle in the pool */
+        private final AtomicBoolean recycled;
+
+        private PooledStateEventImpl(final StateEventPoolImpl pool) {
+            super(pool.schema);
+            this.pool = pool;
+            this.recycled = new AtomicBoolean();
+        }
+
+        @Override
+        @NotNull
+        public PooledStateEvent setValue(final int slot, @Nullable final Object value) {
+            store(slot, value);
+            return this;
+        }
+
+        @Override
+        @NotNull
+        public PooledStateEvent setInt(final int slot, final int value) {
+            storeInt(slot, value);
+            return this;
+        }
+
+        @Override
+        @NotNull
+        public PooledStateEvent setLong(final int slot, final long value) {
+            storeLong(slot, value);
+            return this;
+        }
+
+        @Override
+        @NotNull
+        public PooledStateEvent setDouble(final int slot, final double value) {
+            storeDouble(slot, value);
+            return this;
+        }
+
+        @Override
+        @NotNull
+        public PooledStateEvent setBoolean(final int slot, final boolean value) {
+            storeBoolean(slot, value);
+            return this;
+        }
+
+        @Override
+        public void recycle() {
+            if (!recycled.compareAndSet(false, true)) {
+                throw new IllegalStateException("The event, " + getName() + ", was already recycled");
+            }
+            clear();
+            pool.idle.offer(this);
+        }
+    }
+}
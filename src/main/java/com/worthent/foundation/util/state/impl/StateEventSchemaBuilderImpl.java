@@ -0,0 +1,62 @@
+/*
+ * Copyright 2000-2016 Worth Enterprises, Inc.  All Rights Reserved.
+ */
+package com.worthent.foundation.util.state.impl;
+
+import com.worthent.foundation.util.annotation.NotNull;
+import com.worthent.foundation.util.state.StateEventSchema;
+import com.worthent.foundation.util.state.StateEventSchemaBuilder;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static com.worthent.foundation.util.condition.Preconditions.checkNotBlank;
+import static com.worthent.foundation.util.condition.Preconditions.checkNotNull;
+
+/**
+ * Implements the builder interface for event schemas.
+ *
+ * @author Erik K. Worth
+ */
+public class StateEventSchemaBuilderImpl implements StateEventSchemaBuilder {
+
+    /** The name of the events described by the schema */
+    private final String eventName;
+
+    /** The field names in slot order */
+    private final List<String> fieldNames;
+
+    /** The field types in slot order */
+    private final List<Class<?>> fieldTypes;
+
+    /**
+     * Construct with the event name.
+     *
+     * @param eventName the name of the events described by the schema
+     */
+    public StateEventSchemaBuilderImpl(@NotNull final String eventName) {
+        this.eventName = checkNotBlank(eventName, "eventName must not be blank");
+        this.fieldNames = new ArrayList<>();
+        this.fieldTypes = new ArrayList<>();
+    }
+
+    @Override
+    @NotNull
+    public StateEventSchemaBuilder withField(@NotNull final String fieldName, @NotNull final Class<?> fieldType) {
+        checkNotBlank(fieldName, "fieldName must not be blank");
+        checkNotNull(fieldType, "fieldType must not be null");
+        if (fieldNames.contains(fieldName)) {
+            throw new IllegalArgumentException("The field, " + fieldName + ", is already declared in the schema for " +
+                    eventName);
+        }
+        fieldNames.add(fieldName);
+        fieldTypes.add(fieldType);
+        return this;
+    }
+
+    @Override
+    @NotNull
+    public StateEventSchema build() {
+        return new StateEventSchemaImpl(eventName, fieldNames, fieldTypes);
+    }
+}
@@ -0,0 +1,158 @@
+/*
+ * Copyright 2000-2016 Worth Enterprises, Inc.  All Rights Reserved.
+ */
+package com.worthent.foundation.util.state.impl;
+
+import com.worthent.foundation.util.annotation.NotNull;
+import com.worthent.foundation.util.state.SlottedStateEventBuilder;
+import com.worthent.foundation.util.state.StateEventPool;
+import com.worthent.foundation.util.state.StateEventSchema;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static com.worthent.foundation.util.condition.Preconditions.checkNotBlank;
+import static com.worthent.foundation.util.condition.Preconditions.checkNotNull;
+
+/**
+ * Immutable implementation of the event schema.
+ *
+ * @author Erik K. Worth
+ */
+public class StateEventSchemaImpl implements StateEventSchema {
+
+    /** Kind of slot holding an object reference */
+    static final byte REFERENCE = 0;
+
+    /** Kind of slot holding an <code>int</code> */
+    static final byte INT = 1;
+
+    /** Kind of slot holding a <code>long</code> */
+    static final byte LONG = 2;
+
+    /** Kind of slot holding a <code>double</code> */
+    static final byte DOUBLE = 3;
+
+    /** Kind of slot holding a <code>boolean</code> */
+    static final byte BOOLEAN = 4;
+
+    /** The name of the events described by this schema */
+    private final String eventName;
+
+    /** The field names by slot */
+    private final String[] fieldNames;
+
+    /** The declared field types by slot */
+    private final Class<?>[] fieldTypes;
+
+    /** The kind of storage used for each slot */
+    private final byte[] kinds;
+
+    /** The slot of each field keyed by field name */
+    private final Map<String, Integer> slotsByName;
+
+    /**
+     * Construct from the declared fields.
+     *
+     * @param eventName the name of the events described by this schema
+     * @param fieldNames the field names in slot order
+     * @param fieldTypes the declared field types in slot order
+     */
+    StateEventSchemaImpl(
+            @NotNull final String eventName,
+            @NotNull final List<String> fieldNames,
+            @NotNull final List<Class<?>> fieldTypes) {
+        this.eventName = checkNotBlank(eventName, "eventName must not be blank");
+        checkNotNull(fieldNames, "fieldNames must not be null");
+        checkNotNull(fieldTypes, "fieldTypes must not be null");
+        final int fieldCount = fieldNames.size();
+        this.fieldNames = fieldNames.toArray(new String[fieldCount]);
+        this.fieldTypes = fieldTypes.toArray(new Class<?>[fieldCount]);
+        this.kinds = new byte[fieldCount];
+        this.slotsByName = new HashMap<>();
+        for (int slot = 0; slot < fieldCount; slot++) {
+            kinds[slot] = kindOf(this.fieldTypes[slot]);
+            slotsByName.put(this.fieldNames[slot], slot);
+        }
+    }
+
+    @Override
+    @NotNull
+    public String getEventName() {
+        return eventName;
+    }
+
+    @Override
+    public int getFieldCount() {
+        return fieldNames.length;
+    }
+
+    @Override
+    public int slotOf(@NotNull final String fieldName) {
+        final Integer slot = slotsByName.get(fieldName);
+        return (null == slot) ? -1 : slot;
+    }
+
+    @Override
+    @NotNull
+    public String getFieldName(final int slot) {
+        return fieldNames[slot];
+    }
+
+    @Override
+    @NotNull
+    public Class<?> getFieldType(final int slot) {
+        return fieldTypes[slot];
+    }
+
+    @Override
+    @NotNull
+    public SlottedStateEventBuilder builder() {
+        return new SlottedStateEventBuilderImpl(this);
+    }
+
+    @Override
+    @NotNull
+    public StateEventPool newPool(final int capacity) {
+        return new StateEventPoolImpl(this, capacity);
+    }
+
+    @Override
+    public String toString() {
+        final StringBuilder builder = new StringBuilder(eventName).append('(');
+        for (int slot = 0; slot < fieldNames.length; slot++) {
+            if (slot > 0) {
+                builder.append(", ");
+            }
+            builder.append(fieldNames[slot]).append(':').append(fieldTypes[slot].getSimpleName());
+        }
+        return builder.append(')').toString();
+    }
+
+    /** Returns the kind of storage used for the field in the slot */
+    byte getKind(final int slot) {
+        return kinds[slot];
+    }
+
+    /** Returns the kind of storage used for fields of the specified type */
+    private static byte kindOf(final Class<?> fieldType) {
+        if (fieldType == int.class) {
+            return INT;
+        }
+        if (fieldType == long.class) {
+            return LONG;
+        }
+        if (fieldType == double.class) {
+            return DOUBLE;
+        }
+        if (fieldType == boolean.class) {
+            return BOOLEAN;
+        }
+        if (fieldType.isPrimitive()) {
+            throw new IllegalArgumentException("Unsupported primitive field type, " + fieldType.getName() +
+                    ", declare it as int, long, double, boolean or the boxed type");
+        }
+        return REFERENCE;
+    }
+}
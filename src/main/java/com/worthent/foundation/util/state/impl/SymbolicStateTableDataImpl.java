@@ -0,0 +1,130 @@
+/*
+ * Copyright 2000-2016 Worth Enterprises, Inc.  All Rights Reserved.
+ */
+package com.worthent.foundation.util.state.impl;
+
+import com.worthent.foundation.util.annotation.NotNull;
+import com.worthent.foundation.util.annotation.Nullable;
+import com.worthent.foundation.util.state.SymbolicStateTableData;
+import com.worthent.foundation.util.state.def.StateId;
+import com.worthent.foundation.util.state.def.StateTableDef;
+
+import static com.worthent.foundation.util.condition.Preconditions.checkNotNull;
+
+/**
+ * State table data that holds its current and prior states as symbols from the state table definition.  The state
+ * engine sets the symbols directly, so moving to a new state stores a reference without resolving a name.  The string
+ * accessors return the name of each symbol, and the string setters, which are meant for callers outside the engine,
+ * resolve the name to the symbol through the definition.  Extend it to add the data for the state table.
+ *
+ * @author Erik K. Worth
+ */
+public class SymbolicStateTableDataImpl implements SymbolicStateTableData {
+
+    /** The definition creating the symbols */
+    private final StateTableDef<?, ?> stateTableDef;
+
+    /** The symbol for the current state */
+    private StateId currentStateId;
+
+    /** The symbol for the prior state */
+    private StateId priorStateId;
+
+    /**
+     * Construct in the initial state of the table.
+     *
+     * @param stateTableDef the definition creating the symbols
+     */
+    public SymbolicStateTableDataImpl(@NotNull final StateTableDef<?, ?> stateTableDef) {
+        this.stateTableDef = checkNotNull(stateTableDef, "stateTableDef must not be null");
+        this.currentStateId = stateTableDef.getStateId(stateTableDef.getInitialState().getName());
+        this.priorStateId = currentStateId;
+    }
+
+    /**
+     * Copy constructor
+     *
+     * @param other the other state table data to copy
+     */
+    public SymbolicStateTableDataImpl(@NotNull final SymbolicStateTableDataImpl other) {
+        checkNotNull(other, "other must not be null");
+        this.stateTableDef = other.stateTableDef;
+        this.currentStateId = other.currentStateId;
+        this.priorStateId = other.priorStateId;
+    }
+
+    /** @return the definition creating the symbols */
+    @NotNull
+    public StateTableDef<?, ?> getStateTableDef() {
+        return stateTableDef;
+    }
+
+    @Nullable
+    @Override
+    public StateId getCurrentStateId() {
+        return currentStateId;
+    }
+
+    @Override
+    public void setCurrentStateId(@Nullable final StateId currentStateId) {
+        this.currentStateId = currentStateId;
+    }
+
+    @Nullable
+    @Override
+    public StateId getPriorStateId() {
+        return priorStateId;
+    }
+
+    @Override
+    public void setPriorStateId(@Nullable final StateId priorStateId) {
+        this.priorStateId = priorStateId;
+    }
+
+    @Nullable
+    @Override
+    public String getCurrentState() {
+        return (null == currentStateId) ? null : currentStateId.getName();
+    }
+
+    /**
+     * Sets the current state by name.
+     *
+     * @param currentState the name of the current state
+     * @throws IllegalArgumentException thrown when the state is not in the table
+     */
+    @Override
+    public void setCurrentState(@Nullable final String currentState) {
+        this.currentStateId = toStateId(currentState);
+    }
+
+    @Nullable
+    @Override
+    public String getPriorState() {
+        return (null == priorStateId) ? null : priorStateId.getName();
+    }
+
+    /**
+     * Sets the prior state by name.
+     *
+     * @param priorState the name of the prior state
+     * @throws IllegalArgumentException thrown when the state is not in the table
+     */
+    @Override
+    public void setPriorState(@Nullable final String priorState) {
+        this.priorStateId = toStateId(priorState);
+    }
+
+    /** Returns the symbol for the state name */
+    private StateId toStateId(final String stateName) {
+        if (null == stateName) {
+            return null;
+        }
+        final StateId stateId = stateTableDef.getStateId(stateName);
+        if (null == stateId) {
+            throw new IllegalArgumentException("The state table, '" + stateTableDef.getName() +
+                    "', has no state named, '" + stateName + "'");
+        }
+        return stateId;
+    }
+}
@@ -25,6 +25,9 @@ public class TransitionContextImpl<D extends StateTableData, E extends StateEven
     private final StateTableControl<E> stateTableControl;
     private final E event;
 
+    /** The transition being made or <code>null</code> when it is looked up from the state table definition */
+    private final StateTransitionDef<D, E> transition;
+
     public TransitionContextImpl(
             final String fromState,
             final String toState,
@@ -32,6 +35,18 @@ public class TransitionContextImpl<D extends StateTableData, E extends StateEven
             final D stateTableData,
             final StateTableControl<E> stateTableControl,
             final E event) {
+        this(fromState, toState, stateTable, stateTableData, stateTableControl, event, null);
+    }
+
+    public TransitionContextImpl(
+            final String fromState,
+            final String toState,
+            final StateTable<D, E> stateTable,
+            final D stateTableData,
+            final StateTableControl<E> stateTableControl,
+            final E event,
+            final StateTransitionDef<D, E> transition) {
+        this.transition = transition;
         this.fromState = fromState;
         this.toState = toState;
         this.stateTable = stateTable;
@@ -71,6 +86,9 @@ public class TransitionContextImpl<D extends StateTableData, E extends StateEven
     }
 
     public Set<String> getPotentialTargetStates() {
+        if (null != transition) {
+            return transition.getPotentialTargetStateNames();
+        }
         return stateTable.getStateTableDefinition()
                 .getTransition(fromState, event.getName())
                 .getPotentialTargetStateNames();
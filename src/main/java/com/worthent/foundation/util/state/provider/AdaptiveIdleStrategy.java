@@ -0,0 +1,161 @@
+/*
+ * Copyright 2000-2016 Worth Enterprises, Inc.  All Rights Reserved.
+ */
+package com.worthent.foundation.util.state.provider;
+
+import com.worthent.foundation.util.annotation.NotNull;
+
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Idle strategy that tunes how long it spins from the gaps it observes between events.  It keeps a moving average of
+ * the time spent idle before each event arrives.  When the average gap is short enough that spinning through it costs
+ * less than the maximum spin budget, the strategy spins for twice the average gap so most events arrive while it is
+ * still spinning.  When events are further apart, it spins only for the minimum budget since spinning through the gap
+ * would only burn CPU.  After spinning, it yields for as long as it spun and then parks with a wait that doubles up to
+ * the maximum park time.
+ * <p>
+ * An instance keeps the state of one consumer loop and must only be used from a single thread.  The tuning values it
+ * exports may be read from any thread.
+ *
+ * @author Erik K. Worth
+ */
+public class AdaptiveIdleStrategy implements IdleStrategy {
+
+    /** The weight of each new gap in the moving average, as a right shift (1/8) */
+    private static final int AVERAGE_SHIFT = 3;
+
+    /** The shortest time to spin */
+    private final long minSpinNanos;
+
+    /** The longest time to spin */
+    private final long maxSpinNanos;
+
+    /** The longest wait when parking */
+    private final long maxParkNanos;
+
+    /** The current time to spin before yielding */
+    private volatile long spinBudgetNanos;
+
+    /** The moving average of the time spent idle before an event arrives */
+    private volatile long averageIdleNanos;
+
+    /** The time the current idle period of a polling loop started */
+    private long idleStartNanos;
+
+    /** The time of the last call to {@link #idle} */
+    private long lastIdleNanos;
+
+    /**
+     * Construct the strategy.
+     *
+     * @param minSpinNanos the shortest time to spin before yielding
+     * @param maxSpinNanos the longest time to spin before yielding
+     * @param maxParkNanos the longest wait when parking
+     */
+    public AdaptiveIdleStrategy(final long minSpinNanos, final long maxSpinNanos, final long maxParkNanos) {
+        if (minSpinNanos < 0L || maxSpinNanos < minSpinNanos) {
+            throw new IllegalArgumentException("minSpinNanos must not be negative or larger than maxSpinNanos");
+        }
+        if (maxParkNanos <= 0L) {
+            throw new IllegalArgumentException("maxParkNanos must be positive");
+        }
+        this.minSpinNanos = minSpinNanos;
+        this.maxSpinNanos = maxSpinNanos;
+        this.maxParkNanos = maxParkNanos;
+        this.spinBudgetNanos = minSpinNanos;
+        this.averageIdleNanos = maxSpinNanos;
+    }
+
+    /** Construct the strategy to spin between 1 and 50 microseconds and park up to a millisecond */
+    public AdaptiveIdleStrategy() {
+        this(TimeUnit.MICROSECONDS.toNanos(1L), TimeUnit.MICROSECONDS.toNanos(50L),
+                TimeUnit.MILLISECONDS.toNanos(1L));
+    }
+
+    /** @return the current time the strategy spins before yielding */
+    public long getSpinBudgetNanos() {
+        return spinBudgetNanos;
+    }
+
+    /** @return the moving average of the time spent idle before an event arrives */
+    public long getAverageIdleNanos() {
+        return averageIdleNanos;
+    }
+
+    @Override
+    @NotNull
+    public <T> T take(@NotNull final BlockingQueue<T> queue) throws InterruptedException {
+        T element = queue.poll();
+        if (null != element) {
+            return element;
+        }
+        final long startNanos = System.nanoTime();
+        final long spinNanos = spinBudgetNanos;
+        long parkNanos = 0L;
+        while (null == element) {
+            if (Thread.interrupted()) {
+                throw new InterruptedException();
+            }
+            final long idleNanos = System.nanoTime() - startNanos;
+            if (idleNanos < spinNanos) {
+                SpinWait.onSpinWait();
+                element = queue.poll();
+            } else if (idleNanos < 2 * spinNanos) {
+                Thread.yield();
+                element = queue.poll();
+            } else {
+                // Wait on the queue itself so an arriving event ends the wait
+                parkNanos = nextParkNanos(parkNanos);
+                element = queue.poll(parkNanos, TimeUnit.NANOSECONDS);
+            }
+        }
+        tune(System.nanoTime() - startNanos);
+        return element;
+    }
+
+    /** Ends the previous idle period of the polling loop when a new one starts */
+    @Override
+    public void idle(final int idleCount) {
+        final long nowNanos = System.nanoTime();
+        if (0 == idleCount) {
+            if (0L != idleStartNanos) {
+                tune(lastIdleNanos - idleStartNanos);
+            }
+            idleStartNanos = nowNanos;
+        }
+        lastIdleNanos = nowNanos;
+        final long idleNanos = nowNanos - idleStartNanos;
+        final long spinNanos = spinBudgetNanos;
+        if (idleNanos < spinNanos) {
+            SpinWait.onSpinWait();
+        } else if (idleNanos < 2 * spinNanos) {
+            Thread.yield();
+        } else {
+            LockSupport.parkNanos(Math.min(maxParkNanos, Math.max(1L, idleNanos - 2 * spinNanos)));
+        }
+    }
+
+    /** Folds the idle time into the moving average and recomputes the spin budget */
+    private void tune(final long idleNanos) {
+        final long average = averageIdleNanos + ((idleNanos - averageIdleNanos) >> AVERAGE_SHIFT);
+        averageIdleNanos = average;
+        final long coveringSpin = 2 * average;
+        spinBudgetNanos = (coveringSpin <= maxSpinNanos) ? Math.max(minSpinNanos, coveringSpin) : minSpinNanos;
+    }
+
+    /** Returns the next park time, doubling the previous one up to the maximum */
+    private long nextParkNanos(final long parkNanos) {
+        if (0L == parkNanos) {
+            return Math.min(maxParkNanos, Math.max(1000L, minSpinNanos));
+        }
+        return Math.min(maxParkNanos, 2 * parkNanos);
+    }
+
+    @Override
+    public String toString() {
+        return "AdaptiveIdleStrategy[spin=" + spinBudgetNanos + "ns, averageIdle=" + averageIdleNanos + "ns]";
+    }
+}
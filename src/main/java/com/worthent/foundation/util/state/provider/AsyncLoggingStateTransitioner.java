@@ -0,0 +1,271 @@
+/*
+ * Copyright 2000-2016 Worth Enterprises, Inc.  All Rights Reserved.
+ */
+package com.worthent.foundation.util.state.provider;
+
+import com.worthent.foundation.util.annotation.NotNull;
+import com.worthent.foundation.util.state.StateEvent;
+import com.worthent.foundation.util.state.StateExeException;
+import com.worthent.foundation.util.state.StateTableData;
+import com.worthent.foundation.util.state.StateTransitioner;
+import com.worthent.foundation.util.state.TransitionContext;
+import com.worthent.foundation.util.state.def.StateDef;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.Closeable;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Consumer;
+
+import static com.worthent.foundation.util.condition.Preconditions.checkNotNull;
+
+/**
+ * A <code>StateTransitioner</code> that records each transition into a preallocated ring buffer and formats and
+ * writes the records in batches on a background thread.  The thread making the transition only copies the table name,
+ * the states, the event name and a timestamp into a slot, so transition audit logs can stay on in production without
+ * formatting messages on the processing threads.
+ * <p>
+ * Any number of threads may record transitions.  When the ring buffer is full, because transitions arrive faster than
+ * the background thread writes them, new records are dropped and counted rather than blocking the state table.  The
+ * background thread wakes up periodically, so records are written within about one flush interval.  Close the
+ * transitioner to write the remaining records and stop the thread.  Closing waits briefly for records that other
+ * threads are still copying into their slots, and transitions recorded after closing are dropped and counted.
+ *
+ * @author Erik K. Worth
+ */
+public class AsyncLoggingStateTransitioner<D extends StateTableData, E extends StateEvent>
+        implements StateTransitioner<D, E>, Closeable {
+
+    /** Logger for this class */
+    private static final Logger LOGGER = LoggerFactory.getLogger(AsyncLoggingStateTransitioner.class);
+
+    /** The default state transitioner name */
+    private static final String TRANSITIONER_NAME = "Async Logging State Transitioner";
+
+    /** The default number of records the ring buffer holds */
+    public static final int DEFAULT_CAPACITY = 8192;
+
+    /** The default time between writes of the records */
+    public static final long DEFAULT_FLUSH_INTERVAL_NANOS = TimeUnit.MILLISECONDS.toNanos(10L);
+
+    /** The most records written in one batch before checking for shutdown */
+    private static final int MAX_BATCH = 1024;
+
+    /** The longest time closing waits for the records already claimed to be published */
+    private static final long CLOSE_TIMEOUT_NANOS = TimeUnit.SECONDS.toNanos(1L);
+
+    /** Replaces the next sequence to claim once closed so no more records are claimed */
+    private static final long CLOSED = Long.MIN_VALUE;
+
+    /** Receives each formatted record */
+    private final Consumer<String> sink;
+
+    /** Masks a sequence to its slot */
+    private final int mask;
+
+    /** The table name in each slot */
+    private final String[] tableNames;
+
+    /** The state before the transition in each slot */
+    private final String[] fromStates;
+
+    /** The state after the transition in each slot */
+    private final String[] toStates;
+
+    /** The event name in each slot */
+    private final String[] eventNames;
+
+    /** The wall clock time of the transition in each slot */
+    private final long[] timestamps;
+
+    /** The sequence of the record published in each slot, written last to publish the slot */
+    private final AtomicLongArray published;
+
+    /** The sequence of the next record to claim or {@link #CLOSED} */
+    private final AtomicLong claimed;
+
+    /** The sequence of the next record to write, advanced only by the background thread */
+    private volatile long consumed;
+
+    /** The number of records dropped because the ring buffer was full or the transitioner was closed */
+    private final AtomicLong droppedCount;
+
+    /** The number of records written to the sink */
+    private final AtomicLong writtenCount;
+
+    /** The time to wait between writes when the ring buffer is empty */
+    private final long flushIntervalNanos;
+
+    /** The thread that writes the records */
+    private final Thread writerThread;
+
+    /** Set while the background thread should keep running */
+    private volatile boolean running;
+
+    /**
+     * Construct with a logger that receives each transition at the info level.
+     *
+     * @param logger the logger receiving the transitions
+     */
+    public AsyncLoggingStateTransitioner(@NotNull final Logger logger) {
+        this(checkNotNull(logger, "logger must not be null")::info, DEFAULT_CAPACITY, DEFAULT_FLUSH_INTERVAL_NANOS);
+    }
+
+    /**
+     * Construct the transitioner.
+     *
+     * @param sink receives each formatted transition on the background thread
+     * @param capacity the number of records the ring buffer holds, which must be a power of two
+     * @param flushIntervalNanos the longest time a record waits in the ring buffer before it is written
+     */
+    public AsyncLoggingStateTransitioner(
+            @NotNull final Consumer<String> sink,
+            final int capacity,
+            final long flushIntervalNanos) {
+        this.sink = checkNotNull(sink, "sink must not be null");
+        if (capacity < 2 || Integer.bitCount(capacity) != 1) {
+            throw new IllegalArgumentException("capacity must be a power of two");
+        }
+        if (flushIntervalNanos <= 0L) {
+            throw new IllegalArgumentException("flushIntervalNanos must be positive");
+        }
+        this.mask = capacity - 1;
+        this.tableNames = new String[capacity];
+        this.fromStates = new String[capacity];
+        this.toStates = new String[capacity];
+        this.eventNames = new String[capacity];
+        this.timestamps = new long[capacity];
+        this.published = new AtomicLongArray(capacity);
+        for (int i = 0; i < capacity; i++) {
+            published.set(i, -1L);
+        }
+        this.claimed = new AtomicLong();
+        this.consumed = 0L;
+        this.droppedCount = new AtomicLong();
+        this.writtenCount = new AtomicLong();
+        this.flushIntervalNanos = flushIntervalNanos;
+        this.running = true;
+        this.writerThread = new Thread(this::writeRecords, TRANSITIONER_NAME);
+        this.writerThread.setDaemon(true);
+        this.writerThread.start();
+    }
+
+    /** @return the number of transitions dropped because the ring buffer was full or the transitioner was closed */
+    public long getDroppedCount() {
+        return droppedCount.get();
+    }
+
+    /** @return the number of transitions written to the sink */
+    public long getWrittenCount() {
+        return writtenCount.get();
+    }
+
+    /** Writes the remaining records and stops the background thread */
+    @Override
+    public void close() {
+        running = false;
+        LockSupport.unpark(writerThread);
+        try {
+            writerThread.join();
+        } catch (final InterruptedException exc) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    //
+    // StateTransitioner Interface
+    //
+
+    @Override
+    @NotNull
+    public String getName() {
+        return TRANSITIONER_NAME;
+    }
+
+    @Override
+    public void onTransition(@NotNull final TransitionContext<D, E> context) throws StateExeException {
+        checkNotNull(context, "context must not be null");
+        long sequence;
+        do {
+            sequence = claimed.get();
+            if (!running || CLOSED == sequence || sequence - consumed > mask) {
+                droppedCount.incrementAndGet();
+                return;
+            }
+        } while (!claimed.compareAndSet(sequence, sequence + 1));
+        final int slot = (int) sequence & mask;
+        tableNames[slot] = context.getStateTable().getStateTableName();
+        fromStates[slot] = context.getFromState();
+        toStates[slot] = StateDef.STATE_CHANGE_BY_ACTOR.equals(context.getToState())
+                ? context.getStateTableData().getCurrentState()
+                : context.getToState();
+        eventNames[slot] = context.getEvent().getName();
+        timestamps[slot] = System.currentTimeMillis();
+        published.lazySet(slot, sequence);
+    }
+
+    /** Writes published records in batches until closed and then writes the records claimed before closing */
+    private void writeRecords() {
+        final StringBuilder line = new StringBuilder(160);
+        while (running) {
+            if (writeBatch(line) < MAX_BATCH) {
+                LockSupport.parkNanos(flushIntervalNanos);
+            }
+        }
+        // Stop new claims and wait for the threads that already claimed a slot to publish it
+        final long end = claimed.getAndSet(CLOSED);
+        final long deadline = System.nanoTime() + CLOSE_TIMEOUT_NANOS;
+        while (consumed < end) {
+            if (writeBatch(line) == 0) {
+                if (System.nanoTime() - deadline >= 0L) {
+                    final long lost = end - consumed;
+                    droppedCount.addAndGet(lost);
+                    LOGGER.warn("Dropped {} state transitions that were not recorded before closing", lost);
+                    return;
+                }
+                Thread.yield();
+            }
+        }
+    }
+
+    /**
+     * Writes the published records up to the first one that is not yet published.
+     *
+     * @param line the buffer used to format each record
+     * @return the number of records written, which is at most {@link #MAX_BATCH}
+     */
+    private int writeBatch(final StringBuilder line) {
+        int written = 0;
+        long next = consumed;
+        while (written < MAX_BATCH) {
+            final int slot = (int) next & mask;
+            if (published.get(slot) != next) {
+                break;
+            }
+            line.setLength(0);
+            line.append(timestamps[slot])
+                    .append(" The state table, ").append(tableNames[slot])
+                    .append(", transitioned from state, ").append(fromStates[slot])
+                    .append(", to state, ").append(toStates[slot])
+                    .append(", having successfully processed the event, ").append(eventNames[slot]);
+            tableNames[slot] = null;
+            fromStates[slot] = null;
+            toStates[slot] = null;
+            eventNames[slot] = null;
+            next++;
+            // Release the slot to the producers before writing so they are not held up by the sink
+            consumed = next;
+            written++;
+            try {
+                sink.accept(line.toString());
+            } catch (final RuntimeException exc) {
+                LOGGER.warn("Unable to write the state transition, {}", line, exc);
+            }
+        }
+        writtenCount.addAndGet(written);
+        return written;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,110 @@
+/*
+ * Copyright 2000-2016 Worth Enterprises, Inc.  All Rights Reserved.
+ */
+package com.worthent.foundation.util.state.provider;
+
+import com.worthent.foundation.util.annotation.NotNull;
+
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Idle strategy that spins for a number of polls, then yields for a number of polls and then parks with a wait that
+ * doubles on each poll up to a maximum.  An event arriving while the thread is spinning is picked up within
+ * nanoseconds.  When taking from a blocking queue, the parked waits are timed polls of the queue, so an event arriving
+ * while the thread is parked still wakes it immediately.
+ *
+ * @author Erik K. Worth
+ */
+public class BackoffIdleStrategy implements IdleStrategy {
+
+    /** The number of polls to spin through before yielding */
+    private final int spinIterations;
+
+    /** The number of polls to yield through before parking */
+    private final int yieldIterations;
+
+    /** The first wait when parking */
+    private final long minParkNanos;
+
+    /** The longest wait when parking */
+    private final long maxParkNanos;
+
+    /**
+     * Construct the strategy.
+     *
+     * @param spinIterations the number of polls to spin through before yielding
+     * @param yieldIterations the number of polls to yield through before parking
+     * @param minParkNanos the first wait when parking
+     * @param maxParkNanos the longest wait when parking
+     */
+    public BackoffIdleStrategy(
+            final int spinIterations,
+            final int yieldIterations,
+            final long minParkNanos,
+            final long maxParkNanos) {
+        if (spinIterations < 0 || yieldIterations < 0) {
+            throw new IllegalArgumentException("spinIterations and yieldIterations must not be negative");
+        }
+        if (minParkNanos <= 0L || maxParkNanos < minParkNanos) {
+            throw new IllegalArgumentException("minParkNanos must be positive and no larger than maxParkNanos");
+        }
+        this.spinIterations = spinIterations;
+        this.yieldIterations = yieldIterations;
+        this.minParkNanos = minParkNanos;
+        this.maxParkNanos = maxParkNanos;
+    }
+
+    /** Construct with a short spin suited to a dedicated core: 1000 spins, 100 yields, parks of 1 to 100 microseconds */
+    public BackoffIdleStrategy() {
+        this(1000, 100, TimeUnit.MICROSECONDS.toNanos(1L), TimeUnit.MICROSECONDS.toNanos(100L));
+    }
+
+    @Override
+    @NotNull
+    public <T> T take(@NotNull final BlockingQueue<T> queue) throws InterruptedException {
+        T element = queue.poll();
+        int idleCount = 0;
+        while (null == element) {
+            if (Thread.interrupted()) {
+                throw new InterruptedException();
+            }
+            if (idleCount < spinIterations + yieldIterations) {
+                idle(idleCount++);
+                element = queue.poll();
+            } else {
+                // Wait on the queue itself so an arriving event ends the wait
+                element = queue.poll(getParkNanos(idleCount), TimeUnit.NANOSECONDS);
+                if (idleCount < Integer.MAX_VALUE) {
+                    idleCount++;
+                }
+            }
+        }
+        return element;
+    }
+
+    @Override
+    public void idle(final int idleCount) {
+        if (idleCount < spinIterations) {
+            SpinWait.onSpinWait();
+        } else if (idleCount < spinIterations + yieldIterations) {
+            Thread.yield();
+        } else {
+            LockSupport.parkNanos(getParkNanos(idleCount));
+        }
+    }
+
+    /** Returns the wait for the idle count in the parking phase */
+    private long getParkNanos(final int idleCount) {
+        final int doublings = Math.min(idleCount - spinIterations - yieldIterations, 62);
+        final long parkNanos = minParkNanos << doublings;
+        return (parkNanos <= 0L || parkNanos > maxParkNanos) ? maxParkNanos : parkNanos;
+    }
+
+    @Override
+    public String toString() {
+        return "BackoffIdleStrategy[spin=" + spinIterations + ", yield=" + yieldIterations +
+                ", park=" + minParkNanos + ".." + maxParkNanos + "ns]";
+    }
+}
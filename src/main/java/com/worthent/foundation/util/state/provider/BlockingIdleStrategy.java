@@ -0,0 +1,45 @@
+/*
+ * Copyright 2000-2016 Worth Enterprises, Inc.  All Rights Reserved.
+ */
+package com.worthent.foundation.util.state.provider;
+
+import com.worthent.foundation.util.annotation.NotNull;
+
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Idle strategy that blocks the consumer thread until an event arrives.  It burns no CPU while idle, but every event
+ * that arrives while the thread is blocked pays for waking it up.  This is the default for the threaded controls.
+ *
+ * @author Erik K. Worth
+ */
+public final class BlockingIdleStrategy implements IdleStrategy {
+
+    /** The time to park in a polling loop, which cannot block on its source */
+    private static final long POLL_PARK_NANOS = TimeUnit.MILLISECONDS.toNanos(1L);
+
+    /** The shared instance */
+    public static final BlockingIdleStrategy INSTANCE = new BlockingIdleStrategy();
+
+    /** Use the shared instance */
+    private BlockingIdleStrategy() {}
+
+    @Override
+    @NotNull
+    public <T> T take(@NotNull final BlockingQueue<T> queue) throws InterruptedException {
+        return queue.take();
+    }
+
+    /** Parks the thread for a millisecond since a polling loop has nothing to block on */
+    @Override
+    public void idle(final int idleCount) {
+        LockSupport.parkNanos(POLL_PARK_NANOS);
+    }
+
+    @Override
+    public String toString() {
+        return "BlockingIdleStrategy";
+    }
+}
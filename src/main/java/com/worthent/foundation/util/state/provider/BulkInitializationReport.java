@@ -0,0 +1,78 @@
+/*
+ * Copyright 2000-2016 Worth Enterprises, Inc.  All Rights Reserved.
+ */
+package com.worthent.foundation.util.state.provider;
+
+import com.worthent.foundation.util.annotation.Nullable;
+
+/**
+ * Immutable summary of a run of the {@link BulkStateTableInitializer}.
+ *
+ * @author Erik K. Worth
+ */
+public final class BulkInitializationReport {
+
+    /** The number of state table instances initialized */
+    private final long initializedCount;
+
+    /** The number of state table instances that failed to initialize */
+    private final long failedCount;
+
+    /** The time in nanoseconds the run took */
+    private final long elapsedNanos;
+
+    /** The first error initializing an instance or <code>null</code> when there were none */
+    private final Throwable firstError;
+
+    /**
+     * Construct from components.
+     *
+     * @param initializedCount the number of state table instances initialized
+     * @param failedCount the number of state table instances that failed to initialize
+     * @param elapsedNanos the time in nanoseconds the run took
+     * @param firstError the first error initializing an instance or <code>null</code> when there were none
+     */
+    public BulkInitializationReport(
+            final long initializedCount,
+            final long failedCount,
+            final long elapsedNanos,
+            @Nullable final Throwable firstError) {
+        this.initializedCount = initializedCount;
+        this.failedCount = failedCount;
+        this.elapsedNanos = elapsedNanos;
+        this.firstError = firstError;
+    }
+
+    /** @return the number of state table instances initialized */
+    public long getInitializedCount() {
+        return initializedCount;
+    }
+
+    /** @return the number of state table instances that failed to initialize */
+    public long getFailedCount() {
+        return failedCount;
+    }
+
+    /** @return the time in nanoseconds the run took */
+    public long getElapsedNanos() {
+        return elapsedNanos;
+    }
+
+    /** @return the first error initializing an instance or <code>null</code> when there were none */
+    @Nullable
+    public Throwable getFirstError() {
+        return firstError;
+    }
+
+    /** @return the number of instances initialized per second */
+    public double getInstancesPerSecond() {
+        return (elapsedNanos == 0L) ? 0.0 : initializedCount * 1.0e9 / elapsedNanos;
+    }
+
+    @Override
+    public String toString() {
+        return "BulkInitializationReport{initializedCount=" + initializedCount +
+                ", failedCount=" + failedCount +
+                ", elapsedNanos=" + elapsedNanos + '}';
+    }
+}
@@ -0,0 +1,347 @@
+/*
+ * Copyright 2000-2016 Worth Enterprises, Inc.  All Rights Reserved.
+ */
+package com.worthent.foundation.util.state.provider;
+
+import com.worthent.foundation.util.annotation.NotNull;
+import com.worthent.foundation.util.annotation.Nullable;
+import com.worthent.foundation.util.state.StateEvent;
+import com.worthent.foundation.util.state.StateExeException;
+import com.worthent.foundation.util.state.StateTable;
+import com.worthent.foundation.util.state.StateTableData;
+import com.worthent.foundation.util.state.data.KeyedStateTableDataManager;
+import com.worthent.foundation.util.state.data.StateTableDataManager;
+import com.worthent.foundation.util.state.def.StateDefException;
+import com.worthent.foundation.util.state.def.StateTableDef;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayDeque;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
+import java.util.function.LongConsumer;
+
+import static com.worthent.foundation.util.condition.Preconditions.checkNotNull;
+
+/**
+ * Initializes a large population of state table instances in parallel for a state table with a
+ * {@link KeyedStateTableDataManager}.  The instances come from a streaming source of keys and initial states, which the
+ * worker threads split with {@link Spliterator#trySplit} into parts of about a batch each and read without sharing, so
+ * startup time scales with the number of cores.  A worker that splits a part hands the rest of it to the other workers
+ * and keeps the first half.  A source read from an {@link Iterator} splits by copying exactly the next batch of
+ * entries, so the source never has to fit in memory and no worker holds more than a batch it has not started on.  A source that cannot be split is read by one worker.  Each instance accepts
+ * events as soon as it is initialized, so the state table's control may be started first and process events for the
+ * instances that are ready while the rest are brought up.
+ * <p>
+ * An entry with a <code>null</code> initial state starts the instance in the initial state of the table.  An initial
+ * state that the table does not define, or any other error initializing one instance, is counted and does not stop the
+ * others.
+ *
+ * @author Erik K. Worth
+ */
+public class BulkStateTableInitializer<K, D extends StateTableData, E extends StateEvent> {
+
+    /** Logger for this class */
+    private static final Logger LOGGER = LoggerFactory.getLogger(BulkStateTableInitializer.class);
+
+    /** The data manager creating the data for each instance */
+    private final KeyedStateTableDataManager<K, D, E> dataManager;
+
+    /** The definition of the table, used to check the initial state of each instance */
+    private final StateTableDef<D, E> stateTableDef;
+
+    /** The name of the initial state of the table */
+    private final String tableInitialState;
+
+    /** The number of worker threads */
+    private final int parallelism;
+
+    /** The number of instances a worker takes from the source at a time */
+    private final int batchSize;
+
+    /**
+     * Construct the initializer.
+     *
+     * @param stateTblInstance the state table with a keyed data manager
+     * @param parallelism the number of worker threads
+     * @param batchSize the number of instances a worker takes from the source at a time
+     * @throws StateDefException thrown when the state table does not have a keyed data manager
+     */
+    @SuppressWarnings("unchecked")
+    public BulkStateTableInitializer(
+            @NotNull final StateTable<D, E> stateTblInstance,
+            final int parallelism,
+            final int batchSize) {
+        checkNotNull(stateTblInstance, "stateTblInstance must not be null");
+        final StateTableDataManager<D, E> stateTableDataManager = stateTblInstance.getStateTableDataManager();
+        if (!(stateTableDataManager instanceof KeyedStateTableDataManager)) {
+            throw new StateDefException("The state table, '" + stateTblInstance.getStateTableName() +
+                    "', must have a keyed data manager");
+        }
+        if (parallelism < 1 || batchSize < 1) {
+            throw new IllegalArgumentException("parallelism and batchSize must be positive");
+        }
+        this.dataManager = (KeyedStateTableDataManager<K, D, E>) stateTableDataManager;
+        this.stateTableDef = stateTblInstance.getStateTableDefinition();
+        this.tableInitialState = stateTableDef.getInitialState().getName();
+        this.parallelism = parallelism;
+        this.batchSize = batchSize;
+    }
+
+    /**
+     * Construct the initializer with a worker for each available processor and batches of 1024 instances.
+     *
+     * @param stateTblInstance the state table with a keyed data manager
+     */
+    public BulkStateTableInitializer(@NotNull final StateTable<D, E> stateTblInstance) {
+        this(stateTblInstance, Runtime.getRuntime().availableProcessors(), 1024);
+    }
+
+    /**
+     * Initializes the instances from the source and returns when all of them have been processed.
+     *
+     * @param seeds the keys of the instances to initialize, each with the name of its initial state or
+     *              <code>null</code> for the initial state of the table
+     * @param progress optionally receives the total number of instances processed after each batch
+     * @return the summary of the run
+     * @throws StateExeException thrown when the calling thread is interrupted while waiting for the workers
+     */
+    @NotNull
+    public BulkInitializationReport initialize(
+            @NotNull final Spliterator<? extends Map.Entry<K, String>> seeds,
+            @Nullable final LongConsumer progress) throws StateExeException {
+        checkNotNull(seeds, "seeds must not be null");
+        final Run run = new Run(seeds, progress);
+        final long startNanos = System.nanoTime();
+        final Thread[] workers = new Thread[parallelism];
+        for (int i = 0; i < workers.length; i++) {
+            workers[i] = new Thread(run::work, "bulk-state-table-initializer-" + i);
+            workers[i].setDaemon(true);
+            workers[i].start();
+        }
+        try {
+            for (final Thread worker : workers) {
+                worker.join();
+            }
+        } catch (final InterruptedException exc) {
+            run.cancel();
+            Thread.currentThread().interrupt();
+            throw new StateExeException("Interrupted while initializing state table instances", exc);
+        }
+        return new BulkInitializationReport(run.initializedCount.get(), run.failedCount.get(),
+                System.nanoTime() - startNanos, run.firstError.get());
+    }
+
+    /**
+     * Initializes the instances from the source and returns when all of them have been processed.  The workers take
+     * turns copying the next batch of entries from the iterator.
+     *
+     * @param seeds the keys of the instances to initialize, each with the name of its initial state or
+     *              <code>null</code> for the initial state of the table
+     * @param progress optionally receives the total number of instances processed after each batch
+     * @return the summary of the run
+     * @throws StateExeException thrown when the calling thread is interrupted while waiting for the workers
+     */
+    @NotNull
+    public BulkInitializationReport initialize(
+            @NotNull final Iterator<? extends Map.Entry<K, String>> seeds,
+            @Nullable final LongConsumer progress) throws StateExeException {
+        checkNotNull(seeds, "seeds must not be null");
+        return initialize(new BatchSpliterator<Map.Entry<K, String>>(seeds, batchSize), progress);
+    }
+
+    /**
+     * Reads an iterator of unknown size, splitting off a copy of exactly the next batch of elements each time.  The
+     * spliterators provided by {@link Spliterators#spliteratorUnknownSize} instead copy batches that grow with each
+     * split, which would leave one worker with most of a large source.
+     */
+    private static final class BatchSpliterator<T> implements Spliterator<T> {
+
+        /** The source of the elements */
+        private final Iterator<? extends T> iterator;
+
+        /** The number of elements split off at a time */
+        private final int batchSize;
+
+        private BatchSpliterator(final Iterator<? extends T> iterator, final int batchSize) {
+            this.iterator = iterator;
+            this.batchSize = batchSize;
+        }
+
+        @Override
+        public boolean tryAdvance(final Consumer<? super T> action) {
+            if (!iterator.hasNext()) {
+                return false;
+            }
+            action.accept(iterator.next());
+            return true;
+        }
+
+        @Override
+        public void forEachRemaining(final Consumer<? super T> action) {
+            iterator.forEachRemaining(action);
+        }
+
+        @Override
+        public Spliterator<T> trySplit() {
+            if (!iterator.hasNext()) {
+                return null;
+            }
+            final Object[] batch = new Object[batchSize];
+            int count = 0;
+            while (count < batchSize && iterator.hasNext()) {
+                batch[count++] = iterator.next();
+            }
+            return Spliterators.spliterator(batch, 0, count, Spliterator.NONNULL | Spliterator.ORDERED);
+        }
+
+        @Override
+        public long estimateSize() {
+            return Long.MAX_VALUE;
+        }
+
+        @Override
+        public int characteristics() {
+            return Spliterator.NONNULL | Spliterator.ORDERED;
+        }
+    }
+
+    /** The state shared by the workers of one run */
+    private final class Run {
+
+        /** The parts of the source waiting for a worker, guarded by this list */
+        private final ArrayDeque<Spliterator<? extends Map.Entry<K, String>>> parts;
+
+        /** Optionally receives the number of instances processed */
+        private final LongConsumer progress;
+
+        /** The number of instances initialized */
+        private final AtomicLong initializedCount = new AtomicLong();
+
+        /** The number of instances that failed to initialize */
+        private final AtomicLong failedCount = new AtomicLong();
+
+        /** The first error initializing an instance */
+        private final AtomicReference<Throwable> firstError = new AtomicReference<>();
+
+        /** The number of workers splitting a part, which may hand more parts to the others, guarded by the parts */
+        private int splittingCount;
+
+        /** Set when the run is abandoned */
+        private volatile boolean cancelled;
+
+        private Run(final Spliterator<? extends Map.Entry<K, String>> seeds, final LongConsumer progress) {
+            this.parts = new ArrayDeque<>();
+            this.parts.add(seeds);
+            this.progress = progress;
+        }
+
+        /** Abandons the run and releases the workers waiting for a part */
+        private void cancel() {
+            synchronized (parts) {
+                cancelled = true;
+                parts.notifyAll();
+            }
+        }
+
+        /** Takes parts of the source, splits them down to a batch and initializes them until the source is exhausted */
+        private void work() {
+            Spliterator<? extends Map.Entry<K, String>> part;
+            while (null != (part = takePart())) {
+                try {
+                    Spliterator<? extends Map.Entry<K, String>> prefix;
+                    while (part.estimateSize() > batchSize && null != (prefix = part.trySplit())) {
+                        offerPart(part);
+                        part = prefix;
+                    }
+                } finally {
+                    doneSplitting();
+                }
+                initializeAll(part);
+            }
+        }
+
+        /**
+         * Returns the next part of the source, waiting while the other workers may still split off more, or
+         * <code>null</code> when the source is exhausted or the run is abandoned.
+         */
+        private Spliterator<? extends Map.Entry<K, String>> takePart() {
+            synchronized (parts) {
+                while (!cancelled && parts.isEmpty() && splittingCount > 0) {
+                    try {
+                        parts.wait();
+                    } catch (final InterruptedException exc) {
+                        Thread.currentThread().interrupt();
+                        return null;
+                    }
+                }
+                final Spliterator<? extends Map.Entry<K, String>> part = cancelled ? null : parts.poll();
+                if (null != part) {
+                    splittingCount++;
+                }
+                return part;
+            }
+        }
+
+        /** Hands the rest of a part being split to the other workers */
+        private void offerPart(final Spliterator<? extends Map.Entry<K, String>> part) {
+            synchronized (parts) {
+                parts.add(part);
+                parts.notify();
+            }
+        }
+
+        /** Records that a worker has finished splitting its part */
+        private void doneSplitting() {
+            synchronized (parts) {
+                if (--splittingCount == 0) {
+                    parts.notifyAll();
+                }
+            }
+        }
+
+        /** Initializes each instance in a part, reporting the progress after each batch */
+        private void initializeAll(final Spliterator<? extends Map.Entry<K, String>> part) {
+            int count = 0;
+            while (!cancelled && part.tryAdvance(this::initializeInstance)) {
+                if (++count == batchSize) {
+                    reportProgress();
+                    count = 0;
+                }
+            }
+            if (count > 0) {
+                reportProgress();
+            }
+        }
+
+        /** Passes the number of instances processed so far to the progress consumer */
+        private void reportProgress() {
+            if (null != progress) {
+                progress.accept(initializedCount.get() + failedCount.get());
+            }
+        }
+
+        /** Initializes one instance, counting a failure instead of stopping */
+        private void initializeInstance(final Map.Entry<K, String> seed) {
+            try {
+                final String initialState = (null == seed.getValue()) ? tableInitialState : seed.getValue();
+                if (null == stateTableDef.getState(initialState)) {
+                    throw new StateDefException("The initial state, '" + initialState +
+                            "', is not defined by the state table, '" + stateTableDef.getName() + "'");
+                }
+                dataManager.initializeStateTableData(seed.getKey(), initialState);
+                initializedCount.incrementAndGet();
+            } catch (final RuntimeException exc) {
+                failedCount.incrementAndGet();
+                if (firstError.compareAndSet(null, exc)) {
+                    LOGGER.warn("Error initializing the state table instance, " + seed.getKey(), exc);
+                }
+            }
+        }
+    }
+}
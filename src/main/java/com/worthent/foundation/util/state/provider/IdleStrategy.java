@@ -0,0 +1,55 @@
+/*
+ * Copyright 2000-2016 Worth Enterprises, Inc.  All Rights Reserved.
+ */
+package com.worthent.foundation.util.state.provider;
+
+import com.worthent.foundation.util.annotation.NotNull;
+
+import java.util.concurrent.BlockingQueue;
+
+/**
+ * Specifies how a consumer thread waits when it has no events to process, which trades the latency of waking up for
+ * an event against the CPU burned while waiting.  Blocking costs no CPU but each event that arrives while the thread
+ * is idle pays for a full wake-up of the thread.  Spinning reacts within nanoseconds but keeps a core busy.
+ *
+ * @see BlockingIdleStrategy
+ * @see BackoffIdleStrategy
+ * @see AdaptiveIdleStrategy
+ *
+ * @author Erik K. Worth
+ */
+public interface IdleStrategy {
+
+    /**
+     * Waits until the queue has an element and removes it.  The default implementation polls the queue and calls
+     * {@link #idle} between polls.
+     *
+     * @param queue the queue from which to take the next element
+     * @param <T> the type of element
+     * @return the next element from the queue
+     * @throws InterruptedException thrown when the thread is interrupted while waiting
+     */
+    @NotNull
+    default <T> T take(@NotNull final BlockingQueue<T> queue) throws InterruptedException {
+        T element = queue.poll();
+        int idleCount = 0;
+        while (null == element) {
+            if (Thread.interrupted()) {
+                throw new InterruptedException();
+            }
+            idle(idleCount);
+            if (idleCount < Integer.MAX_VALUE) {
+                idleCount++;
+            }
+            element = queue.poll();
+        }
+        return element;
+    }
+
+    /**
+     * Waits once in a loop polling a source that cannot block, such as a shared-memory ring buffer.
+     *
+     * @param idleCount the number of times in a row the loop has found no work, starting at zero
+     */
+    void idle(int idleCount);
+}
@@ -0,0 +1,217 @@
+/*
+ * Copyright 2000-2016 Worth Enterprises, Inc.  All Rights Reserved.
+ */
+package com.worthent.foundation.util.state.provider;
+
+import com.worthent.foundation.util.annotation.NotNull;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.Closeable;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import static com.worthent.foundation.util.condition.Preconditions.checkNotNull;
+
+/**
+ * Moves partitions between the lanes of a {@link PartitionedStateTableControl} to even out the load when traffic is
+ * skewed toward a few keys.  Each time it rebalances, the manager measures the load of each partition as the time
+ * spent processing its events since the last rebalance plus the estimated time to process the events still queued for
+ * it.  When the busiest lane carries more than the imbalance threshold times the mean lane load, the manager moves the
+ * partition from the busiest lane to the idlest lane that brings the two closest to equal.  It repeats this up to the
+ * maximum number of moves per rebalance.
+ * <p>
+ * A single hot key cannot be split across lanes, so the manager keeps tail latency flat by moving the other partitions
+ * away from the lane holding it.  Rebalance on demand with {@link #rebalance} or periodically with {@link #start}.
+ *
+ * @author Erik K. Worth
+ */
+public class LoadAwarePartitionManager implements Closeable {
+
+    /** Logger for this class */
+    private static final Logger LOGGER = LoggerFactory.getLogger(LoadAwarePartitionManager.class);
+
+    /** The control whose partitions are moved */
+    private final PartitionedStateTableControl<?, ?> control;
+
+    /** The ratio of the busiest lane load to the mean lane load above which partitions are moved */
+    private final double imbalanceThreshold;
+
+    /** The most partitions moved in one rebalance */
+    private final int maxMovesPerRebalance;
+
+    /** The total processing time of each partition at the last rebalance */
+    private final long[] lastProcessingNanos;
+
+    /** Runs periodic rebalances or <code>null</code> when not started */
+    private ScheduledExecutorService scheduler;
+
+    /**
+     * Construct the manager.
+     *
+     * @param control the control whose partitions are moved
+     * @param imbalanceThreshold the ratio of the busiest lane load to the mean lane load above which partitions are
+     *                           moved, which must be at least 1
+     * @param maxMovesPerRebalance the most partitions moved in one rebalance
+     */
+    public LoadAwarePartitionManager(
+            @NotNull final PartitionedStateTableControl<?, ?> control,
+            final double imbalanceThreshold,
+            final int maxMovesPerRebalance) {
+        this.control = checkNotNull(control, "control must not be null");
+        if (!(imbalanceThreshold >= 1.0)) {
+            throw new IllegalArgumentException("imbalanceThreshold must be at least 1");
+        }
+        if (maxMovesPerRebalance < 1) {
+            throw new IllegalArgumentException("maxMovesPerRebalance must be positive");
+        }
+        this.imbalanceThreshold = imbalanceThreshold;
+        this.maxMovesPerRebalance = maxMovesPerRebalance;
+        this.lastProcessingNanos = new long[control.getPartitionCount()];
+    }
+
+    /**
+     * Construct the manager to move up to one partition per lane when the busiest lane carries 25% more than the mean.
+     *
+     * @param control the control whose partitions are moved
+     */
+    public LoadAwarePartitionManager(@NotNull final PartitionedStateTableControl<?, ?> control) {
+        this(control, 1.25, control.getLaneCount());
+    }
+
+    /**
+     * Measures the load on each partition since the last rebalance and starts moving partitions from the busiest lanes
+     * to the idlest ones.  Partitions already being moved are left alone.
+     *
+     * @return the number of partition moves started
+     */
+    public synchronized int rebalance() {
+        final List<PartitionStatistics> statistics = control.getPartitionStatistics();
+        final int laneCount = control.getLaneCount();
+        final long[] partitionLoads = new long[statistics.size()];
+        final int[] partitionLanes = new int[statistics.size()];
+        final long[] laneLoads = new long[laneCount];
+        long totalLoad = 0L;
+        for (final PartitionStatistics partitionStatistics : statistics) {
+            final int partition = partitionStatistics.getPartition();
+            final long recentNanos = partitionStatistics.getProcessingNanos() - lastProcessingNanos[partition];
+            lastProcessingNanos[partition] = partitionStatistics.getProcessingNanos();
+            final long backlogNanos =
+                    partitionStatistics.getQueueDepth() * partitionStatistics.getMeanProcessingNanos();
+            final long load = recentNanos + backlogNanos;
+            partitionLoads[partition] = load;
+            partitionLanes[partition] = partitionStatistics.getLane();
+            laneLoads[partitionStatistics.getLane()] += load;
+            totalLoad += load;
+        }
+        if (laneCount < 2 || totalLoad == 0L) {
+            return 0;
+        }
+        final double meanLoad = ((double) totalLoad) / laneCount;
+        int moves = 0;
+        while (moves < maxMovesPerRebalance) {
+            final int busiest = indexOfMax(laneLoads);
+            final int idlest = indexOfMin(laneLoads);
+            if (laneLoads[busiest] <= imbalanceThreshold * meanLoad) {
+                break;
+            }
+            final int partition = choosePartition(partitionLoads, partitionLanes, busiest,
+                    laneLoads[busiest] - laneLoads[idlest]);
+            if (partition < 0 || !control.migratePartition(partition, idlest)) {
+                break;
+            }
+            LOGGER.debug("Moving partition {} from lane {} to lane {}", partition, busiest, idlest);
+            laneLoads[busiest] -= partitionLoads[partition];
+            laneLoads[idlest] += partitionLoads[partition];
+            partitionLanes[partition] = idlest;
+            moves++;
+        }
+        return moves;
+    }
+
+    /**
+     * Starts rebalancing periodically on a daemon thread.
+     *
+     * @param period the time between rebalances
+     * @param unit the unit of the period
+     */
+    public synchronized void start(final long period, @NotNull final TimeUnit unit) {
+        checkNotNull(unit, "unit must not be null");
+        if (null != scheduler) {
+            throw new IllegalStateException("The partition manager is already started");
+        }
+        scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            final Thread thread = new Thread(runnable, "partition-manager");
+            thread.setDaemon(true);
+            return thread;
+        });
+        scheduler.scheduleWithFixedDelay(this::rebalanceQuietly, period, period, unit);
+    }
+
+    /** Stops periodic rebalancing */
+    @Override
+    public synchronized void close() {
+        if (null != scheduler) {
+            scheduler.shutdownNow();
+            scheduler = null;
+        }
+    }
+
+    /** Rebalances from the scheduler, logging any error so later rebalances still run */
+    private void rebalanceQuietly() {
+        try {
+            rebalance();
+        } catch (final RuntimeException exc) {
+            LOGGER.error("Error rebalancing partitions", exc);
+        }
+    }
+
+    /**
+     * Returns the partition on the lane whose move best evens out the gap between the busiest and idlest lanes, which
+     * is the one with load closest to half the gap, or -1 when no move narrows the gap.
+     */
+    private int choosePartition(
+            final long[] partitionLoads,
+            final int[] partitionLanes,
+            final int lane,
+            final long gap) {
+        int chosen = -1;
+        long chosenDistance = Long.MAX_VALUE;
+        for (int partition = 0; partition < partitionLoads.length; partition++) {
+            final long load = partitionLoads[partition];
+            if (partitionLanes[partition] != lane || load == 0L || load >= gap || control.isMigrating(partition)) {
+                continue;
+            }
+            final long distance = Math.abs(gap - 2 * load);
+            if (distance < chosenDistance) {
+                chosen = partition;
+                chosenDistance = distance;
+            }
+        }
+        return chosen;
+    }
+
+    /** Returns the index of the largest value */
+    private static int indexOfMax(final long[] values) {
+        int index = 0;
+        for (int i = 1; i < values.length; i++) {
+            if (values[i] > values[index]) {
+                index = i;
+            }
+        }
+        return index;
+    }
+
+    /** Returns the index of the smallest value */
+    private static int indexOfMin(final long[] values) {
+        int index = 0;
+        for (int i = 1; i < values.length; i++) {
+            if (values[i] < values[index]) {
+                index = i;
+            }
+        }
+        return index;
+    }
+}
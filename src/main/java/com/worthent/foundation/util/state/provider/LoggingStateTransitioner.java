@@ -10,6 +10,10 @@ import static com.worthent.foundation.util.condition.Preconditions.checkNotNull;
 /**
  * A simple implementation of the <code>StateTransitioner</code> that simply
  * logs transitions using the specified logger and severity level.
+ * It does nothing at all unless debug logging is enabled for the logger, so
+ * it costs next to nothing when installed by default.  Use
+ * {@link AsyncLoggingStateTransitioner} to keep transition logs on in
+ * production.
  * 
  * @author Erik K. Worth
  */
@@ -50,6 +54,9 @@ public class LoggingStateTransitioner<D extends StateTableData, E extends StateE
 
     @Override
     public void onTransition(@NotNull final TransitionContext<D, E> context) throws StateExeException {
+        if (!logger.isDebugEnabled()) {
+            return;
+        }
         checkNotNull(context, "context must not be null");
         final String toState = StateDef.STATE_CHANGE_BY_ACTOR.equals(context.getToState())
                 ? context.getStateTableData().getCurrentState()
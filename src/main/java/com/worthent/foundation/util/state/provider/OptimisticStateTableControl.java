@@ -0,0 +1,245 @@
+/*
+ * Copyright 2000-2016 Worth Enterprises, Inc.  All Rights Reserved.
+ */
+package com.worthent.foundation.util.state.provider;
+
+import com.worthent.foundation.util.annotation.NotNull;
+import com.worthent.foundation.util.state.StateConflictException;
+import com.worthent.foundation.util.state.StateEvent;
+import com.worthent.foundation.util.state.StateExeException;
+import com.worthent.foundation.util.state.StateTable;
+import com.worthent.foundation.util.state.StateTableControl;
+import com.worthent.foundation.util.state.TransitionActor;
+import com.worthent.foundation.util.state.VersionedStateTableData;
+import com.worthent.foundation.util.state.data.OptimisticStateTableDataManager;
+import com.worthent.foundation.util.state.def.StateDef;
+import com.worthent.foundation.util.state.def.StateDefException;
+import com.worthent.foundation.util.state.def.StateTransitionDef;
+import com.worthent.foundation.util.state.impl.StateEngine;
+
+import java.util.ArrayDeque;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+
+import static com.worthent.foundation.util.condition.Preconditions.checkNotNull;
+
+/**
+ * Implements the {@link StateTableControl} interface to process events in optimistic concurrency mode. Each event is
+ * processed on the thread that signals it against a private copy of the state table data obtained from an
+ * {@link OptimisticStateTableDataManager}. The copy is committed with compare-and-set semantics and when another
+ * thread commits first, the whole transition is run again against a fresh copy. After a bounded number of retries,
+ * the event falls back to a fair queue where events are processed one at a time until they commit. While any event
+ * waits in the fallback queue, newly signaled events join the queue behind it so that the contended instance drains
+ * in order.
+ * <p>
+ * Because a transition may run more than once, every actor in the state table must be declared retry-safe (see
+ * {@link TransitionActor#isRetrySafe()}) and the state transitioner, when there is one, should tolerate being
+ * invoked for transitions that do not commit. Events signaled by actors while processing an event are held on the
+ * signaling thread and processed after the transition commits. They are discarded when the transition is retried.
+ * <p>
+ * This mode suits instance-per-request workloads where a state table instance is only occasionally contended.
+ *
+ * @author Erik K. Worth
+ */
+public class OptimisticStateTableControl<D extends VersionedStateTableData, E extends StateEvent>
+        implements StateTableControl<E> {
+
+    /** The default number of times a transition is retried before the event falls back to the queue */
+    public static final int DEFAULT_MAX_RETRIES = 8;
+
+    /** The state table engine that processes events */
+    private final StateEngine<D, E> engine;
+
+    /** The state table instance */
+    private final StateTable<D, E> stateTblInstance;
+
+    /** The number of times a transition is retried before the event falls back to the queue */
+    private final int maxRetries;
+
+    /** The fair lock whose wait queue holds the events that fell back from optimistic processing */
+    private final ReentrantLock fallbackLock;
+
+    /** The number of events in or waiting for the fallback queue */
+    private final AtomicInteger fallbackWaiters;
+
+    /** The events signaled by actors on the thread processing an event */
+    private final SignaledEventQueue<E> signaledEvents;
+
+    /** The number of transitions that failed to commit because of a conflict */
+    private final AtomicLong conflictCount;
+
+    /** The number of events processed through the fallback queue */
+    private final AtomicLong fallbackCount;
+
+    /**
+     * Construct with the state table instance and the number of retries.
+     *
+     * @param stateTblInstance the state table with an optimistic data manager and retry-safe actors
+     * @param maxRetries the number of times a transition is retried before the event falls back to the queue
+     * @throws StateDefException thrown when the state table does not have an optimistic data manager or when any of
+     *                           the actors in the state table is not retry-safe
+     */
+    public OptimisticStateTableControl(@NotNull final StateTable<D, E> stateTblInstance, final int maxRetries) {
+        this.stateTblInstance = checkNotNull(stateTblInstance, "stateTblInstance must not be null");
+        if (maxRetries < 0) {
+            throw new IllegalArgumentException("maxRetries must not be negative");
+        }
+        checkOptimisticStateTable(stateTblInstance);
+        this.maxRetries = maxRetries;
+        this.engine = new StateEngine<>();
+        this.fallbackLock = new ReentrantLock(true);
+        this.fallbackWaiters = new AtomicInteger(0);
+        this.signaledEvents = new SignaledEventQueue<>();
+        this.conflictCount = new AtomicLong(0L);
+        this.fallbackCount = new AtomicLong(0L);
+    }
+
+    /**
+     * Construct with the state table instance and the default number of retries.
+     *
+     * @param stateTblInstance the state table with an optimistic data manager and retry-safe actors
+     * @throws StateDefException thrown when the state table does not have an optimistic data manager or when any of
+     *                           the actors in the state table is not retry-safe
+     */
+    public OptimisticStateTableControl(@NotNull final StateTable<D, E> stateTblInstance) {
+        this(stateTblInstance, DEFAULT_MAX_RETRIES);
+    }
+
+    /** @return the number of transitions that failed to commit because another transition committed first */
+    public long getConflictCount() {
+        return conflictCount.get();
+    }
+
+    /** @return the number of events that were processed through the fallback queue */
+    public long getFallbackCount() {
+        return fallbackCount.get();
+    }
+
+    //
+    // StateTableControl Interface
+    //
+
+    /**
+     * Processes the event on the calling thread and blocks until the event is committed.
+     *
+     * @param event the event to trigger activity in the state table
+     *
+     * @exception StateExeException thrown when there is an error processing the event
+     */
+    @Override
+    public void signalEvent(@NotNull final E event) throws StateExeException {
+        checkNotNull(event, "event must not be null");
+        signaledEvents.signal(event, this::processEvent);
+    }
+
+    /**
+     * Sets the state table state to the initial state.
+     */
+    @Override
+    public void start() throws StateExeException {
+        try {
+            stateTblInstance.getStateTableDataManager().initializeStateTableData();
+        } catch (Exception exc) {
+            final String name = stateTblInstance.getStateTableName();
+            throw new StateExeException("Error initializing state table history for state table, " + name);
+        }
+    }
+
+    /**
+     * Since there are no threads or external resources, this method does
+     * nothing.
+     */
+    @Override
+    public void stop() throws StateExeException {
+    }
+
+    /**
+     * Processes one event optimistically and falls back to the queue when the retries are exhausted.
+     *
+     * @param event the event to process
+     * @param queue the queue holding events signaled by actors on this thread
+     */
+    private void processEvent(final E event, final ArrayDeque<E> queue) {
+        if (fallbackWaiters.get() == 0) {
+            for (int attempt = 0; attempt <= maxRetries; attempt++) {
+                if (tryProcessEvent(event, queue)) {
+                    return;
+                }
+            }
+        }
+        fallbackCount.incrementAndGet();
+        fallbackWaiters.incrementAndGet();
+        fallbackLock.lock();
+        try {
+            while (!tryProcessEvent(event, queue)) {
+                // Only the transitions already in flight can still conflict
+                Thread.yield();
+            }
+        } finally {
+            fallbackLock.unlock();
+            fallbackWaiters.decrementAndGet();
+        }
+    }
+
+    /**
+     * Runs the transition once against a fresh copy of the data.
+     *
+     * @param event the event to process
+     * @param queue the queue holding events signaled by actors on this thread
+     * @return <code>true</code> when the transition committed and <code>false</code> when it conflicted
+     */
+    private boolean tryProcessEvent(final E event, final ArrayDeque<E> queue) {
+        final int signaledBefore = queue.size();
+        try {
+            engine.processEvent(stateTblInstance, this, event);
+            return true;
+        } catch (final StateConflictException exc) {
+            conflictCount.incrementAndGet();
+            // Discard the events signaled by the actors during the failed attempt
+            while (queue.size() > signaledBefore) {
+                queue.removeLast();
+            }
+            return false;
+        }
+    }
+
+    /**
+     * Verifies that the state table may be processed in optimistic concurrency mode.
+     *
+     * @param stateTable the state table to check
+     * @throws StateDefException thrown when the state table may not be processed in optimistic concurrency mode
+     */
+    private static <D extends VersionedStateTableData, E extends StateEvent> void checkOptimisticStateTable(
+            final StateTable<D, E> stateTable) throws StateDefException {
+        final String name = stateTable.getStateTableName();
+        if (!(stateTable.getStateTableDataManager() instanceof OptimisticStateTableDataManager)) {
+            throw new StateDefException("The state table, '" + name +
+                    "', must have an optimistic data manager to process events in optimistic concurrency mode");
+        }
+        final Set<String> unsafeActors = new TreeSet<>();
+        for (final StateDef<D, E> state : stateTable.getStateTableDefinition().getStates()) {
+            for (final StateTransitionDef<D, E> transition : state.getTransitions()) {
+                addUnsafeActors(transition, unsafeActors);
+            }
+            addUnsafeActors(state.getDefaultTransition(), unsafeActors);
+        }
+        if (!unsafeActors.isEmpty()) {
+            throw new StateDefException("The state table, '" + name +
+                    "', has actors that are not retry-safe: " + unsafeActors);
+        }
+    }
+
+    /** Adds the names of the actors in the transition that are not retry-safe */
+    private static <D extends VersionedStateTableData, E extends StateEvent> void addUnsafeActors(
+            final StateTransitionDef<D, E> transition,
+            final Set<String> unsafeActors) {
+        for (final TransitionActor<D, E> actor : transition.getActors()) {
+            if (!actor.isRetrySafe()) {
+                unsafeActors.add(actor.getName());
+            }
+        }
+    }
+}
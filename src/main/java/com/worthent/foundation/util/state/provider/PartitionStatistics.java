@@ -0,0 +1,89 @@
+/*
+ * Copyright 2000-2016 Worth Enterprises, Inc.  All Rights Reserved.
+ */
+package com.worthent.foundation.util.state.provider;
+
+/**
+ * Immutable snapshot of the load on one key-range partition of a {@link PartitionedStateTableControl}.  The processed
+ * count and processing time accumulate from the start of the control, so compare two snapshots to find the recent load.
+ *
+ * @author Erik K. Worth
+ */
+public final class PartitionStatistics {
+
+    /** The index of the partition */
+    private final int partition;
+
+    /** The index of the lane processing the partition's events */
+    private final int lane;
+
+    /** The number of the partition's events signaled and not yet processed */
+    private final int queueDepth;
+
+    /** The number of the partition's events processed */
+    private final long processedCount;
+
+    /** The total time in nanoseconds spent processing the partition's events */
+    private final long processingNanos;
+
+    /**
+     * Construct from components.
+     *
+     * @param partition the index of the partition
+     * @param lane the index of the lane processing the partition's events
+     * @param queueDepth the number of the partition's events signaled and not yet processed
+     * @param processedCount the number of the partition's events processed
+     * @param processingNanos the total time in nanoseconds spent processing the partition's events
+     */
+    public PartitionStatistics(
+            final int partition,
+            final int lane,
+            final int queueDepth,
+            final long processedCount,
+            final long processingNanos) {
+        this.partition = partition;
+        this.lane = lane;
+        this.queueDepth = queueDepth;
+        this.processedCount = processedCount;
+        this.processingNanos = processingNanos;
+    }
+
+    /** @return the index of the partition */
+    public int getPartition() {
+        return partition;
+    }
+
+    /** @return the index of the lane processing the partition's events */
+    public int getLane() {
+        return lane;
+    }
+
+    /** @return the number of the partition's events signaled and not yet processed */
+    public int getQueueDepth() {
+        return queueDepth;
+    }
+
+    /** @return the number of the partition's events processed */
+    public long getProcessedCount() {
+        return processedCount;
+    }
+
+    /** @return the total time in nanoseconds spent processing the partition's events */
+    public long getProcessingNanos() {
+        return processingNanos;
+    }
+
+    /** @return the mean time to process one of the partition's events or zero when none were processed */
+    public long getMeanProcessingNanos() {
+        return (processedCount == 0L) ? 0L : processingNanos / processedCount;
+    }
+
+    @Override
+    public String toString() {
+        return "PartitionStatistics{partition=" + partition +
+                ", lane=" + lane +
+                ", queueDepth=" + queueDepth +
+                ", processedCount=" + processedCount +
+                ", processingNanos=" + processingNanos + '}';
+    }
+}
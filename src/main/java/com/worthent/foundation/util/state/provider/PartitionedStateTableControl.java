@@ -0,0 +1,499 @@
+/*
+ * Copyright 2000-2016 Worth Enterprises, Inc.  All Rights Reserved.
+ */
+package com.worthent.foundation.util.state.provider;
+
+import com.worthent.foundation.util.annotation.NotNull;
+import com.worthent.foundation.util.annotation.Nullable;
+import com.worthent.foundation.util.state.StateEvent;
+import com.worthent.foundation.util.state.StateExeException;
+import com.worthent.foundation.util.state.StateTable;
+import com.worthent.foundation.util.state.StateTableControl;
+import com.worthent.foundation.util.state.StateTableData;
+import com.worthent.foundation.util.state.def.StateDefException;
+import com.worthent.foundation.util.state.impl.StateEngine;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+import static com.worthent.foundation.util.condition.Preconditions.checkNotNull;
+
+/**
+ * Implements the {@link StateTableControl} interface to process the events for a keyed state table on a fixed set of
+ * lanes, each with its own thread and queue.  The key of each event hashes to one of a number of partitions, which are
+ * the key ranges the control assigns to lanes.  Events for the same partition, and therefore for the same key, are
+ * processed on one lane in the order they are signaled, while events for partitions on different lanes proceed in
+ * parallel.  The state table's data manager holds the data for each key, as it does for the other controls.
+ * <p>
+ * A partition may be moved to another lane with {@link #migratePartition} while events flow.  The control holds new
+ * events for the partition while the old lane drains the events already queued for it.  When the old lane reaches the
+ * handover point, it has written the data for the partition's keys for the last time, so the control assigns the
+ * partition to the new lane and releases the held events to it in order.  Events for a key are never reordered and
+ * never processed on two lanes at once.  The {@link LoadAwarePartitionManager} uses the statistics the control keeps
+ * for each partition to decide which partitions to move.
+ * <p>
+ * Each lane waits on its empty queue as directed by its own {@link IdleStrategy}.  The default blocks on the queue.
+ * Stopping the control rejects the events held for partitions being moved and counts them, since their lanes will no
+ * longer process them.
+ *
+ * @author Erik K. Worth
+ */
+public class PartitionedStateTableControl<D extends StateTableData, E extends StateEvent>
+        implements StateTableControl<E>, Closeable {
+
+    /** Logger for this class */
+    private static final Logger LOGGER = LoggerFactory.getLogger(PartitionedStateTableControl.class);
+
+    /** The default thread group name when a thread group is not provided in the constructor */
+    private static final String DEFAULT_THREAD_GROUP_NAME = "partitioned-state-table";
+
+    /** Counts the number of instances of this class to use in the names of the lane threads */
+    private static final AtomicInteger instance_count = new AtomicInteger(0);
+
+    /** The state table engine that processes events */
+    private final StateEngine<D, E> engine;
+
+    /** The state table instance */
+    private final StateTable<D, E> stateTblInstance;
+
+    /** Returns the key of the state table instance for an event */
+    private final Function<E, ?> keyFunction;
+
+    /** Masks a spread key hash to a partition index */
+    private final int partitionMask;
+
+    /** The partitions */
+    private final Partition[] partitions;
+
+    /** The lanes */
+    private final Lane[] lanes;
+
+    /** The number of each partition's events signaled and not yet processed */
+    private final AtomicIntegerArray queueDepths;
+
+    /** The number of each partition's events processed */
+    private final AtomicLongArray processedCounts;
+
+    /** The total time spent processing each partition's events */
+    private final AtomicLongArray processingNanos;
+
+    /** The number of completed migrations */
+    private final AtomicLong migrationCount;
+
+    /** The number of events held for migrating partitions that were rejected when the control stopped */
+    private final AtomicLong rejectedCount;
+
+    /** Set to <code>true</code> when the control is stopping */
+    private volatile boolean stopping = false;
+
+    /**
+     * Construct the control.  Partitions are assigned to lanes round robin to start.
+     *
+     * @param stateTblInstance the state table with a data manager that holds the data for each key
+     * @param keyFunction returns the key of the state table instance for an event
+     * @param laneCount the number of lanes, each with its own thread
+     * @param partitionCount the number of key ranges that may be moved between lanes, rounded up to a power of two and
+     *                       no smaller than the lane count
+     * @param threadGroup the optional thread group for the lane threads
+     * @param idleStrategies creates the strategy each lane uses to wait when its queue is empty, called once for each
+     *                       lane since strategies may keep the state of a single thread
+     * @throws StateDefException thrown when the lane or partition count is out of range
+     */
+    public PartitionedStateTableControl(
+            @NotNull final StateTable<D, E> stateTblInstance,
+            @NotNull final Function<E, ?> keyFunction,
+            final int laneCount,
+            final int partitionCount,
+            @Nullable final ThreadGroup threadGroup,
+            @NotNull final Supplier<? extends IdleStrategy> idleStrategies) {
+        this.stateTblInstance = checkNotNull(stateTblInstance, "stateTblInstance must not be null");
+        this.keyFunction = checkNotNull(keyFunction, "keyFunction must not be null");
+        checkNotNull(idleStrategies, "idleStrategies must not be null");
+        if (laneCount < 1 || laneCount > 1024) {
+            throw new StateDefException("The lane count must be between 1 and 1024");
+        }
+        if (partitionCount < laneCount || partitionCount > (1 << 20)) {
+            throw new StateDefException("The partition count must be between the lane count and " + (1 << 20));
+        }
+        final int partitionTotal = (partitionCount == 1) ? 1 : Integer.highestOneBit(partitionCount - 1) << 1;
+        this.engine = new StateEngine<>();
+        this.partitionMask = partitionTotal - 1;
+        this.partitions = new Partition[partitionTotal];
+        for (int i = 0; i < partitionTotal; i++) {
+            partitions[i] = new Partition(i % laneCount);
+        }
+        final ThreadGroup threadGrp = (null == threadGroup)
+                ? new ThreadGroup(DEFAULT_THREAD_GROUP_NAME)
+                : threadGroup;
+        final String threadPrefix = threadGrp.getName() + '-' + instance_count.incrementAndGet() + '-';
+        this.lanes = new Lane[laneCount];
+        for (int i = 0; i < laneCount; i++) {
+            final IdleStrategy idleStrategy = checkNotNull(idleStrategies.get(), "idle strategy must not be null");
+            lanes[i] = new Lane(threadGrp, threadPrefix + i, idleStrategy, this::processLane);
+        }
+        this.queueDepths = new AtomicIntegerArray(partitionTotal);
+        this.processedCounts = new AtomicLongArray(partitionTotal);
+        this.processingNanos = new AtomicLongArray(partitionTotal);
+        this.migrationCount = new AtomicLong();
+        this.rejectedCount = new AtomicLong();
+    }
+
+    /**
+     * Construct the control with lanes that block on their empty queues.  Partitions are assigned to lanes round robin
+     * to start.
+     *
+     * @param stateTblInstance the state table with a data manager that holds the data for each key
+     * @param keyFunction returns the key of the state table instance for an event
+     * @param laneCount the number of lanes, each with its own thread
+     * @param partitionCount the number of key ranges that may be moved between lanes, rounded up to a power of two and
+     *                       no smaller than the lane count
+     * @param threadGroup the optional thread group for the lane threads
+     * @throws StateDefException thrown when the lane or partition count is out of range
+     */
+    public PartitionedStateTableControl(
+            @NotNull final StateTable<D, E> stateTblInstance,
+            @NotNull final Function<E, ?> keyFunction,
+            final int laneCount,
+            final int partitionCount,
+            @Nullable final ThreadGroup threadGroup) {
+        this(stateTblInstance, keyFunction, laneCount, partitionCount, threadGroup, () -> BlockingIdleStrategy.INSTANCE);
+    }
+
+    /**
+     * Construct the control with 64 partitions per lane.
+     *
+     * @param stateTblInstance the state table with a data manager that holds the data for each key
+     * @param keyFunction returns the key of the state table instance for an event
+     * @param laneCount the number of lanes, each with its own thread
+     */
+    public PartitionedStateTableControl(
+            @NotNull final StateTable<D, E> stateTblInstance,
+            @NotNull final Function<E, ?> keyFunction,
+            final int laneCount) {
+        this(stateTblInstance, keyFunction, laneCount, laneCount * 64, null);
+    }
+
+    /** @return the number of lanes */
+    public int getLaneCount() {
+        return lanes.length;
+    }
+
+    /** @return the number of partitions */
+    public int getPartitionCount() {
+        return partitions.length;
+    }
+
+    /**
+     * Returns the partition holding the key of the event.
+     *
+     * @param event the event
+     * @return the index of the partition holding the key of the event
+     * @throws StateExeException thrown when the key function returns <code>null</code> for the event
+     */
+    public int getPartition(@NotNull final E event) throws StateExeException {
+        final Object key = keyFunction.apply(checkNotNull(event, "event must not be null"));
+        if (null == key) {
+            throw new StateExeException("No state table instance key for the event, '" + event.getName() + "'");
+        }
+        final int hash = key.hashCode();
+        return (hash ^ (hash >>> 16)) & partitionMask;
+    }
+
+    /**
+     * Returns the lane processing the partition's events.  During a migration this is the old lane until the
+     * handover completes.
+     *
+     * @param partition the index of the partition
+     * @return the index of the lane processing the partition's events
+     */
+    public int getLane(final int partition) {
+        final Partition part = partitions[partition];
+        synchronized (part) {
+            return part.lane;
+        }
+    }
+
+    /**
+     * Returns <code>true</code> when the partition is waiting for its old lane to reach the handover point.
+     *
+     * @param partition the index of the partition
+     * @return <code>true</code> when the partition is being moved to another lane
+     */
+    public boolean isMigrating(final int partition) {
+        final Partition part = partitions[partition];
+        synchronized (part) {
+            return null != part.held;
+        }
+    }
+
+    /**
+     * Returns the number of events waiting in the lane's queue.
+     *
+     * @param lane the index of the lane
+     * @return the number of events waiting in the lane's queue
+     */
+    public int getQueueDepth(final int lane) {
+        return lanes[lane].queue.size();
+    }
+
+    /** @return the number of completed migrations */
+    public long getMigrationCount() {
+        return migrationCount.get();
+    }
+
+    /** @return the number of events held for migrating partitions that were rejected when the control stopped */
+    public long getRejectedCount() {
+        return rejectedCount.get();
+    }
+
+    /** @return a snapshot of the load on each partition */
+    @NotNull
+    public List<PartitionStatistics> getPartitionStatistics() {
+        final List<PartitionStatistics> statistics = new ArrayList<>(partitions.length);
+        for (int partition = 0; partition < partitions.length; partition++) {
+            statistics.add(new PartitionStatistics(
+                    partition,
+                    getLane(partition),
+                    queueDepths.get(partition),
+                    processedCounts.get(partition),
+                    processingNanos.get(partition)));
+        }
+        return statistics;
+    }
+
+    /**
+     * Starts moving the partition to another lane.  The move completes asynchronously once the old lane has processed
+     * the events already queued for the partition.
+     *
+     * @param partition the index of the partition to move
+     * @param targetLane the index of the lane to receive the partition
+     * @return <code>true</code> when the move started or <code>false</code> when the partition is already on the target
+     * lane or is being moved
+     */
+    public boolean migratePartition(final int partition, final int targetLane) {
+        if (partition < 0 || partition >= partitions.length) {
+            throw new IllegalArgumentException("No partition " + partition);
+        }
+        if (targetLane < 0 || targetLane >= lanes.length) {
+            throw new IllegalArgumentException("No lane " + targetLane);
+        }
+        final Partition part = partitions[partition];
+        synchronized (part) {
+            if (part.lane == targetLane || null != part.held) {
+                return false;
+            }
+            part.held = new ArrayDeque<>();
+            lanes[part.lane].queue.add(new Handover(partition, targetLane));
+        }
+        return true;
+    }
+
+    //
+    // Closeable Interface
+    //
+
+    @Override
+    public void close() throws IOException {
+        stop();
+    }
+
+    //
+    // StateTableControl Interface
+    //
+
+    @Override
+    public void start() throws StateExeException {
+        try {
+            stateTblInstance.getStateTableDataManager().initializeStateTableData();
+        } catch (Exception exc) {
+            final String name = stateTblInstance.getStateTableName();
+            throw new StateExeException("Error initializing state table history for state table, " + name);
+        }
+        for (final Lane lane : lanes) {
+            lane.thread.start();
+        }
+    }
+
+    /** Stops the lanes and rejects the events held for partitions being moved */
+    @Override
+    public void stop() throws StateExeException {
+        stopping = true;
+        for (final Lane lane : lanes) {
+            lane.thread.interrupt();
+        }
+        long rejected = 0L;
+        for (int partition = 0; partition < partitions.length; partition++) {
+            final Partition part = partitions[partition];
+            synchronized (part) {
+                if (null != part.held) {
+                    final int heldCount = part.held.size();
+                    queueDepths.addAndGet(partition, -heldCount);
+                    rejected += heldCount;
+                    part.held = null;
+                }
+            }
+        }
+        if (rejected > 0L) {
+            rejectedCount.addAndGet(rejected);
+            LOGGER.warn("Rejected {} events held for partitions being moved when the control stopped", rejected);
+        }
+    }
+
+    @Override
+    public void signalEvent(@NotNull final E event) throws StateExeException {
+        final int partition = getPartition(event);
+        final Partition part = partitions[partition];
+        final PartitionEvent<E> entry = new PartitionEvent<>(partition, event);
+        synchronized (part) {
+            // Checked while holding the partition so stop() sees every held event
+            if (stopping || !lanes[part.lane].thread.isAlive()) {
+                throw new StateExeException(SingleThreadConsumerStateTableControl.MSG_STATE_TABLE_SHUT_DOWN);
+            }
+            queueDepths.incrementAndGet(partition);
+            if (null == part.held) {
+                lanes[part.lane].queue.add(entry);
+            } else {
+                part.held.addLast(entry);
+            }
+        }
+    }
+
+    /** Assigns the partition to its new lane and releases the events held during the migration to it in order */
+    private void completeHandover(final Handover handover) {
+        final Partition part = partitions[handover.partition];
+        synchronized (part) {
+            final LinkedBlockingQueue<Object> targetQueue = lanes[handover.targetLane].queue;
+            final ArrayDeque<Object> held = part.held;
+            part.lane = handover.targetLane;
+            part.held = null;
+            targetQueue.addAll(held);
+        }
+        migrationCount.incrementAndGet();
+        LOGGER.debug("Moved partition {} to lane {}", handover.partition, handover.targetLane);
+    }
+
+    /** The method run from within each lane thread that processes the lane's queue until the control stops */
+    private void processLane(final Lane lane) {
+        final LinkedBlockingQueue<Object> queue = lane.queue;
+        while (!stopping) {
+            Object entry = null;
+            try {
+                entry = queue.poll();
+                if (null == entry) {
+                    entry = lane.idleStrategy.take(queue);
+                }
+                if (entry instanceof Handover) {
+                    completeHandover((Handover) entry);
+                } else {
+                    processEvent(entry);
+                }
+            } catch (final InterruptedException exc) {
+                LOGGER.info("State Table lane thread interrupted");
+            } catch (final Exception exc) {
+                LOGGER.error("Error processing event " + entry, exc);
+            }
+        }
+        LOGGER.info("State Table lane thread has stopped.");
+    }
+
+    /** Processes one event on a lane thread and records the time it took */
+    @SuppressWarnings("unchecked")
+    private void processEvent(final Object entry) {
+        final PartitionEvent<E> partitionEvent = (PartitionEvent<E>) entry;
+        final int partition = partitionEvent.partition;
+        queueDepths.decrementAndGet(partition);
+        final long startNanos = System.nanoTime();
+        try {
+            engine.processEvent(stateTblInstance, this, partitionEvent.event);
+        } finally {
+            processingNanos.addAndGet(partition, System.nanoTime() - startNanos);
+            processedCounts.incrementAndGet(partition);
+        }
+    }
+
+    /** A key range and the lane processing its events */
+    private static final class Partition {
+
+        /** The index of the lane processing the partition's events */
+        private int lane;
+
+        /** The events held while the partition is being moved or <code>null</code> when it is not */
+        private ArrayDeque<Object> held;
+
+        private Partition(final int lane) {
+            this.lane = lane;
+        }
+    }
+
+    /** An event queued with the partition of its key so the key function is applied once per event */
+    private static final class PartitionEvent<E> {
+
+        /** The index of the partition holding the key of the event */
+        private final int partition;
+
+        /** The event */
+        private final E event;
+
+        private PartitionEvent(final int partition, final E event) {
+            this.partition = partition;
+            this.event = event;
+        }
+
+        @Override
+        public String toString() {
+            return String.valueOf(event);
+        }
+    }
+
+    /** Marks the point in the old lane's queue after which the partition belongs to the new lane */
+    private static final class Handover {
+
+        /** The index of the partition being moved */
+        private final int partition;
+
+        /** The index of the lane receiving the partition */
+        private final int targetLane;
+
+        private Handover(final int partition, final int targetLane) {
+            this.partition = partition;
+            this.targetLane = targetLane;
+        }
+    }
+
+    /** A thread and the queue of events and handovers it processes in order */
+    private static final class Lane {
+
+        /** The events and handovers for the lane */
+        private final LinkedBlockingQueue<Object> queue;
+
+        /** Determines how the thread waits when the queue is empty */
+        private final IdleStrategy idleStrategy;
+
+        /** The thread processing the queue */
+        private final Thread thread;
+
+        private Lane(
+                final ThreadGroup threadGroup,
+                final String threadName,
+                final IdleStrategy idleStrategy,
+                final Consumer<Lane> processor) {
+            this.queue = new LinkedBlockingQueue<>();
+            this.idleStrategy = idleStrategy;
+            this.thread = new Thread(threadGroup, () -> processor.accept(this), threadName);
+            this.thread.setDaemon(true); // do not prevent the process from shutting down
+        }
+    }
+}
@@ -55,6 +55,14 @@ public class SerialStateTableControl<D extends StateTableData, E extends StateEv
         queue.addLast(event);
     }
 
+    /**
+     * Discards any events queued but not yet processed, such as those left behind when an actor failed part way
+     * through a chain of queued events.  This lets the control be reused for another run of the same table.
+     */
+    public void clear() {
+        queue.clear();
+    }
+
     //
     // StateTableControl
     //
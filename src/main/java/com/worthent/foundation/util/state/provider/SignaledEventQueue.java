@@ -0,0 +1,67 @@
+/*
+ * Copyright 2000-2016 Worth Enterprises, Inc.  All Rights Reserved.
+ */
+package com.worthent.foundation.util.state.provider;
+
+import com.worthent.foundation.util.annotation.NotNull;
+import com.worthent.foundation.util.state.StateEvent;
+import com.worthent.foundation.util.state.StateExeException;
+
+import java.util.ArrayDeque;
+
+/**
+ * Holds the events signaled by actors on a thread that is already processing an event for the controls that process
+ * events on the signaling thread. The outermost call to {@link #signal} processes its event and then each event
+ * signaled while processing it, in order, instead of recursing into the state table from inside a transition.
+ *
+ * @param <E> the type of event
+ *
+ * @author Erik K. Worth
+ */
+final class SignaledEventQueue<E extends StateEvent> {
+
+    /** Processes one event taken from the queue */
+    @FunctionalInterface
+    interface EventProcessor<E extends StateEvent> {
+
+        /**
+         * Processes the event.
+         *
+         * @param event the event to process
+         * @param queue the queue holding the events signaled by actors on this thread, which the processor may trim to
+         *              discard the events signaled by a transition it rolls back
+         * @throws StateExeException thrown when there is an error processing the event
+         */
+        void processEvent(@NotNull E event, @NotNull ArrayDeque<E> queue) throws StateExeException;
+    }
+
+    /** The events signaled by actors on the thread processing an event */
+    private final ThreadLocal<ArrayDeque<E>> signaledEvents = new ThreadLocal<>();
+
+    /**
+     * Processes the event and the events signaled while processing it or, when the calling thread is already
+     * processing an event, queues the event to be processed after the current one.
+     *
+     * @param event the event signaled
+     * @param processor processes each event
+     * @throws StateExeException thrown when there is an error processing an event
+     */
+    void signal(@NotNull final E event, @NotNull final EventProcessor<E> processor) throws StateExeException {
+        final ArrayDeque<E> pending = signaledEvents.get();
+        if (null != pending) {
+            // An actor is signaling an event while this thread processes another one
+            pending.addLast(event);
+            return;
+        }
+        final ArrayDeque<E> queue = new ArrayDeque<>();
+        signaledEvents.set(queue);
+        try {
+            queue.addLast(event);
+            while (!queue.isEmpty()) {
+                processor.processEvent(queue.removeFirst(), queue);
+            }
+        } finally {
+            signaledEvents.remove();
+        }
+    }
+}
@@ -21,6 +21,12 @@ import static com.worthent.foundation.util.condition.Preconditions.checkNotNull;
 /**
  * Implements the {@link StateTableControl} interface to provide a single-threaded implementation of the state table.
  * The state table transition actions are all conducted asynchronously on the same single thread in the order they arrive.
+ * <p>
+ * The {@link IdleStrategy} determines how the thread waits when the queue is empty.  The default blocks on the queue,
+ * which costs no CPU but makes each event that arrives while the thread is idle pay for waking the thread.  A
+ * {@link BackoffIdleStrategy} or {@link AdaptiveIdleStrategy} spins before parking to pick up such events sooner.  The
+ * control measures the time from signaling an event to the thread taking it off the queue for each event that found
+ * the thread idle and reports it as the wake-up latency.
  *
  * @author Erik K. Worth
  */
@@ -48,6 +54,24 @@ public class SingleThreadConsumerStateTableControl<D extends StateTableData, E e
     /** The event queue */
     private final LinkedBlockingDeque<E> eventQueue;
 
+    /** Determines how the thread waits when the queue is empty */
+    private final IdleStrategy idleStrategy;
+
+    /** Set while the thread is waiting for an event on an empty queue */
+    private volatile boolean waiting = false;
+
+    /** The time the last event was signaled while the thread was waiting */
+    private volatile long lastSignalNanos;
+
+    /** The number of events that found the thread waiting */
+    private volatile long wakeupCount;
+
+    /** The total wake-up latency of the events that found the thread waiting */
+    private volatile long wakeupTotalNanos;
+
+    /** The largest wake-up latency of an event that found the thread waiting */
+    private volatile long wakeupMaxNanos;
+
     /** Set to <code>true</code> when the state table is stopping */
     private volatile boolean stopping = false;
 
@@ -55,14 +79,17 @@ public class SingleThreadConsumerStateTableControl<D extends StateTableData, E e
     private Thread thread;
 
     /**
-     * Construct with the state table instance and an optional thread group for the single thread.
+     * Construct with the state table instance, an optional thread group for the single thread and the strategy for
+     * waiting on an empty queue.
      *
      * @param stateTblInstance the state table to be fed events from the single thread in the order the events are signaled
      * @param threadGroup the optional thread group
+     * @param idleStrategy determines how the thread waits when the queue is empty
      */
     public SingleThreadConsumerStateTableControl(
             @NotNull final StateTable<D, E> stateTblInstance,
-            @Nullable final ThreadGroup threadGroup) {
+            @Nullable final ThreadGroup threadGroup,
+            @NotNull final IdleStrategy idleStrategy) {
         final ThreadGroup threadGrp = (null == threadGroup)
                 ? new ThreadGroup(DEFAULT_THREAD_GROUP_NAME)
                 : threadGroup;
@@ -74,6 +101,20 @@ public class SingleThreadConsumerStateTableControl<D extends StateTableData, E e
                 threadGrp.getName() + '-' + instance_count.incrementAndGet());
         this.thread.setDaemon(true); // do not prevent the process from shutting down
         this.eventQueue = new LinkedBlockingDeque<>();
+        this.idleStrategy = checkNotNull(idleStrategy, "idleStrategy must not be null");
+    }
+
+    /**
+     * Construct with the state table instance and an optional thread group for the single thread.  The thread blocks
+     * on the queue when it is empty.
+     *
+     * @param stateTblInstance the state table to be fed events from the single thread in the order the events are signaled
+     * @param threadGroup the optional thread group
+     */
+    public SingleThreadConsumerStateTableControl(
+            @NotNull final StateTable<D, E> stateTblInstance,
+            @Nullable final ThreadGroup threadGroup) {
+        this(stateTblInstance, threadGroup, BlockingIdleStrategy.INSTANCE);
     }
 
     /**
@@ -85,6 +126,28 @@ public class SingleThreadConsumerStateTableControl<D extends StateTableData, E e
         this(stateTblInstance, null);
     }
 
+    /** @return the strategy that determines how the thread waits when the queue is empty */
+    @NotNull
+    public IdleStrategy getIdleStrategy() {
+        return idleStrategy;
+    }
+
+    /** @return the number of events that found the thread waiting on an empty queue */
+    public long getWakeupCount() {
+        return wakeupCount;
+    }
+
+    /** @return the mean time from signaling an event that found the thread waiting to the thread taking it */
+    public long getMeanWakeupNanos() {
+        final long count = wakeupCount;
+        return (0L == count) ? 0L : wakeupTotalNanos / count;
+    }
+
+    /** @return the largest time from signaling an event that found the thread waiting to the thread taking it */
+    public long getMaxWakeupNanos() {
+        return wakeupMaxNanos;
+    }
+
     //
     // Closeable Interface
     //
@@ -121,6 +184,9 @@ public class SingleThreadConsumerStateTableControl<D extends StateTableData, E e
         if (!thread.isAlive()) {
             throw new StateExeException(MSG_STATE_TABLE_SHUT_DOWN);
         }
+        if (waiting) {
+            lastSignalNanos = System.nanoTime();
+        }
         eventQueue.add(event);
     }
 
@@ -142,7 +208,10 @@ public class SingleThreadConsumerStateTableControl<D extends StateTableData, E e
         while (!stopping) {
             E event = null;
             try {
-                event = eventQueue.take();
+                event = eventQueue.poll();
+                if (null == event) {
+                    event = awaitEvent();
+                }
                 if (null != event) {
                     LOGGER.debug("Process event: {}", event);
                     engine.processEvent(stateTblInstance, this, event);
@@ -156,4 +225,27 @@ public class SingleThreadConsumerStateTableControl<D extends StateTableData, E e
         LOGGER.info("State Table thread has stopped.");
     }
 
+    /** Waits for an event on the empty queue and records the wake-up latency */
+    private E awaitEvent() throws InterruptedException {
+        final long waitStartNanos = System.nanoTime();
+        waiting = true;
+        final E event;
+        try {
+            event = idleStrategy.take(eventQueue);
+        } finally {
+            waiting = false;
+        }
+        final long signalNanos = lastSignalNanos;
+        // An event signaled just before the thread started waiting carries no signal time, so skip it
+        if (signalNanos - waitStartNanos >= 0L) {
+            final long latencyNanos = System.nanoTime() - signalNanos;
+            wakeupTotalNanos += latencyNanos;
+            wakeupCount++;
+            if (latencyNanos > wakeupMaxNanos) {
+                wakeupMaxNanos = latencyNanos;
+            }
+        }
+        return event;
+    }
+
 }
@@ -0,0 +1,43 @@
+/*
+ * Copyright 2000-2016 Worth Enterprises, Inc.  All Rights Reserved.
+ */
+package com.worthent.foundation.util.state.provider;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+
+/**
+ * Hints to the processor that the thread is spinning, using <code>Thread.onSpinWait</code> when the runtime provides
+ * it (Java 9 and later) and doing nothing on Java 8.
+ *
+ * @author Erik K. Worth
+ */
+final class SpinWait {
+
+    /** Invokes <code>Thread.onSpinWait</code> or <code>null</code> when the runtime does not provide it */
+    private static final MethodHandle ON_SPIN_WAIT = findOnSpinWait();
+
+    /** Hide the constructor for this static helper */
+    private SpinWait() {}
+
+    /** Hints to the processor that the thread is spinning */
+    static void onSpinWait() {
+        if (null != ON_SPIN_WAIT) {
+            try {
+                ON_SPIN_WAIT.invokeExact();
+            } catch (final Throwable exc) {
+                // Only a hint, so there is nothing to do
+            }
+        }
+    }
+
+    /** Returns the handle for <code>Thread.onSpinWait</code> or <code>null</code> when not available */
+    private static MethodHandle findOnSpinWait() {
+        try {
+            return MethodHandles.lookup().findStatic(Thread.class, "onSpinWait", MethodType.methodType(void.class));
+        } catch (final NoSuchMethodException | IllegalAccessException exc) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,369 @@
+/*
+ * Copyright 2000-2016 Worth Enterprises, Inc.  All Rights Reserved.
+ */
+package com.worthent.foundation.util.state.provider;
+
+import com.worthent.foundation.util.annotation.NotNull;
+import com.worthent.foundation.util.state.StateEvent;
+import com.worthent.foundation.util.state.StateExeException;
+import com.worthent.foundation.util.state.StateTableControl;
+import com.worthent.foundation.util.state.TransitionActor;
+import com.worthent.foundation.util.state.def.StateDef;
+import com.worthent.foundation.util.state.def.StateTableDef;
+import com.worthent.foundation.util.state.def.StateTransitionDef;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+import static com.worthent.foundation.util.condition.Preconditions.checkNotNull;
+
+/**
+ * Broadcasts events to many state tables, delivering each event only to the tables whose current state has a
+ * transition that does work for it.  When a table is registered, the bus examines each of its state definitions to find
+ * the events that can cause work in that state.  A transition does no work when it has no actors and stays in the
+ * current state, like the one from {@link com.worthent.foundation.util.state.def.StateTransitionDefs#getNoActionDefaultTransition}.
+ * The bus keeps an index from event name to the tables currently interested in it and moves each table in the index
+ * as its state changes.  Each event is delivered to the interested tables in the order they were registered.
+ * <p>
+ * The bus learns the current state of each table from the state probe provided at registration.  It refreshes the
+ * table's position in the index after each delivery, which is enough for controls that process the event before
+ * {@link StateTableControl#signalEvent} returns.  When a table changes state some other way, such as on the consumer
+ * thread of a queuing control or from an event signaled directly to its control, call {@link Registration#refresh}.
+ * <p>
+ * Events the bus does not deliver never reach the table, so its transitioner is not invoked and its prior state is not
+ * updated for them.  Default transitions that reject unexpected events are treated as having no interest unless the
+ * bus is constructed to route unexpected events.
+ *
+ * @author Erik K. Worth
+ */
+public class StateTableEventBus<E extends StateEvent> {
+
+    /** Logger for this class */
+    private static final Logger LOGGER = LoggerFactory.getLogger(StateTableEventBus.class);
+
+    /** Orders the registrations in the index by the order they were registered */
+    private static final Comparator<Registration<?>> REGISTRATION_ORDER =
+            Comparator.comparingLong(registration -> registration.sequence);
+
+    /** When <code>true</code>, events rejected by default transitions are still delivered */
+    private final boolean routeUnexpectedEvents;
+
+    /** The registrations currently interested in each event name */
+    private final ConcurrentHashMap<String, Set<Registration<E>>> interestedByEvent;
+
+    /** The registrations currently interested in every event */
+    private final Set<Registration<E>> interestedInAll;
+
+    /** The registered tables */
+    private final Set<Registration<E>> registrations;
+
+    /** Numbers the registrations in the order they are registered */
+    private final AtomicLong registrationSequence;
+
+    /** The number of times an event was delivered to a table */
+    private final AtomicLong deliveredCount;
+
+    /** The number of times an event was not delivered to a registered table because it had no interest */
+    private final AtomicLong skippedCount;
+
+    /** Construct a bus that does not deliver events rejected by default transitions */
+    public StateTableEventBus() {
+        this(false);
+    }
+
+    /**
+     * Construct the bus.
+     *
+     * @param routeUnexpectedEvents when <code>true</code>, events rejected by a state's default transition are still
+     *                              delivered so the table can report them as errors
+     */
+    public StateTableEventBus(final boolean routeUnexpectedEvents) {
+        this.routeUnexpectedEvents = routeUnexpectedEvents;
+        this.interestedByEvent = new ConcurrentHashMap<>();
+        this.interestedInAll = new ConcurrentSkipListSet<>(REGISTRATION_ORDER);
+        this.registrations = ConcurrentHashMap.newKeySet();
+        this.registrationSequence = new AtomicLong();
+        this.deliveredCount = new AtomicLong();
+        this.skippedCount = new AtomicLong();
+    }
+
+    /**
+     * Registers a table with the bus.
+     *
+     * @param tableDef the definition of the table, which is examined to find the events of interest in each state
+     * @param control the control receiving the events delivered to the table, which must already be started
+     * @param stateProbe returns the current state of the table
+     * @return the registration used to refresh the table's position in the index or unregister it
+     */
+    @NotNull
+    public Registration<E> register(
+            @NotNull final StateTableDef<?, E> tableDef,
+            @NotNull final StateTableControl<E> control,
+            @NotNull final Supplier<String> stateProbe) {
+        checkNotNull(tableDef, "tableDef must not be null");
+        checkNotNull(control, "control must not be null");
+        checkNotNull(stateProbe, "stateProbe must not be null");
+        final Map<String, StateInterest> interestByState = new HashMap<>();
+        for (final StateDef<?, E> state : tableDef.getStates()) {
+            interestByState.put(state.getName(), getInterest(state));
+        }
+        final Registration<E> registration = new Registration<>(this, registrationSequence.incrementAndGet(),
+                tableDef.getName(), control, stateProbe, Collections.unmodifiableMap(interestByState));
+        registrations.add(registration);
+        registration.refresh();
+        return registration;
+    }
+
+    /**
+     * Delivers the event to each registered table whose current state has interest in it, in the order the tables
+     * were registered.  An error from one table does not stop delivery to the others.
+     *
+     * @param event the event to deliver
+     * @return the number of tables that received the event
+     * @throws StateExeException thrown after delivering to the other tables when any table fails to process the event
+     */
+    public int publish(@NotNull final E event) throws StateExeException {
+        checkNotNull(event, "event must not be null");
+        final Set<Registration<E>> byEvent = interestedByEvent.get(event.getName());
+        final Iterator<Registration<E>> allIterator = interestedInAll.iterator();
+        final Iterator<Registration<E>> byEventIterator =
+                (null == byEvent) ? Collections.<Registration<E>>emptyIterator() : byEvent.iterator();
+        Registration<E> nextAll = nextOrNull(allIterator);
+        Registration<E> nextByEvent = nextOrNull(byEventIterator);
+        long lastSequence = 0L;
+        int targetCount = 0;
+        StateExeException firstError = null;
+        int errorCount = 0;
+        // Merge the two sets, which are both in registration order, delivering once to a table found in both
+        while (null != nextAll || null != nextByEvent) {
+            final Registration<E> registration;
+            if (null == nextByEvent || (null != nextAll && nextAll.sequence <= nextByEvent.sequence)) {
+                registration = nextAll;
+                nextAll = nextOrNull(allIterator);
+            } else {
+                registration = nextByEvent;
+                nextByEvent = nextOrNull(byEventIterator);
+            }
+            if (registration.sequence <= lastSequence) {
+                // Already delivered, or moved to the other set by the refresh after its delivery
+                continue;
+            }
+            lastSequence = registration.sequence;
+            targetCount++;
+            try {
+                registration.control.signalEvent(event);
+            } catch (final StateExeException exc) {
+                errorCount++;
+                if (null == firstError) {
+                    firstError = exc;
+                }
+                LOGGER.debug("The table, {}, failed to process the event, {}", registration.tableName,
+                        event.getName(), exc);
+            } finally {
+                registration.refresh();
+            }
+        }
+        deliveredCount.addAndGet(targetCount);
+        skippedCount.addAndGet(Math.max(0, registrations.size() - targetCount));
+        if (null != firstError) {
+            throw new StateExeException(errorCount + " of " + targetCount +
+                    " tables failed to process the event, '" + event.getName() + "'", firstError);
+        }
+        return targetCount;
+    }
+
+    /** Returns the next registration from the iterator or <code>null</code> when there are no more */
+    private static <E extends StateEvent> Registration<E> nextOrNull(final Iterator<Registration<E>> iterator) {
+        return iterator.hasNext() ? iterator.next() : null;
+    }
+
+    /** @return the number of registered tables */
+    public int getRegistrationCount() {
+        return registrations.size();
+    }
+
+    /** @return the number of times an event was delivered to a table */
+    public long getDeliveredCount() {
+        return deliveredCount.get();
+    }
+
+    /** @return the number of times an event was not delivered to a registered table because it had no interest */
+    public long getSkippedCount() {
+        return skippedCount.get();
+    }
+
+    /** Returns the events that can cause work in the state */
+    private StateInterest getInterest(final StateDef<?, E> state) {
+        final Set<String> eventNames = new HashSet<>();
+        for (final StateTransitionDef<?, E> transition : state.getTransitions()) {
+            if (doesWork(transition, state.getName())) {
+                eventNames.add(transition.getEventName());
+            }
+        }
+        final StateTransitionDef<?, E> defaultTransition = state.getDefaultTransition();
+        final boolean allEvents = doesWork(defaultTransition, state.getName()) &&
+                (routeUnexpectedEvents || !rejectsEvent(defaultTransition));
+        return new StateInterest(Collections.unmodifiableSet(eventNames), allEvents);
+    }
+
+    /** Returns <code>true</code> when the transition has actors or changes the state */
+    private static boolean doesWork(final StateTransitionDef<?, ?> transition, final String stateName) {
+        if (null == transition) {
+            return false;
+        }
+        final String targetState = transition.getTargetStateName();
+        return !transition.getActors().isEmpty() ||
+                !(StateDef.STAY_IN_STATE.equals(targetState) || stateName.equals(targetState));
+    }
+
+    /** Returns <code>true</code> when the transition has actors and each one rejects the event as unexpected */
+    private static boolean rejectsEvent(final StateTransitionDef<?, ?> transition) {
+        if (transition.getActors().isEmpty()) {
+            return false;
+        }
+        for (final TransitionActor<?, ?> actor : transition.getActors()) {
+            if (!(actor instanceof UnexpectedEventActor)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /** Moves the registration from the index entries for its old interest to the entries for its new interest */
+    private void reindex(final Registration<E> registration, final StateInterest from, final StateInterest to) {
+        if (null != from) {
+            if (from.allEvents) {
+                interestedInAll.remove(registration);
+            }
+            for (final String eventName : from.eventNames) {
+                final Set<Registration<E>> interested = interestedByEvent.get(eventName);
+                if (null != interested) {
+                    interested.remove(registration);
+                }
+            }
+        }
+        if (null != to) {
+            if (to.allEvents) {
+                interestedInAll.add(registration);
+            }
+            for (final String eventName : to.eventNames) {
+                interestedByEvent.computeIfAbsent(eventName, k -> new ConcurrentSkipListSet<>(REGISTRATION_ORDER))
+                        .add(registration);
+            }
+        }
+    }
+
+    /** The events that can cause work in a state */
+    private static final class StateInterest {
+
+        /** The names of the events with transitions that do work */
+        private final Set<String> eventNames;
+
+        /** Set when the default transition does work so every event is of interest */
+        private final boolean allEvents;
+
+        private StateInterest(final Set<String> eventNames, final boolean allEvents) {
+            this.eventNames = eventNames;
+            this.allEvents = allEvents;
+        }
+    }
+
+    /**
+     * A table registered with the bus.
+     *
+     * @param <E> the type of event
+     */
+    public static final class Registration<E extends StateEvent> {
+
+        /** The bus holding this registration */
+        private final StateTableEventBus<E> bus;
+
+        /** The order of the registration on the bus */
+        private final long sequence;
+
+        /** The name of the registered table */
+        private final String tableName;
+
+        /** The control receiving the events delivered to the table */
+        private final StateTableControl<E> control;
+
+        /** Returns the current state of the table */
+        private final Supplier<String> stateProbe;
+
+        /** The events of interest in each state */
+        private final Map<String, StateInterest> interestByState;
+
+        /** The state of the table when the index was last refreshed */
+        private String indexedState;
+
+        /** The interest of the table in its indexed state or <code>null</code> when not indexed */
+        private StateInterest indexedInterest;
+
+        /** Set once the table is unregistered */
+        private boolean unregistered;
+
+        private Registration(
+                final StateTableEventBus<E> bus,
+                final long sequence,
+                final String tableName,
+                final StateTableControl<E> control,
+                final Supplier<String> stateProbe,
+                final Map<String, StateInterest> interestByState) {
+            this.bus = bus;
+            this.sequence = sequence;
+            this.tableName = tableName;
+            this.control = control;
+            this.stateProbe = stateProbe;
+            this.interestByState = interestByState;
+        }
+
+        /** @return the state of the table when the index was last refreshed */
+        public synchronized String getIndexedState() {
+            return indexedState;
+        }
+
+        /**
+         * Reads the current state of the table and moves it in the index when the state has changed.  A table in a
+         * state the definition does not know about is indexed as having no interest.
+         */
+        public synchronized void refresh() {
+            if (unregistered) {
+                return;
+            }
+            final String currentState = stateProbe.get();
+            if (null != indexedInterest && null != currentState && currentState.equals(indexedState)) {
+                return;
+            }
+            final StateInterest interest = (null == currentState) ? null : interestByState.get(currentState);
+            bus.reindex(this, indexedInterest, interest);
+            indexedState = currentState;
+            indexedInterest = interest;
+        }
+
+        /** Removes the table from the bus so it receives no more events */
+        public synchronized void unregister() {
+            if (!unregistered) {
+                unregistered = true;
+                bus.reindex(this, indexedInterest, null);
+                indexedInterest = null;
+                bus.registrations.remove(this);
+            }
+        }
+
+        @Override
+        public String toString() {
+            return tableName + "[" + indexedState + "]";
+        }
+    }
+}
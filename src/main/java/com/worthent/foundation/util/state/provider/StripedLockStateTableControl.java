@@ -0,0 +1,117 @@
+/*
+ * Copyright 2000-2016 Worth Enterprises, Inc.  All Rights Reserved.
+ */
+package com.worthent.foundation.util.state.provider;
+
+import com.worthent.foundation.util.annotation.NotNull;
+import com.worthent.foundation.util.state.StateEvent;
+import com.worthent.foundation.util.state.StateExeException;
+import com.worthent.foundation.util.state.StateTable;
+import com.worthent.foundation.util.state.StateTableControl;
+import com.worthent.foundation.util.state.StateTableData;
+import com.worthent.foundation.util.state.data.StateTableDataManager;
+import com.worthent.foundation.util.state.data.StripeStatistics;
+import com.worthent.foundation.util.state.data.impl.StripedLockStateTableDataManager;
+import com.worthent.foundation.util.state.def.StateDefException;
+import com.worthent.foundation.util.state.impl.StateEngine;
+
+import java.util.List;
+
+import static com.worthent.foundation.util.condition.Preconditions.checkNotNull;
+
+/**
+ * Implements the {@link StateTableControl} interface to process events directly on the threads that signal them
+ * while holding the stripe lock of a {@link StripedLockStateTableDataManager}. Events for state table instances with
+ * keys on different stripes proceed in parallel and events for the same key serialize on the stripe lock with no
+ * queue and no thread hop. The call to {@link #signalEvent} does not return until the event has been processed.
+ * <p>
+ * Events signaled by actors while processing an event are held on the signaling thread and processed after the stripe
+ * lock for the current event is released so that a thread never holds more than one stripe lock.
+ *
+ * @author Erik K. Worth
+ */
+public class StripedLockStateTableControl<D extends StateTableData, E extends StateEvent>
+        implements StateTableControl<E> {
+
+    /** The state table engine that processes events */
+    private final StateEngine<D, E> engine;
+
+    /** The state table instance */
+    private final StateTable<D, E> stateTblInstance;
+
+    /** The data manager holding the stripe locks */
+    private final StripedLockStateTableDataManager<D, E> dataManager;
+
+    /** The events signaled by actors on the thread processing an event */
+    private final SignaledEventQueue<E> signaledEvents;
+
+    /**
+     * Construct with the state table instance.
+     *
+     * @param stateTblInstance the state table with a striped-lock data manager
+     * @throws StateDefException thrown when the state table does not have a striped-lock data manager
+     */
+    public StripedLockStateTableControl(@NotNull final StateTable<D, E> stateTblInstance) {
+        this.stateTblInstance = checkNotNull(stateTblInstance, "stateTblInstance must not be null");
+        final StateTableDataManager<D, E> stateTableDataManager = stateTblInstance.getStateTableDataManager();
+        if (!(stateTableDataManager instanceof StripedLockStateTableDataManager)) {
+            throw new StateDefException("The state table, '" + stateTblInstance.getStateTableName() +
+                    "', must have a striped-lock data manager");
+        }
+        this.dataManager = (StripedLockStateTableDataManager<D, E>) stateTableDataManager;
+        this.engine = new StateEngine<>();
+        this.signaledEvents = new SignaledEventQueue<>();
+    }
+
+    /** @return a snapshot of the contention metrics for each stripe */
+    @NotNull
+    public List<StripeStatistics> getStripeStatistics() {
+        return dataManager.getStripeStatistics();
+    }
+
+    //
+    // StateTableControl Interface
+    //
+
+    /**
+     * Processes the event on the calling thread while holding its stripe lock and blocks until the event is
+     * processed.
+     *
+     * @param event the event to trigger activity in the state table
+     *
+     * @exception StateExeException thrown when there is an error processing the event
+     */
+    @Override
+    public void signalEvent(@NotNull final E event) throws StateExeException {
+        checkNotNull(event, "event must not be null");
+        signaledEvents.signal(event, (nextEvent, queue) -> {
+            final int stripe = dataManager.lockStripe(nextEvent);
+            try {
+                engine.processEvent(stateTblInstance, this, nextEvent);
+            } finally {
+                dataManager.unlockStripe(stripe);
+            }
+        });
+    }
+
+    /**
+     * Sets the state table state to the initial state.
+     */
+    @Override
+    public void start() throws StateExeException {
+        try {
+            dataManager.initializeStateTableData();
+        } catch (Exception exc) {
+            final String name = stateTblInstance.getStateTableName();
+            throw new StateExeException("Error initializing state table history for state table, " + name);
+        }
+    }
+
+    /**
+     * Since there are no threads or external resources, this method does
+     * nothing.
+     */
+    @Override
+    public void stop() throws StateExeException {
+    }
+}
@@ -9,10 +9,11 @@ import com.worthent.foundation.util.state.TransitionContext;
 import com.worthent.foundation.util.state.def.StateDef;
 import com.worthent.foundation.util.state.def.impl.ToStateCondition;
 
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashSet;
 import java.util.List;
-import java.util.Optional;
 import java.util.Set;
-import java.util.stream.Collectors;
 
 import static com.worthent.foundation.util.condition.Preconditions.checkNotNull;
 
@@ -21,12 +22,22 @@ import static com.worthent.foundation.util.condition.Preconditions.checkNotNull;
  * destination state.  This is used on conjunction with a list of {@link ToStateCondition} instances that associate
  * a target state with a condition such that when the condition is satisfied, this class directs the state table to the
  * target state.  It is typically added to the end of the list of state transition actors on transition definition.
+ * <p>
+ * The conditions are copied into indexed lists when the actor is constructed so that finding the target state on each
+ * event is a simple scan with no per-event allocation.
  *
  * @author Erik K. Worth
  */
 public class ToStateNavigationActor<D extends StateTableData, E extends StateEvent> implements TransitionActor<D, E> {
 
-    private final List<ToStateCondition<D, E>> toStateConditions;
+    /** The conditions in the order they are evaluated */
+    private final List<ToStateCondition<D, E>> conditions;
+
+    /** The target state of each condition where the element is <code>null</code> to stay in the current state */
+    private final List<String> targetStates;
+
+    /** The set of states to which this actor may direct the state transition */
+    private final Set<String> possibleTargetStates;
 
     /**
      * Construct with the list of conditions that when evaluated determine the target state of the transition.
@@ -34,12 +45,21 @@ public class ToStateNavigationActor<D extends StateTableData, E extends StateEve
      * @param toStateConditions the conditions that when evaluated determine the target state of the transition
      */
     public ToStateNavigationActor(@NotNull final List<ToStateCondition<D, E>> toStateConditions) {
-        this.toStateConditions = checkNotNull(toStateConditions, "toStateConditions must not be null");
+        checkNotNull(toStateConditions, "toStateConditions must not be null");
+        conditions = new ArrayList<>(toStateConditions);
+        targetStates = new ArrayList<>(conditions.size());
+        final Set<String> targets = new LinkedHashSet<>();
+        for (final ToStateCondition<D, E> condition : conditions) {
+            final String toState = condition.getToState();
+            targets.add(toState);
+            targetStates.add(StateDef.STAY_IN_STATE.equalsIgnoreCase(toState) ? null : toState);
+        }
+        possibleTargetStates = Collections.unmodifiableSet(targets);
     }
 
     /** @return the set of states to which this actor may direct the state transition */
     public Set<String> getPossibleTargetStates() {
-        return toStateConditions.stream().map(ToStateCondition::getToState).collect(Collectors.toSet());
+        return possibleTargetStates;
     }
 
     @Override
@@ -52,18 +72,24 @@ public class ToStateNavigationActor<D extends StateTableData, E extends StateEve
     public void onAction(@NotNull final TransitionContext<D, E> context) throws StateExeException {
         checkNotNull(context, "context must not be null");
         // Test the conditions to find the first one that is satisfied
-        final Optional<ToStateCondition<D, E>> satisfiedCondition =
-                toStateConditions.stream().filter(c -> c.test(context)).findFirst();
-        if (!satisfiedCondition.isPresent()) {
-            throw new StateExeException("No condition satisfied to transition to next state");
-        }
-        final StateTableData dataObject = context.getStateTableData();
-        // Go to the state associated with the satisfied condition
-        String goToState = satisfiedCondition.get().getToState();
-        if (StateDef.STAY_IN_STATE.equalsIgnoreCase(goToState)) {
-            goToState = dataObject.getCurrentState();
+        for (int i = 0; i < conditions.size(); i++) {
+            if (conditions.get(i).test(context)) {
+                final StateTableData dataObject = context.getStateTableData();
+                final String currentState = dataObject.getCurrentState();
+                // Go to the state associated with the satisfied condition
+                final String targetState = targetStates.get(i);
+                final String goToState = (null == targetState) ? currentState : targetState;
+                dataObject.setPriorState(currentState);
+                dataObject.setCurrentState(goToState);
+                return;
+            }
         }
-        dataObject.setPriorState(dataObject.getCurrentState());
-        dataObject.setCurrentState(goToState);
+        throw new StateExeException("No condition satisfied to transition to next state");
+    }
+
+    /** Evaluates conditions and only modifies the state table data, so it may be invoked again */
+    @Override
+    public boolean isRetrySafe() {
+        return true;
     }
 }
@@ -61,4 +61,10 @@ public final class UnexpectedEventActor<D extends StateTableData, E extends Stat
     public String getName() {
         return UNEXPECTED_EVENT_ACTOR_NAME;
     }
+
+    /** Only throws an exception, so it may be invoked again */
+    @Override
+    public boolean isRetrySafe() {
+        return true;
+    }
 }
@@ -0,0 +1,176 @@
+/*
+ * Copyright 2000-2016 Worth Enterprises, Inc.  All rights reserved.
+ */
+package com.worthent.foundation.util.state.def.impl;
+
+import com.worthent.foundation.util.state.StateEvent;
+import com.worthent.foundation.util.state.StateEvents;
+import com.worthent.foundation.util.state.StateExeException;
+import com.worthent.foundation.util.state.StateTable;
+import com.worthent.foundation.util.state.StateTableControl;
+import com.worthent.foundation.util.state.TransitionActor;
+import com.worthent.foundation.util.state.TransitionContext;
+import com.worthent.foundation.util.state.def.StateDef;
+import com.worthent.foundation.util.state.def.StateDefException;
+import com.worthent.foundation.util.state.def.StateTableDef;
+import com.worthent.foundation.util.state.def.StateTransitionDef;
+import com.worthent.foundation.util.state.def.StateTransitionDefs;
+import com.worthent.foundation.util.state.examples.turnstyle.TurnstileData;
+import com.worthent.foundation.util.state.impl.StateTableBuilderImpl;
+import com.worthent.foundation.util.state.provider.SerialStateTableControl;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+import org.junit.rules.TestWatcher;
+import org.junit.runner.Description;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.LinkedList;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Test cases for compiling state table definitions into binary artifacts and loading them back.
+ *
+ * @author Erik K. Worth
+ */
+public class CompiledStateTableDefsTest {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(CompiledStateTableDefsTest.class);
+
+    private static final String OFF = "OFF";
+    private static final String LOCKED = "LOCKED";
+    private static final String UNLOCKED = "UNLOCKED";
+    private static final String ALARM = "Alarm";
+
+    @Rule
+    public TestWatcher watchman= new TestWatcher() {
+        @Override
+        public void starting(final Description description) {
+            LOGGER.debug("Starting test {}", description.getMethodName());
+        }
+    };
+
+    @Rule
+    public ExpectedException thrown = ExpectedException.none();
+
+    @Test
+    public void testCompileAndLoadRoundTrip() {
+        final AtomicInteger alarmCount = new AtomicInteger();
+        final TransitionActor<TurnstileData, StateEvent> alarmActor = new TransitionActor<TurnstileData, StateEvent>() {
+            @Override
+            public String getName() {
+                return ALARM;
+            }
+
+            @Override
+            public void onAction(final TransitionContext<TurnstileData, StateEvent> context) {
+                alarmCount.incrementAndGet();
+            }
+        };
+        final StateTableDef<TurnstileData, StateEvent> original = newTurnstileDef(alarmActor);
+
+        final byte[] compiled = CompiledStateTableDefs.compile(original);
+        final TransitionActorManager<TurnstileData, StateEvent> namedActors = new TransitionActorManager<>();
+        namedActors.addTransitionActor(alarmActor);
+        final StateTableDef<TurnstileData, StateEvent> loaded = CompiledStateTableDefs.load(compiled, namedActors);
+
+        assertThat(loaded.getName()).isEqualTo(original.getName());
+        assertThat(loaded.getInitialState().getName()).isEqualTo(OFF);
+        assertThat(loaded.getStates()).hasSameSizeAs(original.getStates());
+        for (final StateDef<TurnstileData, StateEvent> state : original.getStates()) {
+            final StateDef<TurnstileData, StateEvent> loadedState = loaded.getState(state.getName());
+            assertThat(loadedState).isNotNull();
+            for (final StateTransitionDef<TurnstileData, StateEvent> transition : state.getTransitions()) {
+                final StateTransitionDef<TurnstileData, StateEvent> loadedTransition =
+                        loadedState.getTransitionForEvent(transition.getEventName());
+                assertThat(loadedTransition).isEqualTo(transition);
+                assertThat(loadedTransition.getActors()).hasSameSizeAs(transition.getActors());
+            }
+            assertThat(loadedState.getDefaultTransition()).isEqualTo(state.getDefaultTransition());
+        }
+
+        // Drive the loaded definition with events
+        final TurnstileData[] data = {new TurnstileData(new LinkedList<>())};
+        final StateTable<TurnstileData, StateEvent> stateTable = new StateTableBuilderImpl<TurnstileData, StateEvent>()
+                .withStateTableDefinition(loaded)
+                .withStateTableDataManager()
+                    .withDataGetter(e -> new TurnstileData(data[0]))
+                    .withDataSetter((e, d) -> data[0] = d)
+                    .endDataManager()
+                .build();
+        final StateTableControl<StateEvent> control = new SerialStateTableControl<>(stateTable);
+        control.start();
+        control.signalEvent(StateEvents.builder("ON").build());
+        control.signalEvent(StateEvents.builder("TICKET").build());
+        control.signalEvent(StateEvents.builder("PUSH").build());
+        control.signalEvent(StateEvents.builder("PUSH").build());
+        assertThat(data[0].getCurrentState()).isEqualTo(LOCKED);
+        assertThat(data[0].getTicketCount()).isEqualTo(1);
+        assertThat(data[0].getTurnCount()).isEqualTo(1);
+        assertThat(alarmCount.get()).isEqualTo(1);
+
+        thrown.expect(StateExeException.class);
+        control.signalEvent(StateEvents.builder("ON").build());
+    }
+
+    @Test
+    public void testMissingNamedActorFailsToLoad() {
+        final byte[] compiled = CompiledStateTableDefs.compile(newTurnstileDef(context -> {}));
+        thrown.expect(StateDefException.class);
+        CompiledStateTableDefs.load(compiled, new TransitionActorManager<TurnstileData, StateEvent>());
+    }
+
+    @Test
+    public void testConditionalTransitionsCannotBeCompiled() {
+        final StateTableDef<TurnstileData, StateEvent> conditional =
+                new StateTableDefBuilderImpl<TurnstileData, StateEvent>()
+                        .withState(OFF)
+                            .transitionOnEvent("ON")
+                                .toStateConditionally(LOCKED).when(d -> true)
+                                    .elseGoToState(OFF)
+                                .endTransition()
+                            .endState()
+                        .withState(LOCKED)
+                            .transitionOnEvent("OFF").toState(OFF).endTransition()
+                            .endState()
+                        .build();
+        thrown.expect(StateDefException.class);
+        CompiledStateTableDefs.compile(conditional);
+    }
+
+    /** Returns a turnstile definition with annotated, built-in and named actors */
+    private static StateTableDef<TurnstileData, StateEvent> newTurnstileDef(
+            final TransitionActor<TurnstileData, StateEvent> alarmActor) {
+        return new StateTableDefBuilderImpl<TurnstileData, StateEvent>()
+                .setName("CompiledTurnstile")
+                .usingActorsInClass(TurnstileData.class)
+                .withState(OFF)
+                    .transitionOnEvent("ON").toState(LOCKED).endTransition()
+                    .withDefaultEventHandler().toState(StateDef.STAY_IN_STATE).endTransition()
+                    .endState()
+                .withState(LOCKED)
+                    .transitionOnEvent("TICKET")
+                        .toState(UNLOCKED)
+                        .withActorsByName(TurnstileData.INCREMENT_COUNT)
+                        .endTransition()
+                    .transitionOnEvent("PUSH")
+                        .toState(StateDef.STAY_IN_STATE)
+                        .withActor(alarmActor)
+                        .endTransition()
+                    .transitionOnEvent("OFF").toState(OFF).endTransition()
+                    .withDefaultEventHandler(StateTransitionDefs.getUnexpectedEventDefaultTransition())
+                    .endState()
+                .withState(UNLOCKED)
+                    .transitionOnEvent("PUSH")
+                        .toState(LOCKED)
+                        .withActorsByName(TurnstileData.INCREMENT_COUNT)
+                        .endTransition()
+                    .transitionOnEvent("OFF").toState(OFF).endTransition()
+                    .withDefaultEventHandler(StateTransitionDefs.getUnexpectedEventDefaultTransition())
+                    .endState()
+                .build();
+    }
+}
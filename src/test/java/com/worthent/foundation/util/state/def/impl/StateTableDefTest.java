@@ -8,6 +8,9 @@ import com.worthent.foundation.util.state.*;
 import com.worthent.foundation.util.state.annotation.Actor;
 import com.worthent.foundation.util.state.def.*;
 import com.worthent.foundation.util.state.examples.turnstyle.TurnstileData;
+import com.worthent.foundation.util.state.impl.StateTableBuilderImpl;
+import com.worthent.foundation.util.state.impl.SymbolicStateTableDataImpl;
+import com.worthent.foundation.util.state.provider.SerialStateTableControl;
 import org.junit.Before;
 import org.junit.Rule;
 import org.junit.Test;
@@ -101,6 +104,79 @@ public class StateTableDefTest {
         assertExpectedStateTableDef(stateTableDef, stateTableDefName, expectedStates);
     }
 
+    /** Symbolic data for a two-state table */
+    public static class SymbolicData extends SymbolicStateTableDataImpl {
+        public SymbolicData(final StateTableDef<?, ?> stateTableDef) {
+            super(stateTableDef);
+        }
+    }
+
+    @Test
+    public void stateTableDef_symbolsTest() throws Exception {
+        final SymbolicData[] data = new SymbolicData[1];
+        final StateTable<SymbolicData, StateEvent> stateTable =
+                new StateTableBuilderImpl<SymbolicData, StateEvent>()
+                        .withStateTableDefinition()
+                            .setName("Symbols")
+                            .withState("Init")
+                                .transitionOnEvent("Go").toState("End").endTransition()
+                                .endState()
+                            .withState("End")
+                                .transitionOnEvent("Back").toState("Init").endTransition()
+                                .endState()
+                            .endDefinition()
+                        .withStateTableDataManager()
+                            .withDataGetter(e -> data[0])
+                            .endDataManager()
+                        .build();
+        final StateTableDef<SymbolicData, StateEvent> stateTableDef = stateTable.getStateTableDefinition();
+        final StateId initId = stateTableDef.getStateId("Init");
+        final StateId endId = stateTableDef.getStateId("End");
+        assertThat(initId).isSameAs(stateTableDef.getStateId("Init"));
+        assertThat(initId.getOrdinal()).isEqualTo(0);
+        assertThat(endId.getOrdinal()).isEqualTo(1);
+        assertThat(stateTableDef.getStateId("Unknown")).isNull();
+        assertThat(stateTableDef.getState(endId).getName()).isEqualTo("End");
+        // A symbol with the same name and ordinal from another definition is not recognized
+        final StateTableDef<SymbolicData, StateEvent> otherDef = new StateTableDefBuilderImpl<SymbolicData, StateEvent>()
+                .setName("OtherSymbols")
+                .withState("Init")
+                    .transitionOnEvent("Go").toState("End").endTransition()
+                    .endState()
+                .withState("End")
+                    .transitionOnEvent("Back").toState("Init").endTransition()
+                    .endState()
+                .build();
+        final StateId foreignEndId = otherDef.getStateId("End");
+        assertThat(foreignEndId.getOrdinal()).isEqualTo(endId.getOrdinal());
+        assertThat(foreignEndId).isNotEqualTo(endId);
+        assertThat(stateTableDef.getState(foreignEndId)).isNull();
+
+        final EventId goId = stateTableDef.getEventId("Go");
+        final EventId backId = stateTableDef.getEventId("Back");
+        assertThat(goId).isNotNull();
+        assertThat(backId).isNotSameAs(goId);
+        assertThat(stateTableDef.getTransition(initId, goId).getTargetStateName()).isEqualTo("End");
+        assertThat(stateTableDef.getTransition(initId, backId))
+                .isSameAs(stateTableDef.getState(initId).getDefaultTransition());
+        assertThat(stateTableDef.getTargetStateId(initId, goId)).isSameAs(endId);
+        assertThat(stateTableDef.getTargetStateId(initId, null)).isNull();
+
+        data[0] = new SymbolicData(stateTableDef);
+        assertThat(data[0].getCurrentStateId()).isSameAs(initId);
+        final StateTableControl<StateEvent> control = new SerialStateTableControl<>(stateTable);
+        control.start();
+        control.signalEvent(StateEvents.builder("Go").build());
+        assertThat(data[0].getCurrentStateId()).isSameAs(endId);
+        assertThat(data[0].getPriorStateId()).isSameAs(initId);
+        assertThat(data[0].getCurrentState()).isEqualTo("End");
+        control.signalEvent(StateEvents.builder("Back").build());
+        assertThat(data[0].getCurrentStateId()).isSameAs(initId);
+
+        thrown.expect(IllegalArgumentException.class);
+        data[0].setCurrentState("Unknown");
+    }
+
     @Test
     public void stateTableBuilder_usingActorsInClassTest() throws Exception {
         final TransitionActorManager<TurnstileData, StateEvent> transitionActorManager = new TransitionActorManager<>();
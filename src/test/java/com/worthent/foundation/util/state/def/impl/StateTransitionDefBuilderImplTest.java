@@ -27,6 +27,7 @@ import static org.assertj.core.api.Assertions.assertThat;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertTrue;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.mockito.MockitoAnnotations.initMocks;
@@ -233,6 +234,34 @@ public class StateTransitionDefBuilderImplTest {
         assertThat(transition.getPotentialTargetStateNames()).containsOnly(toState1, toState2);
     }
 
+    @Test
+    public void transitionBuilder_withMemoizedConditionTest() {
+        final String onEvent = "testEvent";
+        final String toState1 = "targetState1";
+        final String currentState = "currentState";
+        final int[] evaluations = {0};
+        final StateTableData data = mock(StateTableData.class);
+        when(data.getCurrentState()).thenReturn(currentState);
+        when(transitionContext.getStateTableData()).thenReturn(data);
+        final StateTransitionDefBuilderImpl<StateTableData, StateEvent> transitionBuilder =
+                new StateTransitionDefBuilderImpl<>(null, transitionActorManager, onEvent);
+        final StateTransitionDef<StateTableData, StateEvent> transition = transitionBuilder
+                .toStateConditionally(toState1).when(StateTableData::getCurrentState, state -> {
+                    evaluations[0]++;
+                    return currentState.equals(state);
+                })
+                .elseStayInState()
+                .build();
+        assertThat(transition.getPotentialTargetStateNames()).containsOnly(toState1, StateDef.STAY_IN_STATE);
+        assertThat(transition.getPotentialTargetStateNames()).isSameAs(transition.getPotentialTargetStateNames());
+        final TransitionActor<StateTableData, StateEvent> navigator = transition.getActors().get(0);
+        navigator.onAction(transitionContext);
+        navigator.onAction(transitionContext);
+        navigator.onAction(transitionContext);
+        assertEquals("Evaluations", 1, evaluations[0]);
+        verify(data, times(3)).setCurrentState(toState1);
+    }
+
     @Test(expected=StateExeException.class)
     public void stateTransitionDefs_getUnexpectedEventDefaultTransition() {
         final String onEvent = StateTransitionDef.DEFAULT_HANDLER_EVENT_ID;
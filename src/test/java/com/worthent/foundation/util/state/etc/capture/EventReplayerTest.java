@@ -0,0 +1,197 @@
+/*
+ * Copyright 2000-2016 Worth Enterprises, Inc.  All rights reserved.
+ */
+package com.worthent.foundation.util.state.etc.capture;
+
+import com.worthent.foundation.util.state.StateEvent;
+import com.worthent.foundation.util.state.StateEventWithDataMap;
+import com.worthent.foundation.util.state.StateEvents;
+import com.worthent.foundation.util.state.StateExeException;
+import com.worthent.foundation.util.state.StateTable;
+import com.worthent.foundation.util.state.StateTableControl;
+import com.worthent.foundation.util.state.def.StateDef;
+import com.worthent.foundation.util.state.def.StateTableDef;
+import com.worthent.foundation.util.state.def.StateTransitionDefs;
+import com.worthent.foundation.util.state.def.impl.StateTableDefBuilderImpl;
+import com.worthent.foundation.util.state.examples.turnstyle.TurnstileData;
+import com.worthent.foundation.util.state.impl.StateTableBuilderImpl;
+import com.worthent.foundation.util.state.provider.SerialStateTableControl;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+import org.junit.rules.TestWatcher;
+import org.junit.runner.Description;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.util.LinkedList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Test cases for capturing event streams and replaying them through state tables.
+ *
+ * @author Erik K. Worth
+ */
+public class EventReplayerTest {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(EventReplayerTest.class);
+
+    private static final String OFF = "OFF";
+    private static final String LOCKED = "LOCKED";
+    private static final String UNLOCKED = "UNLOCKED";
+
+    private static final String[] EVENTS = {"ON", "TICKET", "PUSH", "TICKET", "PUSH", "OFF", "ON", "TICKET", "PUSH"};
+
+    @Rule
+    public TestWatcher watchman= new TestWatcher() {
+        @Override
+        public void starting(final Description description) {
+            LOGGER.debug("Starting test {}", description.getMethodName());
+        }
+    };
+
+    @Rule
+    public ExpectedException thrown = ExpectedException.none();
+
+    @Test
+    public void testReplayMatchesCapture() throws Exception {
+        final List<CapturedEvent<StateEvent>> captured = capture(newTurnstileDef(LOCKED));
+        assertThat(captured).hasSize(EVENTS.length);
+        assertThat(captured.get(0).getStateAfter()).isEqualTo(LOCKED);
+        assertThat(captured.get(EVENTS.length - 1).getOffsetNanos())
+                .isGreaterThanOrEqualTo(captured.get(0).getOffsetNanos());
+
+        final TurnstileData[] data = {new TurnstileData(new LinkedList<>())};
+        final StateTableControl<StateEvent> control = newControl(newTurnstileDef(LOCKED), data);
+        control.start();
+        final ReplayReport report = new EventReplayer(EventReplayer.Pacing.MAXIMUM, 1.0)
+                .replay(captured, control, () -> data[0].getCurrentState());
+
+        assertThat(report.getEventCount()).isEqualTo(EVENTS.length);
+        assertThat(report.getErrorCount()).isZero();
+        assertThat(report.getDivergentEventCount()).isZero();
+        assertThat(report.getFirstDivergentEvent()).isEqualTo(-1);
+        assertThat(data[0].getTurnCount()).isEqualTo(3);
+    }
+
+    @Test
+    public void testReplayReportsDivergence() throws Exception {
+        final List<CapturedEvent<StateEvent>> captured = capture(newTurnstileDef(LOCKED));
+
+        // The modified table leaves the turnstile unlocked after a push
+        final TurnstileData[] data = {new TurnstileData(new LinkedList<>())};
+        final StateTableControl<StateEvent> control = newControl(newTurnstileDef(UNLOCKED), data);
+        control.start();
+        final ReplayReport report = new EventReplayer(EventReplayer.Pacing.SCALED, 100.0)
+                .replay(captured, control, () -> data[0].getCurrentState());
+
+        assertThat(report.getFirstDivergentEvent()).isEqualTo(2);
+        assertThat(report.getDivergentEventCount()).isGreaterThan(0);
+        assertThat(report.getErrorCount()).isGreaterThan(0);
+    }
+
+    @Test
+    public void testDataMapCodecRoundTrip() throws Exception {
+        final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        final StateTableControl<StateEventWithDataMap> sink = new StateTableControl<StateEventWithDataMap>() {
+            @Override
+            public void start() {}
+
+            @Override
+            public void stop() {}
+
+            @Override
+            public void signalEvent(final StateEventWithDataMap event) {}
+        };
+        final CapturingStateTableControl<StateEventWithDataMap> capture =
+                new CapturingStateTableControl<>(sink, EventCodecs.dataMapCodec(), bytes);
+        capture.start();
+        capture.signalEvent(StateEvents.builder("Data")
+                .withEventData("text", "value")
+                .withEventData("count", 3)
+                .withEventData("total", 7L)
+                .withEventData("ratio", 0.5)
+                .withEventData("flag", true)
+                .withEventData("missing", null)
+                .build());
+        capture.stop();
+
+        final List<CapturedEvent<StateEventWithDataMap>> captured =
+                CaptureReader.readAll(new ByteArrayInputStream(bytes.toByteArray()), EventCodecs.dataMapCodec());
+        assertThat(captured).hasSize(1);
+        final StateEventWithDataMap event = captured.get(0).getEvent();
+        assertThat(event.getName()).isEqualTo("Data");
+        assertThat((String) event.getEventData("text")).isEqualTo("value");
+        assertThat((Integer) event.getEventData("count")).isEqualTo(3);
+        assertThat((Long) event.getEventData("total")).isEqualTo(7L);
+        assertThat((Double) event.getEventData("ratio")).isEqualTo(0.5);
+        assertThat((Boolean) event.getEventData("flag")).isTrue();
+        assertThat(event.getEventData().containsKey("missing")).isTrue();
+        assertThat(captured.get(0).getStateAfter()).isNull();
+    }
+
+    @Test
+    public void testNotACapture() {
+        thrown.expect(StateExeException.class);
+        CaptureReader.readAll(new ByteArrayInputStream(new byte[] {1, 2, 3, 4, 5, 6}), EventCodecs.eventNameCodec());
+    }
+
+    /** Runs the events through a table while capturing them and returns the events read back from the capture */
+    private static List<CapturedEvent<StateEvent>> capture(
+            final StateTableDef<TurnstileData, StateEvent> tableDef) throws Exception {
+        final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        final TurnstileData[] data = {new TurnstileData(new LinkedList<>())};
+        final CapturingStateTableControl<StateEvent> capture = new CapturingStateTableControl<>(
+                newControl(tableDef, data), EventCodecs.eventNameCodec(), bytes, () -> data[0].getCurrentState());
+        capture.start();
+        for (final String eventName : EVENTS) {
+            capture.signalEvent(StateEvents.builder(eventName).build());
+        }
+        capture.stop();
+        return CaptureReader.readAll(new ByteArrayInputStream(bytes.toByteArray()), EventCodecs.eventNameCodec());
+    }
+
+    private static StateTableControl<StateEvent> newControl(
+            final StateTableDef<TurnstileData, StateEvent> tableDef,
+            final TurnstileData[] data) {
+        final StateTable<TurnstileData, StateEvent> stateTable = new StateTableBuilderImpl<TurnstileData, StateEvent>()
+                .withStateTableDefinition(tableDef)
+                .withStateTableDataManager()
+                    .withDataGetter(e -> data[0])
+                    .withDataSetter((e, d) -> data[0] = d)
+                    .endDataManager()
+                .build();
+        return new SerialStateTableControl<>(stateTable);
+    }
+
+    private static StateTableDef<TurnstileData, StateEvent> newTurnstileDef(final String stateAfterPush) {
+        return new StateTableDefBuilderImpl<TurnstileData, StateEvent>()
+                .setName("ReplayedTurnstile")
+                .usingActorsInClass(TurnstileData.class)
+                .withState(OFF)
+                    .transitionOnEvent("ON").toState(LOCKED).endTransition()
+                    .withDefaultEventHandler().toState(StateDef.STAY_IN_STATE).endTransition()
+                    .endState()
+                .withState(LOCKED)
+                    .transitionOnEvent("TICKET")
+                        .toState(UNLOCKED)
+                        .withActorsByName(TurnstileData.INCREMENT_COUNT)
+                        .endTransition()
+                    .transitionOnEvent("OFF").toState(OFF).endTransition()
+                    .withDefaultEventHandler(StateTransitionDefs.getUnexpectedEventDefaultTransition())
+                    .endState()
+                .withState(UNLOCKED)
+                    .transitionOnEvent("PUSH")
+                        .toState(stateAfterPush)
+                        .withActorsByName(TurnstileData.INCREMENT_COUNT)
+                        .endTransition()
+                    .transitionOnEvent("OFF").toState(OFF).endTransition()
+                    .withDefaultEventHandler(StateTransitionDefs.getUnexpectedEventDefaultTransition())
+                    .endState()
+                .build();
+    }
+}
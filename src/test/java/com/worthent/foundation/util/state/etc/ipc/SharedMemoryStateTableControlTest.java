@@ -0,0 +1,127 @@
+/*
+ * Copyright 2000-2016 Worth Enterprises, Inc.  All rights reserved.
+ */
+package com.worthent.foundation.util.state.etc.ipc;
+
+import com.worthent.foundation.util.state.StateEvent;
+import com.worthent.foundation.util.state.StateEventWithDataMap;
+import com.worthent.foundation.util.state.StateEvents;
+import com.worthent.foundation.util.state.StateExeException;
+import com.worthent.foundation.util.state.StateTableControl;
+import com.worthent.foundation.util.state.etc.capture.EventCodecs;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.junit.rules.TestWatcher;
+import org.junit.runner.Description;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Test cases for passing events through a memory-mapped ring buffer.  The producer and consumer map the file
+ * separately as two processes would.
+ *
+ * @author Erik K. Worth
+ */
+public class SharedMemoryStateTableControlTest {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(SharedMemoryStateTableControlTest.class);
+
+    @Rule
+    public TestWatcher watchman= new TestWatcher() {
+        @Override
+        public void starting(final Description description) {
+            LOGGER.debug("Starting test {}", description.getMethodName());
+        }
+    };
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void testRecordsWrapAroundInOrder() throws Exception {
+        final Path path = folder.newFile("ring").toPath();
+        final MappedRingBuffer producer = MappedRingBuffer.create(path, MappedRingBuffer.MIN_CAPACITY);
+        final MappedRingBuffer consumer = MappedRingBuffer.open(path);
+        final byte[] target = new byte[consumer.getMaxRecordLength()];
+        assertThat(consumer.poll(target)).isEqualTo(-1);
+
+        int expected = 0;
+        for (int i = 0; i < 1000; i++) {
+            final byte[] record = new byte[1 + i % 37];
+            record[0] = (byte) i;
+            while (!producer.offer(record, 0, record.length)) {
+                final int length = consumer.poll(target);
+                assertThat(length).isEqualTo(1 + expected % 37);
+                assertThat(target[0]).isEqualTo((byte) expected);
+                expected++;
+            }
+        }
+        int length;
+        while ((length = consumer.poll(target)) >= 0) {
+            assertThat(length).isEqualTo(1 + expected % 37);
+            assertThat(target[0]).isEqualTo((byte) expected);
+            expected++;
+        }
+        assertThat(expected).isEqualTo(1000);
+        assertThat(consumer.isEmpty()).isTrue();
+    }
+
+    @Test
+    public void testEventsCrossBetweenMappings() throws Exception {
+        final int eventCount = 20000;
+        final Path path = folder.newFile("events").toPath();
+        final MappedRingBuffer producerBuffer = MappedRingBuffer.create(path, 4096);
+        final MappedRingBuffer consumerBuffer = MappedRingBuffer.open(path);
+
+        final List<Integer> received = Collections.synchronizedList(new ArrayList<>());
+        final CountDownLatch done = new CountDownLatch(eventCount);
+        final StateTableControl<StateEventWithDataMap> local = new StateTableControl<StateEventWithDataMap>() {
+            @Override
+            public void start() {}
+
+            @Override
+            public void stop() {}
+
+            @Override
+            public void signalEvent(final StateEventWithDataMap event) {
+                received.add(event.<Integer>getRequiredEventData("sequence"));
+                done.countDown();
+            }
+        };
+        final SharedMemoryEventConsumer<StateEventWithDataMap> consumer =
+                new SharedMemoryEventConsumer<>(consumerBuffer, EventCodecs.dataMapCodec(), local);
+        consumer.start("ring-consumer");
+
+        final StateTableControl<StateEventWithDataMap> remote =
+                new SharedMemoryStateTableControl<>(producerBuffer, EventCodecs.dataMapCodec());
+        remote.start();
+        for (int i = 0; i < eventCount; i++) {
+            remote.signalEvent(StateEvents.builder("Tick").withEventData("sequence", i).build());
+        }
+        assertThat(done.await(30L, TimeUnit.SECONDS)).isTrue();
+        consumer.stop();
+        remote.stop();
+
+        assertThat(received).hasSize(eventCount);
+        for (int i = 0; i < eventCount; i++) {
+            assertThat(received.get(i)).isEqualTo(i);
+        }
+    }
+
+    @Test(expected = StateExeException.class)
+    public void testSignalBeforeStartFails() throws Exception {
+        final MappedRingBuffer buffer = MappedRingBuffer.create(folder.newFile("unstarted").toPath(), 1024);
+        new SharedMemoryStateTableControl<StateEvent>(buffer, EventCodecs.eventNameCodec())
+                .signalEvent(StateEvents.builder("Tick").build());
+    }
+}
@@ -1,7 +1,10 @@
 package com.worthent.foundation.util.state.etc.obj;
 
 import com.google.common.collect.ImmutableMap;
+import com.worthent.foundation.util.state.StateExeException;
+import com.worthent.foundation.util.state.def.StateDefException;
 import com.worthent.foundation.util.state.examples.xml.PurchaseItemData;
+import com.worthent.foundation.util.state.examples.xml.PurchaseOrderData;
 import org.junit.Rule;
 import org.junit.Test;
 import org.junit.rules.TestWatcher;
@@ -13,6 +16,7 @@ import java.math.BigDecimal;
 import java.util.Map;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.Assert.fail;
 
 /**
  * Unit tests for the Construction Worker utility.
@@ -55,4 +59,122 @@ public class ConstructionWorkerTest {
         assertThat(purchaseItemData.getPrice()).isEqualTo(TEST_PRICE);
         assertThat(purchaseItemData.getCurrency()).isEqualTo(TEST_CURRENCY);
     }
+
+    @Test
+    public void constructObjectFromSlots() throws Exception {
+        final ConstructionWorker worker = ConstructionWorker.forClass(PurchaseItemData.class);
+        final ObjectBuilder builder = new ObjectBuilder(null, worker);
+        builder.set("ItemNumber", Integer.toString(TEST_ITEM_NUMBER));
+        builder.set("SKU", TEST_SKU);
+        builder.set("quantity", Integer.toString(TEST_QUANTITY));
+        builder.set("Price", TEST_PRICE.toString());
+        builder.set("CURRENCY", TEST_CURRENCY);
+        builder.set("unknown", "ignored");
+        final PurchaseItemData purchaseItemData = (PurchaseItemData) builder.build();
+        assertThat(purchaseItemData.getItemNumber()).isEqualTo(TEST_ITEM_NUMBER);
+        assertThat(purchaseItemData.getSku()).isEqualTo(TEST_SKU);
+        assertThat(purchaseItemData.getPrice()).isEqualTo(TEST_PRICE);
+        assertThat(worker.getSlot("currency")).isEqualTo(worker.getSlot("Currency"));
+        assertThat(worker.getSlot("unknown")).isEqualTo(-1);
+    }
+
+    @Test
+    public void shareOneWorkerPerClass() throws Exception {
+        final ConstructionWorker worker = ConstructionWorker.forClass(PurchaseOrderData.class);
+        assertThat(ConstructionWorker.forClass(PurchaseOrderData.class)).isSameAs(worker);
+        assertThat(worker.getConstructorParameter("items").getComplexListElementConstructionWorker())
+                .isSameAs(ConstructionWorker.forClass(PurchaseItemData.class));
+        assertThat(ConstructionWorker.findForClass(String.class)).isNull();
+    }
+
+    @Test(expected = StateDefException.class)
+    public void rejectClassWithoutAnnotatedConstructor() throws Exception {
+        ConstructionWorker.forClass(String.class);
+    }
+
+    @Test
+    public void constructObjectWithConvertedFields() throws Exception {
+        StringConverters.register(Weight.class, value -> new Weight(Double.parseDouble(value) * 1000.0));
+        try {
+            final ConstructionWorker shipmentConstructionWorker = new ConstructionWorker(Shipment.class);
+            final Shipment shipment = (Shipment) shipmentConstructionWorker.newObject(
+                    new ImmutableMap.Builder<String, Object>()
+                            .put("mode", "AIR")
+                            .put("weight", "1.5")
+                            .put("count", "3")
+                            .put("code", "X-1")
+                            .build());
+            assertThat(shipment.mode).isEqualTo(Mode.AIR);
+            assertThat(shipment.weight.grams).isEqualTo(1500.0);
+            assertThat(shipment.count).isEqualTo(3);
+            assertThat(shipment.code.value).isEqualTo("X-1");
+        } finally {
+            StringConverters.unregister(Weight.class);
+        }
+    }
+
+    @Test
+    public void useConvertersRegisteredAfterTheWorkerIsShared() throws Exception {
+        final ConstructorParameter weight =
+                ConstructionWorker.forClass(Shipment.class).getConstructorParameter("weight");
+        try {
+            weight.valueOf("1.5");
+            fail("Expected no converter for Weight");
+        } catch (final StateExeException exc) {
+            LOGGER.debug("Expected error: {}", exc.getMessage());
+        }
+        StringConverters.register(Weight.class, value -> new Weight(Double.parseDouble(value) * 1000.0));
+        try {
+            assertThat(((Weight) weight.valueOf("1.5")).grams).isEqualTo(1500.0);
+        } finally {
+            StringConverters.unregister(Weight.class);
+        }
+    }
+
+    @Test
+    public void resolveConvertersByType() throws Exception {
+        assertThat(StringConverters.getConverter(Long.class).convert("42")).isEqualTo(42L);
+        assertThat(StringConverters.getConverter(Mode.class).convert("SEA")).isEqualTo(Mode.SEA);
+        assertThat(StringConverters.getConverter(Code.class).convert("Y")).isInstanceOf(Code.class);
+        assertThat(StringConverters.getConverter(Weight.class)).isNull();
+    }
+
+    public enum Mode { AIR, SEA }
+
+    /** Has no valueOf method or String constructor so it needs a registered converter */
+    public static class Weight {
+        private final double grams;
+
+        public Weight(final double grams) {
+            this.grams = grams;
+        }
+    }
+
+    /** Converted through its String constructor */
+    public static class Code {
+        private final String value;
+
+        public Code(final String value) {
+            this.value = value;
+        }
+    }
+
+    public static class Shipment {
+        private final Mode mode;
+        private final Weight weight;
+        private final int count;
+        private final Code code;
+
+        @ObjectConstructor
+        public Shipment(
+                @ObjectField("mode") final Mode mode,
+                @ObjectField("weight") final Weight weight,
+                @ObjectField("count") final int count,
+                @ObjectField("code") final Code code) {
+            this.mode = mode;
+            this.weight = weight;
+            this.count = count;
+            this.code = code;
+        }
+    }
 }
@@ -0,0 +1,177 @@
+/*
+ * Copyright 2000-2016 Worth Enterprises, Inc.  All rights reserved.
+ */
+package com.worthent.foundation.util.state.etc.perf;
+
+import com.worthent.foundation.util.state.StateEvent;
+import com.worthent.foundation.util.state.StateEvents;
+import com.worthent.foundation.util.state.StateTable;
+import com.worthent.foundation.util.state.StateTableControl;
+import com.worthent.foundation.util.state.def.StateDef;
+import com.worthent.foundation.util.state.def.StateTableDef;
+import com.worthent.foundation.util.state.def.StateTransitionDefs;
+import com.worthent.foundation.util.state.def.impl.StateTableDefBuilderImpl;
+import com.worthent.foundation.util.state.examples.turnstyle.TurnstileData;
+import com.worthent.foundation.util.state.impl.StateTableBuilderImpl;
+import com.worthent.foundation.util.state.provider.SerialStateTableControl;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TestWatcher;
+import org.junit.runner.Description;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedList;
+import java.util.Map;
+import java.util.NoSuchElementException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.fail;
+
+/**
+ * Test cases for generating synthetic event streams and measuring their throughput.
+ *
+ * @author Erik K. Worth
+ */
+public class ThroughputHarnessTest {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(ThroughputHarnessTest.class);
+
+    private static final String OFF = "OFF";
+    private static final String LOCKED = "LOCKED";
+    private static final String UNLOCKED = "UNLOCKED";
+
+    @Rule
+    public TestWatcher watchman= new TestWatcher() {
+        @Override
+        public void starting(final Description description) {
+            LOGGER.debug("Starting test {}", description.getMethodName());
+        }
+    };
+
+    @Test
+    public void testGeneratedStreamsAreValid() {
+        final StateTableDef<TurnstileData, StateEvent> tableDef = newTurnstileDef();
+        final Map<String, Double> weights = new HashMap<>();
+        weights.put("OFF", 0.1);
+        final StateTableLoadGenerator<StateEvent> generator =
+                new StateTableLoadGenerator<>(tableDef, weights, name -> StateEvents.builder(name).build(), 42L);
+        final TurnstileData[] data = {new TurnstileData(new LinkedList<>())};
+        final StateTableControl<StateEvent> control = newControl(tableDef, data);
+        control.start();
+
+        final ThroughputHarness<StateEvent> harness = new ThroughputHarness<>(control);
+        harness.warmUp(generator, 1000);
+        final ThroughputReport report = harness.run(generator, 5000, 0.0);
+
+        assertThat(report.getEventCount()).isEqualTo(5000);
+        assertThat(report.getErrorCount()).isZero();
+        assertThat(report.getEventsPerSecond()).isGreaterThan(0.0);
+        assertThat(report.getLatencyPercentile(50.0)).isLessThanOrEqualTo(report.getLatencyPercentile(99.0));
+        assertThat(report.getLatencyPercentile(99.0)).isLessThanOrEqualTo(report.getMaxLatency());
+        assertThat(data[0].getCurrentState()).isEqualTo(generator.getCurrentState());
+        assertThat(data[0].getTurnCount()).isGreaterThan(0);
+    }
+
+    @Test
+    public void testSameSeedGeneratesSameStream() {
+        final StateTableDef<TurnstileData, StateEvent> tableDef = newTurnstileDef();
+        final StateTableLoadGenerator<StateEvent> first = new StateTableLoadGenerator<>(
+                tableDef, Collections.<String, Double>emptyMap(), name -> StateEvents.builder(name).build(), 7L);
+        final StateTableLoadGenerator<StateEvent> second = new StateTableLoadGenerator<>(
+                tableDef, Collections.<String, Double>emptyMap(), name -> StateEvents.builder(name).build(), 7L);
+        for (int i = 0; i < 100; i++) {
+            assertThat(first.next().getName()).isEqualTo(second.next().getName());
+        }
+    }
+
+    @Test
+    public void testStreamEndsAtDeadEnd() {
+        final StateTableDef<TurnstileData, StateEvent> tableDef = newTurnstileDef();
+        final Map<String, Double> weights = new HashMap<>();
+        weights.put("OFF", 0.0);
+        weights.put("PUSH", 0.0);
+        final StateTableLoadGenerator<StateEvent> generator =
+                new StateTableLoadGenerator<>(tableDef, weights, name -> StateEvents.builder(name).build(), 11L);
+        final TurnstileData[] data = {new TurnstileData(new LinkedList<>())};
+        final StateTableControl<StateEvent> control = newControl(tableDef, data);
+        control.start();
+
+        // With no way out of the unlocked state the stream ends there instead of jumping back to the initial state
+        final ThroughputReport report = new ThroughputHarness<>(control).run(generator, 100, 0.0);
+
+        assertThat(report.getEventCount()).isEqualTo(2);
+        assertThat(report.getErrorCount()).isZero();
+        assertThat(generator.hasNext()).isFalse();
+        assertThat(generator.getCurrentState()).isEqualTo(UNLOCKED);
+        assertThat(data[0].getCurrentState()).isEqualTo(UNLOCKED);
+        try {
+            generator.next();
+            fail("Expected the walk to have ended");
+        } catch (final NoSuchElementException exc) {
+            assertThat(exc.getMessage()).contains(UNLOCKED);
+        }
+
+        generator.reset();
+        assertThat(generator.hasNext()).isTrue();
+        assertThat(generator.next().getName()).isEqualTo("ON");
+    }
+
+    @Test
+    public void testPacedRun() {
+        final StateTableDef<TurnstileData, StateEvent> tableDef = newTurnstileDef();
+        final StateTableLoadGenerator<StateEvent> generator = new StateTableLoadGenerator<>(
+                tableDef, Collections.<String, Double>emptyMap(), name -> StateEvents.builder(name).build(), 3L);
+        final StateTableControl<StateEvent> control =
+                newControl(tableDef, new TurnstileData[] {new TurnstileData(new LinkedList<>())});
+        control.start();
+
+        final ThroughputReport report = new ThroughputHarness<>(control).run(generator, 200, 10000.0);
+
+        assertThat(report.getEventCount()).isEqualTo(200);
+        assertThat(report.getErrorCount()).isZero();
+        assertThat(report.getElapsedNanos()).isGreaterThanOrEqualTo(199L * 100000L);
+    }
+
+    private static StateTableControl<StateEvent> newControl(
+            final StateTableDef<TurnstileData, StateEvent> tableDef,
+            final TurnstileData[] data) {
+        final StateTable<TurnstileData, StateEvent> stateTable = new StateTableBuilderImpl<TurnstileData, StateEvent>()
+                .withStateTableDefinition(tableDef)
+                .withStateTableDataManager()
+                    .withDataGetter(e -> data[0])
+                    .withDataSetter((e, d) -> data[0] = d)
+                    .endDataManager()
+                .build();
+        return new SerialStateTableControl<>(stateTable);
+    }
+
+    private static StateTableDef<TurnstileData, StateEvent> newTurnstileDef() {
+        return new StateTableDefBuilderImpl<TurnstileData, StateEvent>()
+                .setName("GeneratedTurnstile")
+                .usingActorsInClass(TurnstileData.class)
+                .withState(OFF)
+                    .transitionOnEvent("ON").toState(LOCKED).endTransition()
+                    .withDefaultEventHandler().toState(StateDef.STAY_IN_STATE).endTransition()
+                    .endState()
+                .withState(LOCKED)
+                    .transitionOnEvent("TICKET")
+                        .toState(UNLOCKED)
+                        .withActorsByName(TurnstileData.INCREMENT_COUNT)
+                        .endTransition()
+                    .transitionOnEvent("OFF").toState(OFF).endTransition()
+                    .withDefaultEventHandler(StateTransitionDefs.getUnexpectedEventDefaultTransition())
+                    .endState()
+                .withState(UNLOCKED)
+                    .transitionOnEvent("PUSH")
+                        .toState(LOCKED)
+                        .withActorsByName(TurnstileData.INCREMENT_COUNT)
+                        .endTransition()
+                    .transitionOnEvent("OFF").toState(OFF).endTransition()
+                    .withDefaultEventHandler(StateTransitionDefs.getUnexpectedEventDefaultTransition())
+                    .endState()
+                .build();
+    }
+}
@@ -0,0 +1,52 @@
+package com.worthent.foundation.util.state.examples.json;
+
+import com.worthent.foundation.util.state.etc.obj.ObjectConstructor;
+import com.worthent.foundation.util.state.etc.obj.ObjectField;
+
+/**
+ * This data transfer object represents the address a shipment is delivered to.
+ *
+ * @author Erik K. Worth
+ */
+public class AddressData {
+
+    /** The street and number */
+    private final String street;
+
+    /** The city */
+    private final String city;
+
+    /** The postal code */
+    private final int postalCode;
+
+    @ObjectConstructor
+    public AddressData(
+            @ObjectField("street") final String street,
+            @ObjectField("city") final String city,
+            @ObjectField("postalCode") final int postalCode) {
+        this.street = street;
+        this.city = city;
+        this.postalCode = postalCode;
+    }
+
+    @Override
+    public String toString() {
+        return "AddressData{" +
+                "street='" + street + '\'' +
+                ", city='" + city + '\'' +
+                ", postalCode=" + postalCode +
+                '}';
+    }
+
+    public String getStreet() {
+        return street;
+    }
+
+    public String getCity() {
+        return city;
+    }
+
+    public int getPostalCode() {
+        return postalCode;
+    }
+}
@@ -0,0 +1,280 @@
+/*
+ * Copyright 2000-2016 Worth Enterprises, Inc.  All rights reserved.
+ */
+package com.worthent.foundation.util.state.examples.json;
+
+import com.worthent.foundation.util.state.StateExeException;
+import com.worthent.foundation.util.state.etc.json.JsonEventAdapter;
+import com.worthent.foundation.util.state.etc.json.JsonObjectBinder;
+import com.worthent.foundation.util.state.etc.json.JsonToken;
+import com.worthent.foundation.util.state.etc.json.JsonTokenizer;
+import com.worthent.foundation.util.state.etc.obj.ObjectConstructionController;
+import com.worthent.foundation.util.state.etc.xml.SaxEventAdapter;
+import com.worthent.foundation.util.state.etc.xml.XmlObjectBinder;
+import com.worthent.foundation.util.state.etc.xml.XmlObjectBuilderAdapter;
+import com.worthent.foundation.util.state.examples.xml.PurchaseOrderData;
+import org.junit.Assume;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+import org.junit.rules.TestWatcher;
+import org.junit.runner.Description;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.xml.parsers.SAXParser;
+import javax.xml.parsers.SAXParserFactory;
+import java.io.ByteArrayInputStream;
+import java.io.StringReader;
+import java.nio.ByteBuffer;
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Unit test for building objects from JSON documents with the Object Construction state table and with the direct
+ * binder.
+ *
+ * @author Erik K. Worth
+ */
+public class JsonEventAdapterTest {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(JsonEventAdapterTest.class);
+
+    private static final Charset UTF_8 = Charset.forName("UTF-8");
+
+    /** Set this system property to <code>true</code> to run the benchmarks, for example with -Dbenchmarks=true */
+    private static final String RUN_BENCHMARKS = "benchmarks";
+
+    private static final String SHIPMENT = "{\"shipmentId\": \"SHIP-\\\"7\\\"\", \"carrier\": {\"name\": [1, {}]},\n" +
+            " \"address\": {\"street\": \"1 Main St\\u00e9\", \"city\": \"Springfield\", \"postalCode\": 12345},\n" +
+            " \"labels\": []}";
+
+    @Rule
+    public TestWatcher watchman= new TestWatcher() {
+        @Override
+        public void starting(final Description description) {
+            LOGGER.debug("Starting test {}", description.getMethodName());
+        }
+    };
+
+    @Rule
+    public ExpectedException thrown = ExpectedException.none();
+
+    @Test
+    public void processJsonAndVerify() throws Exception {
+        final List<PurchaseOrderData> purchaseOrders = new ArrayList<>();
+        final JsonEventAdapter adapter = new JsonEventAdapter(
+                new ObjectConstructionController<>(PurchaseOrderData.class, purchaseOrders::add),
+                PurchaseOrderData.class);
+        assertThat(adapter.process(new StringReader(newJsonFeed(25, 2)))).isEqualTo(25);
+        verifyOrders(purchaseOrders, 25, 2);
+    }
+
+    @Test
+    public void bindDirectlyAndCompareWithStateTablesAndXml() throws Exception {
+        final List<PurchaseOrderData> fromStateTables = new ArrayList<>();
+        new JsonEventAdapter(
+                new ObjectConstructionController<>(PurchaseOrderData.class, fromStateTables::add),
+                PurchaseOrderData.class).process(new StringReader(newJsonFeed(10, 3)));
+
+        final List<PurchaseOrderData> fromBinder = new ArrayList<>();
+        final ByteBuffer bytes = ByteBuffer.wrap(newJsonFeed(10, 3).getBytes(UTF_8));
+        assertThat(new JsonObjectBinder<>(PurchaseOrderData.class, fromBinder::add).bind(bytes)).isEqualTo(10);
+        assertThat(bytes.position()).isEqualTo(0);
+
+        final List<PurchaseOrderData> fromXml = new ArrayList<>();
+        SAXParserFactory.newInstance().newSAXParser().parse(
+                new ByteArrayInputStream(newXmlFeed(10, 3).getBytes(UTF_8)),
+                new XmlObjectBinder<>(PurchaseOrderData.class, "Feed/PurchaseOrderData", fromXml::add));
+
+        verifyOrders(fromBinder, 10, 3);
+        assertThat(toStrings(fromBinder)).isEqualTo(toStrings(fromStateTables));
+        assertThat(toStrings(fromBinder)).isEqualTo(toStrings(fromXml));
+    }
+
+    @Test
+    public void processNestedObjectAndVerify() throws Exception {
+        final List<ShipmentData> fromStateTables = new ArrayList<>();
+        new JsonEventAdapter(
+                new ObjectConstructionController<>(ShipmentData.class, fromStateTables::add),
+                ShipmentData.class).process(new StringReader(SHIPMENT));
+        final List<ShipmentData> fromBinder = new ArrayList<>();
+        new JsonObjectBinder<>(ShipmentData.class, fromBinder::add).bind(new StringReader(SHIPMENT));
+
+        assertThat(fromStateTables.size()).isEqualTo(1);
+        final ShipmentData shipment = fromStateTables.get(0);
+        assertThat(shipment.getShipmentId()).isEqualTo("SHIP-\"7\"");
+        assertThat(shipment.getAddress().getStreet()).isEqualTo("1 Main St\u00e9");
+        assertThat(shipment.getAddress().getPostalCode()).isEqualTo(12345);
+        assertThat(shipment.getLabels()).isEmpty();
+        assertThat(toStrings(fromBinder)).isEqualTo(toStrings(fromStateTables));
+    }
+
+    @Test
+    public void bindSimpleArrayOnlyWithBinder() throws Exception {
+        final String json = SHIPMENT.replace("\"labels\": []", "\"labels\": [\"fragile\", null, \"heavy\"]");
+        final List<ShipmentData> shipments = new ArrayList<>();
+        new JsonObjectBinder<>(ShipmentData.class, shipments::add).bind(new StringReader(json));
+        assertThat(shipments.get(0).getLabels()).containsExactly("fragile", "heavy");
+
+        thrown.expect(StateExeException.class);
+        thrown.expectMessage("are simple values");
+        new JsonEventAdapter(
+                new ObjectConstructionController<>(ShipmentData.class, shipments::add),
+                ShipmentData.class).process(new StringReader(json));
+    }
+
+    @Test
+    public void tokenizeAndVerify() throws Exception {
+        final JsonTokenizer tokenizer = new JsonTokenizer(
+                new StringReader("{\"a\": [-0.5e+3, true, false, null, \"x\\ty\"]}\n{\"a\": 10}"));
+        final List<String> tokens = new ArrayList<>();
+        for (JsonToken token = tokenizer.next(); JsonToken.END != token; token = tokenizer.next()) {
+            tokens.add(token + ((null == tokenizer.getText()) ? "" : ":" + tokenizer.getText()));
+        }
+        assertThat(tokens).containsExactly("START_OBJECT", "FIELD_NAME:a", "START_ARRAY", "NUMBER:-0.5e+3",
+                "TRUE:true", "FALSE:false", "NULL", "STRING:x\ty", "END_ARRAY", "END_OBJECT",
+                "START_OBJECT", "FIELD_NAME:a", "NUMBER:10", "END_OBJECT");
+        assertThat(tokenizer.getLineNumber()).isEqualTo(2);
+    }
+
+    @Test
+    public void tokenizeEmptyInput() throws Exception {
+        assertThat(new JsonTokenizer(new StringReader("")).next()).isEqualTo(JsonToken.END);
+        final JsonTokenizer tokenizer = new JsonTokenizer(ByteBuffer.wrap(new byte[0]));
+        assertThat(tokenizer.next()).isEqualTo(JsonToken.END);
+        assertThat(tokenizer.next()).isEqualTo(JsonToken.END);
+        assertThat(new JsonTokenizer(ByteBuffer.wrap(" \n".getBytes(UTF_8))).next()).isEqualTo(JsonToken.END);
+    }
+
+    @Test
+    public void processMalformedJsonAndFail() throws Exception {
+        final String json = newJsonFeed(3, 1).replace("\"ACCT-2\",", "\"ACCT-2\"");
+        final List<PurchaseOrderData> purchaseOrders = new ArrayList<>();
+        thrown.expect(StateExeException.class);
+        thrown.expectMessage("expected ',' or '}' at line 9");
+        new JsonObjectBinder<>(PurchaseOrderData.class, purchaseOrders::add).bind(new StringReader(json));
+    }
+
+    /**
+     * Benchmark comparing the throughput of the JSON and XML front ends, which only runs when requested with the
+     * {@link #RUN_BENCHMARKS} system property since its timings mean little in a unit test run.
+     */
+    @Test
+    public void compareThroughputWithXml() throws Exception {
+        Assume.assumeTrue("Benchmarks run only when requested", Boolean.getBoolean(RUN_BENCHMARKS));
+        final int orderCount = 50;
+        final int itemCount = 4;
+        final String json = newJsonFeed(orderCount, itemCount);
+        final byte[] xml = newXmlFeed(orderCount, itemCount).getBytes(UTF_8);
+        // The state table path binds the root element, so it reads each order as a document of its own
+        final List<byte[]> xmlOrders = new ArrayList<>();
+        for (final String order : new String(xml, UTF_8).split("(?=<PurchaseOrderData>)")) {
+            if (order.startsWith("<PurchaseOrderData>")) {
+                xmlOrders.add(order.replace("</Feed>", "").getBytes(UTF_8));
+            }
+        }
+        final SAXParser saxParser = SAXParserFactory.newInstance().newSAXParser();
+        final List<PurchaseOrderData> orders = new ArrayList<>();
+        final SaxEventAdapter saxEventAdapter = new SaxEventAdapter(new XmlObjectBuilderAdapter(
+                new ObjectConstructionController<>(PurchaseOrderData.class, orders::add)));
+        final JsonEventAdapter jsonEventAdapter = new JsonEventAdapter(
+                new ObjectConstructionController<>(PurchaseOrderData.class, orders::add), PurchaseOrderData.class);
+        final XmlObjectBinder<PurchaseOrderData> xmlBinder =
+                new XmlObjectBinder<>(PurchaseOrderData.class, "Feed/PurchaseOrderData", orders::add);
+        final JsonObjectBinder<PurchaseOrderData> jsonBinder = new JsonObjectBinder<>(PurchaseOrderData.class, orders::add);
+        final List<String> report = new ArrayList<>();
+        // Each front end reads the feed once to warm up and once to be measured
+        for (int pass = 0; pass < 2; pass++) {
+            report.clear();
+            report.add(measure("XML state tables", orders, orderCount, () -> {
+                for (final byte[] document : xmlOrders) {
+                    saxParser.parse(new ByteArrayInputStream(document), saxEventAdapter);
+                }
+            }));
+            report.add(measure("JSON state tables", orders, orderCount, () -> jsonEventAdapter.process(new StringReader(json))));
+            report.add(measure("XML binder", orders, orderCount, () -> saxParser.parse(new ByteArrayInputStream(xml), xmlBinder)));
+            report.add(measure("JSON binder", orders, orderCount, () -> jsonBinder.bind(new StringReader(json))));
+        }
+        LOGGER.info("Front end throughput for {} orders with {} items: {}", orderCount, itemCount, report);
+    }
+
+    /** Runs the front end and returns its throughput after checking it built every order */
+    private static String measure(
+            final String name,
+            final List<PurchaseOrderData> orders,
+            final int expectedCount,
+            final FrontEnd frontEnd) throws Exception {
+        orders.clear();
+        final long start = System.nanoTime();
+        frontEnd.run();
+        final long elapsedNanos = Math.max(System.nanoTime() - start, 1L);
+        assertThat(orders.size()).isEqualTo(expectedCount);
+        return String.format("%s %.0f orders/s", name, orders.size() * 1.0e9 / elapsedNanos);
+    }
+
+    /** Verifies the orders are in order with the expected content */
+    private static void verifyOrders(final List<PurchaseOrderData> orders, final int count, final int itemCount) {
+        assertThat(orders.size()).isEqualTo(count);
+        for (int i = 1; i <= count; i++) {
+            final PurchaseOrderData order = orders.get(i - 1);
+            assertThat(order.getAccountId()).isEqualTo("ACCT-" + i);
+            assertThat(order.getPurchaseTimestamp()).isEqualTo(1000L + i);
+            assertThat(order.getTaxRate()).isEqualTo(1.5f);
+            assertThat(order.getItems().size()).isEqualTo(itemCount);
+            assertThat(order.getItems().get(itemCount - 1).getItemNumber()).isEqualTo(itemCount);
+            assertThat(order.getItems().get(0).getPrice().toPlainString()).isEqualTo("2.50");
+        }
+    }
+
+    /** Returns the string form of each object */
+    private static List<String> toStrings(final List<?> objects) {
+        return objects.stream().map(Object::toString).collect(Collectors.toList());
+    }
+
+    /** Returns a JSON array of orders, each with members the orders do not bind */
+    private static String newJsonFeed(final int count, final int itemCount) {
+        final StringBuilder json = new StringBuilder("[\n");
+        for (int i = 1; i <= count; i++) {
+            json.append((i > 1) ? ",\n" : "")
+                    .append("  {\"PurchaseTimestamp\": ").append(1000 + i).append(",\n")
+                    .append("   \"AccountId\": \"ACCT-").append(i).append("\",\n")
+                    .append("   \"Notes\": null, \"Audit\": {\"by\": [\"x\", {\"y\": 1}]},\n")
+                    .append("   \"Items\": [");
+            for (int item = 1; item <= itemCount; item++) {
+                json.append((item > 1) ? ", " : "")
+                        .append("{\"itemNumber\": ").append(item)
+                        .append(", \"sku\": \"S\", \"quantity\": 1, \"price\": 2.50, \"currency\": \"USD\"}");
+            }
+            json.append("],\n   \"TaxRate\": 1.5}");
+        }
+        return json.append("\n]\n").toString();
+    }
+
+    /** Returns the XML document equivalent to the JSON feed */
+    private static String newXmlFeed(final int count, final int itemCount) {
+        final StringBuilder xml = new StringBuilder("<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n<Feed>");
+        for (int i = 1; i <= count; i++) {
+            xml.append("<PurchaseOrderData>\n")
+                    .append("<PurchaseTimestamp>").append(1000 + i).append("</PurchaseTimestamp>\n")
+                    .append("<AccountId>ACCT-").append(i).append("</AccountId>\n")
+                    .append("<Items>");
+            for (int item = 1; item <= itemCount; item++) {
+                xml.append("<PurchaseItemData itemNumber=\"").append(item).append("\">")
+                        .append("<Sku>S</Sku><Quantity>1</Quantity><Price>2.50</Price><Currency>USD</Currency>")
+                        .append("</PurchaseItemData>");
+            }
+            xml.append("</Items>\n<TaxRate>1.5</TaxRate>\n</PurchaseOrderData>\n");
+        }
+        return xml.append("</Feed>\n").toString();
+    }
+
+    /** Reads a feed with one of the front ends */
+    private interface FrontEnd {
+        void run() throws Exception;
+    }
+}
@@ -0,0 +1,54 @@
+package com.worthent.foundation.util.state.examples.json;
+
+import com.worthent.foundation.util.state.etc.obj.ObjectConstructor;
+import com.worthent.foundation.util.state.etc.obj.ObjectField;
+
+import java.util.List;
+
+/**
+ * This data transfer object represents a shipment with a nested address and a list of simple values.
+ *
+ * @author Erik K. Worth
+ */
+public class ShipmentData {
+
+    /** Identifies the shipment */
+    private final String shipmentId;
+
+    /** Where the shipment is delivered */
+    private final AddressData address;
+
+    /** The labels on the shipment */
+    private final List<String> labels;
+
+    @ObjectConstructor
+    public ShipmentData(
+            @ObjectField("shipmentId") final String shipmentId,
+            @ObjectField("address") final AddressData address,
+            @ObjectField(value = "labels", elementType = String.class) final List<String> labels) {
+        this.shipmentId = shipmentId;
+        this.address = address;
+        this.labels = labels;
+    }
+
+    @Override
+    public String toString() {
+        return "ShipmentData{" +
+                "shipmentId='" + shipmentId + '\'' +
+                ", address=" + address +
+                ", labels=" + labels +
+                '}';
+    }
+
+    public String getShipmentId() {
+        return shipmentId;
+    }
+
+    public AddressData getAddress() {
+        return address;
+    }
+
+    public List<String> getLabels() {
+        return labels;
+    }
+}
@@ -2,6 +2,9 @@ package com.worthent.foundation.util.state.examples.turnstyle;
 
 import com.worthent.foundation.util.state.StateEvent;
 import com.worthent.foundation.util.state.StateExeException;
+import com.worthent.foundation.util.state.provider.AdaptiveIdleStrategy;
+import com.worthent.foundation.util.state.provider.BackoffIdleStrategy;
+import com.worthent.foundation.util.state.provider.IdleStrategy;
 import com.worthent.foundation.util.state.provider.SingleThreadConsumerStateTableControl;
 import org.junit.Before;
 import org.junit.Rule;
@@ -20,6 +23,7 @@ import static com.worthent.foundation.util.state.examples.turnstyle.TurnstileSta
 import static com.worthent.foundation.util.state.examples.turnstyle.TurnstileStateTable.TICKET_EVENT;
 import static com.worthent.foundation.util.state.examples.turnstyle.TurnstileStateTable.assertExpectedState;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertTrue;
 
 /**
@@ -102,4 +106,43 @@ public class SingleThreadConsumerStateTableControlTest {
         stateTableController.signalEvent(ON_EVENT);
     }
 
+    @Test
+    public void testTurnstileEntryWithBackoffIdleStrategy() throws Exception {
+        assertTurnstileEntryWithIdleStrategy(new BackoffIdleStrategy());
+    }
+
+    @Test
+    public void testTurnstileEntryWithAdaptiveIdleStrategy() throws Exception {
+        final AdaptiveIdleStrategy idleStrategy = new AdaptiveIdleStrategy();
+        assertTurnstileEntryWithIdleStrategy(idleStrategy);
+        assertTrue("Expected tuned spin budget", idleStrategy.getSpinBudgetNanos() > 0L);
+        assertTrue("Expected measured idle time", idleStrategy.getAverageIdleNanos() > 0L);
+    }
+
+    /** Runs one turnstile entry, pausing between events so each one finds the thread idle */
+    private void assertTurnstileEntryWithIdleStrategy(final IdleStrategy idleStrategy) throws Exception {
+        try (final SingleThreadConsumerStateTableControl<TurnstileData, StateEvent> stateTableController =
+                     new SingleThreadConsumerStateTableControl<>(
+                             turnstileStateTable.getTurnstileStateTable(), null, idleStrategy)) {
+            stateTableController.start();
+            for (final StateEvent event : new StateEvent[] {ON_EVENT, TICKET_EVENT, PUSH_EVENT, OFF_EVENT}) {
+                Thread.sleep(5L);
+                stateTableController.signalEvent(event);
+            }
+
+            assertExpectedState(stateQueue, TurnstileStates.LOCKED);
+            assertExpectedState(stateQueue, TurnstileStates.UNLOCKED);
+            assertExpectedState(stateQueue, TurnstileStates.LOCKED);
+            assertExpectedState(stateQueue, TurnstileStates.OFF);
+            assertTrue("Expected empty stateQueue", stateQueue.isEmpty());
+
+            final TurnstileData stateTableData = turnstileStateTable.getStateTableData();
+            assertEquals("Expected Turn Count", 1, stateTableData.getTurnCount());
+            assertEquals("Expected Ticket Count", 1, stateTableData.getTicketCount());
+            assertSame(idleStrategy, stateTableController.getIdleStrategy());
+            assertTrue("Expected wake-ups", stateTableController.getWakeupCount() > 0L);
+            assertTrue("Expected max no less than mean",
+                    stateTableController.getMaxWakeupNanos() >= stateTableController.getMeanWakeupNanos());
+        }
+    }
 }
@@ -0,0 +1,119 @@
+/*
+ * Copyright 2000-2016 Worth Enterprises, Inc.  All rights reserved.
+ */
+package com.worthent.foundation.util.state.examples.xml;
+
+import com.worthent.foundation.util.state.StateExeException;
+import com.worthent.foundation.util.state.etc.xml.ParallelXmlRecordReader;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+import org.junit.rules.TemporaryFolder;
+import org.junit.rules.TestWatcher;
+import org.junit.runner.Description;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.nio.charset.Charset;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Unit test for reading the records of an XML file on several threads.
+ *
+ * @author Erik K. Worth
+ */
+public class ParallelXmlRecordReaderTest {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(ParallelXmlRecordReaderTest.class);
+
+    private static final Charset UTF_8 = Charset.forName("UTF-8");
+
+    private static final int RECORD_COUNT = 500;
+
+    @Rule
+    public TestWatcher watchman= new TestWatcher() {
+        @Override
+        public void starting(final Description description) {
+            LOGGER.debug("Starting test {}", description.getMethodName());
+        }
+    };
+
+    @Rule
+    public ExpectedException thrown = ExpectedException.none();
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void readOrderedAndVerify() throws Exception {
+        final Path file = writeFeed(RECORD_COUNT, "</Orders>\n</Feed>\n");
+        final List<PurchaseOrderData> records = new ArrayList<>();
+        final ParallelXmlRecordReader<PurchaseOrderData> reader = new ParallelXmlRecordReader<>(
+                PurchaseOrderData.class, "PurchaseOrderData", 4, 2048, UTF_8);
+        assertThat(reader.read(file, records::add, true)).isEqualTo(RECORD_COUNT);
+        assertThat(records.size()).isEqualTo(RECORD_COUNT);
+        for (int i = 1; i <= RECORD_COUNT; i++) {
+            final PurchaseOrderData record = records.get(i - 1);
+            assertThat(record.getAccountId()).isEqualTo("ACCT-" + i);
+            assertThat(record.getItems().get(0).getItemNumber()).isEqualTo(i);
+        }
+    }
+
+    @Test
+    public void readUnorderedAndVerify() throws Exception {
+        final Path file = writeFeed(RECORD_COUNT, "</Orders>\n</Feed>\n");
+        final ConcurrentLinkedQueue<PurchaseOrderData> records = new ConcurrentLinkedQueue<>();
+        final ParallelXmlRecordReader<PurchaseOrderData> reader = new ParallelXmlRecordReader<>(
+                PurchaseOrderData.class, "PurchaseOrderData", 4, 1024, UTF_8);
+        assertThat(reader.read(file, records::add, false)).isEqualTo(RECORD_COUNT);
+        final List<Long> timestamps = records.stream()
+                .map(PurchaseOrderData::getPurchaseTimestamp)
+                .sorted()
+                .collect(Collectors.toList());
+        assertThat(timestamps.size()).isEqualTo(RECORD_COUNT);
+        for (int i = 1; i <= RECORD_COUNT; i++) {
+            assertThat(timestamps.get(i - 1)).isEqualTo(1000L + i);
+        }
+    }
+
+    @Test
+    public void readMalformedChunkAndFail() throws Exception {
+        final Path file = writeFeed(50, "</Orders>\n</Feed>\n");
+        final String feed = new String(Files.readAllBytes(file), UTF_8);
+        Files.write(file, feed.replace("<AccountId>ACCT-40</AccountId>", "<AccountId>ACCT-40").getBytes(UTF_8));
+        thrown.expect(StateExeException.class);
+        thrown.expectMessage("Error reading the chunk");
+        new ParallelXmlRecordReader<>(PurchaseOrderData.class, "PurchaseOrderData", 2, 512, UTF_8)
+                .read(file, record -> {}, true);
+    }
+
+    /** Writes a feed with records wrapped by elements that are not records and returns its path */
+    private Path writeFeed(final int count, final String trailer) throws Exception {
+        final StringBuilder xml = new StringBuilder("<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n<Feed>\n")
+                .append("    <Header><Source>test</Source></Header>\n")
+                .append("    <Orders>\n");
+        for (int i = 1; i <= count; i++) {
+            xml.append("        <PurchaseOrderData>\n")
+                    .append("            <PurchaseTimestamp>").append(1000 + i).append("</PurchaseTimestamp>\n")
+                    .append("            <AccountId>ACCT-").append(i).append("</AccountId>\n")
+                    .append("            <Items><PurchaseItemData itemNumber=\"").append(i).append("\">")
+                    .append("<Sku>S</Sku><Quantity>1</Quantity><Price>2.50</Price><Currency>USD</Currency>")
+                    .append("</PurchaseItemData></Items>\n")
+                    .append("            <TaxRate>1.5</TaxRate>\n")
+                    .append("        </PurchaseOrderData>\n");
+            if (i % 10 == 0) {
+                xml.append("        <!-- checkpoint ").append(i).append(" -->\n");
+            }
+        }
+        final Path file = folder.newFile("feed.xml").toPath();
+        Files.write(file, xml.append("    ").append(trailer).toString().getBytes(UTF_8));
+        return file;
+    }
+}
@@ -1,9 +1,8 @@
 package com.worthent.foundation.util.state.examples.xml;
 
-import com.worthent.foundation.util.state.StateTableControl;
 import com.worthent.foundation.util.state.etc.obj.ObjectConstructionController;
 import com.worthent.foundation.util.state.etc.xml.SaxEventAdapter;
-import com.worthent.foundation.util.state.etc.xml.XmlEvent;
+import com.worthent.foundation.util.state.etc.xml.XmlObjectBinder;
 import com.worthent.foundation.util.state.etc.xml.XmlObjectBuilderAdapter;
 import org.junit.Before;
 import org.junit.Rule;
@@ -27,6 +26,7 @@ import java.util.List;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.fail;
 import java.nio.charset.Charset;
 
 /**
@@ -56,15 +56,18 @@ public class SaxEventAdapterTest {
     /** The list of purchase orders received */
     private List<PurchaseOrderData> purchaseOrders;
 
+    /** The adapter turning XML events into object construction events */
+    private XmlObjectBuilderAdapter xmlObjectBuilderAdapter;
+
     /** The class being tested here */
     private SaxEventAdapter saxEventAdapter;
 
     @Before
     public void setup() {
         purchaseOrders = new LinkedList<>();
-        final StateTableControl<XmlEvent> stateTableControl = new XmlObjectBuilderAdapter(
+        xmlObjectBuilderAdapter = new XmlObjectBuilderAdapter(
                 new ObjectConstructionController<>(PurchaseOrderData.class, purchaseOrders::add));
-        saxEventAdapter = new SaxEventAdapter(stateTableControl);
+        saxEventAdapter = new SaxEventAdapter(xmlObjectBuilderAdapter);
     }
 
     @Test
@@ -115,4 +118,169 @@ public class SaxEventAdapterTest {
             saxParser.parse(inputStream, saxEventAdapter);
         }
     }
+
+    @Test
+    public void reuseAdapterAfterResetAndVerify() throws Exception {
+        final String badXml =
+                "<PurchaseOrderData>\n" +
+                "    <PurchaseTimestamp>not-a-number</PurchaseTimestamp>\n" +
+                "</PurchaseOrderData>\n";
+        final String goodXml =
+                "<PurchaseOrderData>\n" +
+                "    <PurchaseTimestamp>42</PurchaseTimestamp>\n" +
+                "    <AccountId>XYZ</AccountId>\n" +
+                "    <Items>\n" +
+                "        <PurchaseItemData itemNumber=\"1\">\n" +
+                "            <Sku>ABC-1</Sku>\n" +
+                "            <Quantity>3</Quantity>\n" +
+                "            <Price>1.50</Price>\n" +
+                "            <Currency>USD</Currency>\n" +
+                "        </PurchaseItemData>\n" +
+                "    </Items>\n" +
+                "    <TaxRate>5.0</TaxRate>\n" +
+                "</PurchaseOrderData>\n";
+        final SAXParser saxParser = SAXParserFactory.newInstance().newSAXParser();
+        try (final InputStream inputStream = new ByteArrayInputStream(badXml.getBytes(UTF_8))) {
+            saxParser.parse(inputStream, saxEventAdapter);
+            fail("Expected the bad document to fail");
+        } catch (final SAXException exc) {
+            LOGGER.debug("Bad document failed as expected: {}", exc.getMessage());
+        }
+
+        // The adapter chain is left part way through the bad document until it is reset
+        for (int i = 1; i <= 2; i++) {
+            xmlObjectBuilderAdapter.reset();
+            saxParser.reset();
+            try (final InputStream inputStream = new ByteArrayInputStream(goodXml.getBytes(UTF_8))) {
+                saxParser.parse(inputStream, saxEventAdapter);
+            }
+            assertThat(purchaseOrders.size()).isEqualTo(i);
+            assertThat(purchaseOrders.get(i - 1).getPurchaseTimestamp()).isEqualTo(42L);
+            assertThat(purchaseOrders.get(i - 1).getAccountId()).isEqualTo("XYZ");
+            assertThat(purchaseOrders.get(i - 1).getItems().size()).isEqualTo(1);
+        }
+    }
+
+    @Test
+    public void bindDirectlyAndCompareWithStateTables() throws Exception {
+        final StringBuilder xml = new StringBuilder("<PurchaseOrderData>\n")
+                .append("    <PurchaseTimestamp>1234567890</PurchaseTimestamp>\n")
+                .append("    <Unknown>ignored</Unknown>\n")
+                .append("    <AccountId>ABC</AccountId>\n")
+                .append("    <Items>\n");
+        for (int i = 1; i <= 200; i++) {
+            xml.append("        <PurchaseItemData itemNumber=\"").append(i).append("\">\n")
+                    .append("            <Sku>SKU-").append(i).append("</Sku>\n")
+                    .append("            <Quantity>").append(i % 7).append("</Quantity>\n")
+                    .append("            <Price>").append(i).append(".25</Price>\n")
+                    .append("            <Currency>USD</Currency>\n")
+                    .append("        </PurchaseItemData>\n");
+        }
+        xml.append("    </Items>\n")
+                .append("    <TaxRate>8.25</TaxRate>\n")
+                .append("</PurchaseOrderData>\n");
+        final byte[] document = xml.toString().getBytes(UTF_8);
+        final SAXParser saxParser = SAXParserFactory.newInstance().newSAXParser();
+        try (final InputStream inputStream = new ByteArrayInputStream(document)) {
+            saxParser.parse(inputStream, saxEventAdapter);
+        }
+
+        // Bind the same document twice with one binder to verify it can be reused
+        final List<PurchaseOrderData> bound = new LinkedList<>();
+        final XmlObjectBinder<PurchaseOrderData> binder = new XmlObjectBinder<>(PurchaseOrderData.class, bound::add);
+        for (int i = 0; i < 2; i++) {
+            saxParser.reset();
+            try (final InputStream inputStream = new ByteArrayInputStream(document)) {
+                saxParser.parse(inputStream, binder);
+            }
+        }
+        assertThat(purchaseOrders.size()).isEqualTo(1);
+        assertThat(bound.size()).isEqualTo(2);
+        assertThat(bound.get(0).getItems().size()).isEqualTo(200);
+        assertThat(bound.get(0).toString()).isEqualTo(purchaseOrders.get(0).toString());
+        assertThat(bound.get(1).toString()).isEqualTo(purchaseOrders.get(0).toString());
+    }
+
+    @Test
+    public void bindDirectlyWithErrorAndVerify() throws Exception {
+        thrown.expect(SAXException.class);
+        final String badXml =
+                "<PurchaseOrderData>\n" +
+                "    <PurchaseTimestamp>not-a-number</PurchaseTimestamp>\n" +
+                "</PurchaseOrderData>\n";
+        final XmlObjectBinder<PurchaseOrderData> binder =
+                new XmlObjectBinder<>(PurchaseOrderData.class, purchaseOrders::add);
+        try (final InputStream inputStream = new ByteArrayInputStream(badXml.getBytes(UTF_8))) {
+            SAXParserFactory.newInstance().newSAXParser().parse(inputStream, binder);
+        }
+    }
+
+    @Test
+    public void processSplitCharacterDataAndVerify() throws Exception {
+        // The entity references make the parser report the account ID in several chunks
+        final String xml =
+                "<PurchaseOrderData>\n" +
+                "    <PurchaseTimestamp>7</PurchaseTimestamp>\n" +
+                "    <AccountId>A&amp;B&lt;C&gt;D</AccountId>\n" +
+                "    <Items>\n" +
+                "        <PurchaseItemData itemNumber=\"1\">\n" +
+                "            <Sku>X&#45;1</Sku>\n" +
+                "            <Quantity>3</Quantity>\n" +
+                "            <Price>1.50</Price>\n" +
+                "            <Currency>USD</Currency>\n" +
+                "        </PurchaseItemData>\n" +
+                "    </Items>\n" +
+                "    <TaxRate>5.0</TaxRate>\n" +
+                "</PurchaseOrderData>\n";
+        try (final InputStream inputStream = new ByteArrayInputStream(xml.getBytes(UTF_8))) {
+            SAXParserFactory.newInstance().newSAXParser().parse(inputStream, saxEventAdapter);
+        }
+        assertThat(purchaseOrders.size()).isEqualTo(1);
+        assertThat(purchaseOrders.get(0).getAccountId()).isEqualTo("A&B<C>D");
+        assertThat(purchaseOrders.get(0).getItems().get(0).getSku()).isEqualTo("X-1");
+        assertThat(purchaseOrders.get(0).getItems().get(0).getItemNumber()).isEqualTo(1);
+    }
+
+    @Test
+    public void projectWideDocumentAndVerify() throws Exception {
+        // Without the projection, the state tables reject the unknown elements that have elements of their own
+        final String unknown =
+                "    <Audit>\n" +
+                "        <Entry><Who>someone</Who><When>today</When></Entry>\n" +
+                "        <Entry><Who>someone else</Who><When>yesterday</When></Entry>\n" +
+                "    </Audit>\n";
+        final String xml =
+                "<PurchaseOrderData>\n" +
+                unknown +
+                "    <PurchaseTimestamp>7</PurchaseTimestamp>\n" +
+                "    <AccountId>ABC</AccountId>\n" +
+                "    <Items>\n" +
+                "        <PurchaseItemData itemNumber=\"1\">\n" +
+                "            <Sku>X-1</Sku>\n" +
+                "            <Notes><Note>fragile</Note></Notes>\n" +
+                "            <Quantity>3</Quantity>\n" +
+                "            <Price>1.50</Price>\n" +
+                "            <Currency>USD</Currency>\n" +
+                "        </PurchaseItemData>\n" +
+                "    </Items>\n" +
+                unknown +
+                "    <TaxRate>5.0</TaxRate>\n" +
+                "</PurchaseOrderData>\n";
+        final SaxEventAdapter projectingAdapter = new SaxEventAdapter(
+                new XmlObjectBuilderAdapter(
+                        new ObjectConstructionController<>(PurchaseOrderData.class, purchaseOrders::add)),
+                PurchaseOrderData.class);
+        try (final InputStream inputStream = new ByteArrayInputStream(xml.getBytes(UTF_8))) {
+            SAXParserFactory.newInstance().newSAXParser().parse(inputStream, projectingAdapter);
+        }
+        assertThat(projectingAdapter.getSkippedElementCount()).isEqualTo(16);
+        assertThat(purchaseOrders.size()).isEqualTo(1);
+        final PurchaseOrderData purchaseOrderData = purchaseOrders.get(0);
+        assertThat(purchaseOrderData.getPurchaseTimestamp()).isEqualTo(7L);
+        assertThat(purchaseOrderData.getAccountId()).isEqualTo("ABC");
+        assertThat(purchaseOrderData.getTaxRate()).isEqualTo(5.0F);
+        assertThat(purchaseOrderData.getItems().size()).isEqualTo(1);
+        assertThat(purchaseOrderData.getItems().get(0).getSku()).isEqualTo("X-1");
+        assertThat(purchaseOrderData.getItems().get(0).getQuantity()).isEqualTo(3);
+    }
 }
@@ -0,0 +1,124 @@
+/*
+ * Copyright 2000-2016 Worth Enterprises, Inc.  All rights reserved.
+ */
+package com.worthent.foundation.util.state.examples.xml;
+
+import com.worthent.foundation.util.state.StateExeException;
+import com.worthent.foundation.util.state.etc.xml.XmlObjectBinder;
+import com.worthent.foundation.util.state.etc.xml.XmlRecordIterator;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+import org.junit.rules.TestWatcher;
+import org.junit.runner.Description;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.xml.parsers.SAXParserFactory;
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.nio.charset.Charset;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Unit test for streaming records from an XML document.
+ *
+ * @author Erik K. Worth
+ */
+public class XmlRecordIteratorTest {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(XmlRecordIteratorTest.class);
+
+    private static final Charset UTF_8 = Charset.forName("UTF-8");
+
+    private static final String RECORD_PATH = "/Feed/Orders/PurchaseOrderData";
+
+    @Rule
+    public TestWatcher watchman= new TestWatcher() {
+        @Override
+        public void starting(final Description description) {
+            LOGGER.debug("Starting test {}", description.getMethodName());
+        }
+    };
+
+    @Rule
+    public ExpectedException thrown = ExpectedException.none();
+
+    @Test
+    public void iterateRecordsAndVerify() throws Exception {
+        final byte[] document = newFeed(25, true).getBytes(UTF_8);
+        final List<PurchaseOrderData> records;
+        try (final InputStream inputStream = new ByteArrayInputStream(document);
+             final Stream<PurchaseOrderData> stream =
+                     new XmlRecordIterator<>(inputStream, PurchaseOrderData.class, RECORD_PATH).stream()) {
+            records = stream.collect(Collectors.toList());
+        }
+        verifyRecords(records, 25);
+    }
+
+    @Test
+    public void pushRecordsAndVerify() throws Exception {
+        final byte[] document = newFeed(25, true).getBytes(UTF_8);
+        final List<PurchaseOrderData> records = new LinkedList<>();
+        try (final InputStream inputStream = new ByteArrayInputStream(document)) {
+            SAXParserFactory.newInstance().newSAXParser().parse(inputStream,
+                    new XmlObjectBinder<>(PurchaseOrderData.class, RECORD_PATH, records::add));
+        }
+        verifyRecords(records, 25);
+    }
+
+    @Test
+    public void iterateRecordsBeforeReadingTheRestOfTheDocument() throws Exception {
+        // The document is cut off after the second record, which must not stop the first two from being returned
+        final String feed = newFeed(3, false);
+        final byte[] document = feed.substring(0, feed.lastIndexOf("<PurchaseOrderData>") + 30).getBytes(UTF_8);
+        try (final InputStream inputStream = new ByteArrayInputStream(document);
+             final XmlRecordIterator<PurchaseOrderData> iterator =
+                     new XmlRecordIterator<>(inputStream, PurchaseOrderData.class, RECORD_PATH)) {
+            assertThat(iterator.next().getAccountId()).isEqualTo("ACCT-1");
+            assertThat(iterator.next().getAccountId()).isEqualTo("ACCT-2");
+            thrown.expect(StateExeException.class);
+            thrown.expectMessage("Error reading the next record");
+            iterator.hasNext();
+        }
+    }
+
+    /** Verifies the records are in order with the expected content */
+    private static void verifyRecords(final List<PurchaseOrderData> records, final int count) {
+        assertThat(records.size()).isEqualTo(count);
+        for (int i = 1; i <= count; i++) {
+            final PurchaseOrderData record = records.get(i - 1);
+            assertThat(record.getAccountId()).isEqualTo("ACCT-" + i);
+            assertThat(record.getPurchaseTimestamp()).isEqualTo(1000L + i);
+            assertThat(record.getItems().size()).isEqualTo(1);
+            assertThat(record.getItems().get(0).getItemNumber()).isEqualTo(i);
+        }
+    }
+
+    /** Returns a feed with the records wrapped by elements that are not records */
+    private static String newFeed(final int count, final boolean withDecoys) {
+        final StringBuilder xml = new StringBuilder("<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n<Feed>\n")
+                .append("    <Header><PurchaseOrderData>not a record</PurchaseOrderData></Header>\n")
+                .append("    <Orders>\n");
+        for (int i = 1; i <= count; i++) {
+            xml.append("        <PurchaseOrderData>\n")
+                    .append("            <PurchaseTimestamp>").append(1000 + i).append("</PurchaseTimestamp>\n")
+                    .append("            <AccountId>ACCT-").append(i).append("</AccountId>\n")
+                    .append("            <Items><PurchaseItemData itemNumber=\"").append(i).append("\">")
+                    .append("<Sku>S</Sku><Quantity>1</Quantity><Price>2.50</Price><Currency>USD</Currency>")
+                    .append("</PurchaseItemData></Items>\n")
+                    .append("            <TaxRate>1.5</TaxRate>\n")
+                    .append("        </PurchaseOrderData>\n");
+            if (withDecoys && i % 10 == 0) {
+                xml.append("        <!-- checkpoint ").append(i).append(" -->\n")
+                        .append("        <Checkpoint><PurchaseOrderData/></Checkpoint>\n");
+            }
+        }
+        return xml.append("    </Orders>\n</Feed>\n").toString();
+    }
+}
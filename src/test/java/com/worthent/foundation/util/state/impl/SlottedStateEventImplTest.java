@@ -0,0 +1,127 @@
+/*
+ * Copyright 2000-2016 Worth Enterprises, Inc.  All rights reserved.
+ */
+package com.worthent.foundation.util.state.impl;
+
+import com.worthent.foundation.util.state.PooledStateEvent;
+import com.worthent.foundation.util.state.SlottedStateEvent;
+import com.worthent.foundation.util.state.SlottedStateEventBuilder;
+import com.worthent.foundation.util.state.StateEventPool;
+import com.worthent.foundation.util.state.StateEventSchema;
+import com.worthent.foundation.util.state.StateEventWithDataMap;
+import com.worthent.foundation.util.state.StateEvents;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests events with their data held in the slots declared by an event schema.
+ *
+ * @author Erik K. Worth
+ */
+public class SlottedStateEventImplTest {
+
+    private static final StateEventSchema ORDER = StateEvents.schema("Order")
+            .withField("symbol", String.class)
+            .withField("quantity", int.class)
+            .withField("orderId", long.class)
+            .withField("price", double.class)
+            .withField("buy", boolean.class)
+            .build();
+
+    private static final int SYMBOL = ORDER.slotOf("symbol");
+    private static final int QUANTITY = ORDER.slotOf("quantity");
+    private static final int ORDER_ID = ORDER.slotOf("orderId");
+    private static final int PRICE = ORDER.slotOf("price");
+    private static final int BUY = ORDER.slotOf("buy");
+
+    @Rule
+    public ExpectedException thrown = ExpectedException.none();
+
+    @Test
+    public void build_withTypedSlotsAndConfirm() {
+        final SlottedStateEvent event = ORDER.builder()
+                .withValue(SYMBOL, "ACME")
+                .withInt(QUANTITY, 100)
+                .withLong(ORDER_ID, 1234567890123L)
+                .withDouble(PRICE, 12.5)
+                .withBoolean(BUY, true)
+                .build();
+        assertThat(event.getName()).isEqualTo("Order");
+        assertThat(event.getSchema()).isSameAs(ORDER);
+        assertThat((String) event.getValue(SYMBOL)).isEqualTo("ACME");
+        assertThat(event.getInt(QUANTITY)).isEqualTo(100);
+        assertThat(event.getLong(QUANTITY)).isEqualTo(100L);
+        assertThat(event.getLong(ORDER_ID)).isEqualTo(1234567890123L);
+        assertThat(event.getDouble(PRICE)).isEqualTo(12.5);
+        assertThat(event.getBoolean(BUY)).isTrue();
+        assertThat(ORDER.slotOf("missing")).isEqualTo(-1);
+    }
+
+    @Test
+    public void build_readThroughDataMapInterface() {
+        final StateEventWithDataMap event = ORDER.builder()
+                .withEventData("symbol", "ACME")
+                .withEventData("quantity", 7)
+                .build();
+        final Integer quantity = event.getRequiredEventData("quantity");
+        assertThat(quantity).isEqualTo(7);
+        assertThat((String) event.getEventData("symbol")).isEqualTo("ACME");
+        assertThat((Object) event.getEventData("price")).isNull();
+        assertThat(event.getEventData()).containsOnlyKeys("symbol", "quantity");
+    }
+
+    @Test
+    public void build_builderReuseDoesNotChangeBuiltEvents() {
+        final SlottedStateEventBuilder builder = ORDER.builder();
+        final SlottedStateEvent first = builder.withInt(QUANTITY, 1).build();
+        final SlottedStateEvent second = builder.withInt(QUANTITY, 2).build();
+        assertThat(first.getInt(QUANTITY)).isEqualTo(1);
+        assertThat(second.getInt(QUANTITY)).isEqualTo(2);
+    }
+
+    @Test
+    public void build_withNullLeavesSlotUnset() {
+        final SlottedStateEvent event = ORDER.builder()
+                .withInt(QUANTITY, 3)
+                .withValue(QUANTITY, null)
+                .withValue(SYMBOL, null)
+                .build();
+        assertThat(event.isSet(QUANTITY)).isFalse();
+        assertThat((Integer) event.getValue(QUANTITY)).isNull();
+        assertThat(event.isSet(SYMBOL)).isFalse();
+        assertThat(event.getEventData()).isEmpty();
+    }
+
+    @Test
+    public void build_withWrongTypeFails() {
+        thrown.expect(IllegalArgumentException.class);
+        ORDER.builder().withValue(QUANTITY, "lots");
+    }
+
+    @Test
+    public void getter_withWrongTypeFails() {
+        thrown.expect(IllegalArgumentException.class);
+        ORDER.builder().build().getDouble(QUANTITY);
+    }
+
+    @Test
+    public void pool_recyclesEvents() {
+        final StateEventPool pool = ORDER.newPool(4);
+        final PooledStateEvent event = pool.acquire().setInt(QUANTITY, 5).setValue(SYMBOL, "ACME");
+        assertThat(event.getInt(QUANTITY)).isEqualTo(5);
+        event.recycle();
+        assertThat(pool.getIdleCount()).isEqualTo(1);
+
+        final PooledStateEvent reused = pool.acquire();
+        assertThat(reused).isSameAs(event);
+        assertThat(reused.isSet(QUANTITY)).isFalse();
+        assertThat((String) reused.getValue(SYMBOL)).isNull();
+        reused.recycle();
+
+        thrown.expect(IllegalStateException.class);
+        reused.recycle();
+    }
+}
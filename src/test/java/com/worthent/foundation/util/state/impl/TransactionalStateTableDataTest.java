@@ -0,0 +1,164 @@
+/*
+ * Copyright 2000-2016 Worth Enterprises, Inc.  All rights reserved.
+ */
+package com.worthent.foundation.util.state.impl;
+
+import com.worthent.foundation.util.state.AbstractTransactionalStateTableData;
+import com.worthent.foundation.util.state.StateEventWithDataMap;
+import com.worthent.foundation.util.state.StateEvents;
+import com.worthent.foundation.util.state.StateExeException;
+import com.worthent.foundation.util.state.StateTable;
+import com.worthent.foundation.util.state.StateTableControl;
+import com.worthent.foundation.util.state.def.StateTableDef;
+import com.worthent.foundation.util.state.def.impl.StateTableDefBuilderImpl;
+import com.worthent.foundation.util.state.provider.SerialStateTableControl;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TestWatcher;
+import org.junit.runner.Description;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.IntConsumer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.fail;
+
+/**
+ * Test cases for state table data changed in place by actors and rolled back by the engine on failure.
+ *
+ * @author Erik K. Worth
+ */
+public class TransactionalStateTableDataTest {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(TransactionalStateTableDataTest.class);
+
+    private static final String OPEN = "OPEN";
+    private static final String OVERDRAWN = "OVERDRAWN";
+    private static final String AMOUNT = "amount";
+
+    @Rule
+    public TestWatcher watchman= new TestWatcher() {
+        @Override
+        public void starting(final Description description) {
+            LOGGER.debug("Starting test {}", description.getMethodName());
+        }
+    };
+
+    /** Account data changed in place by the actors */
+    private static final class AccountData extends AbstractTransactionalStateTableData {
+
+        private final IntConsumer restoreBalance = value -> balance = value;
+
+        private final List<String> history = new ArrayList<>();
+
+        private int balance;
+
+        private AccountData() {
+            super(OPEN, OPEN);
+        }
+
+        private int getBalance() {
+            return balance;
+        }
+
+        private void setBalance(final int balance) {
+            trackInt(restoreBalance, this.balance);
+            this.balance = balance;
+        }
+
+        private void addHistory(final String entry) {
+            history.add(entry);
+            trackAction(() -> history.remove(history.size() - 1));
+        }
+    }
+
+    private AccountData account;
+
+    private int getterCalls;
+
+    private StateTableControl<StateEventWithDataMap> control;
+
+    @Before
+    public void setup() {
+        account = new AccountData();
+        getterCalls = 0;
+        final StateTableDef<AccountData, StateEventWithDataMap> tableDef =
+                new StateTableDefBuilderImpl<AccountData, StateEventWithDataMap>()
+                        .setName("Account")
+                        .withState(OPEN)
+                            .transitionOnEvent("Deposit")
+                                .toState(OPEN)
+                                .withActor(context -> {
+                                    final int amount = context.getEvent().getRequiredEventData(AMOUNT);
+                                    context.getStateTableData().setBalance(
+                                            context.getStateTableData().getBalance() + amount);
+                                    context.getStateTableData().addHistory("deposit " + amount);
+                                })
+                                .endTransition()
+                            .transitionOnEvent("Withdraw")
+                                .toState(OVERDRAWN)
+                                .withActor(context -> {
+                                    final int amount = context.getEvent().getRequiredEventData(AMOUNT);
+                                    final AccountData data = context.getStateTableData();
+                                    data.setBalance(data.getBalance() - amount);
+                                    data.addHistory("withdraw " + amount);
+                                    if (data.getBalance() < -100) {
+                                        throw new IllegalStateException("Over the limit");
+                                    }
+                                })
+                                .endTransition()
+                            .endState()
+                        .withState(OVERDRAWN)
+                            .transitionOnEvent("Deposit").toState(OPEN).endTransition()
+                            .endState()
+                        .build();
+        final StateTable<AccountData, StateEventWithDataMap> stateTable =
+                new StateTableBuilderImpl<AccountData, StateEventWithDataMap>()
+                        .withStateTableDefinition(tableDef)
+                        .withStateTableDataManager()
+                            .withDataGetter(e -> {
+                                getterCalls++;
+                                return account;
+                            })
+                            .withDataSetter((e, d) -> {})
+                            .endDataManager()
+                        .build();
+        control = new SerialStateTableControl<>(stateTable);
+        control.start();
+    }
+
+    @Test
+    public void testSuccessfulTransitionsKeepChanges() {
+        control.signalEvent(StateEvents.builder("Deposit").withEventData(AMOUNT, 50).build());
+        control.signalEvent(StateEvents.builder("Withdraw").withEventData(AMOUNT, 80).build());
+        assertThat(account.getBalance()).isEqualTo(-30);
+        assertThat(account.getCurrentState()).isEqualTo(OVERDRAWN);
+        assertThat(account.getPriorState()).isEqualTo(OPEN);
+        assertThat(account.history).containsExactly("deposit 50", "withdraw 80");
+        assertThat(account.isInTransition()).isFalse();
+    }
+
+    @Test
+    public void testFailedTransitionRollsBackChanges() {
+        control.signalEvent(StateEvents.builder("Deposit").withEventData(AMOUNT, 50).build());
+        try {
+            control.signalEvent(StateEvents.builder("Withdraw").withEventData(AMOUNT, 200).build());
+            fail("Expected the withdrawal to fail");
+        } catch (final StateExeException exc) {
+            LOGGER.debug("Withdrawal failed as expected", exc);
+        }
+        assertThat(account.getBalance()).isEqualTo(50);
+        assertThat(account.getCurrentState()).isEqualTo(OPEN);
+        assertThat(account.history).containsExactly("deposit 50");
+        assertThat(account.isInTransition()).isFalse();
+
+        // The same instance is used for every event
+        control.signalEvent(StateEvents.builder("Withdraw").withEventData(AMOUNT, 60).build());
+        assertThat(account.getBalance()).isEqualTo(-10);
+        assertThat(getterCalls).isEqualTo(3);
+    }
+}
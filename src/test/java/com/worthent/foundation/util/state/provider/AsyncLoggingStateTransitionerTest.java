@@ -0,0 +1,134 @@
+/*
+ * Copyright 2000-2016 Worth Enterprises, Inc.  All rights reserved.
+ */
+package com.worthent.foundation.util.state.provider;
+
+import com.worthent.foundation.util.state.StateEvent;
+import com.worthent.foundation.util.state.StateEvents;
+import com.worthent.foundation.util.state.StateTable;
+import com.worthent.foundation.util.state.StateTableControl;
+import com.worthent.foundation.util.state.StateTableData;
+import com.worthent.foundation.util.state.TransitionContext;
+import com.worthent.foundation.util.state.def.StateTableDef;
+import com.worthent.foundation.util.state.def.impl.StateTableDefBuilderImpl;
+import com.worthent.foundation.util.state.examples.turnstyle.TurnstileData;
+import com.worthent.foundation.util.state.impl.StateTableBuilderImpl;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TestWatcher;
+import org.junit.runner.Description;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Test cases for writing state transitions asynchronously.
+ *
+ * @author Erik K. Worth
+ */
+public class AsyncLoggingStateTransitionerTest {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(AsyncLoggingStateTransitionerTest.class);
+
+    @Rule
+    public TestWatcher watchman= new TestWatcher() {
+        @Override
+        public void starting(final Description description) {
+            LOGGER.debug("Starting test {}", description.getMethodName());
+        }
+    };
+
+    @Test
+    public void testTransitionsAreWrittenInOrder() {
+        final List<String> lines = Collections.synchronizedList(new ArrayList<>());
+        final AsyncLoggingStateTransitioner<TurnstileData, StateEvent> transitioner =
+                new AsyncLoggingStateTransitioner<>(lines::add, 64, TimeUnit.MILLISECONDS.toNanos(1L));
+        final StateTableDef<TurnstileData, StateEvent> tableDef =
+                new StateTableDefBuilderImpl<TurnstileData, StateEvent>()
+                        .setName("AuditedTurnstile")
+                        .withState("OFF")
+                            .transitionOnEvent("ON").toState("LOCKED").endTransition()
+                            .endState()
+                        .withState("LOCKED")
+                            .transitionOnEvent("OFF").toState("OFF").endTransition()
+                            .endState()
+                        .build();
+        final TurnstileData[] data = {new TurnstileData(new LinkedList<>())};
+        final StateTable<TurnstileData, StateEvent> stateTable = new StateTableBuilderImpl<TurnstileData, StateEvent>()
+                .withStateTableDefinition(tableDef)
+                .withStateTableDataManager()
+                    .withDataGetter(e -> data[0])
+                    .withDataSetter((e, d) -> data[0] = d)
+                    .endDataManager()
+                .withStateTransitioner(transitioner)
+                .build();
+        final StateTableControl<StateEvent> control = new SerialStateTableControl<>(stateTable);
+        control.start();
+        for (int i = 0; i < 10; i++) {
+            control.signalEvent(StateEvents.builder("ON").build());
+            control.signalEvent(StateEvents.builder("OFF").build());
+        }
+        transitioner.close();
+
+        assertThat(transitioner.getWrittenCount()).isEqualTo(20);
+        assertThat(transitioner.getDroppedCount()).isZero();
+        assertThat(lines).hasSize(20);
+        assertThat(lines.get(0)).endsWith("The state table, AuditedTurnstile, transitioned from state, OFF, " +
+                "to state, LOCKED, having successfully processed the event, ON");
+        assertThat(lines.get(1)).contains("from state, LOCKED, to state, OFF");
+    }
+
+    @Test
+    public void testFullBufferDropsRecords() {
+        final List<String> lines = Collections.synchronizedList(new ArrayList<>());
+        final AsyncLoggingStateTransitioner<StateTableData, StateEvent> transitioner =
+                new AsyncLoggingStateTransitioner<>(lines::add, 2, TimeUnit.SECONDS.toNanos(10L));
+        final TransitionContext<StateTableData, StateEvent> context = newMockContext();
+        for (int i = 0; i < 10; i++) {
+            transitioner.onTransition(context);
+        }
+        transitioner.close();
+
+        assertThat(transitioner.getDroppedCount()).isGreaterThan(0);
+        assertThat(transitioner.getWrittenCount() + transitioner.getDroppedCount()).isEqualTo(10);
+        assertThat(lines).hasSize((int) transitioner.getWrittenCount());
+    }
+
+    @Test
+    public void testTransitionsAfterCloseAreDropped() {
+        final List<String> lines = Collections.synchronizedList(new ArrayList<>());
+        final AsyncLoggingStateTransitioner<StateTableData, StateEvent> transitioner =
+                new AsyncLoggingStateTransitioner<>(lines::add, 64, TimeUnit.SECONDS.toNanos(10L));
+        final TransitionContext<StateTableData, StateEvent> context = newMockContext();
+        transitioner.onTransition(context);
+        transitioner.close();
+        for (int i = 0; i < 100; i++) {
+            transitioner.onTransition(context);
+        }
+
+        assertThat(transitioner.getWrittenCount()).isEqualTo(1);
+        assertThat(transitioner.getDroppedCount()).isEqualTo(100);
+        assertThat(lines).hasSize(1);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static TransitionContext<StateTableData, StateEvent> newMockContext() {
+        final StateTable<StateTableData, StateEvent> stateTable = mock(StateTable.class);
+        when(stateTable.getStateTableName()).thenReturn("Mock");
+        final TransitionContext<StateTableData, StateEvent> context = mock(TransitionContext.class);
+        when(context.getStateTable()).thenReturn(stateTable);
+        when(context.getFromState()).thenReturn("A");
+        when(context.getToState()).thenReturn("B");
+        when(context.getEvent()).thenReturn(StateEvents.builder("Go").build());
+        return context;
+    }
+}
@@ -0,0 +1,186 @@
+/*
+ * Copyright 2000-2016 Worth Enterprises, Inc.  All rights reserved.
+ */
+package com.worthent.foundation.util.state.provider;
+
+import com.worthent.foundation.util.state.AbstractStateTableData;
+import com.worthent.foundation.util.state.StateEventWithDataMap;
+import com.worthent.foundation.util.state.StateEvents;
+import com.worthent.foundation.util.state.StateExeException;
+import com.worthent.foundation.util.state.StateTable;
+import com.worthent.foundation.util.state.data.KeyedStateTableDataManager;
+import com.worthent.foundation.util.state.data.impl.ConcurrentMapStateTableDataManager;
+import com.worthent.foundation.util.state.def.StateDefException;
+import com.worthent.foundation.util.state.impl.StateTableBuilderImpl;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+import org.junit.rules.TestWatcher;
+import org.junit.runner.Description;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.AbstractMap;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Test cases for the keyed data manager and the initializer that brings up its instances in parallel.
+ *
+ * @author Erik K. Worth
+ */
+public class BulkStateTableInitializerTest {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(BulkStateTableInitializerTest.class);
+
+    private static final String CLOSED = "Closed";
+    private static final String OPEN = "Open";
+    private static final String OPEN_EVENT = "open";
+    private static final String CLOSE_EVENT = "close";
+    private static final String KEY = "key";
+
+    @Rule
+    public TestWatcher watchman= new TestWatcher() {
+        @Override
+        public void starting(final Description description) {
+            LOGGER.debug("Starting test {}", description.getMethodName());
+        }
+    };
+
+    @Rule
+    public ExpectedException thrown = ExpectedException.none();
+
+    /** State table data for one door */
+    public static class DoorData extends AbstractStateTableData {
+        public DoorData(final String initialState) {
+            super(initialState, initialState);
+        }
+    }
+
+    private KeyedStateTableDataManager<Integer, DoorData, StateEventWithDataMap> dataManager;
+
+    private StateTable<DoorData, StateEventWithDataMap> stateTable;
+
+    @Before
+    public void setup() {
+        dataManager = new ConcurrentMapStateTableDataManager<>(
+                e -> e.getEventData(KEY), (key, state) -> new DoorData(state));
+        stateTable = new StateTableBuilderImpl<DoorData, StateEventWithDataMap>()
+                .withStateTableDefinition()
+                    .setName("Doors")
+                    .withState(CLOSED)
+                        .transitionOnEvent(OPEN_EVENT).toState(OPEN).endTransition()
+                        .endState()
+                    .withState(OPEN)
+                        .transitionOnEvent(CLOSE_EVENT).toState(CLOSED).endTransition()
+                        .endState()
+                    .endDefinition()
+                .withStateTableDataManager(dataManager)
+                .build();
+    }
+
+    @Test
+    public void testInitializesAllInstancesInParallel() throws Exception {
+        final int instanceCount = 50000;
+        final List<Long> progress = new CopyOnWriteArrayList<>();
+        final BulkStateTableInitializer<Integer, DoorData, StateEventWithDataMap> initializer =
+                new BulkStateTableInitializer<>(stateTable, 4, 256);
+
+        final BulkInitializationReport report = initializer.initialize(
+                IntStream.range(0, instanceCount).<Map.Entry<Integer, String>>mapToObj(key ->
+                        new AbstractMap.SimpleImmutableEntry<>(key, (key % 10 == 0) ? OPEN : null)).spliterator(),
+                progress::add);
+
+        LOGGER.debug("{}", report);
+        assertThat(report.getInitializedCount()).isEqualTo(instanceCount);
+        assertThat(report.getFailedCount()).isZero();
+        assertThat(report.getFirstError()).isNull();
+        assertThat(dataManager.getInstanceCount()).isEqualTo(instanceCount);
+        assertThat(progress).isNotEmpty();
+        assertThat(progress).contains((long) instanceCount);
+
+        final SerialStateTableControl<DoorData, StateEventWithDataMap> control =
+                new SerialStateTableControl<>(stateTable);
+        control.start();
+        control.signalEvent(StateEvents.builder(OPEN_EVENT).withEventData(KEY, 1).build());
+        assertThat(stateTable.getStateTableDataManager().getStateTableData(openEvent(1)).getCurrentState())
+                .isEqualTo(OPEN);
+        assertThat(stateTable.getStateTableDataManager().getStateTableData(openEvent(20)).getCurrentState())
+                .isEqualTo(OPEN);
+        assertThat(stateTable.getStateTableDataManager().getStateTableData(openEvent(21)).getCurrentState())
+                .isEqualTo(CLOSED);
+    }
+
+    @Test
+    public void testSplitsIteratorsIntoBatches() throws Exception {
+        final List<Map.Entry<Integer, String>> seeds = new ArrayList<>();
+        for (int key = 0; key < 35; key++) {
+            seeds.add(new AbstractMap.SimpleImmutableEntry<>(key, null));
+        }
+        final List<Long> progress = new CopyOnWriteArrayList<>();
+        final BulkStateTableInitializer<Integer, DoorData, StateEventWithDataMap> initializer =
+                new BulkStateTableInitializer<>(stateTable, 1, 10);
+
+        final BulkInitializationReport report = initializer.initialize(seeds.iterator(), progress::add);
+
+        assertThat(report.getInitializedCount()).isEqualTo(35L);
+        // Each part taken from the iterator holds exactly one batch
+        assertThat(progress).containsExactly(10L, 20L, 30L, 35L);
+    }
+
+    @Test
+    public void testCountsFailedInstances() throws Exception {
+        final List<Map.Entry<Integer, String>> seeds = new ArrayList<>();
+        seeds.add(new AbstractMap.SimpleImmutableEntry<>(1, CLOSED));
+        seeds.add(new AbstractMap.SimpleImmutableEntry<>(null, CLOSED));
+        seeds.add(new AbstractMap.SimpleImmutableEntry<>(3, CLOSED));
+
+        final BulkStateTableInitializer<Integer, DoorData, StateEventWithDataMap> initializer =
+                new BulkStateTableInitializer<>(stateTable, 2, 1);
+        final BulkInitializationReport report = initializer.initialize(seeds.iterator(), null);
+
+        assertThat(report.getInitializedCount()).isEqualTo(2L);
+        assertThat(report.getFailedCount()).isEqualTo(1L);
+        assertThat(report.getFirstError()).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    public void testCountsUndefinedInitialStates() throws Exception {
+        final List<Map.Entry<Integer, String>> seeds = new ArrayList<>();
+        seeds.add(new AbstractMap.SimpleImmutableEntry<>(1, CLOSED));
+        seeds.add(new AbstractMap.SimpleImmutableEntry<>(2, "Ajar"));
+
+        final BulkStateTableInitializer<Integer, DoorData, StateEventWithDataMap> initializer =
+                new BulkStateTableInitializer<>(stateTable, 2, 1);
+        final BulkInitializationReport report = initializer.initialize(seeds.spliterator(), null);
+
+        assertThat(report.getInitializedCount()).isEqualTo(1L);
+        assertThat(report.getFailedCount()).isEqualTo(1L);
+        assertThat(report.getFirstError()).isInstanceOf(StateDefException.class);
+        assertThat(dataManager.isInitialized(2)).isFalse();
+    }
+
+    @Test
+    public void testRejectsEventsForUninitializedInstances() throws Exception {
+        dataManager.initializeStateTableData(1, CLOSED);
+        final SerialStateTableControl<DoorData, StateEventWithDataMap> control =
+                new SerialStateTableControl<>(stateTable);
+        control.start();
+        control.signalEvent(openEvent(1));
+        assertThat(dataManager.isInitialized(1)).isTrue();
+        assertThat(dataManager.isInitialized(2)).isFalse();
+
+        thrown.expect(StateExeException.class);
+        control.signalEvent(openEvent(2));
+    }
+
+    private static StateEventWithDataMap openEvent(final int key) {
+        return StateEvents.builder(OPEN_EVENT).withEventData(KEY, key).build();
+    }
+}
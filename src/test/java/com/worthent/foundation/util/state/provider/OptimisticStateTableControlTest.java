@@ -0,0 +1,158 @@
+/*
+ * Copyright 2000-2016 Worth Enterprises, Inc.  All rights reserved.
+ */
+package com.worthent.foundation.util.state.provider;
+
+import com.worthent.foundation.util.state.AbstractVersionedStateTableData;
+import com.worthent.foundation.util.state.StateEventWithDataMap;
+import com.worthent.foundation.util.state.StateEvents;
+import com.worthent.foundation.util.state.StateTable;
+import com.worthent.foundation.util.state.annotation.Actor;
+import com.worthent.foundation.util.state.data.impl.OptimisticStateTableDataManagerImpl;
+import com.worthent.foundation.util.state.def.StateDef;
+import com.worthent.foundation.util.state.def.StateDefException;
+import com.worthent.foundation.util.state.impl.StateTableBuilderImpl;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TestWatcher;
+import org.junit.runner.Description;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Test cases for the control that processes events in optimistic concurrency mode.
+ *
+ * @author Erik K. Worth
+ */
+public class OptimisticStateTableControlTest {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(OptimisticStateTableControlTest.class);
+
+    private static final String COUNTING = "Counting";
+    private static final String INCREMENT = "Increment";
+    private static final String KEY = "key";
+
+    @Rule
+    public TestWatcher watchman= new TestWatcher() {
+        @Override
+        public void starting(final Description description) {
+            LOGGER.debug("Starting test {}", description.getMethodName());
+        }
+    };
+
+    /** State table data with a counter incremented by a retry-safe actor */
+    public static class CounterData extends AbstractVersionedStateTableData {
+        private int count;
+
+        public CounterData() {
+            super(COUNTING, COUNTING);
+        }
+
+        public CounterData(final CounterData other) {
+            super(other);
+            this.count = other.count;
+        }
+
+        @Actor(retrySafe = true)
+        public void increment() {
+            count++;
+        }
+
+        public int getCount() {
+            return count;
+        }
+    }
+
+    /** State table data with an actor that is not declared retry-safe */
+    public static class UnsafeCounterData extends CounterData {
+        @Actor
+        public void unsafeIncrement() {
+            increment();
+        }
+    }
+
+    @Test
+    public void testConcurrentIncrementsAllCommit() throws Exception {
+        final OptimisticStateTableDataManagerImpl<String, CounterData, StateEventWithDataMap> dataManager =
+                new OptimisticStateTableDataManagerImpl<>(
+                        e -> (String) e.getEventData(KEY), k -> new CounterData(), CounterData::new);
+        final StateTable<CounterData, StateEventWithDataMap> stateTable =
+                new StateTableBuilderImpl<CounterData, StateEventWithDataMap>()
+                        .withStateTableDefinition()
+                            .setName("Counter")
+                            .usingActorsInClass(CounterData.class)
+                            .withState(COUNTING)
+                                .transitionOnEvent(INCREMENT)
+                                    .toState(StateDef.STAY_IN_STATE)
+                                    .withActorsByName("increment")
+                                    .endTransition()
+                                .endState()
+                            .endDefinition()
+                        .withStateTableDataManager(dataManager)
+                        .build();
+        final OptimisticStateTableControl<CounterData, StateEventWithDataMap> control =
+                new OptimisticStateTableControl<>(stateTable, 2);
+        control.start();
+
+        final int threadCount = 4;
+        final int incrementsPerThread = 2000;
+        final String[] keys = {"a", "b"};
+        final CountDownLatch startSignal = new CountDownLatch(1);
+        final List<Thread> threads = new ArrayList<>();
+        for (int i = 0; i < threadCount; i++) {
+            final Thread thread = new Thread(() -> {
+                try {
+                    startSignal.await();
+                } catch (final InterruptedException exc) {
+                    return;
+                }
+                for (int j = 0; j < incrementsPerThread; j++) {
+                    control.signalEvent(StateEvents.builder(INCREMENT).withEventData(KEY, keys[j % 2]).build());
+                }
+            });
+            thread.start();
+            threads.add(thread);
+        }
+        startSignal.countDown();
+        for (final Thread thread : threads) {
+            thread.join();
+        }
+
+        final int expected = threadCount * incrementsPerThread / 2;
+        for (final String key : keys) {
+            final CounterData data = dataManager.getCommittedStateTableData(key);
+            assertThat(data).isNotNull();
+            assertThat(data.getCount()).isEqualTo(expected);
+            assertThat(data.getVersion()).isEqualTo(expected);
+            assertThat(data.getCurrentState()).isEqualTo(COUNTING);
+        }
+        LOGGER.debug("Conflicts: {}, Fallbacks: {}", control.getConflictCount(), control.getFallbackCount());
+    }
+
+    @Test(expected = StateDefException.class)
+    public void testRejectsActorsThatAreNotRetrySafe() {
+        final StateTable<UnsafeCounterData, StateEventWithDataMap> stateTable =
+                new StateTableBuilderImpl<UnsafeCounterData, StateEventWithDataMap>()
+                        .withStateTableDefinition()
+                            .usingActorsInClass(UnsafeCounterData.class)
+                            .withState(COUNTING)
+                                .transitionOnEvent(INCREMENT)
+                                    .toState(StateDef.STAY_IN_STATE)
+                                    .withActorsByName("unsafeIncrement")
+                                    .endTransition()
+                                .endState()
+                            .endDefinition()
+                        .withStateTableDataManager(new OptimisticStateTableDataManagerImpl<>(
+                                e -> (String) e.getEventData(KEY),
+                                k -> new UnsafeCounterData(),
+                                d -> { throw new UnsupportedOperationException(); }))
+                        .build();
+        new OptimisticStateTableControl<>(stateTable);
+    }
+}
@@ -0,0 +1,226 @@
+/*
+ * Copyright 2000-2016 Worth Enterprises, Inc.  All rights reserved.
+ */
+package com.worthent.foundation.util.state.provider;
+
+import com.worthent.foundation.util.state.AbstractStateTableData;
+import com.worthent.foundation.util.state.StateEventWithDataMap;
+import com.worthent.foundation.util.state.StateEvents;
+import com.worthent.foundation.util.state.StateTable;
+import com.worthent.foundation.util.state.def.StateDef;
+import com.worthent.foundation.util.state.impl.StateTableBuilderImpl;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TestWatcher;
+import org.junit.runner.Description;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Test cases for the control that processes keyed events on lanes and the manager that moves partitions between them.
+ *
+ * @author Erik K. Worth
+ */
+public class PartitionedStateTableControlTest {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(PartitionedStateTableControlTest.class);
+
+    private static final String COUNTING = "Counting";
+    private static final String INCREMENT = "Increment";
+    private static final String KEY = "key";
+    private static final String SEQUENCE = "sequence";
+    private static final String WORK_NANOS = "workNanos";
+
+    @Rule
+    public TestWatcher watchman= new TestWatcher() {
+        @Override
+        public void starting(final Description description) {
+            LOGGER.debug("Starting test {}", description.getMethodName());
+        }
+    };
+
+    /** State table data that checks each event for its key arrives in sequence */
+    public static class SequenceData extends AbstractStateTableData {
+        private volatile int count;
+        private volatile int outOfOrderCount;
+
+        public SequenceData() {
+            super(COUNTING, COUNTING);
+        }
+
+        void accept(final int sequence) {
+            if (sequence != count) {
+                outOfOrderCount++;
+            }
+            count++;
+        }
+    }
+
+    private ConcurrentMap<String, SequenceData> instances;
+
+    private StateTable<SequenceData, StateEventWithDataMap> stateTable;
+
+    @Before
+    public void setup() {
+        instances = new ConcurrentHashMap<>();
+        stateTable = new StateTableBuilderImpl<SequenceData, StateEventWithDataMap>()
+                .withStateTableDefinition()
+                    .setName("Sequence")
+                    .withState(COUNTING)
+                        .transitionOnEvent(INCREMENT)
+                            .toState(StateDef.STAY_IN_STATE)
+                            .withActor(context -> {
+                                final StateEventWithDataMap event = context.getEvent();
+                                final Long workNanos = event.getEventData(WORK_NANOS);
+                                if (null != workNanos) {
+                                    LockSupport.parkNanos(workNanos);
+                                }
+                                context.getStateTableData().accept(event.getEventData(SEQUENCE));
+                            })
+                            .endTransition()
+                        .endState()
+                    .endDefinition()
+                .withStateTableDataManager()
+                    .withDataGetter(e -> instances.computeIfAbsent(
+                            (String) e.getEventData(KEY), k -> new SequenceData()))
+                    .endDataManager()
+                .build();
+    }
+
+    @Test
+    public void testMigrationPreservesOrderForEachKey() throws Exception {
+        final String[] keys = {"a", "b", "c", "d", "e", "f", "g", "h"};
+        final int eventsPerKey = 2000;
+        try (final PartitionedStateTableControl<SequenceData, StateEventWithDataMap> control =
+                     new PartitionedStateTableControl<>(stateTable, e -> e.getEventData(KEY), 2, 8, null)) {
+            control.start();
+            for (int i = 0; i < eventsPerKey; i++) {
+                for (final String key : keys) {
+                    control.signalEvent(event(key, i, null));
+                }
+                if (i % 100 == 50) {
+                    // Keep moving every partition to the other lane while events flow
+                    for (int partition = 0; partition < control.getPartitionCount(); partition++) {
+                        control.migratePartition(partition, 1 - control.getLane(partition));
+                    }
+                }
+            }
+            awaitProcessed(keys, eventsPerKey);
+
+            assertThat(control.getMigrationCount()).isGreaterThan(0L);
+            long processed = 0L;
+            for (final PartitionStatistics statistics : control.getPartitionStatistics()) {
+                LOGGER.debug("{}", statistics);
+                assertThat(statistics.getQueueDepth()).isZero();
+                processed += statistics.getProcessedCount();
+            }
+            assertThat(processed).isEqualTo((long) keys.length * eventsPerKey);
+            for (final String key : keys) {
+                assertThat(instances.get(key).outOfOrderCount).as("out of order events for " + key).isZero();
+            }
+        }
+    }
+
+    @Test
+    public void testManagerMovesPartitionsOffTheBusyLane() throws Exception {
+        try (final PartitionedStateTableControl<SequenceData, StateEventWithDataMap> control =
+                     new PartitionedStateTableControl<>(stateTable, e -> e.getEventData(KEY), 2, 8, null);
+             final LoadAwarePartitionManager manager = new LoadAwarePartitionManager(control)) {
+            control.start();
+            // Find two keys in different partitions that both start on lane 0
+            final String[] hotKeys = new String[2];
+            int found = 0;
+            int previousPartition = -1;
+            for (int i = 0; found < hotKeys.length; i++) {
+                final String key = "key" + i;
+                final int partition = control.getPartition(event(key, 0, null));
+                if (control.getLane(partition) == 0 && partition != previousPartition) {
+                    hotKeys[found++] = key;
+                    previousPartition = partition;
+                }
+            }
+            final long workNanos = TimeUnit.MICROSECONDS.toNanos(200L);
+            for (int i = 0; i < 20; i++) {
+                for (final String key : hotKeys) {
+                    control.signalEvent(event(key, i, workNanos));
+                }
+            }
+            awaitProcessed(hotKeys, 20);
+
+            assertThat(manager.rebalance()).isEqualTo(1);
+            final int firstPartition = control.getPartition(event(hotKeys[0], 0, null));
+            final int secondPartition = control.getPartition(event(hotKeys[1], 0, null));
+            awaitHandover(control, firstPartition);
+            awaitHandover(control, secondPartition);
+            assertThat(control.getLane(firstPartition) + control.getLane(secondPartition)).isEqualTo(1);
+
+            // The load is now even, so there is nothing more to move
+            for (int i = 20; i < 40; i++) {
+                for (final String key : hotKeys) {
+                    control.signalEvent(event(key, i, workNanos));
+                }
+            }
+            awaitProcessed(hotKeys, 40);
+            assertThat(manager.rebalance()).isZero();
+            for (final String key : hotKeys) {
+                assertThat(instances.get(key).outOfOrderCount).isZero();
+            }
+        }
+    }
+
+    @Test
+    public void testStopRejectsEventsHeldForMigration() throws Exception {
+        try (final PartitionedStateTableControl<SequenceData, StateEventWithDataMap> control =
+                     new PartitionedStateTableControl<>(
+                             stateTable, e -> e.getEventData(KEY), 2, 8, null, BackoffIdleStrategy::new)) {
+            control.start();
+            final int partition = control.getPartition(event("a", 0, null));
+            // Keep the lane busy so the handover stays queued behind the slow event
+            control.signalEvent(event("a", 0, TimeUnit.MILLISECONDS.toNanos(300L)));
+            assertThat(control.migratePartition(partition, 1 - control.getLane(partition))).isTrue();
+            for (int i = 1; i <= 3; i++) {
+                control.signalEvent(event("a", i, null));
+            }
+            control.stop();
+
+            assertThat(control.getRejectedCount()).isEqualTo(3L);
+            assertThat(control.isMigrating(partition)).isFalse();
+        }
+    }
+
+    private static StateEventWithDataMap event(final String key, final int sequence, final Long workNanos) {
+        return StateEvents.builder(INCREMENT)
+                .withEventData(KEY, key)
+                .withEventData(SEQUENCE, sequence)
+                .withEventData(WORK_NANOS, workNanos)
+                .build();
+    }
+
+    private void awaitProcessed(final String[] keys, final int eventsPerKey) throws InterruptedException {
+        final long deadline = System.currentTimeMillis() + 10000L;
+        for (final String key : keys) {
+            while (null == instances.get(key) || instances.get(key).count < eventsPerKey) {
+                assertThat(System.currentTimeMillis()).as("timed out waiting for " + key).isLessThan(deadline);
+                Thread.sleep(1L);
+            }
+        }
+    }
+
+    private static void awaitHandover(
+            final PartitionedStateTableControl<?, ?> control,
+            final int partition) throws InterruptedException {
+        final long deadline = System.currentTimeMillis() + 10000L;
+        while (control.isMigrating(partition)) {
+            assertThat(System.currentTimeMillis()).isLessThan(deadline);
+            Thread.sleep(1L);
+        }
+    }
+}
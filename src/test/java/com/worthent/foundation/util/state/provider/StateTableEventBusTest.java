@@ -0,0 +1,219 @@
+/*
+ * Copyright 2000-2016 Worth Enterprises, Inc.  All rights reserved.
+ */
+package com.worthent.foundation.util.state.provider;
+
+import com.worthent.foundation.util.state.StateEvent;
+import com.worthent.foundation.util.state.StateEvents;
+import com.worthent.foundation.util.state.StateExeException;
+import com.worthent.foundation.util.state.StateTable;
+import com.worthent.foundation.util.state.StateTableControl;
+import com.worthent.foundation.util.state.def.StateDef;
+import com.worthent.foundation.util.state.def.StateTableDef;
+import com.worthent.foundation.util.state.def.StateTransitionDefs;
+import com.worthent.foundation.util.state.def.impl.StateTableDefBuilderImpl;
+import com.worthent.foundation.util.state.examples.turnstyle.TurnstileData;
+import com.worthent.foundation.util.state.impl.StateTableBuilderImpl;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+import org.junit.rules.TestWatcher;
+import org.junit.runner.Description;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.LinkedList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Test cases for routing events to many state tables through the event bus.
+ *
+ * @author Erik K. Worth
+ */
+public class StateTableEventBusTest {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(StateTableEventBusTest.class);
+
+    private static final String OFF = "OFF";
+    private static final String LOCKED = "LOCKED";
+    private static final String UNLOCKED = "UNLOCKED";
+
+    @Rule
+    public TestWatcher watchman= new TestWatcher() {
+        @Override
+        public void starting(final Description description) {
+            LOGGER.debug("Starting test {}", description.getMethodName());
+        }
+    };
+
+    @Rule
+    public ExpectedException thrown = ExpectedException.none();
+
+    private static final StateTableDef<TurnstileData, StateEvent> TABLE_DEF = newTurnstileDef();
+
+    @Test
+    public void testRoutesOnlyToInterestedTables() {
+        final StateTableEventBus<StateEvent> bus = new StateTableEventBus<>();
+        final TurnstileData[] first = {new TurnstileData(new LinkedList<>())};
+        final TurnstileData[] second = {new TurnstileData(new LinkedList<>())};
+        final StateTableControl<StateEvent> firstControl = newControl(first);
+        final StateTableControl<StateEvent> secondControl = newControl(second);
+        firstControl.start();
+        secondControl.start();
+        final StateTableEventBus.Registration<StateEvent> firstRegistration =
+                bus.register(TABLE_DEF, firstControl, () -> first[0].getCurrentState());
+        bus.register(TABLE_DEF, secondControl, () -> second[0].getCurrentState());
+        assertThat(firstRegistration.getIndexedState()).isEqualTo(OFF);
+
+        // Both tables are off and ignore the push
+        assertThat(bus.publish(StateEvents.builder("PUSH").build())).isZero();
+        assertThat(bus.getSkippedCount()).isEqualTo(2);
+
+        // Turn on only the first table directly through its control and tell the bus
+        firstControl.signalEvent(StateEvents.builder("ON").build());
+        firstRegistration.refresh();
+        assertThat(firstRegistration.getIndexedState()).isEqualTo(LOCKED);
+
+        // Only the locked table cares about a ticket, which unlocks it
+        assertThat(bus.publish(StateEvents.builder("TICKET").build())).isEqualTo(1);
+        assertThat(first[0].getCurrentState()).isEqualTo(UNLOCKED);
+        assertThat(second[0].getCurrentState()).isEqualTo(OFF);
+        assertThat(firstRegistration.getIndexedState()).isEqualTo(UNLOCKED);
+
+        // The off table turns on while the unlocked table would reject the event as unexpected and is skipped
+        assertThat(bus.publish(StateEvents.builder("ON").build())).isEqualTo(1);
+        assertThat(second[0].getCurrentState()).isEqualTo(LOCKED);
+        assertThat(first[0].getCurrentState()).isEqualTo(UNLOCKED);
+
+        firstRegistration.unregister();
+        assertThat(bus.getRegistrationCount()).isEqualTo(1);
+        assertThat(bus.publish(StateEvents.builder("PUSH").build())).isZero();
+        assertThat(first[0].getCurrentState()).isEqualTo(UNLOCKED);
+    }
+
+    @Test
+    public void testRoutesUnexpectedEventsWhenRequested() {
+        final StateTableEventBus<StateEvent> bus = new StateTableEventBus<>(true);
+        final TurnstileData[] data = {new TurnstileData(new LinkedList<>())};
+        final StateTableControl<StateEvent> control = newControl(data);
+        control.start();
+        control.signalEvent(StateEvents.builder("ON").build());
+        bus.register(TABLE_DEF, control, () -> data[0].getCurrentState());
+
+        thrown.expect(StateExeException.class);
+        bus.publish(StateEvents.builder("PUSH").build());
+    }
+
+    @Test
+    public void testRoutesToActorlessDefaultTransitionsThatChangeState() {
+        final StateTableDef<TurnstileData, StateEvent> tableDef = new StateTableDefBuilderImpl<TurnstileData, StateEvent>()
+                .setName("SelfLockingTurnstile")
+                .withState(OFF)
+                    .transitionOnEvent("ON").toState(UNLOCKED).endTransition()
+                    .withDefaultEventHandler(StateTransitionDefs.getNoActionDefaultTransition())
+                    .endState()
+                .withState(UNLOCKED)
+                    .transitionOnEvent("PUSH").toState(LOCKED).endTransition()
+                    .withDefaultEventHandler().toState(LOCKED).endTransition()
+                    .endState()
+                .withState(LOCKED)
+                    .transitionOnEvent("OFF").toState(OFF).endTransition()
+                    .withDefaultEventHandler(StateTransitionDefs.getNoActionDefaultTransition())
+                    .endState()
+                .build();
+        final StateTableEventBus<StateEvent> bus = new StateTableEventBus<>();
+        final List<String> deliveries = new ArrayList<>();
+        final List<TurnstileData[]> tables = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            final TurnstileData[] data = {new TurnstileData(new LinkedList<>())};
+            final StateTableControl<StateEvent> control = newRecordingControl(tableDef, data, "table" + i, deliveries);
+            control.start();
+            control.signalEvent(StateEvents.builder("ON").build());
+            bus.register(tableDef, control, () -> data[0].getCurrentState());
+            tables.add(data);
+        }
+        deliveries.clear();
+
+        // Any event moves the unlocked tables through their default transition, which has no actors
+        assertThat(bus.publish(StateEvents.builder("WAVE").build())).isEqualTo(3);
+        assertThat(deliveries).containsExactly("table0", "table1", "table2");
+        for (final TurnstileData[] data : tables) {
+            assertThat(data[0].getCurrentState()).isEqualTo(LOCKED);
+        }
+        assertThat(bus.publish(StateEvents.builder("WAVE").build())).isZero();
+    }
+
+    private static StateTableControl<StateEvent> newRecordingControl(
+            final StateTableDef<TurnstileData, StateEvent> tableDef,
+            final TurnstileData[] data,
+            final String name,
+            final List<String> deliveries) {
+        final StateTable<TurnstileData, StateEvent> stateTable = new StateTableBuilderImpl<TurnstileData, StateEvent>()
+                .withStateTableDefinition(tableDef)
+                .withStateTableDataManager()
+                    .withDataGetter(e -> data[0])
+                    .withDataSetter((e, d) -> data[0] = d)
+                    .endDataManager()
+                .build();
+        final StateTableControl<StateEvent> control = new SerialStateTableControl<>(stateTable);
+        return new StateTableControl<StateEvent>() {
+            @Override
+            public void start() {
+                control.start();
+            }
+
+            @Override
+            public void stop() {
+                control.stop();
+            }
+
+            @Override
+            public void signalEvent(final StateEvent event) {
+                deliveries.add(name);
+                control.signalEvent(event);
+            }
+        };
+    }
+
+    private static StateTableControl<StateEvent> newControl(final TurnstileData[] data) {
+        final StateTable<TurnstileData, StateEvent> stateTable = new StateTableBuilderImpl<TurnstileData, StateEvent>()
+                .withStateTableDefinition(TABLE_DEF)
+                .withStateTableDataManager()
+                    .withDataGetter(e -> data[0])
+                    .withDataSetter((e, d) -> data[0] = d)
+                    .endDataManager()
+                .build();
+        return new SerialStateTableControl<>(stateTable);
+    }
+
+    private static StateTableDef<TurnstileData, StateEvent> newTurnstileDef() {
+        return new StateTableDefBuilderImpl<TurnstileData, StateEvent>()
+                .setName("RoutedTurnstile")
+                .usingActorsInClass(TurnstileData.class)
+                .withState(OFF)
+                    .transitionOnEvent("ON").toState(LOCKED).endTransition()
+                    .withDefaultEventHandler(StateTransitionDefs.getNoActionDefaultTransition())
+                    .endState()
+                .withState(LOCKED)
+                    .transitionOnEvent("TICKET")
+                        .toState(UNLOCKED)
+                        .withActorsByName(TurnstileData.INCREMENT_COUNT)
+                        .endTransition()
+                    .transitionOnEvent("ON").toState(StateDef.STAY_IN_STATE).endTransition()
+                    .transitionOnEvent("OFF").toState(OFF).endTransition()
+                    .withDefaultEventHandler(StateTransitionDefs.getUnexpectedEventDefaultTransition())
+                    .endState()
+                .withState(UNLOCKED)
+                    .transitionOnEvent("PUSH")
+                        .toState(LOCKED)
+                        .withActorsByName(TurnstileData.INCREMENT_COUNT)
+                        .endTransition()
+                    .transitionOnEvent("OFF").toState(OFF).endTransition()
+                    .withDefaultEventHandler(StateTransitionDefs.getUnexpectedEventDefaultTransition())
+                    .endState()
+                .build();
+    }
+}
@@ -0,0 +1,162 @@
+/*
+ * Copyright 2000-2016 Worth Enterprises, Inc.  All rights reserved.
+ */
+package com.worthent.foundation.util.state.provider;
+
+import com.worthent.foundation.util.state.AbstractStateTableData;
+import com.worthent.foundation.util.state.StateEventWithDataMap;
+import com.worthent.foundation.util.state.StateEvents;
+import com.worthent.foundation.util.state.StateTable;
+import com.worthent.foundation.util.state.annotation.Actor;
+import com.worthent.foundation.util.state.data.StateTableDataManager;
+import com.worthent.foundation.util.state.data.StripeStatistics;
+import com.worthent.foundation.util.state.data.impl.StateTableDataManagerBuilderImpl;
+import com.worthent.foundation.util.state.data.impl.StripedLockStateTableDataManager;
+import com.worthent.foundation.util.state.def.StateDef;
+import com.worthent.foundation.util.state.def.StateDefException;
+import com.worthent.foundation.util.state.impl.StateTableBuilderImpl;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TestWatcher;
+import org.junit.runner.Description;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.fail;
+
+/**
+ * Test cases for the control that processes events on the calling threads under striped locks.
+ *
+ * @author Erik K. Worth
+ */
+public class StripedLockStateTableControlTest {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(StripedLockStateTableControlTest.class);
+
+    private static final String COUNTING = "Counting";
+    private static final String INCREMENT = "Increment";
+    private static final String KEY = "key";
+
+    @Rule
+    public TestWatcher watchman= new TestWatcher() {
+        @Override
+        public void starting(final Description description) {
+            LOGGER.debug("Starting test {}", description.getMethodName());
+        }
+    };
+
+    /** State table data with a counter that is not thread safe on its own */
+    public static class CounterData extends AbstractStateTableData {
+        private int count;
+
+        public CounterData() {
+            super(COUNTING, COUNTING);
+        }
+
+        @Actor
+        public void increment() {
+            count++;
+        }
+
+        public int getCount() {
+            return count;
+        }
+    }
+
+    @Test
+    public void testEventsForTheSameKeySerialize() throws Exception {
+        final ConcurrentMap<String, CounterData> instances = new ConcurrentHashMap<>();
+        final StateTable<CounterData, StateEventWithDataMap> stateTable =
+                new StateTableBuilderImpl<CounterData, StateEventWithDataMap>()
+                        .withStateTableDefinition()
+                            .setName("Counter")
+                            .usingActorsInClass(CounterData.class)
+                            .withState(COUNTING)
+                                .transitionOnEvent(INCREMENT)
+                                    .toState(StateDef.STAY_IN_STATE)
+                                    .withActorsByName("increment")
+                                    .endTransition()
+                                .endState()
+                            .endDefinition()
+                        .withStateTableDataManager()
+                            .withDataGetter(e -> instances.computeIfAbsent(
+                                    (String) e.getEventData(KEY), k -> new CounterData()))
+                            .withStripedLocking(e -> e.getEventData(KEY), 4)
+                            .endDataManager()
+                        .build();
+        final StripedLockStateTableControl<CounterData, StateEventWithDataMap> control =
+                new StripedLockStateTableControl<>(stateTable);
+        control.start();
+
+        final int threadCount = 4;
+        final int eventsPerThread = 4000;
+        final String[] keys = {"a", "b", "c", "d", "e", "f", "g", "h"};
+        final List<Thread> threads = new ArrayList<>();
+        for (int i = 0; i < threadCount; i++) {
+            final Thread thread = new Thread(() -> {
+                for (int j = 0; j < eventsPerThread; j++) {
+                    control.signalEvent(
+                            StateEvents.builder(INCREMENT).withEventData(KEY, keys[j % keys.length]).build());
+                }
+            });
+            thread.start();
+            threads.add(thread);
+        }
+        for (final Thread thread : threads) {
+            thread.join();
+        }
+
+        for (final String key : keys) {
+            assertThat(instances.get(key).getCount()).isEqualTo(threadCount * eventsPerThread / keys.length);
+        }
+        final List<StripeStatistics> statistics = control.getStripeStatistics();
+        assertThat(statistics).hasSize(4);
+        long acquisitions = 0;
+        for (final StripeStatistics stripeStatistics : statistics) {
+            LOGGER.debug("{}", stripeStatistics);
+            acquisitions += stripeStatistics.getAcquisitions();
+        }
+        assertThat(acquisitions).isEqualTo(threadCount * eventsPerThread);
+    }
+
+    @Test
+    public void testStripeCountIsBounded() {
+        final StateTableDataManager<CounterData, StateEventWithDataMap> dataManager =
+                new StateTableDataManagerBuilderImpl<CounterData, StateEventWithDataMap>()
+                        .withDataGetter(e -> new CounterData())
+                        .build();
+        assertThat(new StripedLockStateTableDataManager<>(dataManager, e -> e.getEventData(KEY),
+                StripedLockStateTableDataManager.MAX_STRIPES).getStripeCount())
+                .isEqualTo(StripedLockStateTableDataManager.MAX_STRIPES);
+        try {
+            new StripedLockStateTableDataManager<>(dataManager, e -> e.getEventData(KEY),
+                    StripedLockStateTableDataManager.MAX_STRIPES + 1);
+            fail("Expected the stripe count to be rejected");
+        } catch (final StateDefException exc) {
+            assertThat(exc.getMessage()).contains(String.valueOf(StripedLockStateTableDataManager.MAX_STRIPES));
+        }
+    }
+
+    @Test(expected = StateDefException.class)
+    public void testRequiresStripedLockDataManager() {
+        final CounterData data = new CounterData();
+        final StateTable<CounterData, StateEventWithDataMap> stateTable =
+                new StateTableBuilderImpl<CounterData, StateEventWithDataMap>()
+                        .withStateTableDefinition()
+                            .withState(COUNTING)
+                                .transitionOnEvent(INCREMENT).toState(StateDef.STAY_IN_STATE).endTransition()
+                                .endState()
+                            .endDefinition()
+                        .withStateTableDataManager()
+                            .withDataGetter(e -> data)
+                            .endDataManager()
+                        .build();
+        new StripedLockStateTableControl<>(stateTable);
+    }
+}